@@ -41,8 +41,10 @@ import reactor.core.publisher.Flux;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -143,6 +145,38 @@ public abstract class AppServiceAppBase<
         Optional.ofNullable(getFileClient()).ifPresent(c -> c.uploadFileToPath(content, path));
     }
 
+    /**
+     * @see AppServiceKuduClient#uploadFile(Path, String, String)
+     */
+    @Nullable
+    public String uploadFile(@Nonnull Path source, @Nonnull String path, @Nullable String eTag) throws IOException {
+        final AppServiceKuduClient client = Objects.requireNonNull(getKuduManager(), "app is not created yet.");
+        return client.uploadFile(source, path, eTag);
+    }
+
+    /**
+     * @see AppServiceKuduClient#downloadFile(String, Path, boolean)
+     */
+    @Nullable
+    public String downloadFile(@Nonnull String path, @Nonnull Path target, boolean gzip) throws IOException {
+        final AppServiceKuduClient client = Objects.requireNonNull(getKuduManager(), "app is not created yet.");
+        return client.downloadFile(path, target, gzip);
+    }
+
+    /**
+     * @see AppServiceKuduClient#uploadDirectory(Path, String)
+     */
+    public void uploadDirectory(@Nonnull Path source, @Nonnull String path) throws IOException {
+        Objects.requireNonNull(getKuduManager(), "app is not created yet.").uploadDirectory(source, path);
+    }
+
+    /**
+     * @see AppServiceKuduClient#downloadDirectory(String, Path)
+     */
+    public void downloadDirectory(@Nonnull String path, @Nonnull Path target) throws IOException {
+        Objects.requireNonNull(getKuduManager(), "app is not created yet.").downloadDirectory(path, target);
+    }
+
     public void createDirectory(String path) {
         Optional.ofNullable(getFileClient()).ifPresent(c -> c.createDirectory(path));
     }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice;
+
+import com.azure.resourcemanager.appservice.models.WebAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.DiagnosticConfig;
+import com.microsoft.azure.toolkit.lib.appservice.model.DockerConfiguration;
+import com.microsoft.azure.toolkit.lib.appservice.model.FlexConsumptionConfiguration;
+import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
+import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlan;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import com.microsoft.azure.toolkit.lib.storage.StorageAccount;
+import lombok.Getter;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * semantic diff between the desired and the current configuration of an app service (app or deployment slot).
+ * every update of app settings, runtime or service plan restarts the site, so only what really changed is sent.
+ * {@code null} desired values mean "not specified" and never make a difference.
+ */
+@Getter
+public class AppServiceConfigDiff {
+    private static final String DOCKER_FX_VERSION_PREFIX = "DOCKER|";
+    private static final String DOCKER_IMAGE_DIGEST_SEPARATOR = "@sha256:";
+    private static final String SETTING_REGISTRY_USERNAME = "DOCKER_REGISTRY_SERVER_USERNAME";
+    private static final String SETTING_REGISTRY_PASSWORD = "DOCKER_REGISTRY_SERVER_PASSWORD";
+
+    @Nonnull
+    private final Map<String, String> oldAppSettings;
+    /**
+     * settings that are new or whose value changed.
+     */
+    @Nonnull
+    private final Map<String, String> appSettingsToAdd = new HashMap<>();
+    /**
+     * settings to remove that do exist and are not re-added.
+     */
+    @Nonnull
+    private final Set<String> appSettingsToRemove = new TreeSet<>();
+    private boolean runtimeModified;
+    private boolean planModified;
+    private boolean dockerConfigurationModified;
+    private boolean diagnosticConfigModified;
+    private boolean flexConsumptionConfigurationModified;
+    private boolean storageAccountModified;
+    /**
+     * readable description of each change, values of app settings are never included since they may be secrets.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final List<String> changes = new ArrayList<>();
+
+    public AppServiceConfigDiff(@Nullable Map<String, String> oldAppSettings) {
+        this.oldAppSettings = Optional.ofNullable(oldAppSettings).orElse(Collections.emptyMap());
+    }
+
+    @Nonnull
+    public AppServiceConfigDiff appSettings(@Nullable Map<String, String> desired, @Nullable Set<String> toRemove) {
+        final Map<String, String> settings = Optional.ofNullable(desired).orElse(Collections.emptyMap());
+        new TreeSet<>(settings.keySet()).forEach(key -> {
+            final String newValue = settings.get(key);
+            if (!oldAppSettings.containsKey(key)) {
+                changes.add(String.format("app setting (%s) is added", key));
+                appSettingsToAdd.put(key, newValue);
+            } else if (!StringUtils.equals(StringUtils.defaultString(oldAppSettings.get(key)), StringUtils.defaultString(newValue))) {
+                changes.add(String.format("app setting (%s) is changed", key));
+                appSettingsToAdd.put(key, newValue);
+            }
+        });
+        Optional.ofNullable(toRemove).orElse(Collections.emptySet()).stream()
+            .filter(oldAppSettings::containsKey)
+            .filter(key -> !settings.containsKey(key))
+            .forEach(appSettingsToRemove::add);
+        appSettingsToRemove.forEach(key -> changes.add(String.format("app setting (%s) is removed", key)));
+        return this;
+    }
+
+    /**
+     * runtime of docker based apps is described by docker configuration, see {@link #dockerConfiguration}
+     */
+    @Nonnull
+    public AppServiceConfigDiff runtime(@Nullable Runtime oldRuntime, @Nullable Runtime newRuntime) {
+        this.runtimeModified = Objects.nonNull(oldRuntime) && !oldRuntime.isDocker() && Objects.nonNull(newRuntime) && !Objects.equals(newRuntime, oldRuntime);
+        if (runtimeModified) {
+            changes.add(String.format("runtime is changed from (%s) to (%s)", oldRuntime, newRuntime));
+        }
+        return this;
+    }
+
+    @Nonnull
+    public AppServiceConfigDiff plan(@Nullable AppServicePlan oldPlan, @Nullable AppServicePlan newPlan) {
+        this.planModified = Objects.nonNull(newPlan) && !Objects.equals(newPlan, oldPlan);
+        if (planModified) {
+            changes.add(String.format("app service plan is changed from (%s) to (%s)",
+                Optional.ofNullable(oldPlan).map(AppServicePlan::getName).orElse(null), newPlan.getName()));
+        }
+        return this;
+    }
+
+    /**
+     * the image is compared with the linux fx version ({@code DOCKER|<image>}) and the registry credentials with the
+     * app settings where they are stored. start up command can't be read back, so a non-empty one is always sent.
+     * updating docker configuration is the only way to make the app pull the image again (e.g. a new build pushed
+     * as {@code app:latest}), so it's always sent unless the image is pinned by digest.
+     */
+    @Nonnull
+    public AppServiceConfigDiff dockerConfiguration(@Nullable Runtime oldRuntime, @Nullable String oldLinuxFxVersion, @Nullable DockerConfiguration newConfig) {
+        if (Objects.isNull(oldRuntime) || !oldRuntime.isDocker() || Objects.isNull(newConfig)) {
+            return this;
+        }
+        final String newFxVersion = DOCKER_FX_VERSION_PREFIX + newConfig.getImage();
+        final boolean imageModified = !StringUtils.equalsIgnoreCase(oldLinuxFxVersion, newFxVersion);
+        final boolean credentialModified = !StringUtils.equals(StringUtils.defaultString(oldAppSettings.get(SETTING_REGISTRY_USERNAME)), StringUtils.defaultString(newConfig.getUserName())) ||
+            !StringUtils.equals(StringUtils.defaultString(oldAppSettings.get(SETTING_REGISTRY_PASSWORD)), StringUtils.defaultString(newConfig.getPassword()));
+        final boolean startUpCommandSpecified = StringUtils.isNotBlank(newConfig.getStartUpCommand());
+        final boolean pinnedByDigest = StringUtils.contains(newConfig.getImage(), DOCKER_IMAGE_DIGEST_SEPARATOR);
+        this.dockerConfigurationModified = !pinnedByDigest || imageModified || credentialModified || startUpCommandSpecified;
+        if (imageModified) {
+            changes.add(String.format("docker image is changed from (%s) to (%s)", StringUtils.removeStartIgnoreCase(oldLinuxFxVersion, DOCKER_FX_VERSION_PREFIX), newConfig.getImage()));
+        } else if (!pinnedByDigest) {
+            changes.add(String.format("docker image (%s) is not pinned by digest and will be pulled again", newConfig.getImage()));
+        }
+        if (credentialModified) {
+            changes.add("docker registry credential is changed");
+        }
+        if (startUpCommandSpecified) {
+            changes.add("docker start up command is specified");
+        }
+        return this;
+    }
+
+    @Nonnull
+    public AppServiceConfigDiff diagnosticConfig(@Nullable DiagnosticConfig oldConfig, @Nullable DiagnosticConfig newConfig) {
+        this.diagnosticConfigModified = Objects.nonNull(newConfig) && !Objects.equals(newConfig, oldConfig);
+        if (diagnosticConfigModified) {
+            changes.add("diagnostic config is changed");
+        }
+        return this;
+    }
+
+    @Nonnull
+    public AppServiceConfigDiff flexConsumptionConfiguration(@Nullable FlexConsumptionConfiguration oldConfig, @Nullable FlexConsumptionConfiguration newConfig) {
+        this.flexConsumptionConfigurationModified = Objects.nonNull(newConfig) && !Objects.equals(newConfig, oldConfig);
+        if (flexConsumptionConfigurationModified) {
+            changes.add("flex consumption configuration is changed");
+        }
+        return this;
+    }
+
+    /**
+     * storage account of a function app can't be read back, so a specified one is always sent.
+     */
+    @Nonnull
+    public AppServiceConfigDiff storageAccount(@Nullable StorageAccount newAccount) {
+        this.storageAccountModified = Objects.nonNull(newAccount);
+        if (storageAccountModified) {
+            changes.add(String.format("storage account (%s) is specified", newAccount.getName()));
+        }
+        return this;
+    }
+
+    /**
+     * updates the app/slot with this diff, the update is neither created nor applied if the diff is empty.
+     *
+     * @param update    creates the update of {@code remote}, e.g. {@code WebApp::update}
+     * @param configure sets the changes other than app settings, which are specific to the type of the app/slot
+     * @param type      readable type of the app/slot, e.g. "Web App"
+     * @return the updated app/slot, or {@code remote} itself if nothing changed
+     */
+    @Nonnull
+    public <T extends WebAppBase, U extends WebAppBase.Update<T>> T applyTo(@Nonnull T remote, @Nonnull Function<T, U> update,
+                                                                           @Nonnull Consumer<U> configure, @Nonnull String type) {
+        if (isEmpty()) {
+            return remote;
+        }
+        final U draft = update.apply(remote);
+        Optional.of(appSettingsToAdd).filter(MapUtils::isNotEmpty).ifPresent(draft::withAppSettings);
+        Optional.of(appSettingsToRemove).filter(CollectionUtils::isNotEmpty).ifPresent(s -> s.forEach(draft::withoutAppSetting));
+        configure.accept(draft);
+        final IAzureMessager messager = AzureMessager.getMessager();
+        messager.info(AzureString.format("Start updating {0}({1}): {2}", type, remote.name(), this.toString()));
+        final T result = draft.apply();
+        messager.success(AzureString.format("{0}({1}) is successfully updated", type, result.name()));
+        return result;
+    }
+
+    public boolean isAppSettingsModified() {
+        return !appSettingsToAdd.isEmpty() || !appSettingsToRemove.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    @Nonnull
+    public List<String> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    @Override
+    public String toString() {
+        return isEmpty() ? "no changes" : String.join(", ", changes);
+    }
+}
@@ -4,17 +4,33 @@
  */
 package com.microsoft.azure.toolkit.lib.appservice.deploy;
 
+import com.azure.core.http.HttpClient;
 import com.azure.resourcemanager.appservice.models.AppSetting;
 import com.azure.resourcemanager.appservice.models.FunctionApp;
 import com.azure.resourcemanager.appservice.models.FunctionDeploymentSlot;
 import com.azure.resourcemanager.appservice.models.WebAppBase;
-import com.microsoft.azure.storage.CloudStorageAccount;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.sas.BlobSasPermission;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+import com.azure.storage.common.sas.SasProtocol;
+import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
+import com.microsoft.azure.toolkit.lib.appservice.model.PricingTier;
+import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
+import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlan;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
 import org.apache.commons.lang3.StringUtils;
 
-import java.net.URISyntaxException;
-import java.security.InvalidKeyException;
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 class DeployUtils {
     private static final String INTERNAL_STORAGE_NOT_FOUND = "Application setting 'AzureWebJobsStorage' is not found, " +
@@ -23,13 +39,17 @@ class DeployUtils {
             "please check the application setting and try again later.";
     private static final String INTERNAL_STORAGE_KEY = "AzureWebJobsStorage";
     private static final String UNSUPPORTED_DEPLOYMENT_TARGET = "Unsupported deployment target, only function is supported";
+    private static final Map<String, BlobServiceClient> BLOB_SERVICE_CLIENTS = new ConcurrentHashMap<>();
+    // tolerates clock skew between local machine and azure storage
+    private static final Duration SAS_START_TIME_RESERVE = Duration.ofMinutes(5);
 
     /**
-     * Get storage account specified within AzureWebJobsStorage for function app/slot
+     * Get connection string of the storage account specified within AzureWebJobsStorage for function app/slot
      * @param functionApp target function/slot, using WebAppBase here which is the base class for function app/slot in sdk
-     * @return StorageAccount specified in AzureWebJobsStorage
+     * @return connection string specified in AzureWebJobsStorage
      */
-    static CloudStorageAccount getCloudStorageAccount(final WebAppBase functionApp) {
+    @Nonnull
+    static String getStorageConnectionString(final WebAppBase functionApp) {
         // Call functionApp.getSiteAppSettings() to get the app settings with key vault reference
         final String connectionString = Optional.ofNullable(functionApp.getSiteAppSettings())
                 .map(map -> map.get(INTERNAL_STORAGE_KEY))
@@ -39,15 +59,39 @@ class DeployUtils {
         if (StringUtils.isEmpty(connectionString)) {
             throw new AzureToolkitRuntimeException(INTERNAL_STORAGE_NOT_FOUND);
         }
+        return connectionString;
+    }
+
+    /**
+     * @return blob service client of the storage account, clients are cached by connection string and shared across deployments
+     */
+    @Nonnull
+    static BlobServiceClient getBlobServiceClient(@Nonnull final String connectionString) {
+        return getBlobServiceClient(connectionString, AbstractAzServiceSubscription::getDefaultHttpClient);
+    }
+
+    @Nonnull
+    static BlobServiceClient getBlobServiceClient(@Nonnull final String connectionString, @Nonnull final Supplier<HttpClient> httpClient) {
         try {
-            return CloudStorageAccount.parse(connectionString);
-        } catch (final AzureToolkitRuntimeException e) {
-            throw e;
-        } catch (InvalidKeyException | URISyntaxException | RuntimeException e) {
+            return BLOB_SERVICE_CLIENTS.computeIfAbsent(connectionString, key -> new BlobServiceClientBuilder()
+                .httpClient(httpClient.get()).connectionString(key).buildClient());
+        } catch (final RuntimeException e) {
             throw new AzureToolkitRuntimeException(INVALID_STORAGE_CONNECTION_STRING, e);
         }
     }
 
+    /**
+     * @return url of the blob with a newly generated read-only SAS token scoped to the blob only
+     */
+    @Nonnull
+    static String getBlobSasUrl(@Nonnull final BlobClient blob, @Nonnull final Duration validity) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        final BlobServiceSasSignatureValues values = new BlobServiceSasSignatureValues(now.plus(validity), new BlobSasPermission().setReadPermission(true))
+            .setStartTime(now.minus(SAS_START_TIME_RESERVE))
+            .setProtocol(SasProtocol.HTTPS_ONLY);
+        return String.format("%s?%s", blob.getBlobUrl(), blob.generateSas(values));
+    }
+
     static void updateFunctionAppSetting(final WebAppBase deployTarget, final String key, final String value) {
         if (deployTarget instanceof FunctionApp) {
             ((FunctionApp) deployTarget).update().withAppSetting(key, value).apply();
@@ -57,4 +101,14 @@ class DeployUtils {
             throw new AzureToolkitRuntimeException(UNSUPPORTED_DEPLOYMENT_TARGET);
         }
     }
+
+    @Nonnull
+    static PricingTier getPricingTier(@Nonnull final FunctionAppBase<?, ?, ?> functionApp) {
+        return Optional.ofNullable(functionApp.getAppServicePlan()).map(AppServicePlan::getPricingTier).orElse(PricingTier.PREMIUM_P1V2);
+    }
+
+    @Nonnull
+    static OperatingSystem getOperatingSystem(@Nonnull final FunctionAppBase<?, ?, ?> functionApp) {
+        return Optional.ofNullable(functionApp.getRuntime()).map(Runtime::getOperatingSystem).orElse(OperatingSystem.LINUX);
+    }
 }
@@ -7,6 +7,7 @@ package com.microsoft.azure.toolkit.lib.appservice.deploy;
 import com.azure.resourcemanager.appservice.models.FunctionApp;
 import com.azure.resourcemanager.appservice.models.PublishingProfile;
 import com.azure.resourcemanager.appservice.models.WebAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
@@ -38,4 +39,9 @@ public class FTPFunctionDeployHandler implements IFunctionDeployHandler {
 
         AzureMessager.getMessager().info(String.format(DEPLOY_FINISH, webAppBase.defaultHostname()));
     }
+
+    @Override
+    public FunctionDeployType getDeployType() {
+        return FunctionDeployType.FTP;
+    }
 }
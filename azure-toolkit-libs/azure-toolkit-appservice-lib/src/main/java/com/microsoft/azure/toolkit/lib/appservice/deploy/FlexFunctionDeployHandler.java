@@ -10,6 +10,7 @@ import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.appservice.file.AppServiceKuduClient;
 import com.microsoft.azure.toolkit.lib.appservice.function.AzureFunctions;
 import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -38,4 +39,19 @@ public class FlexFunctionDeployHandler implements IFunctionDeployHandler {
         }
         AzureMessager.getMessager().info(String.format(DEPLOY_FINISH, functionAppBase.getHostName()));
     }
+
+    @Override
+    public FunctionDeployType getDeployType() {
+        return FunctionDeployType.FLEX;
+    }
+
+    @Override
+    public boolean isApplicable(@Nonnull final FunctionAppBase<?, ?, ?> functionApp) {
+        return DeployUtils.getPricingTier(functionApp).isFlexConsumption();
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.deploy;
+
+import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * registry of the {@link IFunctionDeployHandler}s provided through {@link ServiceLoader} (see
+ * {@code META-INF/services/com.microsoft.azure.toolkit.lib.appservice.deploy.IFunctionDeployHandler}), handlers are
+ * instantiated once and shared by all deployments.
+ */
+@Slf4j
+public class FunctionDeployHandlerRegistry {
+    private static final String UNSUPPORTED_DEPLOY_TYPE = "Unsupported deployment type: %s";
+    private static final String NO_APPLICABLE_HANDLER = "No deployment type is applicable to function app (%s), please specify one explicitly.";
+    private static final ServiceLoader<IFunctionDeployHandler> loader = ServiceLoader.load(IFunctionDeployHandler.class, FunctionDeployHandlerRegistry.class.getClassLoader());
+    private static final List<IFunctionDeployHandler> handlers = new ArrayList<>();
+    private static final List<IFunctionDeployHandler> registered = new ArrayList<>();
+    @Nullable
+    private static List<IFunctionDeployHandler> loaded;
+
+    private FunctionDeployHandlerRegistry() {
+    }
+
+    /**
+     * @return handlers registered explicitly and then the loaded ones, each ordered by {@link IFunctionDeployHandler#getOrder()}.
+     */
+    public static synchronized List<IFunctionDeployHandler> getHandlers() {
+        if (Objects.isNull(loaded)) {
+            reload();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(handlers));
+    }
+
+    /**
+     * registers a handler that takes precedence over the ones loaded through {@link ServiceLoader}. among registered
+     * handlers of the same order, the latest registered comes first.
+     */
+    public static synchronized void register(@Nonnull final IFunctionDeployHandler handler) {
+        registered.add(0, handler);
+        sort();
+    }
+
+    public static synchronized void unregister(@Nonnull final IFunctionDeployHandler handler) {
+        registered.remove(handler);
+        sort();
+    }
+
+    /**
+     * re-instantiates the handlers provided through {@link ServiceLoader}, e.g. after plugins are installed.
+     */
+    public static synchronized void reload() {
+        loader.reload();
+        final List<IFunctionDeployHandler> result = new ArrayList<>();
+        loader.forEach(result::add);
+        result.sort(Comparator.comparingInt(IFunctionDeployHandler::getOrder));
+        loaded = result;
+        sort();
+        log.debug("loaded function deploy handlers: {}", handlers);
+    }
+
+    /**
+     * rebuilds the ordered handlers from the registered and the loaded ones, without instantiating any handler.
+     */
+    private static void sort() {
+        registered.sort(Comparator.comparingInt(IFunctionDeployHandler::getOrder)); // stable
+        handlers.clear();
+        handlers.addAll(registered);
+        Optional.ofNullable(loaded).ifPresent(handlers::addAll);
+    }
+
+    @Nonnull
+    public static IFunctionDeployHandler getHandler(@Nonnull final FunctionDeployType deployType) {
+        return getHandlers().stream()
+            .filter(handler -> handler.getDeployType() == deployType)
+            .findFirst()
+            .orElseThrow(() -> new AzureToolkitRuntimeException(String.format(UNSUPPORTED_DEPLOY_TYPE, deployType)));
+    }
+
+    /**
+     * @return deploy type of the first handler whose capability probe accepts the function app/slot.
+     */
+    @Nonnull
+    public static FunctionDeployType getDefaultDeployType(@Nonnull final FunctionAppBase<?, ?, ?> functionApp) {
+        return getHandlers().stream()
+            .filter(handler -> handler.getDeployType() != null && handler.isApplicable(functionApp))
+            .map(IFunctionDeployHandler::getDeployType)
+            .findFirst()
+            .orElseThrow(() -> new AzureToolkitRuntimeException(String.format(NO_APPLICABLE_HANDLER, functionApp.getName())));
+    }
+}
@@ -6,11 +6,17 @@ package com.microsoft.azure.toolkit.lib.appservice.deploy;
 
 import com.azure.resourcemanager.appservice.models.WebAppBase;
 import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Objects;
 
+/**
+ * handlers are loaded by {@link FunctionDeployHandlerRegistry} and shared by all deployments, so they must be
+ * thread safe, and they may hold state (e.g. storage clients, upload pools) that is reused across deployments.
+ */
 public interface IFunctionDeployHandler {
     String DEPLOY_START = "Trying to deploy artifact to %s...";
     String DEPLOY_FINISH = "Successfully deployed the artifact to https://%s";
@@ -21,4 +27,28 @@ public interface IFunctionDeployHandler {
     default void deploy(@Nonnull final File file, @Nonnull final FunctionAppBase<?, ?, ?> functionAppBase) {
         this.deploy(file, Objects.requireNonNull(functionAppBase.getRemote(), String.format(FAILED_TO_GET_FUNCTION, functionAppBase.getId())));
     }
+
+    /**
+     * @return the deploy type this handler serves, handlers without type are never picked by the registry.
+     */
+    @Nullable
+    default FunctionDeployType getDeployType() {
+        return null;
+    }
+
+    /**
+     * capability probe used to pick the default deploy type of a function app/slot.
+     *
+     * @return true if this handler can deploy to the function app/slot without being asked explicitly.
+     */
+    default boolean isApplicable(@Nonnull final FunctionAppBase<?, ?, ?> functionApp) {
+        return false;
+    }
+
+    /**
+     * handlers with lower order are probed first, and take precedence over others serving the same deploy type.
+     */
+    default int getOrder() {
+        return Integer.MAX_VALUE;
+    }
 }
@@ -5,19 +5,19 @@
 package com.microsoft.azure.toolkit.lib.appservice.deploy;
 
 import com.azure.resourcemanager.appservice.models.WebAppBase;
-import com.microsoft.azure.storage.CloudStorageAccount;
-import com.microsoft.azure.storage.blob.BlobContainerPublicAccessType;
-import com.microsoft.azure.storage.blob.CloudBlockBlob;
-import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
-import com.microsoft.azure.toolkit.lib.legacy.function.AzureStorageHelper;
 import com.microsoft.azure.toolkit.lib.legacy.function.Constants;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.io.UncheckedIOException;
 import java.text.SimpleDateFormat;
-import java.time.Period;
+import java.time.Duration;
 import java.util.Date;
 
 public class MSFunctionDeployHandler implements IFunctionDeployHandler {
@@ -29,16 +29,18 @@ public class MSFunctionDeployHandler implements IFunctionDeployHandler {
     private static final String DELETE_PACKAGE_START = "Step 3 of 3: Deleting deployment package from Azure Storage...";
     private static final String DELETE_PACKAGE_DONE = "Successfully deleted deployment package ";
     private static final String DELETE_PACKAGE_FAIL = "Failed to delete deployment package ";
+    private static final Duration SAS_VALIDITY = Duration.ofDays(1);
 
     @Override
     public void deploy(@Nonnull final File file, @Nonnull final WebAppBase webAppBase) {
-        final CloudStorageAccount storageAccount = DeployUtils.getCloudStorageAccount(webAppBase);
+        final String connectionString = DeployUtils.getStorageConnectionString(webAppBase);
+        final BlobContainerClient container = DeployUtils.getBlobServiceClient(connectionString).getBlobContainerClient(DEPLOYMENT_PACKAGE_CONTAINER);
 
-        final String blobName = getBlobName(webAppBase);
+        final BlobClient blob = container.getBlobClient(getBlobName(webAppBase));
 
-        final String packageUri = uploadPackageToAzureStorage(file, storageAccount, blobName);
+        final String packageUri = uploadPackageToAzureStorage(file, blob);
 
-        deployWithPackageUri(webAppBase, packageUri, () -> deletePackageFromAzureStorage(storageAccount, blobName));
+        deployWithPackageUri(webAppBase, packageUri, () -> deletePackageFromAzureStorage(blob));
     }
 
     private String getBlobName(final WebAppBase functionApp) {
@@ -47,16 +49,16 @@ public class MSFunctionDeployHandler implements IFunctionDeployHandler {
                 .concat(Constants.ZIP_EXT);
     }
 
-    private String uploadPackageToAzureStorage(final File zipPackage, final CloudStorageAccount storageAccount,
-                                                 final String blobName) {
+    private String uploadPackageToAzureStorage(final File zipPackage, final BlobClient blob) {
         AzureMessager.getMessager().info(UPLOAD_PACKAGE_START);
         try {
-            final CloudBlockBlob blob = AzureStorageHelper.uploadFileAsBlob(zipPackage, storageAccount,
-                    DEPLOYMENT_PACKAGE_CONTAINER, blobName, BlobContainerPublicAccessType.OFF);
-            final String packageUri = AzureStorageHelper.getSASToken(blob, Period.ofDays(1)); // no need for a long period as it will be deleted after deployment
-            AzureMessager.getMessager().info(UPLOAD_PACKAGE_DONE + blob.getUri().toString());
+            blob.getContainerClient().createIfNotExists();
+            blob.uploadFromFile(zipPackage.getAbsolutePath(), true);
+            // no need for a long period as it will be deleted after deployment
+            final String packageUri = DeployUtils.getBlobSasUrl(blob, SAS_VALIDITY);
+            AzureMessager.getMessager().info(UPLOAD_PACKAGE_DONE + blob.getBlobUrl());
             return packageUri;
-        } catch (AzureExecutionException e) {
+        } catch (BlobStorageException | UncheckedIOException e) {
             throw new AzureToolkitRuntimeException("Failed to upload package to azure storage", e);
         }
     }
@@ -71,13 +73,18 @@ public class MSFunctionDeployHandler implements IFunctionDeployHandler {
         }
     }
 
-    private void deletePackageFromAzureStorage(final CloudStorageAccount storageAccount, final String blobName) {
+    private void deletePackageFromAzureStorage(final BlobClient blob) {
         try {
             AzureMessager.getMessager().info(DELETE_PACKAGE_START);
-            AzureStorageHelper.deleteBlob(storageAccount, DEPLOYMENT_PACKAGE_CONTAINER, blobName);
-            AzureMessager.getMessager().info(DELETE_PACKAGE_DONE + blobName);
+            blob.deleteIfExists();
+            AzureMessager.getMessager().info(DELETE_PACKAGE_DONE + blob.getBlobName());
         } catch (Exception e) {
-            AzureMessager.getMessager().error(DELETE_PACKAGE_FAIL + blobName);
+            AzureMessager.getMessager().error(DELETE_PACKAGE_FAIL + blob.getBlobName());
         }
     }
+
+    @Override
+    public FunctionDeployType getDeployType() {
+        return FunctionDeployType.MSDEPLOY;
+    }
 }
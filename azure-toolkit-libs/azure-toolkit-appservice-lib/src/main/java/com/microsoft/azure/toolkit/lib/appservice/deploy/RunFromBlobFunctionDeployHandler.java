@@ -5,77 +5,71 @@
 package com.microsoft.azure.toolkit.lib.appservice.deploy;
 
 import com.azure.resourcemanager.appservice.models.WebAppBase;
-import com.microsoft.azure.storage.CloudStorageAccount;
-import com.microsoft.azure.storage.StorageException;
-import com.microsoft.azure.storage.blob.BlobContainerPermissions;
-import com.microsoft.azure.storage.blob.BlobContainerPublicAccessType;
-import com.microsoft.azure.storage.blob.CloudBlobClient;
-import com.microsoft.azure.storage.blob.CloudBlobContainer;
-import com.microsoft.azure.storage.blob.CloudBlockBlob;
-import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.models.BlobContainerAccessPolicies;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
+import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
-import com.microsoft.azure.toolkit.lib.legacy.function.AzureStorageHelper;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import java.io.File;
-import java.net.URISyntaxException;
-import java.time.Period;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 
 import static com.microsoft.azure.toolkit.lib.legacy.function.Constants.APP_SETTING_WEBSITE_RUN_FROM_PACKAGE;
 
 public class RunFromBlobFunctionDeployHandler implements IFunctionDeployHandler {
-    private static final int SAS_EXPIRE_DATE_BY_YEAR = 10;
+    // run from package url is kept in app settings, the token is scoped to the package blob since the container is shared by apps
+    private static final Duration SAS_VALIDITY = Duration.ofDays(10 * 365);
     private static final String DEPLOYMENT_PACKAGE_CONTAINER = "java-functions-run-from-packages";
     private static final String FAILED_TO_GET_FUNCTION_APP_ARTIFACT_CONTAINER = "Failed to get Function App artifact container";
     private static final String UPDATE_ACCESS_LEVEL_TO_PRIVATE = "The blob container '%s' access level was updated to be private";
 
     @Override
     public void deploy(@Nonnull File file, @Nonnull WebAppBase target) {
-        final CloudStorageAccount storageAccount = DeployUtils.getCloudStorageAccount(target);
+        final String connectionString = DeployUtils.getStorageConnectionString(target);
         try {
-            final CloudBlockBlob blob = deployArtifactToAzureStorage(target, file, storageAccount);
-            final String sasToken = AzureStorageHelper.getSASToken(blob, Period.ofYears(SAS_EXPIRE_DATE_BY_YEAR));
-            DeployUtils.updateFunctionAppSetting(target, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, sasToken);
-        } catch (AzureExecutionException e) {
+            final BlobClient blob = deployArtifactToAzureStorage(target, file, DeployUtils.getBlobServiceClient(connectionString));
+            final String sasUrl = DeployUtils.getBlobSasUrl(blob, SAS_VALIDITY);
+            DeployUtils.updateFunctionAppSetting(target, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, sasUrl);
+        } catch (BlobStorageException | UncheckedIOException e) {
             throw new AzureToolkitRuntimeException("Failed to upload package to azure storage", e);
         }
     }
 
-    private CloudBlockBlob deployArtifactToAzureStorage(WebAppBase deployTarget, File zipPackage, CloudStorageAccount storageAccount)
-            throws AzureExecutionException {
+    private BlobClient deployArtifactToAzureStorage(WebAppBase deployTarget, File zipPackage, BlobServiceClient storageClient) {
         AzureMessager.getMessager().info(String.format(DEPLOY_START, deployTarget.name()));
-        final CloudBlobContainer container = getOrCreateArtifactContainer(storageAccount);
-        final String blobName = getBlobName(deployTarget, zipPackage);
-        final CloudBlockBlob blob = AzureStorageHelper.uploadFileAsBlob(zipPackage, storageAccount,
-                container.getName(), blobName, BlobContainerPublicAccessType.OFF);
+        final BlobContainerClient container = getOrCreateArtifactContainer(storageClient);
+        final BlobClient blob = container.getBlobClient(getBlobName(deployTarget, zipPackage));
+        blob.uploadFromFile(zipPackage.getAbsolutePath(), true);
         AzureMessager.getMessager().info(String.format(DEPLOY_FINISH, deployTarget.defaultHostname()));
         return blob;
     }
 
-    private CloudBlobContainer getOrCreateArtifactContainer(final CloudStorageAccount storageAccount) {
-        final CloudBlobClient blobContainer = storageAccount.createCloudBlobClient();
+    private BlobContainerClient getOrCreateArtifactContainer(final BlobServiceClient storageClient) {
         try {
-            final CloudBlobContainer container = blobContainer.getContainerReference(DEPLOYMENT_PACKAGE_CONTAINER);
-            if (!container.exists()) {
-                container.createIfNotExists(BlobContainerPublicAccessType.OFF, null, null);
-            } else {
+            final BlobContainerClient container = storageClient.getBlobContainerClient(DEPLOYMENT_PACKAGE_CONTAINER);
+            if (!container.createIfNotExists()) {
                 updateContainerPublicAccessLevel(container);
             }
             return container;
-        } catch (URISyntaxException | StorageException e) {
+        } catch (BlobStorageException e) {
             throw new AzureToolkitRuntimeException(FAILED_TO_GET_FUNCTION_APP_ARTIFACT_CONTAINER, e);
         }
     }
 
-    private void updateContainerPublicAccessLevel(final CloudBlobContainer container) throws StorageException {
-        final BlobContainerPermissions permissions = container.downloadPermissions();
-        if (permissions.getPublicAccess() == BlobContainerPublicAccessType.OFF) {
+    private void updateContainerPublicAccessLevel(final BlobContainerClient container) {
+        final BlobContainerAccessPolicies policies = container.getAccessPolicy();
+        if (policies.getBlobAccessType() == null) {
             return;
         }
-        permissions.setPublicAccess(BlobContainerPublicAccessType.OFF);
-        container.uploadPermissions(permissions);
+        container.setAccessPolicy(null, policies.getIdentifiers());
         AzureMessager.getMessager().info(String.format(UPDATE_ACCESS_LEVEL_TO_PRIVATE, DEPLOYMENT_PACKAGE_CONTAINER));
     }
 
@@ -84,4 +78,21 @@ public class RunFromBlobFunctionDeployHandler implements IFunctionDeployHandler
         final String fixedResourceId = StringUtils.replace(deployTarget.id(), "/", "-").replaceFirst("-", "");
         return String.format("%s-%s", fixedResourceId, zipPackage.getName());
     }
+
+    @Override
+    public FunctionDeployType getDeployType() {
+        return FunctionDeployType.RUN_FROM_BLOB;
+    }
+
+    @Override
+    public boolean isApplicable(@Nonnull final FunctionAppBase<?, ?, ?> functionApp) {
+        // linux consumption/elastic premium apps do not support run from local zip package
+        return DeployUtils.getOperatingSystem(functionApp) != OperatingSystem.WINDOWS &&
+            StringUtils.equalsAnyIgnoreCase(DeployUtils.getPricingTier(functionApp).getTier(), "Dynamic", "ElasticPremium");
+    }
+
+    @Override
+    public int getOrder() {
+        return 100;
+    }
 }
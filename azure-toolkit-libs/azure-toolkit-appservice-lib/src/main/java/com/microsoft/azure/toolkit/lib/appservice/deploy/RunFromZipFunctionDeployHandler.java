@@ -5,6 +5,8 @@
 package com.microsoft.azure.toolkit.lib.appservice.deploy;
 
 import com.azure.resourcemanager.appservice.models.WebAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
 
 import javax.annotation.Nonnull;
 import java.io.File;
@@ -26,4 +28,20 @@ public class RunFromZipFunctionDeployHandler extends ZIPFunctionDeployHandler {
         }
         super.deploy(file, functionApp);
     }
+
+    @Override
+    public FunctionDeployType getDeployType() {
+        return FunctionDeployType.RUN_FROM_ZIP;
+    }
+
+    @Override
+    public boolean isApplicable(@Nonnull final FunctionAppBase<?, ?, ?> functionApp) {
+        // fallback of other handlers, e.g. windows apps and linux dedicated apps
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return 1000;
+    }
 }
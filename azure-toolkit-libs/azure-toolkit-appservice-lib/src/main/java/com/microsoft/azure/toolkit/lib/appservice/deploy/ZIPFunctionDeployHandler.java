@@ -5,6 +5,7 @@
 package com.microsoft.azure.toolkit.lib.appservice.deploy;
 
 import com.azure.resourcemanager.appservice.models.WebAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 
 import javax.annotation.Nonnull;
@@ -17,4 +18,9 @@ public class ZIPFunctionDeployHandler implements IFunctionDeployHandler {
         functionApp.zipDeploy(file);
         AzureMessager.getMessager().info(String.format(DEPLOY_FINISH, functionApp.defaultHostname()));
     }
+
+    @Override
+    public FunctionDeployType getDeployType() {
+        return FunctionDeployType.ZIP;
+    }
 }
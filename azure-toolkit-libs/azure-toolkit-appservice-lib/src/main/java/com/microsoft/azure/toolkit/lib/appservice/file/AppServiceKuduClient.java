@@ -7,7 +7,9 @@ package com.microsoft.azure.toolkit.lib.appservice.file;
 
 import com.azure.core.annotation.BodyParam;
 import com.azure.core.annotation.Delete;
+import com.azure.core.annotation.ExpectedResponses;
 import com.azure.core.annotation.Get;
+import com.azure.core.annotation.Head;
 import com.azure.core.annotation.HeaderParam;
 import com.azure.core.annotation.Headers;
 import com.azure.core.annotation.Host;
@@ -16,11 +18,17 @@ import com.azure.core.annotation.PathParam;
 import com.azure.core.annotation.Post;
 import com.azure.core.annotation.Put;
 import com.azure.core.annotation.ServiceInterface;
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpPipeline;
 import com.azure.core.http.rest.Response;
 import com.azure.core.http.rest.RestProxy;
 import com.azure.core.http.rest.StreamResponse;
 import com.azure.core.util.FluxUtil;
 import com.azure.resourcemanager.appservice.models.WebAppBase;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.appservice.AppServiceAppBase;
 import com.microsoft.azure.toolkit.lib.appservice.model.AppServiceFile;
@@ -31,21 +39,45 @@ import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeExcep
 import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
 import lombok.Data;
 import lombok.experimental.SuperBuilder;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 public class AppServiceKuduClient implements IFileClient, IProcessClient {
     public static final String DEFAULT_TOOL_NAME = "Azure-Java-Toolkit";
@@ -53,11 +85,26 @@ public class AppServiceKuduClient implements IFileClient, IProcessClient {
     private final KuduService kuduService;
     private final AppServiceAppBase<?, ?, ?> app;
     private static final String HOME_PREFIX = "/home";
+    private static final String DIRECTORY_MIME = "inode/directory";
+    private static final int TRANSFER_CHUNK_SIZE = 64 * 1024;
+    private static final int PIPE_PREFETCH = 8; // chunks received ahead of the pipe
+    /**
+     * short-lived directory listings keyed by normalized path, invalidated by writes/deletes through this client.
+     * changes made by others (e.g. the app itself) are visible once the listing expires.
+     */
+    @Nullable
+    private final Cache<String, List<AppServiceFile>> listings;
 
-    private AppServiceKuduClient(String host, KuduService kuduService, AppServiceAppBase<?, ?, ?> app) {
+    private AppServiceKuduClient(String host, KuduService kuduService, AppServiceAppBase<?, ?, ?> app, Ticker ticker) {
         this.host = host;
         this.app = app;
         this.kuduService = kuduService;
+        final int ttl = Azure.az().config().getAppServiceFileListingCacheTtlInSeconds();
+        this.listings = ttl <= 0 ? null : CacheBuilder.newBuilder().ticker(ticker).expireAfterWrite(ttl, TimeUnit.SECONDS).maximumSize(256).build();
+    }
+
+    AppServiceKuduClient(String host, HttpPipeline pipeline, AppServiceAppBase<?, ?, ?> app, Ticker ticker) {
+        this(host, RestProxy.create(KuduService.class, pipeline), app, ticker);
     }
 
     public static AppServiceKuduClient getClient(@Nonnull WebAppBase webAppBase, @Nonnull AppServiceAppBase<?, ?, ?> appService) {
@@ -74,7 +121,7 @@ public class AppServiceKuduClient implements IFileClient, IProcessClient {
         host = "https://" + host;
 
         final KuduService kuduService = RestProxy.create(KuduService.class, webAppBase.manager().httpPipeline());
-        return new AppServiceKuduClient(host, kuduService, appService);
+        return new AppServiceKuduClient(host, kuduService, appService, Ticker.systemTicker());
     }
 
     public Flux<ByteBuffer> getFileContent(final String path) {
@@ -83,34 +130,323 @@ public class AppServiceKuduClient implements IFileClient, IProcessClient {
     }
 
     public List<? extends AppServiceFile> getFilesInDirectory(String dir) {
-        // this file is generated by kudu itself, should not be visible to user.
         final String fixedDir = StringUtils.removeStart(dir, HOME_PREFIX);
+        if (Objects.isNull(this.listings)) {
+            return this.listFilesInDirectory(fixedDir);
+        }
+        try {
+            return new ArrayList<>(this.listings.get(normalize(fixedDir), () -> this.listFilesInDirectory(fixedDir)));
+        } catch (final ExecutionException e) {
+            throw new AzureToolkitRuntimeException(e.getCause());
+        }
+    }
+
+    private List<AppServiceFile> listFilesInDirectory(String fixedDir) {
+        // this file is generated by kudu itself, should not be visible to user.
         return Objects.requireNonNull(this.kuduService.getFilesInDirectory(host, fixedDir).block()).getValue().stream()
                 .filter(file -> !"text/xml".equals(file.getMime()) || !file.getName().contains("LogFiles-kudu-trace_pending.xml"))
                 .map(file -> file.withApp(app).withPath(Paths.get(fixedDir, file.getName()).toString()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * find the file from the cached listing of its parent directory if there is, otherwise get its metadata by a
+     * {@code HEAD} request instead of listing the whole parent directory.
+     */
+    @Nullable
     public AppServiceFile getFileByPath(String path) {
         final String fixedPath = StringUtils.removeStart(path, HOME_PREFIX);
         final File file = new File(fixedPath);
-        final List<? extends AppServiceFile> result = getFilesInDirectory(file.getParent());
-        return result.stream()
-                .filter(appServiceFile -> StringUtils.equals(file.getName(), appServiceFile.getName()))
-                .findFirst()
-                .orElse(null);
+        final List<AppServiceFile> cached = Optional.ofNullable(this.listings).map(c -> c.getIfPresent(normalize(file.getParent()))).orElse(null);
+        if (Objects.nonNull(cached)) {
+            return cached.stream()
+                    .filter(appServiceFile -> StringUtils.equals(file.getName(), appServiceFile.getName()))
+                    .findFirst()
+                    .orElse(null);
+        }
+        return this.getFileMetadata(fixedPath);
+    }
+
+    @Nullable
+    private AppServiceFile getFileMetadata(String fixedPath) {
+        final Response<Void> response;
+        try {
+            response = Objects.requireNonNull(this.kuduService.getFileMetadata(host, fixedPath).block());
+        } catch (final HttpResponseException e) {
+            if (e.getResponse().getStatusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+        final File file = new File(fixedPath);
+        // kudu redirects requests of directories to the path with a trailing slash.
+        final boolean isDirectory = response.getStatusCode() / 100 == 3 || response.getRequest().getUrl().getPath().endsWith("/");
+        final String lastModified = response.getHeaders().getValue(HttpHeaderName.LAST_MODIFIED);
+        final String mtime = StringUtils.isBlank(lastModified) ? null : OffsetDateTime.parse(lastModified, DateTimeFormatter.RFC_1123_DATE_TIME).toString();
+        final String length = response.getHeaders().getValue(HttpHeaderName.CONTENT_LENGTH);
+        final AppServiceFile result = new AppServiceFile();
+        result.setName(file.getName());
+        result.setPath(file.getPath());
+        result.setApp(app);
+        result.setMtime(mtime);
+        result.setHref(String.format("%s/api/vfs/%s%s", host, normalize(fixedPath), isDirectory ? "/" : ""));
+        result.setMime(isDirectory ? DIRECTORY_MIME : response.getHeaders().getValue(HttpHeaderName.CONTENT_TYPE));
+        result.setSize(isDirectory || StringUtils.isBlank(length) ? 0 : Long.parseLong(length));
+        return result;
+    }
+
+    /**
+     * upload {@code source} by streaming it from disk in chunks.
+     *
+     * @param eTag the file is overwritten only if its ETag still matches, {@code null} means to overwrite anyway.
+     * @return ETag of the uploaded file.
+     */
+    @Nullable
+    public String uploadFile(@Nonnull Path source, @Nonnull String path, @Nullable String eTag) throws IOException {
+        try (final AsynchronousFileChannel fileChannel = AsynchronousFileChannel.open(source, StandardOpenOption.READ)) {
+            return this.doUploadFile(FluxUtil.readFile(fileChannel, TRANSFER_CHUNK_SIZE, 0, fileChannel.size()), fileChannel.size(), path, eTag);
+        }
+    }
+
+    /**
+     * upload {@code length} bytes of {@code content} by streaming it in chunks, {@code content} is not closed.
+     *
+     * @param eTag the file is overwritten only if its ETag still matches, {@code null} means to overwrite anyway.
+     * @return ETag of the uploaded file.
+     */
+    @Nullable
+    public String uploadFile(@Nonnull InputStream content, long length, @Nonnull String path, @Nullable String eTag) {
+        return this.doUploadFile(FluxUtil.toFluxByteBuffer(content, TRANSFER_CHUNK_SIZE), length, path, eTag);
+    }
+
+    @Nullable
+    private String doUploadFile(@Nonnull Flux<ByteBuffer> content, long length, @Nonnull String path, @Nullable String eTag) {
+        final String fixedPath = StringUtils.removeStart(path, HOME_PREFIX);
+        try {
+            final Response<Void> response = this.kuduService.uploadFile(host, fixedPath, content, length, StringUtils.defaultIfBlank(eTag, "*")).block();
+            return Optional.ofNullable(response).map(r -> r.getHeaders().getValue(HttpHeaderName.ETAG)).orElse(null);
+        } catch (final HttpResponseException e) {
+            if (e.getResponse().getStatusCode() == 412) {
+                throw new AzureToolkitRuntimeException(String.format("file '%s' has been modified since ETag %s.", path, eTag), e);
+            }
+            throw e;
+        } finally {
+            this.invalidateListings(path, false);
+        }
+    }
+
+    /**
+     * download file at {@code path} to {@code target} by streaming, the file is written to a temp file beside
+     * {@code target} first and then moved to {@code target} once completed.
+     *
+     * @param gzip request the content compressed with gzip, which is decompressed while downloading.
+     * @return ETag of the downloaded file.
+     */
+    @Nullable
+    public String downloadFile(@Nonnull String path, @Nonnull Path target, boolean gzip) throws IOException {
+        final Path part = target.resolveSibling(target.getFileName() + ".part");
+        final String eTag;
+        try {
+            if (gzip) {
+                try (final OutputStream output = Files.newOutputStream(part)) {
+                    eTag = this.downloadFile(path, output, true);
+                }
+            } else {
+                final StreamResponse response = this.getFileContentResponse(path, false);
+                eTag = response.getHeaders().getValue(HttpHeaderName.ETAG);
+                try (final AsynchronousFileChannel channel = AsynchronousFileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                    FluxUtil.writeFile(response.getValue(), channel).block();
+                }
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+            return eTag;
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * download file at {@code path} to {@code target} by streaming, {@code target} is not closed.
+     *
+     * @param gzip request the content compressed with gzip, which is decompressed while downloading.
+     * @return ETag of the downloaded file.
+     */
+    @Nullable
+    public String downloadFile(@Nonnull String path, @Nonnull OutputStream target, boolean gzip) throws IOException {
+        final StreamResponse response = this.getFileContentResponse(path, gzip);
+        final String eTag = response.getHeaders().getValue(HttpHeaderName.ETAG);
+        if (StringUtils.equalsIgnoreCase(response.getHeaders().getValue(HttpHeaderName.CONTENT_ENCODING), "gzip")) {
+            gunzip(response.getValue(), target);
+        } else {
+            FluxUtil.writeToOutputStream(response.getValue(), target).block();
+        }
+        return eTag;
+    }
+
+    @Nonnull
+    private StreamResponse getFileContentResponse(@Nonnull String path, boolean gzip) {
+        final String fixedPath = StringUtils.removeStart(path, HOME_PREFIX);
+        return Objects.requireNonNull(this.kuduService.downloadFile(host, fixedPath, gzip ? "gzip" : "identity").block());
+    }
+
+    /**
+     * decompress {@code compressed} into {@code target} through a pipe, so that only the pipe buffer is in memory.
+     */
+    private static void gunzip(@Nonnull Flux<ByteBuffer> compressed, @Nonnull OutputStream target) throws IOException {
+        readPiped(compressed, input -> {
+            try (final GZIPInputStream gzip = new GZIPInputStream(input, TRANSFER_CHUNK_SIZE)) {
+                IOUtils.copy(gzip, target, TRANSFER_CHUNK_SIZE);
+            }
+        });
+    }
+
+    /**
+     * upload all files in local directory {@code source} to remote directory {@code path} in one request, through
+     * kudu zip api which extracts the zip into {@code path}. {@code source} is zipped to a temp file first, because
+     * the content length must be known before uploading.
+     */
+    public void uploadDirectory(@Nonnull Path source, @Nonnull String path) throws IOException {
+        final Path zip = Files.createTempFile("kudu-upload", ".zip");
+        try {
+            zipDirectory(source, zip);
+            try (final AsynchronousFileChannel fileChannel = AsynchronousFileChannel.open(zip, StandardOpenOption.READ)) {
+                final String fixedPath = normalize(StringUtils.removeStart(path, HOME_PREFIX));
+                this.kuduService.uploadZip(host, fixedPath, FluxUtil.readFile(fileChannel, TRANSFER_CHUNK_SIZE, 0, fileChannel.size()),
+                    fileChannel.size()).block();
+            }
+        } finally {
+            Files.deleteIfExists(zip);
+            this.invalidateListings(path, true);
+        }
+    }
+
+    /**
+     * download remote directory {@code path} into local directory {@code target} in one request, the directory is
+     * zipped by kudu zip api and extracted while downloading.
+     */
+    public void downloadDirectory(@Nonnull String path, @Nonnull Path target) throws IOException {
+        final String fixedPath = normalize(StringUtils.removeStart(path, HOME_PREFIX));
+        final StreamResponse response = Objects.requireNonNull(this.kuduService.downloadZip(host, fixedPath).block());
+        Files.createDirectories(target);
+        readPiped(response.getValue(), input -> unzip(input, target));
+    }
+
+    private static void zipDirectory(@Nonnull Path source, @Nonnull Path zip) throws IOException {
+        try (final ZipOutputStream output = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zip), TRANSFER_CHUNK_SIZE));
+             final Stream<Path> files = Files.walk(source)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                final String name = normalize(source.relativize(file).toString());
+                if (StringUtils.isBlank(name)) {
+                    continue;
+                }
+                if (Files.isDirectory(file)) {
+                    output.putNextEntry(new ZipEntry(name + "/"));
+                } else {
+                    output.putNextEntry(new ZipEntry(name));
+                    Files.copy(file, output);
+                }
+                output.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * extract zip stream {@code input} into {@code target}, entries resolved outside of {@code target} (e.g.
+     * "../../.bashrc") are rejected.
+     */
+    private static void unzip(@Nonnull InputStream input, @Nonnull Path target) throws IOException {
+        final Path root = target.toAbsolutePath().normalize();
+        try (final ZipInputStream zip = new ZipInputStream(input)) {
+            for (ZipEntry entry = zip.getNextEntry(); Objects.nonNull(entry); entry = zip.getNextEntry()) {
+                final Path file = root.resolve(entry.getName()).normalize();
+                if (!file.startsWith(root)) {
+                    throw new AzureToolkitRuntimeException(String.format("entry '%s' is outside of target directory '%s'.", entry.getName(), target));
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(file);
+                } else {
+                    Files.createDirectories(file.getParent());
+                    Files.copy(zip, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    /**
+     * read {@code content} as an input stream through a pipe, so that only the pipe buffer is in memory. writing to
+     * the pipe blocks while it's full, so the content is written on a bounded elastic thread instead of the thread
+     * emitting it (e.g. netty event loop).
+     */
+    static void readPiped(@Nonnull Flux<ByteBuffer> content, @Nonnull PipeReader reader) throws IOException {
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final PipedInputStream input = new PipedInputStream(TRANSFER_CHUNK_SIZE);
+        final PipedOutputStream output = new PipedOutputStream(input);
+        final Disposable writing = FluxUtil.writeToOutputStream(content.publishOn(Schedulers.boundedElastic(), PIPE_PREFETCH), output)
+            .doFinally(s -> IOUtils.closeQuietly(output))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(null, error::set);
+        try {
+            reader.read(input);
+        } catch (final IOException | RuntimeException e) {
+            Optional.ofNullable(error.get()).ifPresent(e::addSuppressed);
+            throw e;
+        } finally {
+            writing.dispose();
+            IOUtils.closeQuietly(input);
+        }
+        if (Objects.nonNull(error.get())) { // the content is truncated
+            throw new IOException("failed to read content", error.get());
+        }
+    }
+
+    @FunctionalInterface
+    interface PipeReader {
+        void read(@Nonnull InputStream input) throws IOException;
     }
 
     public void uploadFileToPath(String content, String path) {
-        this.kuduService.saveFile(host, path, content).block();
+        try {
+            this.kuduService.saveFile(host, path, content).block();
+        } finally {
+            this.invalidateListings(path, false);
+        }
     }
 
     public void createDirectory(String path) {
-        this.kuduService.createDirectory(host, path).block();
+        try {
+            this.kuduService.createDirectory(host, path).block();
+        } finally {
+            this.invalidateListings(path, false);
+        }
     }
 
     public void deleteFile(String path) {
-        this.kuduService.deleteFile(host, path).block();
+        try {
+            this.kuduService.deleteFile(host, path).block();
+        } finally {
+            this.invalidateListings(path, true);
+        }
+    }
+
+    /**
+     * invalidate the cached listing of the parent of {@code path}, and the listings of {@code path} and its
+     * descendants if it's deleted.
+     */
+    private void invalidateListings(String path, boolean recursive) {
+        if (Objects.isNull(this.listings)) {
+            return;
+        }
+        final String fixedPath = normalize(StringUtils.removeStart(path, HOME_PREFIX));
+        this.listings.invalidate(normalize(new File(fixedPath).getParent()));
+        if (recursive) {
+            this.listings.asMap().keySet().removeIf(dir -> dir.equals(fixedPath) || dir.startsWith(fixedPath + "/"));
+        }
+    }
+
+    @Nonnull
+    private static String normalize(@Nullable String path) {
+        return StringUtils.strip(StringUtils.defaultString(path).replace('\\', '/'), "/");
     }
 
     public List<ProcessInfo> listProcess() {
@@ -151,6 +487,10 @@ public class AppServiceKuduClient implements IFileClient, IProcessClient {
         @Get("api/vfs/{path}/")
         Mono<Response<List<AppServiceFile>>> getFilesInDirectory(@HostParam("$host") String host, @PathParam("path") String path);
 
+        @ExpectedResponses({200, 301, 302, 307})
+        @Head("api/vfs/{path}")
+        Mono<Response<Void>> getFileMetadata(@HostParam("$host") String host, @PathParam("path") String path);
+
         @Headers({
                 "Content-Type: application/octet-stream; charset=utf-8",
                 "If-Match: *"
@@ -158,6 +498,24 @@ public class AppServiceKuduClient implements IFileClient, IProcessClient {
         @Put("api/vfs/{path}")
         Mono<Void> saveFile(@HostParam("$host") String host, @PathParam("path") String path, @BodyParam("application/octet-stream") String content);
 
+        @Get("api/vfs/{path}")
+        Mono<StreamResponse> downloadFile(@HostParam("$host") String host, @PathParam("path") String path,
+                                          @HeaderParam("Accept-Encoding") String acceptEncoding);
+
+        @Headers({"Content-Type: application/octet-stream"})
+        @Put("api/vfs/{path}")
+        Mono<Response<Void>> uploadFile(@HostParam("$host") String host, @PathParam("path") String path,
+                                        @BodyParam("application/octet-stream") Flux<ByteBuffer> content,
+                                        @HeaderParam("Content-Length") long length, @HeaderParam("If-Match") String eTag);
+
+        @Headers({"Content-Type: application/zip"})
+        @Put("api/zip/{path}/")
+        Mono<Void> uploadZip(@HostParam("$host") String host, @PathParam("path") String path,
+                             @BodyParam("application/octet-stream") Flux<ByteBuffer> zip, @HeaderParam("Content-Length") long size);
+
+        @Get("api/zip/{path}/")
+        Mono<StreamResponse> downloadZip(@HostParam("$host") String host, @PathParam("path") String path);
+
         @Headers({
                 "Content-Type: application/json; charset=utf-8"
         })
@@ -8,23 +8,15 @@ package com.microsoft.azure.toolkit.lib.appservice.function;
 import com.azure.resourcemanager.appservice.models.PlatformArchitecture;
 import com.azure.resourcemanager.appservice.models.WebAppBase;
 import com.microsoft.azure.toolkit.lib.appservice.AppServiceAppBase;
-import com.microsoft.azure.toolkit.lib.appservice.deploy.FTPFunctionDeployHandler;
-import com.microsoft.azure.toolkit.lib.appservice.deploy.FlexFunctionDeployHandler;
+import com.microsoft.azure.toolkit.lib.appservice.deploy.FunctionDeployHandlerRegistry;
 import com.microsoft.azure.toolkit.lib.appservice.deploy.IFunctionDeployHandler;
-import com.microsoft.azure.toolkit.lib.appservice.deploy.MSFunctionDeployHandler;
-import com.microsoft.azure.toolkit.lib.appservice.deploy.RunFromBlobFunctionDeployHandler;
-import com.microsoft.azure.toolkit.lib.appservice.deploy.RunFromZipFunctionDeployHandler;
-import com.microsoft.azure.toolkit.lib.appservice.deploy.ZIPFunctionDeployHandler;
 import com.microsoft.azure.toolkit.lib.appservice.file.AzureFunctionsAdminClient;
 import com.microsoft.azure.toolkit.lib.appservice.file.IFileClient;
 import com.microsoft.azure.toolkit.lib.appservice.model.DiagnosticConfig;
 import com.microsoft.azure.toolkit.lib.appservice.model.FlexConsumptionConfiguration;
 import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
 import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
-import com.microsoft.azure.toolkit.lib.appservice.model.PricingTier;
 import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
-import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlan;
-import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
@@ -91,35 +83,11 @@ public abstract class FunctionAppBase<T extends FunctionAppBase<T, P, F>, P exte
     }
 
     protected FunctionDeployType getDefaultDeployType() {
-        final PricingTier pricingTier = Optional.ofNullable(getAppServicePlan()).map(AppServicePlan::getPricingTier).orElse(PricingTier.PREMIUM_P1V2);
-        final OperatingSystem os = Optional.ofNullable(getRuntime()).map(Runtime::getOperatingSystem).orElse(OperatingSystem.LINUX);
-        if (pricingTier.isFlexConsumption()) {
-            return FunctionDeployType.FLEX;
-        }
-        if (os == OperatingSystem.WINDOWS) {
-            return FunctionDeployType.RUN_FROM_ZIP;
-        }
-        return StringUtils.equalsAnyIgnoreCase(pricingTier.getTier(), "Dynamic", "ElasticPremium") ?
-            FunctionDeployType.RUN_FROM_BLOB : FunctionDeployType.RUN_FROM_ZIP;
+        return FunctionDeployHandlerRegistry.getDefaultDeployType(this);
     }
 
     protected IFunctionDeployHandler getDeployHandlerByType(final FunctionDeployType deployType) {
-        switch (deployType) {
-            case FLEX:
-                return new FlexFunctionDeployHandler();
-            case FTP:
-                return new FTPFunctionDeployHandler();
-            case ZIP:
-                return new ZIPFunctionDeployHandler();
-            case MSDEPLOY:
-                return new MSFunctionDeployHandler();
-            case RUN_FROM_ZIP:
-                return new RunFromZipFunctionDeployHandler();
-            case RUN_FROM_BLOB:
-                return new RunFromBlobFunctionDeployHandler();
-            default:
-                throw new AzureToolkitRuntimeException("Unsupported deployment type");
-        }
+        return FunctionDeployHandlerRegistry.getHandler(deployType);
     }
 
     public abstract String getMasterKey();
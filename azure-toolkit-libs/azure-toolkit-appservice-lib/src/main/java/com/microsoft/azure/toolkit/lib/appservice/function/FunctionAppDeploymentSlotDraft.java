@@ -13,11 +13,14 @@ import com.azure.resourcemanager.appservice.fluent.models.SitePatchResourceInner
 import com.azure.resourcemanager.appservice.models.DeploymentSlotBase;
 import com.azure.resourcemanager.appservice.models.FunctionApp;
 import com.azure.resourcemanager.appservice.models.FunctionDeploymentSlot;
+import com.microsoft.azure.toolkit.lib.appservice.AppServiceConfigDiff;
 import com.microsoft.azure.toolkit.lib.appservice.model.DiagnosticConfig;
 import com.microsoft.azure.toolkit.lib.appservice.model.DockerConfiguration;
 import com.microsoft.azure.toolkit.lib.appservice.model.FlexConsumptionConfiguration;
 import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
+import com.microsoft.azure.toolkit.lib.appservice.model.PricingTier;
 import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
+import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlan;
 import com.microsoft.azure.toolkit.lib.appservice.utils.AppServiceUtils;
 import com.microsoft.azure.toolkit.lib.appservice.utils.Utils;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
@@ -44,7 +47,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppDraft.CAN_NOT_UPDATE_EXISTING_APP_SERVICE_OS;
 import static com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppDraft.UNSUPPORTED_OPERATING_SYSTEM;
@@ -158,50 +160,42 @@ public class FunctionAppDeploymentSlotDraft extends FunctionAppDeploymentSlot
     @Override
     @AzureOperation(name = "azure/function.update_deployment_slot.slot", params = {"this.getName()"})
     public FunctionDeploymentSlot updateResourceInAzure(@Nonnull FunctionDeploymentSlot remote) {
-        final Map<String, String> oldAppSettings = Utils.normalizeAppSettings(remote.getAppSettings());
-        final Map<String, String> settingsToAdd = this.ensureConfig().getAppSettings();
-        if (ObjectUtils.allNotNull(oldAppSettings, settingsToAdd)) {
-            settingsToAdd.entrySet().removeAll(oldAppSettings.entrySet());
-        }
-        final Set<String> settingsToRemove = Optional.ofNullable(this.ensureConfig().getAppSettingsToRemove())
-                .map(set -> set.stream().filter(oldAppSettings::containsKey).collect(Collectors.toSet()))
-                .orElse(Collections.emptySet());
-        final Runtime newRuntime = this.ensureConfig().getRuntime();
-        final DockerConfiguration newDockerConfig = this.ensureConfig().getDockerConfiguration();
-        final DiagnosticConfig oldDiagnosticConfig = super.getDiagnosticConfig();
-        final DiagnosticConfig newDiagnosticConfig = this.ensureConfig().getDiagnosticConfig();
-        final FlexConsumptionConfiguration newFlexConsumptionConfiguration = this.ensureConfig().getFlexConsumptionConfiguration();
-        final FlexConsumptionConfiguration oldFlexConsumptionConfiguration = origin.getFlexConsumptionConfiguration();
-
-        final Runtime oldRuntime = AppServiceUtils.getRuntimeFromAppService(remote);
-        final boolean isRuntimeModified =  !oldRuntime.isDocker() && Objects.nonNull(newRuntime) && !Objects.equals(newRuntime, oldRuntime);
-        final boolean isDockerConfigurationModified = oldRuntime.isDocker() && Objects.nonNull(newDockerConfig);
-        final boolean isAppSettingsModified = MapUtils.isNotEmpty(settingsToAdd) || CollectionUtils.isNotEmpty(settingsToRemove);
-        final boolean isDiagnosticConfigModified = Objects.nonNull(newDiagnosticConfig) && !Objects.equals(newDiagnosticConfig, oldDiagnosticConfig);
-        final boolean flexConsumptionModified = getAppServicePlan().getPricingTier().isFlexConsumption() &&
-            Objects.nonNull(newFlexConsumptionConfiguration) && !Objects.equals(newFlexConsumptionConfiguration, oldFlexConsumptionConfiguration);
-        final boolean modified = isDiagnosticConfigModified || isAppSettingsModified || isRuntimeModified || isDockerConfigurationModified || flexConsumptionModified;
-
-        if (modified) {
-            final DeploymentSlotBase.Update<FunctionDeploymentSlot> update = remote.update();
-            Optional.ofNullable(settingsToAdd).filter(ignore -> isAppSettingsModified).ifPresent(update::withAppSettings);
-            Optional.ofNullable(settingsToRemove).filter(ignore -> isAppSettingsModified).ifPresent(s -> s.forEach(update::withoutAppSetting));
-            Optional.ofNullable(newRuntime).filter(ignore -> isRuntimeModified).ifPresent(r -> updateRuntime(update, r));
-            Optional.ofNullable(newDockerConfig).filter(ignore -> isDockerConfigurationModified)
+        final AppServiceConfigDiff diff = computeConfigDiff(remote);
+        remote = diff.applyTo(remote, FunctionDeploymentSlot::update, (DeploymentSlotBase.Update<FunctionDeploymentSlot> update) -> {
+            Optional.ofNullable(this.ensureConfig().getRuntime()).filter(ignore -> diff.isRuntimeModified()).ifPresent(r -> updateRuntime(update, r));
+            Optional.ofNullable(this.ensureConfig().getDockerConfiguration()).filter(ignore -> diff.isDockerConfigurationModified())
                     .ifPresent(dockerConfiguration -> updateDockerConfiguration(update, dockerConfiguration));
-            Optional.ofNullable(newDiagnosticConfig).filter(ignore -> isDiagnosticConfigModified)
+            Optional.ofNullable(this.ensureConfig().getDiagnosticConfig()).filter(ignore -> diff.isDiagnosticConfigModified())
                     .ifPresent(diagnosticConfig -> AppServiceUtils.updateDiagnosticConfigurationForWebAppBase(update, diagnosticConfig));
-            final IAzureMessager messager = AzureMessager.getMessager();
-            messager.info(AzureString.format("Start updating Function App deployment slot({0})...", remote.name()));
-            remote = update.apply();
-            if (flexConsumptionModified) {
-                updateFlexConsumptionConfiguration(remote, newFlexConsumptionConfiguration);
-            }
-            messager.success(AzureString.format("Function app deployment slot({0}) is successfully updated", remote.name()));
+        }, "Function App deployment slot");
+        if (diff.isFlexConsumptionConfigurationModified()) {
+            updateFlexConsumptionConfiguration(remote, Objects.requireNonNull(this.ensureConfig().getFlexConsumptionConfiguration()));
         }
         return remote;
     }
 
+    /**
+     * diff between the configuration of this draft and the current one of the deployment slot to update.
+     */
+    @Nonnull
+    public AppServiceConfigDiff getConfigDiff() {
+        return computeConfigDiff(Objects.requireNonNull(this.getRemote(), "updating target doesn't exist."));
+    }
+
+    @Nonnull
+    private AppServiceConfigDiff computeConfigDiff(@Nonnull FunctionDeploymentSlot remote) {
+        final Runtime oldRuntime = AppServiceUtils.getRuntimeFromAppService(remote);
+        final boolean isFlexConsumption = Optional.ofNullable(getAppServicePlan()).map(AppServicePlan::getPricingTier)
+            .map(PricingTier::isFlexConsumption).orElse(false);
+        return new AppServiceConfigDiff(Utils.normalizeAppSettings(remote.getAppSettings()))
+            .appSettings(this.ensureConfig().getAppSettings(), this.ensureConfig().getAppSettingsToRemove())
+            .runtime(oldRuntime, this.ensureConfig().getRuntime())
+            .dockerConfiguration(oldRuntime, remote.linuxFxVersion(), this.ensureConfig().getDockerConfiguration())
+            .diagnosticConfig(super.getDiagnosticConfig(), this.ensureConfig().getDiagnosticConfig())
+            .flexConsumptionConfiguration(Optional.ofNullable(origin).map(FunctionAppDeploymentSlot::getFlexConsumptionConfiguration).orElse(null),
+                isFlexConsumption ? this.ensureConfig().getFlexConsumptionConfiguration() : null);
+    }
+
     private void updateRuntime(@Nonnull FunctionDeploymentSlot.Update<?> update, @Nonnull Runtime newRuntime) {
         final Runtime oldRuntime = Objects.requireNonNull(super.getRuntime());
         if (newRuntime.getOperatingSystem() != null && Objects.requireNonNull(oldRuntime).getOperatingSystem() != newRuntime.getOperatingSystem()) {
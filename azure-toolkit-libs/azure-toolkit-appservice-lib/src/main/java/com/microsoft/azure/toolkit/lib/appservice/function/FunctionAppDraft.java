@@ -12,11 +12,13 @@ import com.azure.resourcemanager.appservice.fluent.models.SiteConfigResourceInne
 import com.azure.resourcemanager.appservice.fluent.models.SitePatchResourceInner;
 import com.azure.resourcemanager.appservice.models.FunctionApp.DefinitionStages;
 import com.azure.resourcemanager.appservice.models.FunctionApp.Update;
+import com.microsoft.azure.toolkit.lib.appservice.AppServiceConfigDiff;
 import com.microsoft.azure.toolkit.lib.appservice.model.DiagnosticConfig;
 import com.microsoft.azure.toolkit.lib.appservice.model.DockerConfiguration;
 import com.microsoft.azure.toolkit.lib.appservice.model.FlexConsumptionConfiguration;
 import com.microsoft.azure.toolkit.lib.appservice.model.JavaVersion;
 import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
+import com.microsoft.azure.toolkit.lib.appservice.model.PricingTier;
 import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
 import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlan;
 import com.microsoft.azure.toolkit.lib.appservice.utils.AppServiceUtils;
@@ -46,7 +48,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class FunctionAppDraft extends FunctionApp implements AzResource.Draft<FunctionApp, com.azure.resourcemanager.appservice.models.FunctionApp> {
     private static final String CREATE_NEW_FUNCTION_APP = "isCreateNewFunctionApp";
@@ -191,56 +192,44 @@ public class FunctionAppDraft extends FunctionApp implements AzResource.Draft<Fu
     @AzureOperation(name = "azure/function.update_app.app", params = {"this.getName()"})
     public com.azure.resourcemanager.appservice.models.FunctionApp updateResourceInAzure(@Nonnull com.azure.resourcemanager.appservice.models.FunctionApp remote) {
         assert origin != null : "updating target is not specified.";
-        final Map<String, String> oldAppSettings = Objects.requireNonNull(origin.getAppSettings());
-        final Map<String, String> settingsToAdd = this.ensureConfig().getAppSettings();
-        if (ObjectUtils.allNotNull(oldAppSettings, settingsToAdd)) {
-            settingsToAdd.entrySet().removeAll(oldAppSettings.entrySet());
-        }
-        final Set<String> settingsToRemove = Optional.ofNullable(this.ensureConfig().getAppSettingsToRemove())
-                .map(set -> set.stream().filter(oldAppSettings::containsKey).collect(Collectors.toSet()))
-                .orElse(Collections.emptySet());
-        final DiagnosticConfig oldDiagnosticConfig = super.getDiagnosticConfig();
-        final DiagnosticConfig newDiagnosticConfig = this.ensureConfig().getDiagnosticConfig();
-        final Runtime newRuntime = this.ensureConfig().getRuntime();
-        final AppServicePlan newPlan = this.ensureConfig().getPlan();
-        final DockerConfiguration newDockerConfig = this.ensureConfig().getDockerConfiguration();
-        final FlexConsumptionConfiguration newFlexConsumptionConfiguration = this.ensureConfig().getFlexConsumptionConfiguration();
+        final AppServiceConfigDiff diff = getConfigDiff();
         final StorageAccount storageAccount = getStorageAccount();
-        final Runtime oldRuntime = Objects.requireNonNull(origin.getRuntime());
-        final AppServicePlan oldPlan = origin.getAppServicePlan();
-        final FlexConsumptionConfiguration oldFlexConsumptionConfiguration = origin.getFlexConsumptionConfiguration();
-
-        final boolean planModified = Objects.nonNull(newPlan) && !Objects.equals(newPlan, oldPlan);
-        final boolean runtimeModified = !oldRuntime.isDocker() && Objects.nonNull(newRuntime) && !Objects.equals(newRuntime, oldRuntime);
-        final boolean dockerModified = oldRuntime.isDocker() && Objects.nonNull(newDockerConfig);
-        final boolean flexConsumptionModified = getAppServicePlan().getPricingTier().isFlexConsumption() &&
-            Objects.nonNull(newFlexConsumptionConfiguration) && !Objects.equals(newFlexConsumptionConfiguration, oldFlexConsumptionConfiguration);
-        final boolean isAppSettingsModified = MapUtils.isNotEmpty(settingsToAdd) || CollectionUtils.isNotEmpty(settingsToRemove);
-        final boolean isDiagnosticConfigModified = Objects.nonNull(newDiagnosticConfig) && !Objects.equals(newDiagnosticConfig, oldDiagnosticConfig);
-        final boolean modified = planModified || runtimeModified || dockerModified || flexConsumptionModified ||
-            isAppSettingsModified || Objects.nonNull(newDiagnosticConfig) || Objects.nonNull(storageAccount);
-        final String funcExtVersion = Optional.ofNullable(settingsToAdd).map(map -> map.get(FUNCTIONS_EXTENSION_VERSION))
-                .orElseGet(() -> oldAppSettings.get(FUNCTIONS_EXTENSION_VERSION));
-        if (modified) {
-            final Update update = remote.update();
-            Optional.ofNullable(newPlan).filter(ignore -> planModified).ifPresent(p -> updateAppServicePlan(update, p));
-            Optional.ofNullable(newRuntime).filter(ignore -> runtimeModified).ifPresent(p -> updateRuntime(update, p, funcExtVersion));
-            Optional.ofNullable(settingsToAdd).filter(ignore -> isAppSettingsModified).ifPresent(update::withAppSettings);
-            Optional.of(settingsToRemove).filter(CollectionUtils::isNotEmpty).filter(ignore -> isAppSettingsModified).ifPresent(s -> s.forEach(update::withoutAppSetting));
-            Optional.ofNullable(newDockerConfig).filter(ignore -> dockerModified).ifPresent(p -> updateDockerConfiguration(update, p));
-            Optional.ofNullable(newDiagnosticConfig).filter(ignore -> isDiagnosticConfigModified).ifPresent(c -> AppServiceUtils.updateDiagnosticConfigurationForWebAppBase(update, c));
+        final FlexConsumptionConfiguration newFlexConsumptionConfiguration = this.ensureConfig().getFlexConsumptionConfiguration();
+        final String funcExtVersion = Optional.ofNullable(this.ensureConfig().getAppSettings()).map(map -> map.get(FUNCTIONS_EXTENSION_VERSION))
+                .orElseGet(() -> Objects.requireNonNull(origin.getAppSettings()).get(FUNCTIONS_EXTENSION_VERSION));
+        remote = diff.applyTo(remote, com.azure.resourcemanager.appservice.models.FunctionApp::update, update -> {
+            Optional.ofNullable(this.ensureConfig().getPlan()).filter(ignore -> diff.isPlanModified()).ifPresent(p -> updateAppServicePlan(update, p));
+            Optional.ofNullable(this.ensureConfig().getRuntime()).filter(ignore -> diff.isRuntimeModified()).ifPresent(p -> updateRuntime(update, p, funcExtVersion));
+            Optional.ofNullable(this.ensureConfig().getDockerConfiguration()).filter(ignore -> diff.isDockerConfigurationModified()).ifPresent(p -> updateDockerConfiguration(update, p));
+            Optional.ofNullable(this.ensureConfig().getDiagnosticConfig()).filter(ignore -> diff.isDiagnosticConfigModified())
+                .ifPresent(c -> AppServiceUtils.updateDiagnosticConfigurationForWebAppBase(update, c));
             Optional.ofNullable(storageAccount).ifPresent(s -> update.withExistingStorageAccount(s.getRemote()));
-            final IAzureMessager messager = AzureMessager.getMessager();
-            messager.info(AzureString.format("Start updating Function App({0})...", remote.name()));
-            remote = update.apply();
-            if (flexConsumptionModified) {
-                updateFlexConsumptionConfiguration(remote, newFlexConsumptionConfiguration);
-            }
-            messager.success(AzureString.format("Function App({0}) is successfully updated", remote.name()));
+        }, "Function App");
+        if (diff.isFlexConsumptionConfigurationModified()) {
+            updateFlexConsumptionConfiguration(remote, Objects.requireNonNull(newFlexConsumptionConfiguration));
         }
         return remote;
     }
 
+    /**
+     * diff between the configuration of this draft and the current one of the function app to update.
+     */
+    @Nonnull
+    public AppServiceConfigDiff getConfigDiff() {
+        assert origin != null : "updating target is not specified.";
+        final Runtime oldRuntime = origin.getRuntime();
+        final boolean isFlexConsumption = Optional.ofNullable(getAppServicePlan()).map(AppServicePlan::getPricingTier)
+            .map(PricingTier::isFlexConsumption).orElse(false);
+        return new AppServiceConfigDiff(origin.getAppSettings())
+            .appSettings(this.ensureConfig().getAppSettings(), this.ensureConfig().getAppSettingsToRemove())
+            .plan(origin.getAppServicePlan(), this.ensureConfig().getPlan())
+            .runtime(oldRuntime, this.ensureConfig().getRuntime())
+            .dockerConfiguration(oldRuntime, origin.getLinuxFxVersion(), this.ensureConfig().getDockerConfiguration())
+            .diagnosticConfig(origin.getDiagnosticConfig(), this.ensureConfig().getDiagnosticConfig())
+            .flexConsumptionConfiguration(origin.getFlexConsumptionConfiguration(), isFlexConsumption ? this.ensureConfig().getFlexConsumptionConfiguration() : null)
+            .storageAccount(getStorageAccount());
+    }
+
     private void updateAppServicePlan(@Nonnull Update update, @Nonnull AppServicePlan newPlan) {
         Objects.requireNonNull(newPlan.getRemote(), "Target app service plan doesn't exist");
         final OperatingSystem os = Objects.requireNonNull(getRuntime()).isDocker() ? OperatingSystem.LINUX : getRuntime().getOperatingSystem();
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.Duration;
+
+/**
+ * options of deploying to a staging slot, warming it up and swapping it into production.
+ */
+@Data
+@Builder
+@EqualsAndHashCode
+public class SlotSwapOptions {
+    /**
+     * name of the existing staging slot to deploy to.
+     */
+    private String slotName;
+    /**
+     * path probed on both the slot and the production, e.g. a health check endpoint.
+     */
+    @Builder.Default
+    private String probePath = "/";
+    /**
+     * responses with status code in [{@code minStatusCode}, {@code maxStatusCode}] are healthy.
+     */
+    @Builder.Default
+    private int minStatusCode = 200;
+    @Builder.Default
+    private int maxStatusCode = 399;
+    /**
+     * healthy responses must also be returned within this latency.
+     */
+    @Builder.Default
+    private Duration maxLatency = Duration.ofSeconds(2);
+    /**
+     * consecutive healthy responses required to consider the site warmed up.
+     */
+    @Builder.Default
+    private int successThreshold = 3;
+    @Builder.Default
+    private Duration probeInterval = Duration.ofSeconds(5);
+    /**
+     * max time to wait for the slot to be warmed up, the slot is not swapped if it's exceeded.
+     */
+    @Builder.Default
+    private Duration warmUpTimeout = Duration.ofMinutes(10);
+    /**
+     * max time to wait for the production to be healthy after swap.
+     */
+    @Builder.Default
+    private Duration postSwapTimeout = Duration.ofMinutes(2);
+    /**
+     * swap back if the production is not healthy after swap.
+     */
+    @Builder.Default
+    private boolean rollbackOnFailure = true;
+}
@@ -9,6 +9,7 @@ import com.azure.resourcemanager.resources.fluentcore.utils.ResourceManagerUtils
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.applicationinsights.ApplicationInsight;
 import com.microsoft.azure.toolkit.lib.applicationinsights.task.GetOrCreateApplicationInsightsTask;
+import com.microsoft.azure.toolkit.lib.appservice.AppServiceConfigDiff;
 import com.microsoft.azure.toolkit.lib.appservice.AzureAppService;
 import com.microsoft.azure.toolkit.lib.appservice.config.AppServicePlanConfig;
 import com.microsoft.azure.toolkit.lib.appservice.config.FunctionAppConfig;
@@ -29,6 +30,7 @@ import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlanDraft;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.Region;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.resource.ResourceGroup;
@@ -39,15 +41,16 @@ import com.microsoft.azure.toolkit.lib.storage.StorageAccountDraft;
 import com.microsoft.azure.toolkit.lib.storage.StorageAccountModule;
 import com.microsoft.azure.toolkit.lib.storage.model.Kind;
 import com.microsoft.azure.toolkit.lib.storage.model.Redundancy;
+import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.List;
+import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 
 public class CreateOrUpdateFunctionAppTask extends AzureTask<FunctionAppBase<?, ?, ?>> {
@@ -70,14 +73,25 @@ public class CreateOrUpdateFunctionAppTask extends AzureTask<FunctionAppBase<?,
     public static final JavaVersion DEFAULT_FUNCTION_JAVA_VERSION = Runtime.DEFAULT_FUNCTION_RUNTIME.getJavaVersion();
     public static final String FLEX_CONSUMPTION_SLOT_NOT_SUPPORT = "Deployment slot is not supported for function app with consumption plan.";
 
+    static final String RESOURCE_GROUP = "resourceGroup";
+    static final String SERVICE_PLAN = "servicePlan";
+    static final String STORAGE_ACCOUNT = "storageAccount";
+    static final String APPLICATION_INSIGHTS = "applicationInsights";
+    static final String FUNCTION_APP = "functionApp";
+
     private final FunctionAppConfig functionAppConfig;
-    private final List<AzureTask<?>> tasks = new ArrayList<>();
+    private ProvisioningGraph graph;
 
-    private ResourceGroup resourceGroup;
-    private AppServicePlan appServicePlan;
-    private StorageAccount storageAccount;
-    private String instrumentationKey;
-    private FunctionAppBase<?, ?, ?> functionApp;
+    private volatile ResourceGroup resourceGroup;
+    private volatile AppServicePlan appServicePlan;
+    private volatile StorageAccount storageAccount;
+    private volatile String instrumentationKey;
+    private volatile FunctionAppBase<?, ?, ?> functionApp;
+    /**
+     * only report the changes to make on the existing function app (slot), nothing is created or updated in Azure.
+     */
+    @Setter
+    private boolean dryRun;
 
 
     public CreateOrUpdateFunctionAppTask(@Nonnull final FunctionAppConfig config) {
@@ -88,11 +102,13 @@ public class CreateOrUpdateFunctionAppTask extends AzureTask<FunctionAppBase<?,
     private void initTasks() {
         final FunctionAppDraft appDraft = Azure.az(AzureFunctions.class).functionApps(functionAppConfig.subscriptionId())
             .updateOrCreate(functionAppConfig.appName(), functionAppConfig.resourceGroup());
-        registerSubTask(getResourceGroupTask(), result -> this.resourceGroup = result);
-        registerSubTask(getServicePlanTask(), result -> this.appServicePlan = result);
+        final Callable<?> resourceGroupStep = toStep(getResourceGroupTask(), result -> this.resourceGroup = result);
+        final Callable<?> servicePlanStep = toStep(getServicePlanTask(), result -> this.appServicePlan = result);
+        Callable<?> storageAccountStep = null;
+        Callable<?> applicationInsightsStep = null;
         if (appDraft.isDraftForCreating()) {
             // create new storage account when create function app
-            registerSubTask(getStorageAccountTask(), result -> this.storageAccount = result);
+            storageAccountStep = toStep(getStorageAccountTask(), result -> this.storageAccount = result);
         }
         // get/create AI instances only if user didn't specify AI connection string in app settings
         if (!functionAppConfig.disableAppInsights() && !functionAppConfig.appSettings().containsKey(APPINSIGHTS_INSTRUMENTATION_KEY)) {
@@ -100,19 +116,37 @@ public class CreateOrUpdateFunctionAppTask extends AzureTask<FunctionAppBase<?,
                 this.instrumentationKey = functionAppConfig.appInsightsKey();
             } else if (StringUtils.isNotEmpty(functionAppConfig.appInsightsInstance()) || !appDraft.exists()) {
                 // create AI instance by default when create new function
-                registerSubTask(getApplicationInsightsTask(),
+                applicationInsightsStep = toStep(getApplicationInsightsTask(),
                     result -> this.instrumentationKey = Optional.ofNullable(result).map(ApplicationInsight::getInstrumentationKey).orElse(null));
             }
         }
+        final Callable<?> functionAppStep;
         if (StringUtils.isEmpty(functionAppConfig.deploymentSlotName())) {
             final AzureTask<FunctionApp> functionTask = appDraft.exists() ? getUpdateFunctionAppTask(appDraft) : getCreateFunctionAppTask(appDraft);
-            registerSubTask(functionTask, result -> this.functionApp = result);
+            functionAppStep = toStep(functionTask, result -> this.functionApp = result);
         } else {
             final FunctionAppDeploymentSlotDraft slotDraft = getFunctionDeploymentSlot(appDraft);
             final AzureTask<FunctionAppDeploymentSlot> slotTask = slotDraft.exists() ?
                 getUpdateFunctionSlotTask(slotDraft) : getCreateFunctionSlotTask(slotDraft);
-            registerSubTask(slotTask, result -> this.functionApp = result);
+            functionAppStep = toStep(slotTask, result -> this.functionApp = result);
         }
+        this.graph = newProvisioningGraph(Objects.requireNonNull(resourceGroupStep), servicePlanStep, storageAccountStep, applicationInsightsStep,
+            Objects.requireNonNull(functionAppStep));
+    }
+
+    /**
+     * service plan, storage account and application insights only depend on the resource group, so they are
+     * provisioned concurrently, and the function app (slot) is provisioned after all of them.
+     */
+    @Nonnull
+    static ProvisioningGraph newProvisioningGraph(@Nonnull Callable<?> resourceGroup, @Nullable Callable<?> servicePlan, @Nullable Callable<?> storageAccount,
+                                                  @Nullable Callable<?> applicationInsights, @Nonnull Callable<?> functionApp) {
+        return new ProvisioningGraph()
+            .add(RESOURCE_GROUP, resourceGroup)
+            .addIfPresent(SERVICE_PLAN, servicePlan, RESOURCE_GROUP)
+            .addIfPresent(STORAGE_ACCOUNT, storageAccount, RESOURCE_GROUP)
+            .addIfPresent(APPLICATION_INSIGHTS, applicationInsights, RESOURCE_GROUP)
+            .addIfPresent(FUNCTION_APP, functionApp, RESOURCE_GROUP, SERVICE_PLAN, STORAGE_ACCOUNT, APPLICATION_INSIGHTS);
     }
 
     private AzureTask<StorageAccount> getStorageAccountTask() {
@@ -149,14 +183,16 @@ public class CreateOrUpdateFunctionAppTask extends AzureTask<FunctionAppBase<?,
             .map(Region::fromName).orElse(region);
     }
 
-    private <T> void registerSubTask(AzureTask<T> task, Consumer<T> consumer) {
-        if (task != null) {
-            tasks.add(new AzureTask<>(() -> {
-                T result = task.getBody().call();
-                consumer.accept(result);
-                return result;
-            }));
+    @Nullable
+    private <T> Callable<T> toStep(@Nullable AzureTask<T> task, Consumer<T> consumer) {
+        if (task == null) {
+            return null;
         }
+        return () -> {
+            final T result = task.getBody().call();
+            consumer.accept(result);
+            return result;
+        };
     }
 
     private AzureTask<FunctionApp> getCreateFunctionAppTask(final FunctionAppDraft draft) {
@@ -203,24 +239,28 @@ public class CreateOrUpdateFunctionAppTask extends AzureTask<FunctionAppBase<?,
     private AzureTask<FunctionApp> getUpdateFunctionAppTask(final FunctionAppDraft draft) {
         final AzureString title = AzureString.format("Update function app({0})", functionAppConfig.appName());
         return new AzureTask<>(title, () -> {
-            final Map<String, String> appSettings = processAppSettingsWithDefaultValue();
-            if (functionAppConfig.disableAppInsights()) {
-                draft.removeAppSetting(APPINSIGHTS_INSTRUMENTATION_KEY);
-            } else if (StringUtils.isNotEmpty(instrumentationKey)) {
-                appSettings.put(APPINSIGHTS_INSTRUMENTATION_KEY, instrumentationKey);
-            }
-            draft.setAppServicePlan(appServicePlan);
-            draft.setRuntime(getRuntime(functionAppConfig.runtime()));
-            draft.setDockerConfiguration(getDockerConfiguration(functionAppConfig.runtime()));
-            draft.setAppSettings(appSettings);
-            draft.setDiagnosticConfig(functionAppConfig.diagnosticConfig());
-            draft.removeAppSettings(functionAppConfig.appSettingsToRemove());
-            draft.setFlexConsumptionConfiguration(functionAppConfig.flexConsumptionConfiguration());
+            configureUpdate(draft, appServicePlan);
             draft.setStorageAccount(storageAccount);
             return draft.updateIfExist();
         });
     }
 
+    private void configureUpdate(final FunctionAppDraft draft, @Nullable final AppServicePlan plan) {
+        final Map<String, String> appSettings = processAppSettingsWithDefaultValue();
+        if (functionAppConfig.disableAppInsights()) {
+            draft.removeAppSetting(APPINSIGHTS_INSTRUMENTATION_KEY);
+        } else if (StringUtils.isNotEmpty(instrumentationKey)) {
+            appSettings.put(APPINSIGHTS_INSTRUMENTATION_KEY, instrumentationKey);
+        }
+        draft.setAppServicePlan(plan);
+        draft.setRuntime(getRuntime(functionAppConfig.runtime()));
+        draft.setDockerConfiguration(getDockerConfiguration(functionAppConfig.runtime()));
+        draft.setAppSettings(appSettings);
+        draft.setDiagnosticConfig(functionAppConfig.diagnosticConfig());
+        draft.removeAppSettings(functionAppConfig.appSettingsToRemove());
+        draft.setFlexConsumptionConfiguration(functionAppConfig.flexConsumptionConfiguration());
+    }
+
     private AzureTask<FunctionAppDeploymentSlot> getCreateFunctionSlotTask(FunctionAppDeploymentSlotDraft draft) {
         final AzureString title = AzureString.format("Create new slot({0}) on function app ({1})",
             functionAppConfig.deploymentSlotName(), functionAppConfig.appName());
@@ -242,22 +282,26 @@ public class CreateOrUpdateFunctionAppTask extends AzureTask<FunctionAppBase<?,
     private AzureTask<FunctionAppDeploymentSlot> getUpdateFunctionSlotTask(FunctionAppDeploymentSlotDraft draft) {
         final AzureString title = AzureString.format("Update function deployment slot({0})", functionAppConfig.deploymentSlotName());
         return new AzureTask<>(title, () -> {
-            final Map<String, String> appSettings = processAppSettingsWithDefaultValue();
-            if (functionAppConfig.disableAppInsights()) {
-                draft.removeAppSetting(APPINSIGHTS_INSTRUMENTATION_KEY);
-            } else if (StringUtils.isNotEmpty(instrumentationKey)) {
-                appSettings.put(APPINSIGHTS_INSTRUMENTATION_KEY, instrumentationKey);
-            }
-            draft.setRuntime(getRuntime(functionAppConfig.runtime()));
-            draft.setDockerConfiguration(getDockerConfiguration(functionAppConfig.runtime()));
-            draft.setDiagnosticConfig(functionAppConfig.diagnosticConfig());
-            // draft.setFlexConsumptionConfiguration(functionAppConfig.flexConsumptionConfiguration());
-            draft.setAppSettings(appSettings);
-            draft.removeAppSettings(functionAppConfig.appSettingsToRemove());
+            configureSlotUpdate(draft);
             return draft.commit();
         });
     }
 
+    private void configureSlotUpdate(FunctionAppDeploymentSlotDraft draft) {
+        final Map<String, String> appSettings = processAppSettingsWithDefaultValue();
+        if (functionAppConfig.disableAppInsights()) {
+            draft.removeAppSetting(APPINSIGHTS_INSTRUMENTATION_KEY);
+        } else if (StringUtils.isNotEmpty(instrumentationKey)) {
+            appSettings.put(APPINSIGHTS_INSTRUMENTATION_KEY, instrumentationKey);
+        }
+        draft.setRuntime(getRuntime(functionAppConfig.runtime()));
+        draft.setDockerConfiguration(getDockerConfiguration(functionAppConfig.runtime()));
+        draft.setDiagnosticConfig(functionAppConfig.diagnosticConfig());
+        // draft.setFlexConsumptionConfiguration(functionAppConfig.flexConsumptionConfiguration());
+        draft.setAppSettings(appSettings);
+        draft.removeAppSettings(functionAppConfig.appSettingsToRemove());
+    }
+
     private FunctionAppDeploymentSlotDraft getFunctionDeploymentSlot(final FunctionApp functionApp) {
         if (!functionApp.exists()) {
             throw new AzureToolkitRuntimeException(FUNCTION_APP_NOT_EXIST_FOR_SLOT);
@@ -323,11 +367,55 @@ public class CreateOrUpdateFunctionAppTask extends AzureTask<FunctionAppBase<?,
         return null;
     }
 
+    /**
+     * computes the configuration diff of the existing function app (slot) against the existing service plan and
+     * reports it. application insights and service plan are neither created nor updated.
+     */
+    @Nullable
+    private FunctionAppBase<?, ?, ?> dryRun() {
+        final IAzureMessager messager = AzureMessager.getMessager();
+        final FunctionApp app = Azure.az(AzureFunctions.class).functionApps(functionAppConfig.subscriptionId())
+            .get(functionAppConfig.appName(), functionAppConfig.resourceGroup());
+        if (Objects.isNull(app) || !app.exists()) {
+            messager.info(AzureString.format("[Dry run] Function app({0}) doesn't exist and would be created.", functionAppConfig.appName()));
+            return null;
+        }
+        final AppServiceConfigDiff diff;
+        final FunctionAppBase<?, ?, ?> result;
+        if (StringUtils.isEmpty(functionAppConfig.deploymentSlotName())) {
+            final AppServicePlanConfig planConfig = functionAppConfig.getServicePlanConfig();
+            final AppServicePlan plan = Azure.az(AzureAppService.class).plans(planConfig.getSubscriptionId())
+                .get(planConfig.getName(), planConfig.getResourceGroupName());
+            if (Objects.isNull(plan)) {
+                messager.info(AzureString.format("[Dry run] Service plan({0}) doesn't exist and would be created.", planConfig.getName()));
+            }
+            final FunctionAppDraft draft = (FunctionAppDraft) app.update();
+            configureUpdate(draft, plan);
+            diff = draft.getConfigDiff();
+            draft.reset();
+            result = app;
+        } else {
+            final FunctionAppDeploymentSlotDraft draft = app.slots().updateOrCreate(functionAppConfig.deploymentSlotName(), functionAppConfig.resourceGroup());
+            if (!draft.exists()) {
+                messager.info(AzureString.format("[Dry run] Deployment slot({0}) doesn't exist and would be created.", functionAppConfig.deploymentSlotName()));
+                return null;
+            }
+            configureSlotUpdate(draft);
+            diff = draft.getConfigDiff();
+            draft.reset();
+            result = draft;
+        }
+        messager.info(AzureString.format("[Dry run] Changes of {0}({1}): {2}", StringUtils.isEmpty(functionAppConfig.deploymentSlotName()) ?
+            "function app" : "deployment slot", result.getName(), diff.toString()));
+        return result;
+    }
+
     @Override
     public FunctionAppBase<?, ?, ?> doExecute() throws Exception {
-        for (AzureTask<?> task : this.tasks) {
-            task.getBody().call();
+        if (dryRun) {
+            return dryRun();
         }
+        this.graph.execute();
         return functionApp;
     }
 }
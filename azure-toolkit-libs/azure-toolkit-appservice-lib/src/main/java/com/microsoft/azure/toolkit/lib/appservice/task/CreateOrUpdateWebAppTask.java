@@ -6,6 +6,7 @@
 package com.microsoft.azure.toolkit.lib.appservice.task;
 
 import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.appservice.AppServiceConfigDiff;
 import com.microsoft.azure.toolkit.lib.appservice.AzureAppService;
 import com.microsoft.azure.toolkit.lib.appservice.config.AppServiceConfig;
 import com.microsoft.azure.toolkit.lib.appservice.config.AppServicePlanConfig;
@@ -15,6 +16,7 @@ import com.microsoft.azure.toolkit.lib.appservice.model.JavaVersion;
 import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
 import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
 import com.microsoft.azure.toolkit.lib.appservice.model.WebContainer;
+import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlan;
 import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlanDraft;
 import com.microsoft.azure.toolkit.lib.appservice.webapp.AzureWebApp;
 import com.microsoft.azure.toolkit.lib.appservice.webapp.WebApp;
@@ -24,6 +26,8 @@ import com.microsoft.azure.toolkit.lib.appservice.webapp.WebAppDeploymentSlotDra
 import com.microsoft.azure.toolkit.lib.appservice.webapp.WebAppDraft;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.Availability;
 import com.microsoft.azure.toolkit.lib.common.model.Region;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
@@ -35,16 +39,24 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.microsoft.azure.toolkit.lib.appservice.utils.Utils.throwForbidCreateResourceWarning;
 
 @Slf4j
 public class CreateOrUpdateWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
     private static final String CREATE_NEW_WEB_APP = "createNewWebApp";
+    static final String CHECK_NAME_AVAILABILITY = "checkNameAvailability";
+    static final String RESOURCE_GROUP = "resourceGroup";
+    static final String SERVICE_PLAN = "servicePlan";
+    static final String WEB_APP = "webApp";
     private static final String WEBAPP_NOT_EXIST_FOR_SLOT = "Target Web App does not exist. Please make sure the Web App name is correct.";
 
     private final AppServiceConfig config;
@@ -52,6 +64,11 @@ public class CreateOrUpdateWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
 
     @Setter
     private boolean skipCreateAzureResource;
+    /**
+     * only report the changes to make on the existing app (slot), nothing is created or updated in Azure.
+     */
+    @Setter
+    private boolean dryRun;
 
     public CreateOrUpdateWebAppTask(AppServiceConfig config) {
         this.config = config;
@@ -68,16 +85,14 @@ public class CreateOrUpdateWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
     private WebAppBase<?, ?, ?> createOrUpdateResource() {
         final AzureWebApp az = Azure.az(AzureWebApp.class);
         final WebApp target = az.webApps(config.subscriptionId()).getOrDraft(config.appName(), config.resourceGroup());
+        if (dryRun) {
+            return dryRun(target);
+        }
         if (!isDeployToDeploymentSlot()) {
             if (!target.exists()) {
                 if (skipCreateAzureResource) {
                     throwForbidCreateResourceWarning("Web app", config.appName());
                 }
-                final Availability result = Objects.requireNonNull(az.get(config.subscriptionId(), null)).checkNameAvailability(config.appName());
-                if (!result.isAvailable()) {
-                    throw new AzureToolkitRuntimeException(AzureString.format("Cannot create webapp {0} due to error: {1}",
-                            config.appName(), result.getUnavailabilityReason()).getString());
-                }
                 return create();
             } else {
                 return update(target);
@@ -100,42 +115,116 @@ public class CreateOrUpdateWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
         OperationContext.action().setTelemetryProperty(CREATE_NEW_WEB_APP, String.valueOf(true));
         final Region region = this.config.region();
         final AppServicePlanConfig planConfig = config.getServicePlanConfig();
+        final AtomicReference<AppServicePlan> plan = new AtomicReference<>();
+        final AtomicReference<WebApp> app = new AtomicReference<>();
 
-        new CreateResourceGroupTask(this.config.subscriptionId(), this.config.resourceGroup(), region).doExecute();
+        newCreateGraph(this::checkNameAvailability,
+            () -> new CreateResourceGroupTask(this.config.subscriptionId(), this.config.resourceGroup(), region).doExecute(),
+            () -> {
+                final AppServicePlanDraft planDraft = Azure.az(AzureAppService.class).plans(planConfig.getSubscriptionId())
+                    .updateOrCreate(planConfig.getName(), planConfig.getResourceGroupName());
+                planDraft.setPlanConfig(planConfig);
+                plan.set(planDraft.commit());
+                return plan.get();
+            },
+            () -> {
+                final WebAppDraft appDraft = Azure.az(AzureWebApp.class).webApps(config.subscriptionId()).create(config.appName(), config.resourceGroup());
+                appDraft.setAppServicePlan(plan.get());
+                appDraft.setRuntime(getRuntime(config.runtime()));
+                appDraft.setDiagnosticConfig(config.diagnosticConfig());
+                appDraft.setDockerConfiguration(getDockerConfiguration(config.runtime()));
+                appDraft.setAppSettings(config.appSettings());
+                app.set(appDraft.createIfNotExist());
+                return app.get();
+            }).execute();
+        return app.get();
+    }
 
-        final AppServicePlanDraft planDraft = Azure.az(AzureAppService.class).plans(planConfig.getSubscriptionId())
-            .updateOrCreate(planConfig.getName(), planConfig.getResourceGroupName());
-        planDraft.setPlanConfig(planConfig);
+    /**
+     * name availability is checked concurrently with the resource group and the service plan, the app is created
+     * only after both the name is available and the service plan is ready.
+     */
+    @Nonnull
+    static ProvisioningGraph newCreateGraph(@Nonnull Callable<?> checkNameAvailability, @Nonnull Callable<?> resourceGroup,
+                                            @Nonnull Callable<?> servicePlan, @Nonnull Callable<?> webApp) {
+        return new ProvisioningGraph()
+            .add(CHECK_NAME_AVAILABILITY, checkNameAvailability)
+            .add(RESOURCE_GROUP, resourceGroup)
+            .add(SERVICE_PLAN, servicePlan, RESOURCE_GROUP)
+            .add(WEB_APP, webApp, SERVICE_PLAN, CHECK_NAME_AVAILABILITY);
+    }
 
-        final WebAppDraft appDraft = Azure.az(AzureWebApp.class).webApps(config.subscriptionId()).create(config.appName(), config.resourceGroup());
-        appDraft.setAppServicePlan(planDraft.commit());
-        appDraft.setRuntime(getRuntime(config.runtime()));
-        appDraft.setDiagnosticConfig(config.diagnosticConfig());
-        appDraft.setDockerConfiguration(getDockerConfiguration(config.runtime()));
-        appDraft.setAppSettings(config.appSettings());
-        return appDraft.createIfNotExist();
+    private Availability checkNameAvailability() {
+        final Availability result = Objects.requireNonNull(Azure.az(AzureWebApp.class).get(config.subscriptionId(), null)).checkNameAvailability(config.appName());
+        if (!result.isAvailable()) {
+            throw new AzureToolkitRuntimeException(AzureString.format("Cannot create webapp {0} due to error: {1}",
+                    config.appName(), result.getUnavailabilityReason()).getString());
+        }
+        return result;
     }
 
     @AzureOperation(name = "azure/webapp.update_app.app", params = {"this.config.appName()"})
     private WebApp update(final WebApp webApp) {
         final WebAppDraft draft = (WebAppDraft) webApp.update();
         final AppServicePlanConfig servicePlanConfig = config.getServicePlanConfig();
-        final Runtime runtime = getRuntime(config.runtime());
-
         AppServicePlanDraft planDraft = Azure.az(AzureAppService.class).plans(servicePlanConfig.getSubscriptionId())
             .updateOrCreate(servicePlanConfig.getName(), servicePlanConfig.getResourceGroupName());
         if (skipCreateAzureResource && !planDraft.exists()) {
             throwForbidCreateResourceWarning("Service plan", servicePlanConfig.getResourceGroupName() + "/" + servicePlanConfig.getName());
         }
         planDraft.setPlanConfig(servicePlanConfig);
+        configureUpdate(draft, planDraft.commit());
+        return draft.updateIfExist();
+    }
 
-        draft.setAppServicePlan(planDraft.commit());
-        draft.setRuntime(runtime);
+    private void configureUpdate(final WebAppDraft draft, @Nullable final AppServicePlan plan) {
+        draft.setAppServicePlan(plan);
+        draft.setRuntime(getRuntime(config.runtime()));
         draft.setDockerConfiguration(getDockerConfiguration(config.runtime()));
         draft.setAppSettings(ObjectUtils.firstNonNull(config.appSettings(), new HashMap<>()));
         draft.setDiagnosticConfig(config.diagnosticConfig());
         draft.removeAppSettings(config.appSettingsToRemove());
-        return draft.updateIfExist();
+    }
+
+    /**
+     * computes the configuration diff of the existing app (slot) against the existing service plan and reports it.
+     * changes of the service plan itself (e.g. pricing tier) are not reported.
+     */
+    @Nullable
+    private WebAppBase<?, ?, ?> dryRun(final WebApp target) {
+        final IAzureMessager messager = AzureMessager.getMessager();
+        if (!target.exists()) {
+            messager.info(AzureString.format("[Dry run] Web app({0}) doesn't exist and would be created.", config.appName()));
+            return null;
+        }
+        final AppServiceConfigDiff diff;
+        final WebAppBase<?, ?, ?> result;
+        if (!isDeployToDeploymentSlot()) {
+            final AppServicePlanConfig planConfig = config.getServicePlanConfig();
+            final AppServicePlan plan = Azure.az(AzureAppService.class).plans(planConfig.getSubscriptionId())
+                .get(planConfig.getName(), planConfig.getResourceGroupName());
+            if (Objects.isNull(plan)) {
+                messager.info(AzureString.format("[Dry run] Service plan({0}) doesn't exist and would be created.", planConfig.getName()));
+            }
+            final WebAppDraft draft = (WebAppDraft) target.update();
+            configureUpdate(draft, plan);
+            diff = draft.getConfigDiff();
+            draft.reset();
+            result = target;
+        } else {
+            final WebAppDeploymentSlotDraft draft = target.slots().updateOrCreate(config.deploymentSlotName(), config.resourceGroup());
+            if (!draft.exists()) {
+                messager.info(AzureString.format("[Dry run] Deployment slot({0}) doesn't exist and would be created.", config.deploymentSlotName()));
+                return null;
+            }
+            configureSlotUpdate(draft);
+            diff = draft.getConfigDiff();
+            draft.reset();
+            result = draft;
+        }
+        messager.info(AzureString.format("[Dry run] Changes of {0}({1}): {2}", isDeployToDeploymentSlot() ? "deployment slot" : "web app",
+            result.getName(), diff.toString()));
+        return result;
     }
 
     @AzureOperation(name = "internal/webapp.create_slot.slot|app", params = {"this.config.deploymentSlotName()", "this.config.appName()"})
@@ -151,12 +240,16 @@ public class CreateOrUpdateWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
 
     @AzureOperation(name = "internal/webapp.update_slot.slot|app", params = {"this.config.deploymentSlotName()", "this.config.appName()"})
     private WebAppDeploymentSlot updateDeploymentSlot(final WebAppDeploymentSlotDraft draft) {
+        configureSlotUpdate(draft);
+        return draft.commit();
+    }
+
+    private void configureSlotUpdate(final WebAppDeploymentSlotDraft draft) {
         draft.setRuntime(getRuntime(config.runtime()));
         draft.setDockerConfiguration(getDockerConfiguration(config.runtime()));
         draft.setDiagnosticConfig(config.diagnosticConfig());
         draft.setAppSettings(config.appSettings());
         draft.removeAppSettings(config.appSettingsToRemove());
-        return draft.commit();
     }
 
     private boolean isDeployToDeploymentSlot() {
@@ -6,7 +6,9 @@
 package com.microsoft.azure.toolkit.lib.appservice.task;
 
 import com.microsoft.azure.toolkit.lib.appservice.model.*;
+import com.microsoft.azure.toolkit.lib.appservice.webapp.WebApp;
 import com.microsoft.azure.toolkit.lib.appservice.webapp.WebAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.webapp.WebAppDeploymentSlot;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
@@ -22,6 +24,8 @@ import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.PrintStream;
 import java.time.Duration;
 import java.util.List;
@@ -59,6 +63,12 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
     private long deploymentStatusMaxRefreshTimes = DEFAULT_DEPLOYMENT_STATUS_MAX_REFRESH_TIMES;
     @Setter
     private PrintStream deploymentStatusStream;
+    /**
+     * deploy to the staging slot, warm it up and swap it into production instead of deploying to production directly.
+     */
+    @Setter
+    @Nullable
+    private SlotSwapOptions slotSwapOptions;
 
 
     public DeployWebAppTask(WebAppBase<?, ?, ?> webApp, List<WebAppArtifact> artifacts) {
@@ -85,13 +95,33 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
             this.messager.info(AzureString.format(SKIP_DEPLOYMENT_FOR_DOCKER_APP_SERVICE, "https://" + webApp.getHostName()));
             return webApp;
         }
+        if (Objects.nonNull(slotSwapOptions)) {
+            return deployWithSlotSwap(slotSwapOptions);
+        }
         this.messager.info(String.format(DEPLOY_START, webApp.getName()));
-        deployArtifacts();
+        deployArtifacts(webApp);
         startAppService(webApp);
         return webApp;
     }
 
-    private void deployArtifacts() {
+    private WebAppBase<?, ?, ?> deployWithSlotSwap(@Nonnull SlotSwapOptions options) {
+        if (!(webApp instanceof WebApp)) {
+            throw new AzureToolkitRuntimeException(String.format("Slot swap deployment is only supported when deploying to web app, but %s is a deployment slot.", webApp.getName()));
+        }
+        final WebApp app = (WebApp) webApp;
+        final WebAppDeploymentSlot slot = app.slots().get(options.getSlotName(), app.getResourceGroupName());
+        if (Objects.isNull(slot) || !slot.exists()) {
+            throw new AzureToolkitRuntimeException(String.format("Deployment slot(%s) of web app(%s) doesn't exist, please create it first.", options.getSlotName(), app.getName()));
+        }
+        new SlotSwapDeployment(options).execute(() -> {
+            this.messager.info(String.format(DEPLOY_START, slot.getName()));
+            deployArtifacts(slot);
+            startAppService(slot);
+        }, "https://" + slot.getHostName(), "https://" + app.getHostName(), () -> app.swap(options.getSlotName()));
+        return webApp;
+    }
+
+    private void deployArtifacts(final WebAppBase<?, ?, ?> target) {
         if (artifacts.stream().anyMatch(artifact -> artifact.getDeployType() == null)) {
             throw new AzureToolkitRuntimeException("missing deployment type for some artifacts.");
         }
@@ -99,20 +129,24 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
         final List<WebAppArtifact> artifactsOneDeploy = this.artifacts.stream()
                 .filter(artifact -> artifact.getDeployType() != null)
                 .collect(Collectors.toList());
-        final boolean trackDeploymentStatus = isTrackDeploymentStatus();
+        final boolean trackDeploymentStatus = isTrackDeploymentStatus(target);
         if (trackDeploymentStatus) {
-            artifactsOneDeploy.forEach(resource -> deploymentResultAtomicReference.set(webApp.pushDeploy(resource.getDeployType(), resource.getFile(),
+            artifactsOneDeploy.forEach(resource -> deploymentResultAtomicReference.set(target.pushDeploy(resource.getDeployType(), resource.getFile(),
                 DeployOptions.builder().path(resource.getPath()).restartSite(restartSite).trackDeployment(true).build())));
         } else {
-            artifactsOneDeploy.forEach(resource -> webApp.deploy(resource.getDeployType(), resource.getFile(), DeployOptions.builder().path(resource.getPath()).restartSite(restartSite).build()));
+            artifactsOneDeploy.forEach(resource -> target.deploy(resource.getDeployType(), resource.getFile(), DeployOptions.builder().path(resource.getPath()).restartSite(restartSite).build()));
         }
-        if (!waitUntilDeploymentReady(trackDeploymentStatus, this.deploymentStatusRefreshInterval, this.deploymentStatusMaxRefreshTimes) && openStreamingLogOnFailure) {
-            new StreamingLogTask(webApp).doExecute();
+        if (!waitUntilDeploymentReady(target, trackDeploymentStatus, this.deploymentStatusRefreshInterval, this.deploymentStatusMaxRefreshTimes) && openStreamingLogOnFailure) {
+            new StreamingLogTask(target).doExecute();
         }
         OperationContext.action().setTelemetryProperty("deploy-cost", String.valueOf(System.currentTimeMillis() - startTime));
     }
 
     public boolean waitUntilDeploymentReady(boolean trackDeploymentStatus, long deploymentStatusRefreshInterval, long deploymentStatusMaxRefreshTimes) {
+        return waitUntilDeploymentReady(webApp, trackDeploymentStatus, deploymentStatusRefreshInterval, deploymentStatusMaxRefreshTimes);
+    }
+
+    private boolean waitUntilDeploymentReady(WebAppBase<?, ?, ?> target, boolean trackDeploymentStatus, long deploymentStatusRefreshInterval, long deploymentStatusMaxRefreshTimes) {
         final String trackId = Optional.ofNullable(deploymentResultAtomicReference.get())
             .map(KuduDeploymentResult::getDeploymentId).orElse(null);
         if (!trackDeploymentStatus || StringUtils.isBlank(trackId)) {
@@ -122,7 +156,7 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
         final Timer timer = new Timer();
         timer.schedule(new TrackDeploymentStatusTask(status), 0, DEPLOYMENT_STATUS_DISPLAY_REFRESH_INTERVAL);
         final CsmDeploymentStatus result = Mono.fromCallable(() -> {
-                final CsmDeploymentStatus deploymentStatus = webApp.getDeploymentStatus(trackId);
+                final CsmDeploymentStatus deploymentStatus = target.getDeploymentStatus(trackId);
                 status.set(deploymentStatus);
                 return deploymentStatus;
             })
@@ -144,21 +178,21 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
                     result.getErrors().stream().map(ErrorEntity::getMessage).collect(Collectors.joining(StringUtils.LF)) : StringUtils.EMPTY;
             final String failedInstancesLogs = CollectionUtils.isEmpty(result.getFailedInstancesLogs()) ?
                     StringUtils.join(result.getFailedInstancesLogs(), StringUtils.LF) : StringUtils.EMPTY;
-            throw new AzureToolkitRuntimeException(String.format("Failed to start app %s. %s %s", webApp.getName(), errorMessages, failedInstancesLogs));
+            throw new AzureToolkitRuntimeException(String.format("Failed to start app %s. %s %s", target.getName(), errorMessages, failedInstancesLogs));
         }
         return false;
     }
 
-    private boolean isTrackDeploymentStatus() {
-        if (BooleanUtils.isTrue(this.waitDeploymentComplete) && webApp.getFormalStatus().isStopped()) {
+    private boolean isTrackDeploymentStatus(final WebAppBase<?, ?, ?> target) {
+        if (BooleanUtils.isTrue(this.waitDeploymentComplete) && target.getFormalStatus().isStopped()) {
             messager.info("Skip waiting deployment status for stopped web app.");
             return false;
         }
-        if (BooleanUtils.isTrue(this.waitDeploymentComplete) && Objects.requireNonNull(webApp.getRuntime()).isWindows()) {
+        if (BooleanUtils.isTrue(this.waitDeploymentComplete) && Objects.requireNonNull(target.getRuntime()).isWindows()) {
             messager.warning("`waitDeploymentComplete` is not supported in Windows runtime, skip waiting for deployment status.");
             return false;
         }
-        return Optional.ofNullable(this.waitDeploymentComplete).orElse(Objects.requireNonNull(webApp.getRuntime()).isLinux());
+        return Optional.ofNullable(this.waitDeploymentComplete).orElse(Objects.requireNonNull(target.getRuntime()).isLinux());
     }
 
     private static void startAppService(WebAppBase<?, ?, ?> target) {
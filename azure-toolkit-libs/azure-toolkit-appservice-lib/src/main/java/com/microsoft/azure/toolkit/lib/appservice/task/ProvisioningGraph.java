@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.task;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.operation.OperationThreadContext;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * provisioning steps (e.g. creating resource group, app service plan, storage account and the app) and their
+ * dependencies. steps run as soon as all their dependencies succeed, so independent steps run concurrently. the graph
+ * fails fast: once a step fails, steps not started yet are cancelled and the failure is thrown.
+ */
+public class ProvisioningGraph {
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    /**
+     * @param dependsOn names of steps that must succeed before this step, they must be added before.
+     */
+    @Nonnull
+    public ProvisioningGraph add(@Nonnull String name, @Nonnull Callable<?> body, @Nonnull String... dependsOn) {
+        if (this.nodes.containsKey(name)) {
+            throw new IllegalArgumentException(String.format("duplicated step '%s'.", name));
+        }
+        for (final String dependency : dependsOn) {
+            if (!this.nodes.containsKey(dependency)) {
+                throw new IllegalArgumentException(String.format("step '%s' depends on unknown step '%s'.", name, dependency));
+            }
+        }
+        this.nodes.put(name, new Node(body, Arrays.asList(dependsOn)));
+        return this;
+    }
+
+    /**
+     * add the step only if {@code body} is not null, dependencies that are not added are ignored.
+     */
+    @Nonnull
+    public ProvisioningGraph addIfPresent(@Nonnull String name, @Nullable Callable<?> body, @Nonnull String... dependsOn) {
+        if (Objects.nonNull(body)) {
+            this.add(name, body, Arrays.stream(dependsOn).filter(this.nodes::containsKey).toArray(String[]::new));
+        }
+        return this;
+    }
+
+    public boolean contains(@Nonnull String name) {
+        return this.nodes.containsKey(name);
+    }
+
+    /**
+     * run all steps and wait until they all succeed or any of them fails.
+     */
+    public void execute() {
+        final Map<String, Mono<Void>> steps = new LinkedHashMap<>();
+        this.nodes.forEach((name, node) -> {
+            final List<Mono<Void>> dependencies = node.dependsOn.stream().map(steps::get).collect(Collectors.toList());
+            final OperationThreadContext context = OperationThreadContext.current().derive(); // steps run in the operation of caller
+            final Mono<Void> step = Mono.when(dependencies)
+                .then(Mono.fromRunnable(() -> run(context, node.body)).subscribeOn(Schedulers.boundedElastic()))
+                .then()
+                .cache(); // dependents share the same run
+            steps.put(name, step);
+        });
+        try {
+            Mono.when(steps.values()).block();
+        } catch (final RuntimeException e) {
+            final Throwable cause = Exceptions.unwrap(e);
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new AzureToolkitRuntimeException(cause);
+        }
+    }
+
+    private static void run(@Nonnull OperationThreadContext context, @Nonnull Callable<?> body) {
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        context.run(() -> {
+            try {
+                body.call();
+            } catch (final Throwable e) {
+                error.set(e);
+            }
+        });
+        if (Objects.nonNull(error.get())) {
+            throw Exceptions.propagate(error.get());
+        }
+    }
+
+    private static class Node {
+        private final Callable<?> body;
+        private final List<String> dependsOn;
+
+        private Node(@Nonnull Callable<?> body, @Nonnull List<String> dependsOn) {
+            this.body = body;
+            this.dependsOn = dependsOn;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.task;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.microsoft.azure.toolkit.lib.appservice.model.SlotSwapOptions;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * deploys to a staging slot, warms the slot up by probing it until it responds healthily (expected status code within
+ * the max latency) for several consecutive times, and then swaps it into production, so that real traffic never hits
+ * a cold site. production is probed again after swap and swapped back on failure if rollback is enabled.
+ */
+@Slf4j
+public class SlotSwapDeployment {
+    private static final Duration MIN_REQUEST_TIMEOUT = Duration.ofSeconds(1);
+
+    @Nonnull
+    private final SlotSwapOptions options;
+    @Nonnull
+    private final HttpClient httpClient;
+
+    public SlotSwapDeployment(@Nonnull SlotSwapOptions options) {
+        this(options, AbstractAzServiceSubscription.getDefaultHttpClient());
+    }
+
+    public SlotSwapDeployment(@Nonnull SlotSwapOptions options, @Nonnull HttpClient httpClient) {
+        this.options = options;
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * @param deployToSlot  deploys artifacts to the staging slot and starts it.
+     * @param slotUrl       base url of the staging slot, e.g. {@code https://app-staging.azurewebsites.net}
+     * @param productionUrl base url of the production, e.g. {@code https://app.azurewebsites.net}
+     * @param swap          swaps the staging slot into production, it's called again to roll back.
+     */
+    public void execute(@Nonnull Runnable deployToSlot, @Nonnull String slotUrl, @Nonnull String productionUrl, @Nonnull Runnable swap) {
+        final IAzureMessager messager = AzureMessager.getMessager();
+        final String slotName = options.getSlotName();
+        deployToSlot.run();
+        messager.info(AzureString.format("Warming up deployment slot({0})...", slotName));
+        if (!waitUntilHealthy(slotUrl, options.getWarmUpTimeout())) {
+            throw new AzureToolkitRuntimeException(String.format("Deployment slot(%s) is not healthy within %s, skip swapping it into production.",
+                slotName, options.getWarmUpTimeout()));
+        }
+        messager.info(AzureString.format("Deployment slot({0}) is warmed up, swapping it into production...", slotName));
+        swap.run();
+        if (waitUntilHealthy(productionUrl, options.getPostSwapTimeout())) {
+            messager.success(AzureString.format("Deployment slot({0}) is successfully swapped into production.", slotName));
+            return;
+        }
+        if (!options.isRollbackOnFailure()) {
+            messager.warning(AzureString.format("Production is not healthy within {0} after swapping deployment slot({1}) into production.",
+                options.getPostSwapTimeout(), slotName));
+            return;
+        }
+        messager.warning(AzureString.format("Production is not healthy after swap, swapping deployment slot({0}) back...", slotName));
+        swap.run();
+        throw new AzureToolkitRuntimeException(String.format("Production is not healthy within %s after swapping deployment slot(%s) into production, " +
+            "and it's swapped back.", options.getPostSwapTimeout(), slotName));
+    }
+
+    /**
+     * @return true if the site responds healthily for {@code successThreshold} consecutive times before timeout.
+     */
+    boolean waitUntilHealthy(@Nonnull String baseUrl, @Nonnull Duration timeout) {
+        final String url = StringUtils.removeEnd(baseUrl, "/") + "/" + StringUtils.removeStart(options.getProbePath(), "/");
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        int healthy = 0;
+        while (true) {
+            // cold requests are allowed to complete (to warm the site up) until deadline, they are just not healthy.
+            final Duration remaining = Duration.ofNanos(Math.max(deadline - System.nanoTime(), MIN_REQUEST_TIMEOUT.toNanos()));
+            healthy = probe(url, remaining) ? healthy + 1 : 0;
+            if (healthy >= options.getSuccessThreshold()) {
+                return true;
+            }
+            if (System.nanoTime() + options.getProbeInterval().toNanos() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(options.getProbeInterval().toMillis());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AzureToolkitRuntimeException("interrupted while probing " + url, e);
+            }
+        }
+    }
+
+    private boolean probe(@Nonnull String url, @Nonnull Duration timeout) {
+        final long start = System.nanoTime();
+        try {
+            final int status = Optional.ofNullable(this.httpClient.send(new HttpRequest(HttpMethod.GET, url))
+                .map(response -> {
+                    try (HttpResponse ignore = response) {
+                        return response.getStatusCode();
+                    }
+                })
+                .block(timeout)).orElse(-1);
+            final Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            final boolean healthy = status >= options.getMinStatusCode() && status <= options.getMaxStatusCode() && latency.compareTo(options.getMaxLatency()) <= 0;
+            log.debug("probed {}: status {}, latency {}ms, healthy: {}", url, status, latency.toMillis(), healthy);
+            return healthy;
+        } catch (final RuntimeException e) {
+            log.debug("failed to probe {}: {}", url, e.getMessage());
+            return false;
+        }
+    }
+}
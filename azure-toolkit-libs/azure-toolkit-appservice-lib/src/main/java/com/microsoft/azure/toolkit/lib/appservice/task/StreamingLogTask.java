@@ -12,16 +12,36 @@ import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
+import com.microsoft.azure.toolkit.lib.common.utils.MultiplexedLogStreamer;
 import reactor.core.Disposable;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class StreamingLogTask extends AzureTask<AppServiceAppBase<?, ?, ?>> {
     private final AppServiceAppBase<?, ?, ?> webApp;
+    private final List<AppServiceAppBase<?, ?, ?>> apps;
+    @Nullable
+    private final MultiplexedLogStreamer.LogFilter filter;
     private Disposable subscription;
 
     public StreamingLogTask(AppServiceAppBase<?, ?, ?> webApp) {
-        this.webApp = webApp;
+        this(Collections.singletonList(webApp), null);
+    }
+
+    /**
+     * follow logs of all {@code apps} (e.g. an app, its slots and related function apps) together, lines are tagged
+     * with app names if there are multiple apps.
+     */
+    public StreamingLogTask(@Nonnull List<? extends AppServiceAppBase<?, ?, ?>> apps, @Nullable MultiplexedLogStreamer.LogFilter filter) {
+        this.apps = new ArrayList<>(apps);
+        this.webApp = apps.get(0);
+        this.filter = filter;
     }
 
     @Override
@@ -31,23 +51,31 @@ public class StreamingLogTask extends AzureTask<AppServiceAppBase<?, ?, ?>> {
     }
 
     private void startStreamingLog() {
-        if (!webApp.isStreamingLogSupported()) {
+        final MultiplexedLogStreamer streamer = MultiplexedLogStreamer.fromConfig(this.filter);
+        this.apps.stream().filter(AppServiceAppBase::isStreamingLogSupported).forEach(app -> streamer.addSource(getTag(app), app.streamingLogs(true)));
+        if (streamer.getSourceCount() < 1) {
             return;
         }
         final IAzureMessager messager = AzureMessager.getMessager();
-        messager.info(AzureString.format("Opening streaming log of app({0})...", webApp.getName()));
+        final String names = this.apps.stream().filter(AppServiceAppBase::isStreamingLogSupported).map(StreamingLogTask::getTag).collect(Collectors.joining(", "));
+        messager.info(AzureString.format("Opening streaming log of app({0})...", names));
         messager.debug("###############STREAMING LOG BEGIN##################");
-        this.subscription = this.webApp.streamingLogs(true)
-                .doFinally((type) -> messager.debug("###############STREAMING LOG END##################"))
-                .subscribe(messager::debug);
+        this.subscription = streamer.follow(messager);
         try {
             TimeUnit.MINUTES.sleep(1);
         } catch (final Exception ignored) {
         } finally {
             stopStreamingLog();
+            messager.debug("###############STREAMING LOG END##################");
         }
     }
 
+    @Nonnull
+    private static String getTag(@Nonnull AppServiceAppBase<?, ?, ?> app) {
+        final Object parent = app.getParent();
+        return parent instanceof AppServiceAppBase ? String.format("%s/%s", ((AppServiceAppBase<?, ?, ?>) parent).getName(), app.getName()) : app.getName();
+    }
+
     private synchronized void stopStreamingLog() {
         if (subscription != null && !subscription.isDisposed()) {
             subscription.dispose();
@@ -10,6 +10,7 @@ import com.azure.core.util.Context;
 import com.azure.resourcemanager.appservice.models.DeploymentSlot;
 import com.azure.resourcemanager.appservice.models.DeploymentSlotBase;
 import com.azure.resourcemanager.appservice.models.WebApp;
+import com.microsoft.azure.toolkit.lib.appservice.AppServiceConfigDiff;
 import com.microsoft.azure.toolkit.lib.appservice.model.DiagnosticConfig;
 import com.microsoft.azure.toolkit.lib.appservice.model.DockerConfiguration;
 import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
@@ -40,7 +41,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.lib.appservice.webapp.WebAppDraft.CAN_NOT_UPDATE_EXISTING_APP_SERVICE_OS;
 import static com.microsoft.azure.toolkit.lib.appservice.webapp.WebAppDraft.UNSUPPORTED_OPERATING_SYSTEM;
@@ -137,41 +137,32 @@ public class WebAppDeploymentSlotDraft extends WebAppDeploymentSlot implements A
     @Override
     @AzureOperation(name = "azure/webapp.update_deployment_slot.slot", params = {"this.getName()"})
     public DeploymentSlot updateResourceInAzure(@Nonnull DeploymentSlot remote) {
-        final Map<String, String> oldAppSettings = Utils.normalizeAppSettings(remote.getAppSettings());
-        final Map<String, String> settingsToAdd = this.ensureConfig().getAppSettings();
-        if (ObjectUtils.allNotNull(oldAppSettings, settingsToAdd)) {
-            settingsToAdd.entrySet().removeAll(oldAppSettings.entrySet());
-        }
-        final Set<String> settingsToRemove = Optional.ofNullable(this.ensureConfig().getAppSettingsToRemove())
-                .map(set -> set.stream().filter(oldAppSettings::containsKey).collect(Collectors.toSet()))
-                .orElse(Collections.emptySet());
-        final Runtime newRuntime = this.ensureConfig().getRuntime();
-        final DockerConfiguration newDockerConfig = this.ensureConfig().getDockerConfiguration();
-        final DiagnosticConfig oldDiagnosticConfig = super.getDiagnosticConfig();
-        final DiagnosticConfig newDiagnosticConfig = this.ensureConfig().getDiagnosticConfig();
-
-        final Runtime oldRuntime = AppServiceUtils.getRuntimeFromAppService(remote);
-        boolean isRuntimeModified =  !oldRuntime.isDocker() && Objects.nonNull(newRuntime) && !Objects.equals(newRuntime, oldRuntime);
-        boolean isDockerConfigurationModified = oldRuntime.isDocker() && Objects.nonNull(newDockerConfig);
-        boolean isAppSettingsModified = MapUtils.isNotEmpty(settingsToAdd) || CollectionUtils.isNotEmpty(settingsToRemove);
-        boolean isDiagnosticConfigModified = Objects.nonNull(newDiagnosticConfig) && !Objects.equals(newDiagnosticConfig, oldDiagnosticConfig);
-        boolean modified = isDiagnosticConfigModified || isAppSettingsModified || isRuntimeModified || isDockerConfigurationModified;
-
-        if (modified) {
-            final DeploymentSlotBase.Update<DeploymentSlot> update = remote.update();
-            Optional.ofNullable(settingsToAdd).ifPresent(update::withAppSettings);
-            Optional.ofNullable(settingsToRemove).ifPresent(s -> s.forEach(update::withoutAppSetting));
-            Optional.ofNullable(newRuntime).ifPresent(r -> updateRuntime(update, r));
-            Optional.ofNullable(newDockerConfig)
+        final AppServiceConfigDiff diff = computeConfigDiff(remote);
+        return diff.applyTo(remote, DeploymentSlot::update, (DeploymentSlotBase.Update<DeploymentSlot> update) -> {
+            Optional.ofNullable(this.ensureConfig().getRuntime()).filter(ignore -> diff.isRuntimeModified()).ifPresent(r -> updateRuntime(update, r));
+            Optional.ofNullable(this.ensureConfig().getDockerConfiguration()).filter(ignore -> diff.isDockerConfigurationModified())
                     .ifPresent(dockerConfiguration -> updateDockerConfiguration(update, dockerConfiguration));
-            Optional.ofNullable(newDiagnosticConfig)
+            Optional.ofNullable(this.ensureConfig().getDiagnosticConfig()).filter(ignore -> diff.isDiagnosticConfigModified())
                     .ifPresent(diagnosticConfig -> AppServiceUtils.updateDiagnosticConfigurationForWebAppBase(update, diagnosticConfig));
-            final IAzureMessager messager = AzureMessager.getMessager();
-            messager.info(AzureString.format("Start updating Web App deployment slot({0})...", remote.name()));
-            remote = update.apply();
-            messager.success(AzureString.format("Web App deployment slot({0}) is successfully updated", remote.name()));
-        }
-        return remote;
+        }, "Web App deployment slot");
+    }
+
+    /**
+     * diff between the configuration of this draft and the current one of the deployment slot to update.
+     */
+    @Nonnull
+    public AppServiceConfigDiff getConfigDiff() {
+        return computeConfigDiff(Objects.requireNonNull(this.getRemote(), "updating target doesn't exist."));
+    }
+
+    @Nonnull
+    private AppServiceConfigDiff computeConfigDiff(@Nonnull DeploymentSlot remote) {
+        final Runtime oldRuntime = AppServiceUtils.getRuntimeFromAppService(remote);
+        return new AppServiceConfigDiff(Utils.normalizeAppSettings(remote.getAppSettings()))
+            .appSettings(this.ensureConfig().getAppSettings(), this.ensureConfig().getAppSettingsToRemove())
+            .runtime(oldRuntime, this.ensureConfig().getRuntime())
+            .dockerConfiguration(oldRuntime, remote.linuxFxVersion(), this.ensureConfig().getDockerConfiguration())
+            .diagnosticConfig(super.getDiagnosticConfig(), this.ensureConfig().getDiagnosticConfig());
     }
 
     private void updateRuntime(@Nonnull DeploymentSlotBase.Update<?> update, @Nonnull Runtime newRuntime) {
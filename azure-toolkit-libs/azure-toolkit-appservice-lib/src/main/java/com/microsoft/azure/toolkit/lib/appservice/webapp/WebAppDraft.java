@@ -9,6 +9,7 @@ import com.azure.resourcemanager.appservice.AppServiceManager;
 import com.azure.resourcemanager.appservice.models.WebApp.DefinitionStages;
 import com.azure.resourcemanager.appservice.models.WebApp.Update;
 import com.azure.resourcemanager.appservice.models.WebApp.UpdateStages;
+import com.microsoft.azure.toolkit.lib.appservice.AppServiceConfigDiff;
 import com.microsoft.azure.toolkit.lib.appservice.model.DiagnosticConfig;
 import com.microsoft.azure.toolkit.lib.appservice.model.DockerConfiguration;
 import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
@@ -36,7 +37,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class WebAppDraft extends WebApp implements AzResource.Draft<WebApp, com.azure.resourcemanager.appservice.models.WebApp> {
     public static final String UNSUPPORTED_OPERATING_SYSTEM = "Unsupported operating system %s";
@@ -137,43 +137,29 @@ public class WebAppDraft extends WebApp implements AzResource.Draft<WebApp, com.
     @Override
     @AzureOperation(name = "azure/webapp.update_app.app", params = {"this.getName()"})
     public com.azure.resourcemanager.appservice.models.WebApp updateResourceInAzure(@Nonnull com.azure.resourcemanager.appservice.models.WebApp remote) {
+        final AppServiceConfigDiff diff = getConfigDiff();
+        return diff.applyTo(remote, com.azure.resourcemanager.appservice.models.WebApp::update, update -> {
+            Optional.ofNullable(this.ensureConfig().getPlan()).filter(ignore -> diff.isPlanModified()).ifPresent(p -> updateAppServicePlan(update, p));
+            Optional.ofNullable(this.ensureConfig().getRuntime()).filter(ignore -> diff.isRuntimeModified()).ifPresent(p -> updateRuntime(update, p));
+            Optional.ofNullable(this.ensureConfig().getDockerConfiguration()).filter(ignore -> diff.isDockerConfigurationModified()).ifPresent(p -> updateDockerConfiguration(update, p));
+            Optional.ofNullable(this.ensureConfig().getDiagnosticConfig()).filter(ignore -> diff.isDiagnosticConfigModified())
+                .ifPresent(c -> AppServiceUtils.updateDiagnosticConfigurationForWebAppBase(update, c));
+        }, "Web App");
+    }
+
+    /**
+     * diff between the configuration of this draft and the current one of the app to update.
+     */
+    @Nonnull
+    public AppServiceConfigDiff getConfigDiff() {
         assert origin != null : "updating target is not specified.";
-        final Map<String, String> oldAppSettings = Objects.requireNonNull(origin.getAppSettings());
-        final Map<String, String> settingsToAdd = this.ensureConfig().getAppSettings();
-        if (ObjectUtils.allNotNull(oldAppSettings, settingsToAdd)) {
-            settingsToAdd.entrySet().removeAll(oldAppSettings.entrySet());
-        }
-        final Set<String> settingsToRemove = Optional.ofNullable(this.ensureConfig().getAppSettingsToRemove())
-                .map(set -> set.stream().filter(oldAppSettings::containsKey).collect(Collectors.toSet()))
-                .orElse(Collections.emptySet());
-        final DiagnosticConfig newDiagnosticConfig = this.ensureConfig().getDiagnosticConfig();
-        final Runtime newRuntime = this.ensureConfig().getRuntime();
-        final AppServicePlan newPlan = this.ensureConfig().getPlan();
-        final DockerConfiguration newDockerConfig = this.ensureConfig().getDockerConfiguration();
         final Runtime oldRuntime = origin.getRuntime();
-        final AppServicePlan oldPlan = origin.getAppServicePlan();
-
-        final boolean planModified = Objects.nonNull(newPlan) && !Objects.equals(newPlan, oldPlan);
-        final boolean runtimeModified = !Objects.requireNonNull(oldRuntime).isDocker() && Objects.nonNull(newRuntime) && !Objects.equals(newRuntime, oldRuntime);
-        final boolean dockerModified = oldRuntime.isDocker() && Objects.nonNull(newDockerConfig);
-        boolean modified = planModified || runtimeModified || dockerModified ||
-            MapUtils.isNotEmpty(settingsToAdd) || CollectionUtils.isNotEmpty(settingsToRemove) || Objects.nonNull(newDiagnosticConfig);
-
-        if (modified) {
-            final Update update = remote.update();
-            Optional.ofNullable(newPlan).ifPresent(p -> updateAppServicePlan(update, p));
-            Optional.ofNullable(newRuntime).ifPresent(p -> updateRuntime(update, p));
-            Optional.ofNullable(settingsToAdd).ifPresent(update::withAppSettings);
-            Optional.of(settingsToRemove).filter(CollectionUtils::isNotEmpty).ifPresent(s -> s.forEach(update::withoutAppSetting));
-            Optional.ofNullable(newDockerConfig).ifPresent(p -> updateDockerConfiguration(update, p));
-            Optional.ofNullable(newDiagnosticConfig).ifPresent(c -> AppServiceUtils.updateDiagnosticConfigurationForWebAppBase(update, newDiagnosticConfig));
-
-            final IAzureMessager messager = AzureMessager.getMessager();
-            messager.info(AzureString.format("Start updating Web App({0})...", remote.name()));
-            remote = update.apply();
-            messager.success(AzureString.format("Web App({0}) is successfully updated", remote.name()));
-        }
-        return remote;
+        return new AppServiceConfigDiff(origin.getAppSettings())
+            .appSettings(this.ensureConfig().getAppSettings(), this.ensureConfig().getAppSettingsToRemove())
+            .plan(origin.getAppServicePlan(), this.ensureConfig().getPlan())
+            .runtime(oldRuntime, this.ensureConfig().getRuntime())
+            .dockerConfiguration(oldRuntime, origin.getLinuxFxVersion(), this.ensureConfig().getDockerConfiguration())
+            .diagnosticConfig(origin.getDiagnosticConfig(), this.ensureConfig().getDiagnosticConfig());
     }
 
     private void updateAppServicePlan(@Nonnull Update update, @Nonnull AppServicePlan newPlan) {
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice;
+
+import com.azure.resourcemanager.appservice.models.WebApp;
+import com.microsoft.azure.toolkit.lib.appservice.model.DiagnosticConfig;
+import com.microsoft.azure.toolkit.lib.appservice.model.DockerConfiguration;
+import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AppServiceConfigDiffTest {
+    private FakeAppService service;
+
+    @Before
+    public void setUp() {
+        final Map<String, String> settings = new HashMap<>();
+        settings.put("KEY", "value");
+        settings.put("SECRET", "password");
+        settings.put("EMPTY", "");
+        this.service = new FakeAppService(settings, Runtime.LINUX_JAVA17_TOMCAT10);
+    }
+
+    @Test
+    public void testUnchangedConfigDoesNotRestart() {
+        final Map<String, String> settings = new HashMap<>(this.service.settings);
+        settings.put("EMPTY", null);
+        final AppServiceConfigDiff diff = this.service.deploy(settings, Collections.singleton("NOT_EXIST"),
+            Runtime.LINUX_JAVA17_TOMCAT10, this.service.diagnosticConfig, null);
+
+        Assert.assertTrue(diff.isEmpty());
+        Assert.assertEquals("no changes", diff.toString());
+        Assert.assertEquals(0, this.service.restarts);
+    }
+
+    @Test
+    public void testChangedSettingsOnly() {
+        final Map<String, String> settings = new HashMap<>(this.service.settings);
+        settings.put("SECRET", "new-password");
+        settings.put("NEW", "new");
+        final AppServiceConfigDiff diff = this.service.deploy(settings, Collections.singleton("KEY"), Runtime.LINUX_JAVA17_TOMCAT10, null, null);
+
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("SECRET", "new-password");
+        expected.put("NEW", "new");
+        Assert.assertEquals(expected, diff.getAppSettingsToAdd());
+        Assert.assertTrue(diff.getAppSettingsToRemove().isEmpty()); // re-added settings are not removed
+        Assert.assertFalse(diff.isRuntimeModified());
+        Assert.assertFalse(diff.toString().contains("password")); // values may be secrets
+        Assert.assertEquals(1, this.service.restarts);
+
+        // deploying the same configuration again changes nothing.
+        Assert.assertTrue(this.service.deploy(settings, Collections.singleton("KEY"), Runtime.LINUX_JAVA17_TOMCAT10, null, null).isEmpty());
+        Assert.assertEquals(1, this.service.restarts);
+    }
+
+    @Test
+    public void testRemovedSettingsAndRuntime() {
+        final AppServiceConfigDiff diff = this.service.deploy(null, Collections.singleton("KEY"), Runtime.LINUX_JAVA11_TOMCAT10, null, null);
+
+        Assert.assertTrue(diff.isRuntimeModified());
+        Assert.assertEquals(Collections.singleton("KEY"), diff.getAppSettingsToRemove());
+        Assert.assertTrue(diff.getAppSettingsToAdd().isEmpty());
+        Assert.assertEquals(1, this.service.restarts);
+        Assert.assertFalse(this.service.settings.containsKey("KEY"));
+
+        Assert.assertTrue(this.service.deploy(null, Collections.singleton("KEY"), Runtime.LINUX_JAVA11_TOMCAT10, null, null).isEmpty());
+        Assert.assertEquals(1, this.service.restarts);
+    }
+
+    @Test
+    public void testDiagnosticConfig() {
+        final DiagnosticConfig config = DiagnosticConfig.builder().enableApplicationLog(false).build();
+        Assert.assertTrue(this.service.deploy(null, null, null, config, null).isDiagnosticConfigModified());
+        Assert.assertTrue(this.service.deploy(null, null, null, config, null).isEmpty());
+        Assert.assertEquals(1, this.service.restarts);
+    }
+
+    @Test
+    public void testDockerConfiguration() {
+        final String digest = "sha256:" + StringUtils.repeat("a", 64);
+        final Map<String, String> settings = new HashMap<>();
+        settings.put("DOCKER_REGISTRY_SERVER_USERNAME", "user");
+        settings.put("DOCKER_REGISTRY_SERVER_PASSWORD", "password");
+        this.service = new FakeAppService(settings, Runtime.DOCKER);
+        this.service.linuxFxVersion = "DOCKER|myregistry.azurecr.io/app@" + digest;
+        final DockerConfiguration.DockerConfigurationBuilder<?, ?> builder = DockerConfiguration.builder()
+            .registryUrl("https://myregistry.azurecr.io").userName("user").password("password");
+
+        // runtime of docker apps is ignored, only the image and the credential matter.
+        Assert.assertTrue(this.service.deploy(null, null, Runtime.LINUX_JAVA17, null, builder.image("myregistry.azurecr.io/app@" + digest).build()).isEmpty());
+        Assert.assertTrue(this.service.deploy(null, null, null, null, builder.image("myregistry.azurecr.io/app:1.1").build()).isDockerConfigurationModified());
+        Assert.assertTrue(this.service.deploy(null, null, null, null, builder.image("myregistry.azurecr.io/app@" + digest).password("new-password").build()).isDockerConfigurationModified());
+        Assert.assertTrue(this.service.deploy(null, null, null, null, builder.build()).isEmpty());
+        Assert.assertEquals(2, this.service.restarts);
+    }
+
+    @Test
+    public void testDockerImageNotPinnedByDigestIsAlwaysPulled() {
+        this.service = new FakeAppService(new HashMap<>(), Runtime.DOCKER);
+        this.service.linuxFxVersion = "DOCKER|myregistry.azurecr.io/app:latest";
+        final DockerConfiguration config = DockerConfiguration.builder().image("myregistry.azurecr.io/app:latest").build();
+
+        // the same tag may point to a newly pushed image, so it's applied again on every deploy.
+        final AppServiceConfigDiff diff = this.service.deploy(null, null, null, null, config);
+        Assert.assertTrue(diff.isDockerConfigurationModified());
+        Assert.assertTrue(diff.toString().contains("pulled again"));
+        Assert.assertTrue(this.service.deploy(null, null, null, null, config).isDockerConfigurationModified());
+        Assert.assertEquals(2, this.service.restarts);
+    }
+
+    @Test
+    public void testUnchangedAppIsNotUpdated() {
+        final WebApp remote = Mockito.mock(WebApp.class);
+        final AppServiceConfigDiff diff = new AppServiceConfigDiff(this.service.settings)
+            .appSettings(this.service.settings, null)
+            .runtime(Runtime.LINUX_JAVA17_TOMCAT10, Runtime.LINUX_JAVA17_TOMCAT10);
+        final AtomicBoolean configured = new AtomicBoolean();
+
+        Assert.assertSame(remote, diff.applyTo(remote, WebApp::update, update -> configured.set(true), "Web App"));
+        Mockito.verify(remote, Mockito.never()).update();
+        Assert.assertFalse(configured.get());
+    }
+
+    @Test
+    public void testChangedAppIsUpdatedOnce() {
+        final WebApp remote = Mockito.mock(WebApp.class);
+        final WebApp updated = Mockito.mock(WebApp.class);
+        final WebApp.Update update = Mockito.mock(WebApp.Update.class);
+        Mockito.when(remote.update()).thenReturn(update);
+        Mockito.when(update.apply()).thenReturn(updated);
+        final AppServiceConfigDiff diff = new AppServiceConfigDiff(this.service.settings)
+            .appSettings(Collections.singletonMap("KEY", "new-value"), Collections.singleton("SECRET"))
+            .runtime(Runtime.LINUX_JAVA17_TOMCAT10, Runtime.LINUX_JAVA11_TOMCAT10);
+        final AtomicBoolean configured = new AtomicBoolean();
+
+        Assert.assertSame(updated, diff.applyTo(remote, WebApp::update, u -> configured.set(u == update), "Web App"));
+        Mockito.verify(update).withAppSettings(Collections.singletonMap("KEY", "new-value"));
+        Mockito.verify(update).withoutAppSetting("SECRET");
+        Mockito.verify(update, Mockito.times(1)).apply();
+        Assert.assertTrue(configured.get());
+    }
+
+    /**
+     * an existing app service that restarts whenever its configuration is updated, it's updated with the diff only
+     * if the diff is not empty, see {@link AppServiceConfigDiff#applyTo} for how the app/slot drafts do it.
+     */
+    private static class FakeAppService {
+        private final Map<String, String> settings;
+        private Runtime runtime;
+        private String linuxFxVersion;
+        private DiagnosticConfig diagnosticConfig = DiagnosticConfig.builder().enableApplicationLog(true).build();
+        private int restarts = 0;
+
+        FakeAppService(Map<String, String> settings, Runtime runtime) {
+            this.settings = settings;
+            this.runtime = runtime;
+        }
+
+        AppServiceConfigDiff deploy(@Nullable Map<String, String> appSettings, @Nullable Set<String> toRemove, @Nullable Runtime newRuntime,
+                                    @Nullable DiagnosticConfig newDiagnosticConfig, @Nullable DockerConfiguration newDockerConfig) {
+            final AppServiceConfigDiff diff = new AppServiceConfigDiff(new HashMap<>(this.settings))
+                .appSettings(appSettings, toRemove)
+                .plan(null, null)
+                .runtime(this.runtime, newRuntime)
+                .dockerConfiguration(this.runtime, this.linuxFxVersion, newDockerConfig)
+                .diagnosticConfig(this.diagnosticConfig, newDiagnosticConfig);
+            if (!diff.isEmpty()) {
+                this.settings.putAll(diff.getAppSettingsToAdd());
+                diff.getAppSettingsToRemove().forEach(this.settings::remove);
+                if (diff.isRuntimeModified()) {
+                    this.runtime = newRuntime;
+                }
+                if (diff.isDiagnosticConfigModified()) {
+                    this.diagnosticConfig = newDiagnosticConfig;
+                }
+                if (diff.isDockerConfigurationModified()) {
+                    this.linuxFxVersion = "DOCKER|" + newDockerConfig.getImage();
+                    this.settings.put("DOCKER_REGISTRY_SERVER_USERNAME", newDockerConfig.getUserName());
+                    this.settings.put("DOCKER_REGISTRY_SERVER_PASSWORD", newDockerConfig.getPassword());
+                }
+                this.restarts++;
+            }
+            return diff;
+        }
+    }
+}
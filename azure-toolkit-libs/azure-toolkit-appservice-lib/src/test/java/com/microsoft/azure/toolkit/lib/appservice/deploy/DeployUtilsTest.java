@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.deploy;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Base64;
+
+public class DeployUtilsTest {
+    private static final String CONNECTION_STRING = "DefaultEndpointsProtocol=https;AccountName=%s;EndpointSuffix=core.windows.net;AccountKey=" +
+        Base64.getEncoder().encodeToString("fake-account-key".getBytes());
+    private static final Duration VALIDITY = Duration.ofDays(1);
+
+    @Test
+    public void testBlobServiceClientIsCachedByConnectionString() {
+        final HttpClient httpClient = new NettyAsyncHttpClientBuilder().build();
+        final String connectionString = String.format(CONNECTION_STRING, "cached");
+        final BlobServiceClient client = DeployUtils.getBlobServiceClient(connectionString, () -> httpClient);
+        Assert.assertSame(client, DeployUtils.getBlobServiceClient(connectionString, () -> httpClient));
+        // cached client is returned without building another one
+        Assert.assertSame(client, DeployUtils.getBlobServiceClient(connectionString));
+        Assert.assertNotSame(client, DeployUtils.getBlobServiceClient(String.format(CONNECTION_STRING, "another"), () -> httpClient));
+        Assert.assertThrows(AzureToolkitRuntimeException.class, () -> DeployUtils.getBlobServiceClient("invalid", () -> httpClient));
+    }
+
+    @Test
+    public void testBlobSasUrlIsScopedToBlob() {
+        final BlobContainerClient container = container("account", "run-from-packages");
+        final String url = DeployUtils.getBlobSasUrl(container.getBlobClient("app.zip"), VALIDITY);
+        final String another = DeployUtils.getBlobSasUrl(container.getBlobClient("another.zip"), VALIDITY);
+        Assert.assertTrue(url.startsWith("https://account.blob.core.windows.net/run-from-packages/app.zip?"));
+        Assert.assertTrue(url.contains("sr=b"));
+        Assert.assertTrue(url.contains("sp=r&"));
+        Assert.assertNotEquals(url.substring(url.indexOf('?')), another.substring(another.indexOf('?')));
+    }
+
+    private static BlobContainerClient container(String account, String name) {
+        return new BlobServiceClientBuilder().connectionString(String.format(CONNECTION_STRING, account)).buildClient().getBlobContainerClient(name);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.deploy;
+
+import com.azure.resourcemanager.appservice.models.WebAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase;
+import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
+import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
+import com.microsoft.azure.toolkit.lib.appservice.model.PricingTier;
+import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
+import com.microsoft.azure.toolkit.lib.appservice.plan.AppServicePlan;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceModule;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FunctionDeployHandlerRegistryTest {
+    private final File file = new File("function.zip");
+    private final FakeDeployHandler registered = new FakeDeployHandler(FunctionDeployType.ZIP);
+
+    @BeforeClass
+    public static void init() {
+        // `AzResourceModule.NONE` must be initialized before `AzResource.NONE`, which is referenced by azure resources
+        Objects.requireNonNull(AzResourceModule.NONE);
+    }
+
+    @After
+    public void tearDown() {
+        FunctionDeployHandlerRegistry.unregister(this.registered);
+    }
+
+    @Test
+    public void testLoadedHandlerIsReusedAcrossDeploys() {
+        // FakeDeployHandler is provided as MSDEPLOY handler through META-INF/services of test resources.
+        final IFunctionDeployHandler handler = FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.MSDEPLOY);
+        Assert.assertTrue(handler instanceof FakeDeployHandler);
+        final int instances = FakeDeployHandler.instances.size();
+
+        handler.deploy(this.file, Mockito.mock(WebAppBase.class));
+        FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.MSDEPLOY).deploy(this.file, Mockito.mock(WebAppBase.class));
+
+        Assert.assertSame(handler, FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.MSDEPLOY));
+        Assert.assertEquals(2, ((FakeDeployHandler) handler).deploys.get());
+        Assert.assertEquals(instances, FakeDeployHandler.instances.size());
+    }
+
+    @Test
+    public void testRegisteredHandlerTakesPrecedence() {
+        Assert.assertTrue(FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.ZIP) instanceof ZIPFunctionDeployHandler);
+        FunctionDeployHandlerRegistry.register(this.registered);
+        Assert.assertSame(this.registered, FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.ZIP));
+
+        FunctionDeployHandlerRegistry.unregister(this.registered);
+        Assert.assertTrue(FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.ZIP) instanceof ZIPFunctionDeployHandler);
+    }
+
+    @Test
+    public void testRegisterKeepsLoadedHandlers() {
+        final IFunctionDeployHandler loaded = FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.MSDEPLOY);
+        final int instances = FakeDeployHandler.instances.size();
+
+        FunctionDeployHandlerRegistry.register(this.registered);
+        Assert.assertSame(loaded, FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.MSDEPLOY));
+        FunctionDeployHandlerRegistry.unregister(this.registered);
+        Assert.assertSame(loaded, FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.MSDEPLOY));
+        // only the registered handler is created, loaded handlers are not re-instantiated.
+        Assert.assertEquals(instances, FakeDeployHandler.instances.size());
+    }
+
+    @Test
+    public void testRegisteredHandlersAreOrdered() {
+        final FakeDeployHandler first = new FakeDeployHandler(FunctionDeployType.ZIP, 1);
+        final FakeDeployHandler second = new FakeDeployHandler(FunctionDeployType.ZIP, 5);
+        FunctionDeployHandlerRegistry.register(first);
+        FunctionDeployHandlerRegistry.register(second); // registered later but with a larger order
+        FunctionDeployHandlerRegistry.register(this.registered);
+        try {
+            Assert.assertSame(this.registered, FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.ZIP));
+            final List<IFunctionDeployHandler> handlers = FunctionDeployHandlerRegistry.getHandlers();
+            Assert.assertEquals(Arrays.asList(this.registered, first, second), handlers.subList(0, 3));
+            FunctionDeployHandlerRegistry.unregister(this.registered);
+            Assert.assertSame(first, FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.ZIP));
+        } finally {
+            FunctionDeployHandlerRegistry.unregister(first);
+            FunctionDeployHandlerRegistry.unregister(second);
+        }
+    }
+
+    @Test
+    public void testDefaultDeployType() {
+        Assert.assertEquals(FunctionDeployType.FLEX, defaultDeployType(PricingTier.FLEX_CONSUMPTION, OperatingSystem.LINUX));
+        Assert.assertEquals(FunctionDeployType.RUN_FROM_ZIP, defaultDeployType(PricingTier.CONSUMPTION, OperatingSystem.WINDOWS));
+        Assert.assertEquals(FunctionDeployType.RUN_FROM_ZIP, defaultDeployType(PricingTier.ELASTIC_PREMIUM_EP1, OperatingSystem.WINDOWS));
+        Assert.assertEquals(FunctionDeployType.RUN_FROM_ZIP, defaultDeployType(PricingTier.PREMIUM_P1V2, OperatingSystem.WINDOWS));
+        Assert.assertEquals(FunctionDeployType.RUN_FROM_BLOB, defaultDeployType(PricingTier.CONSUMPTION, OperatingSystem.LINUX));
+        Assert.assertEquals(FunctionDeployType.RUN_FROM_BLOB, defaultDeployType(PricingTier.ELASTIC_PREMIUM_EP2, OperatingSystem.LINUX));
+        Assert.assertEquals(FunctionDeployType.RUN_FROM_ZIP, defaultDeployType(PricingTier.BASIC_B1, OperatingSystem.LINUX));
+        Assert.assertEquals(FunctionDeployType.RUN_FROM_ZIP, defaultDeployType(PricingTier.PREMIUM_P1V3, OperatingSystem.DOCKER));
+        // app without service plan or runtime is taken as linux dedicated.
+        Assert.assertEquals(FunctionDeployType.RUN_FROM_ZIP, FunctionDeployHandlerRegistry.getDefaultDeployType(Mockito.mock(FunctionAppBase.class)));
+    }
+
+    @Test
+    public void testBuiltInHandlersAreShared() {
+        for (final FunctionDeployType type : FunctionDeployType.values()) {
+            final IFunctionDeployHandler handler = FunctionDeployHandlerRegistry.getHandler(type);
+            Assert.assertEquals(type, handler.getDeployType());
+            Assert.assertSame(handler, FunctionDeployHandlerRegistry.getHandler(type));
+        }
+        // built-in handlers are probed in order: flex, run from blob and then run from zip as fallback.
+        Assert.assertTrue(FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.FLEX).getOrder() <
+            FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.RUN_FROM_BLOB).getOrder());
+        Assert.assertTrue(FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.RUN_FROM_BLOB).getOrder() <
+            FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.RUN_FROM_ZIP).getOrder());
+    }
+
+    @Test
+    public void testUntypedHandlerIsNeverPicked() {
+        final IFunctionDeployHandler untyped = (file, webApp) -> Assert.fail();
+        FunctionDeployHandlerRegistry.register(untyped);
+        try {
+            Assert.assertNotSame(untyped, FunctionDeployHandlerRegistry.getHandler(FunctionDeployType.ZIP));
+        } finally {
+            FunctionDeployHandlerRegistry.unregister(untyped);
+        }
+    }
+
+    private static FunctionDeployType defaultDeployType(PricingTier tier, OperatingSystem os) {
+        final AppServicePlan plan = Mockito.mock(AppServicePlan.class);
+        Mockito.when(plan.getPricingTier()).thenReturn(tier);
+        final Runtime runtime = Mockito.mock(Runtime.class);
+        Mockito.when(runtime.getOperatingSystem()).thenReturn(os);
+        final FunctionAppBase<?, ?, ?> app = Mockito.mock(FunctionAppBase.class);
+        Mockito.when(app.getAppServicePlan()).thenReturn(plan);
+        Mockito.when(app.getRuntime()).thenReturn(runtime);
+        return FunctionDeployHandlerRegistry.getDefaultDeployType(app);
+    }
+
+    public static class FakeDeployHandler implements IFunctionDeployHandler {
+        private static final Set<FakeDeployHandler> instances = ConcurrentHashMap.newKeySet();
+        private final FunctionDeployType type;
+        private final int order;
+        private final AtomicInteger deploys = new AtomicInteger();
+
+        public FakeDeployHandler() {
+            this(FunctionDeployType.MSDEPLOY);
+        }
+
+        FakeDeployHandler(FunctionDeployType type) {
+            // takes precedence over the built-in MSDEPLOY handler
+            this(type, -1);
+        }
+
+        FakeDeployHandler(FunctionDeployType type, int order) {
+            this.type = type;
+            this.order = order;
+            instances.add(this);
+        }
+
+        @Override
+        public void deploy(@Nonnull File file, @Nonnull WebAppBase webAppBase) {
+            this.deploys.incrementAndGet();
+        }
+
+        @Override
+        public FunctionDeployType getDeployType() {
+            return this.type;
+        }
+
+        @Override
+        public int getOrder() {
+            return this.order;
+        }
+    }
+}
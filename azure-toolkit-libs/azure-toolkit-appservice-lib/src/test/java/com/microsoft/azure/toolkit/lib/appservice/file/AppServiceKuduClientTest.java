@@ -0,0 +1,588 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.file;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpPipelineBuilder;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.util.FluxUtil;
+import com.google.common.base.Ticker;
+import com.microsoft.azure.toolkit.lib.appservice.model.AppServiceFile;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+public class AppServiceKuduClientTest {
+    private static final String HOST = "https://app.scm.azurewebsites.net";
+    private KuduVfsStub kudu;
+    private FakeTicker ticker;
+    private AppServiceKuduClient client;
+
+    @Before
+    public void setUp() {
+        this.kudu = new KuduVfsStub();
+        this.kudu.files.put("site/wwwroot/index.html", "<html></html>");
+        this.kudu.files.put("site/wwwroot/app.jar", "jar");
+        this.kudu.files.put("site/wwwroot/static/app.js", "js");
+        this.ticker = new FakeTicker();
+        this.client = new AppServiceKuduClient(HOST, new HttpPipelineBuilder().httpClient(this.kudu).build(), null, this.ticker);
+    }
+
+    @Test
+    public void testReuseListing() {
+        for (int i = 0; i < 5; i++) {
+            final List<? extends AppServiceFile> files = this.client.getFilesInDirectory("/home/site/wwwroot");
+            Assert.assertEquals(3, files.size());
+        }
+        Assert.assertEquals(1, this.kudu.count(HttpMethod.GET));
+
+        this.ticker.advance(11, TimeUnit.SECONDS); // expired
+        this.client.getFilesInDirectory("/site/wwwroot/");
+        Assert.assertEquals(2, this.kudu.count(HttpMethod.GET));
+    }
+
+    @Test
+    public void testInvalidateOnWrites() {
+        this.client.getFilesInDirectory("/site/wwwroot");
+        this.client.uploadFileToPath("new", "/site/wwwroot/new.txt");
+        Assert.assertEquals(4, this.client.getFilesInDirectory("/site/wwwroot").size());
+        Assert.assertEquals(2, this.kudu.count(HttpMethod.GET));
+
+        this.client.getFilesInDirectory("/site/wwwroot/static");
+        this.client.deleteFile("/site/wwwroot/static");
+        Assert.assertEquals(3, this.client.getFilesInDirectory("/site/wwwroot").size());
+        Assert.assertEquals(0, this.client.getFilesInDirectory("/site/wwwroot/static").size());
+        Assert.assertEquals(5, this.kudu.count(HttpMethod.GET));
+    }
+
+    @Test
+    public void testGetFileByPathWithoutListing() {
+        final AppServiceFile file = this.client.getFileByPath("/home/site/wwwroot/index.html");
+        Assert.assertNotNull(file);
+        Assert.assertEquals("index.html", file.getName());
+        Assert.assertEquals(13, file.getSize());
+        Assert.assertEquals("text/html", file.getMime());
+        Assert.assertEquals(AppServiceFile.Type.FILE, file.getType());
+
+        final AppServiceFile dir = this.client.getFileByPath("/site/wwwroot/static");
+        Assert.assertNotNull(dir);
+        Assert.assertEquals(AppServiceFile.Type.DIRECTORY, dir.getType());
+
+        Assert.assertNull(this.client.getFileByPath("/site/wwwroot/missing.txt"));
+        Assert.assertEquals(3, this.kudu.count(HttpMethod.HEAD));
+        Assert.assertEquals(0, this.kudu.count(HttpMethod.GET));
+    }
+
+    @Test
+    public void testGetFileByPathFromCachedListing() {
+        this.client.getFilesInDirectory("/site/wwwroot");
+        Assert.assertEquals("app.jar", this.client.getFileByPath("/site/wwwroot/app.jar").getName());
+        Assert.assertNull(this.client.getFileByPath("/site/wwwroot/missing.txt"));
+        Assert.assertEquals(1, this.kudu.count(HttpMethod.GET));
+        Assert.assertEquals(0, this.kudu.count(HttpMethod.HEAD));
+    }
+
+    @Test
+    public void testStreamLargeFileWithConstantMemory() throws IOException {
+        final long size = 1024L * 1024 * 1024;
+        final KuduStreamStub stub = new KuduStreamStub(size, false);
+        final AppServiceKuduClient streamClient = new AppServiceKuduClient(HOST, new HttpPipelineBuilder().httpClient(stub).build(), null, this.ticker);
+        final HeapSampler heap = new HeapSampler();
+
+        final String eTag = streamClient.uploadFile(new SyntheticInputStream(size), size, "/site/wwwroot/large.bin", null);
+        Assert.assertEquals(size, stub.received.get());
+        Assert.assertEquals(checksum(size), stub.receivedChecksum.getValue());
+        Assert.assertEquals("\"1\"", eTag);
+
+        final CheckedOutputStream output = new CheckedOutputStream(new NullOutputStream(), new CRC32());
+        Assert.assertEquals("\"1\"", streamClient.downloadFile("/site/wwwroot/large.bin", output, false));
+        Assert.assertEquals(checksum(size), output.getChecksum().getValue());
+        // neither direction holds the 1GB file in memory.
+        final long growth = heap.stop();
+        Assert.assertTrue("heap grew by " + growth + " bytes", growth < 128L * 1024 * 1024);
+    }
+
+    @Test
+    public void testDownloadGzip() throws IOException {
+        final long size = 64L * 1024 * 1024;
+        final KuduStreamStub stub = new KuduStreamStub(size, true);
+        final AppServiceKuduClient streamClient = new AppServiceKuduClient(HOST, new HttpPipelineBuilder().httpClient(stub).build(), null, this.ticker);
+        final CheckedOutputStream output = new CheckedOutputStream(new NullOutputStream(), new CRC32());
+        streamClient.downloadFile("/site/wwwroot/large.bin", output, true);
+        Assert.assertEquals(checksum(size), output.getChecksum().getValue());
+    }
+
+    @Test
+    public void testReadPipedWithoutBlockingEmittingThread() throws IOException {
+        final Scheduler eventLoop = Schedulers.newSingle("event-loop");
+        try {
+            final int chunks = 64;
+            final Flux<ByteBuffer> content = Flux.range(0, chunks).map(i -> ByteBuffer.wrap(new byte[64 * 1024])).subscribeOn(eventLoop);
+            AppServiceKuduClient.readPiped(content, input -> {
+                sleep(200); // the pipe is full by now.
+                final Boolean free = Mono.fromCallable(() -> true).subscribeOn(eventLoop).block(Duration.ofSeconds(5));
+                Assert.assertEquals("the emitting thread is blocked by the full pipe", Boolean.TRUE, free);
+                Assert.assertEquals(chunks * 64L * 1024, IOUtils.consume(input));
+            });
+        } finally {
+            eventLoop.dispose();
+        }
+    }
+
+    @Test
+    public void testUploadAndDownloadFilePath() throws IOException {
+        final long size = 1024L * 1024 + 17;
+        final KuduStreamStub stub = new KuduStreamStub(size, false);
+        final AppServiceKuduClient streamClient = new AppServiceKuduClient(HOST, new HttpPipelineBuilder().httpClient(stub).build(), null, this.ticker);
+        final Path dir = Files.createTempDirectory("kudu");
+        try {
+            final Path source = dir.resolve("source.bin");
+            Files.copy(new SyntheticInputStream(size), source);
+            streamClient.uploadFile(source, "/site/wwwroot/source.bin", null);
+            Assert.assertEquals(String.valueOf(size), stub.contentLength.get());
+            Assert.assertEquals(checksum(size), stub.receivedChecksum.getValue());
+
+            final Path target = dir.resolve("target.bin");
+            streamClient.downloadFile("/site/wwwroot/source.bin", target, false);
+            Assert.assertArrayEquals(Files.readAllBytes(source), Files.readAllBytes(target));
+            Assert.assertFalse(Files.exists(dir.resolve("target.bin.part")));
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    @Test
+    public void testUploadIfMatch() {
+        final KuduStreamStub stub = new KuduStreamStub(16, false);
+        final AppServiceKuduClient streamClient = new AppServiceKuduClient(HOST, new HttpPipelineBuilder().httpClient(stub).build(), null, this.ticker);
+        final String eTag = streamClient.uploadFile(new SyntheticInputStream(16), 16, "/site/wwwroot/a.txt", null);
+        Assert.assertEquals("*", stub.ifMatch.get());
+        Assert.assertEquals("\"2\"", streamClient.uploadFile(new SyntheticInputStream(16), 16, "/site/wwwroot/a.txt", eTag));
+        Assert.assertEquals(eTag, stub.ifMatch.get());
+        try {
+            streamClient.uploadFile(new SyntheticInputStream(16), 16, "/site/wwwroot/a.txt", eTag); // stale
+            Assert.fail("stale ETag is accepted");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("has been modified"));
+        }
+    }
+
+    @Test
+    public void testUploadDirectoryInOneRequest() throws IOException {
+        final Path dir = Files.createTempDirectory("kudu");
+        try {
+            for (int i = 0; i < 1000; i++) {
+                final Path file = dir.resolve(String.format("lib/%d/file-%d.txt", i % 10, i));
+                Files.createDirectories(file.getParent());
+                Files.write(file, ("content-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            this.client.getFilesInDirectory("/site/wwwroot");
+            this.client.uploadDirectory(dir, "/home/site/wwwroot/");
+
+            Assert.assertEquals(1, this.kudu.count(HttpMethod.PUT));
+            Assert.assertEquals(1003, this.kudu.files.size());
+            Assert.assertEquals("content-42", this.kudu.files.get("site/wwwroot/lib/2/file-42.txt"));
+            Assert.assertEquals(4, this.client.getFilesInDirectory("/site/wwwroot").size()); // listing is refreshed
+            Assert.assertEquals(2, this.kudu.count(HttpMethod.GET));
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    @Test
+    public void testDownloadDirectoryInOneRequest() throws IOException {
+        final Path dir = Files.createTempDirectory("kudu");
+        try {
+            this.client.downloadDirectory("/site/wwwroot", dir.resolve("wwwroot"));
+            Assert.assertEquals(1, this.kudu.count(HttpMethod.GET));
+            Assert.assertEquals("<html></html>", FileUtils.readFileToString(dir.resolve("wwwroot/index.html").toFile(), StandardCharsets.UTF_8));
+            Assert.assertEquals("js", FileUtils.readFileToString(dir.resolve("wwwroot/static/app.js").toFile(), StandardCharsets.UTF_8));
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    @Test
+    public void testRejectPathTraversalOnExtract() throws IOException {
+        this.kudu.files.put("site/wwwroot/../../evil.txt", "evil");
+        final Path dir = Files.createTempDirectory("kudu");
+        try {
+            this.client.downloadDirectory("/site/wwwroot", dir.resolve("wwwroot"));
+            Assert.fail("entry outside of target directory is extracted");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("outside of target directory"));
+            Assert.assertFalse(Files.exists(dir.resolve("../evil.txt")));
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte pattern(long offset) {
+        return (byte) (offset % 251);
+    }
+
+    private static long checksum(long size) {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[64 * 1024];
+        for (long offset = 0; offset < size; offset += buffer.length) {
+            final int length = (int) Math.min(buffer.length, size - offset);
+            for (int i = 0; i < length; i++) {
+                buffer[i] = pattern(offset + i);
+            }
+            crc.update(buffer, 0, length);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * stub of the kudu vfs api serving/accepting a synthetic file of {@code size} bytes without keeping it in memory.
+     */
+    private static class KuduStreamStub implements HttpClient {
+        private final long size;
+        private final boolean gzip;
+        private final AtomicLong received = new AtomicLong();
+        private final CRC32 receivedChecksum = new CRC32();
+        private final AtomicInteger version = new AtomicInteger();
+        private final AtomicReference<String> ifMatch = new AtomicReference<>();
+        private final AtomicReference<String> contentLength = new AtomicReference<>();
+
+        private KuduStreamStub(long size, boolean gzip) {
+            this.size = size;
+            this.gzip = gzip;
+        }
+
+        private String eTag() {
+            return "\"" + this.version.get() + "\"";
+        }
+
+        @Override
+        public Mono<HttpResponse> send(HttpRequest request) {
+            if (request.getHttpMethod() == HttpMethod.PUT) {
+                final String match = request.getHeaders().getValue("If-Match");
+                this.ifMatch.set(match);
+                this.contentLength.set(request.getHeaders().getValue("Content-Length"));
+                if (!"*".equals(match) && !this.eTag().equals(match)) {
+                    return Mono.just(new StubResponse(request, 412, new HttpHeaders(), ""));
+                }
+                this.received.set(0);
+                this.receivedChecksum.reset();
+                return request.getBody().doOnNext(buffer -> {
+                    this.received.addAndGet(buffer.remaining());
+                    this.receivedChecksum.update(buffer);
+                }).then(Mono.fromCallable(() -> {
+                    this.version.incrementAndGet();
+                    return new StubResponse(request, 201, new HttpHeaders().set("ETag", this.eTag()), "");
+                }));
+            }
+            final HttpHeaders headers = new HttpHeaders().set("ETag", this.eTag()).set("Content-Type", "application/octet-stream");
+            if (this.gzip && StringUtils.contains(request.getHeaders().getValue("Accept-Encoding"), "gzip")) {
+                final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (final GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+                    IOUtils.copy(new SyntheticInputStream(this.size), output);
+                } catch (final IOException e) {
+                    return Mono.error(e);
+                }
+                return Mono.just(new StubResponse(request, 200, headers.set("Content-Encoding", "gzip"), compressed.toByteArray()));
+            }
+            final int chunk = 64 * 1024;
+            final Flux<ByteBuffer> body = Flux.generate(() -> 0L, (offset, sink) -> {
+                if (offset >= this.size) {
+                    sink.complete();
+                    return offset;
+                }
+                final byte[] bytes = new byte[(int) Math.min(chunk, this.size - offset)];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = pattern(offset + i);
+                }
+                sink.next(ByteBuffer.wrap(bytes));
+                return offset + bytes.length;
+            });
+            return Mono.just(new StubResponse(request, 200, headers.set("Content-Length", String.valueOf(this.size)), body));
+        }
+    }
+
+    private static class SyntheticInputStream extends InputStream {
+        private final long size;
+        private long offset;
+
+        private SyntheticInputStream(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            return this.offset < this.size ? pattern(this.offset++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(@Nonnull byte[] b, int off, int len) {
+            if (this.offset >= this.size) {
+                return -1;
+            }
+            final int count = (int) Math.min(len, this.size - this.offset);
+            for (int i = 0; i < count; i++) {
+                b[off + i] = pattern(this.offset++);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * samples the live heap (after gc) in background, {@link #stop()} returns the max growth since it's started.
+     */
+    private static class HeapSampler {
+        private final long baseline = used();
+        private final AtomicLong max = new AtomicLong();
+        private final Thread thread;
+
+        private HeapSampler() {
+            this.thread = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    this.max.accumulateAndGet(used(), Math::max);
+                    try {
+                        Thread.sleep(200);
+                    } catch (final InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private static long used() {
+            System.gc();
+            return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        }
+
+        private long stop() {
+            this.thread.interrupt();
+            return Math.max(0, this.max.get() - this.baseline);
+        }
+    }
+
+    /**
+     * in-memory stub of the kudu vfs api, which counts requests by method.
+     */
+    private static class KuduVfsStub implements HttpClient {
+        private final Map<String, String> files = new TreeMap<>();
+        private final Map<HttpMethod, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+        private static String decode(String path) {
+            try {
+                return URLDecoder.decode(path, StandardCharsets.UTF_8.name());
+            } catch (final UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private int count(HttpMethod method) {
+            return this.requests.computeIfAbsent(method, m -> new AtomicInteger()).get();
+        }
+
+        @Override
+        public Mono<HttpResponse> send(HttpRequest request) {
+            this.requests.computeIfAbsent(request.getHttpMethod(), m -> new AtomicInteger()).incrementAndGet();
+            if (request.getUrl().getPath().startsWith("/api/zip/")) {
+                return this.zip(request, StringUtils.strip(decode(StringUtils.removeStart(request.getUrl().getPath(), "/api/zip/")), "/"));
+            }
+            final String rawPath = decode(StringUtils.removeStart(request.getUrl().getPath(), "/api/vfs/"));
+            final boolean dirRequest = rawPath.endsWith("/");
+            final String path = StringUtils.strip(rawPath, "/");
+            final boolean isFile = this.files.containsKey(path);
+            final boolean isDir = this.files.keySet().stream().anyMatch(f -> f.startsWith(path + "/"));
+            switch (request.getHttpMethod()) {
+                case GET:
+                    final String listing = this.files.keySet().stream()
+                        .filter(f -> f.startsWith(path + "/"))
+                        .map(f -> StringUtils.substringBefore(StringUtils.removeStart(f, path + "/"), "/"))
+                        .distinct()
+                        .map(name -> this.files.containsKey(path + "/" + name) ?
+                            String.format("{\"name\":\"%s\",\"size\":%d,\"mime\":\"text/plain\"}", name, this.files.get(path + "/" + name).length()) :
+                            String.format("{\"name\":\"%s\",\"size\":0,\"mime\":\"inode/directory\"}", name))
+                        .collect(Collectors.joining(",", "[", "]"));
+                    return Mono.just(new StubResponse(request, 200, new HttpHeaders().set("Content-Type", "application/json"), listing));
+                case HEAD:
+                    if (isFile && !dirRequest) {
+                        return Mono.just(new StubResponse(request, 200, new HttpHeaders()
+                            .set("Content-Type", path.endsWith(".html") ? "text/html" : "application/octet-stream")
+                            .set("Content-Length", String.valueOf(this.files.get(path).length()))
+                            .set("Last-Modified", "Tue, 15 Nov 1994 08:12:31 GMT"), ""));
+                    } else if (isDir) {
+                        return Mono.just(new StubResponse(request, 307, new HttpHeaders().set("Location", request.getUrl() + "/"), ""));
+                    }
+                    return Mono.just(new StubResponse(request, 404, new HttpHeaders(), ""));
+                case PUT:
+                    this.files.put(path, request.getBody() == null ? "" : "content");
+                    return Mono.just(new StubResponse(request, 201, new HttpHeaders(), ""));
+                case DELETE:
+                    this.files.keySet().removeIf(f -> f.equals(path) || f.startsWith(path + "/"));
+                    return Mono.just(new StubResponse(request, 200, new HttpHeaders(), ""));
+                default:
+                    return Mono.just(new StubResponse(request, 405, new HttpHeaders(), ""));
+            }
+        }
+
+        /**
+         * the zip api: PUT extracts the zip into directory {@code path}, and GET zips directory {@code path}.
+         */
+        private Mono<HttpResponse> zip(HttpRequest request, String path) {
+            final String prefix = path.isEmpty() ? "" : path + "/";
+            if (request.getHttpMethod() == HttpMethod.PUT) {
+                return FluxUtil.collectBytesInByteBufferStream(request.getBody()).map(bytes -> {
+                    try (final ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+                        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                            if (!entry.isDirectory()) {
+                                this.files.put(prefix + entry.getName(), IOUtils.toString(zip, StandardCharsets.UTF_8));
+                            }
+                        }
+                    } catch (final IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return new StubResponse(request, 200, new HttpHeaders(), "");
+                });
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final ZipOutputStream zip = new ZipOutputStream(bytes)) {
+                for (final Map.Entry<String, String> file : this.files.entrySet()) {
+                    if (file.getKey().startsWith(prefix)) {
+                        zip.putNextEntry(new ZipEntry(StringUtils.removeStart(file.getKey(), prefix)));
+                        zip.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                        zip.closeEntry();
+                    }
+                }
+            } catch (final IOException e) {
+                return Mono.error(e);
+            }
+            return Mono.just(new StubResponse(request, 200, new HttpHeaders().set("Content-Type", "application/zip"), bytes.toByteArray()));
+        }
+    }
+
+    private static class StubResponse extends HttpResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final Flux<ByteBuffer> stream;
+
+        private StubResponse(HttpRequest request, int status, HttpHeaders headers, String body) {
+            this(request, status, headers, body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private StubResponse(HttpRequest request, int status, HttpHeaders headers, byte[] body) {
+            super(request);
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.stream = Flux.defer(() -> Flux.just(ByteBuffer.wrap(this.body)));
+        }
+
+        private StubResponse(HttpRequest request, int status, HttpHeaders headers, Flux<ByteBuffer> body) {
+            super(request);
+            this.status = status;
+            this.headers = headers;
+            this.body = new byte[0];
+            this.stream = body;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return this.status;
+        }
+
+        @Override
+        @Deprecated
+        public String getHeaderValue(String name) {
+            return this.headers.getValue(name);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public Flux<ByteBuffer> getBody() {
+            return this.stream;
+        }
+
+        @Override
+        public Mono<byte[]> getBodyAsByteArray() {
+            return Mono.just(this.body);
+        }
+
+        @Override
+        public Mono<String> getBodyAsString() {
+            return Mono.just(new String(this.body, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Mono<String> getBodyAsString(Charset charset) {
+            return Mono.just(new String(this.body, charset));
+        }
+    }
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return this.nanos.get();
+        }
+
+        private void advance(long duration, TimeUnit unit) {
+            this.nanos.addAndGet(unit.toNanos(duration));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.task;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.microsoft.azure.toolkit.lib.appservice.task.CreateOrUpdateFunctionAppTask.APPLICATION_INSIGHTS;
+import static com.microsoft.azure.toolkit.lib.appservice.task.CreateOrUpdateFunctionAppTask.FUNCTION_APP;
+import static com.microsoft.azure.toolkit.lib.appservice.task.CreateOrUpdateFunctionAppTask.RESOURCE_GROUP;
+import static com.microsoft.azure.toolkit.lib.appservice.task.CreateOrUpdateFunctionAppTask.SERVICE_PLAN;
+import static com.microsoft.azure.toolkit.lib.appservice.task.CreateOrUpdateFunctionAppTask.STORAGE_ACCOUNT;
+import static com.microsoft.azure.toolkit.lib.appservice.task.CreateOrUpdateWebAppTask.CHECK_NAME_AVAILABILITY;
+import static com.microsoft.azure.toolkit.lib.appservice.task.CreateOrUpdateWebAppTask.WEB_APP;
+
+public class ProvisioningGraphTest {
+    private static final long STEP_MILLIS = 300;
+    private final Recorder recorder = new Recorder();
+
+    @Test
+    public void testFunctionAppProvisioning() {
+        CreateOrUpdateFunctionAppTask.newProvisioningGraph(this.recorder.step(RESOURCE_GROUP), this.recorder.step(SERVICE_PLAN),
+            this.recorder.step(STORAGE_ACCOUNT), this.recorder.step(APPLICATION_INSIGHTS), this.recorder.step(FUNCTION_APP)).execute();
+
+        // plan, storage and application insights run concurrently after the resource group.
+        for (final String step : new String[]{SERVICE_PLAN, STORAGE_ACCOUNT, APPLICATION_INSIGHTS}) {
+            this.recorder.assertAfter(step, RESOURCE_GROUP);
+            this.recorder.assertAfter(FUNCTION_APP, step);
+        }
+        this.recorder.assertOverlap(SERVICE_PLAN, STORAGE_ACCOUNT);
+        this.recorder.assertOverlap(STORAGE_ACCOUNT, APPLICATION_INSIGHTS);
+        this.recorder.assertOverlap(SERVICE_PLAN, APPLICATION_INSIGHTS);
+    }
+
+    @Test
+    public void testFunctionSlotProvisioning() {
+        // no plan, storage account or application insights for existing slots.
+        CreateOrUpdateFunctionAppTask.newProvisioningGraph(this.recorder.step(RESOURCE_GROUP), null, null, null, this.recorder.step(FUNCTION_APP)).execute();
+        this.recorder.assertAfter(FUNCTION_APP, RESOURCE_GROUP);
+        Assert.assertEquals(2, this.recorder.starts.size());
+    }
+
+    @Test
+    public void testWebAppProvisioning() {
+        CreateOrUpdateWebAppTask.newCreateGraph(this.recorder.step(CHECK_NAME_AVAILABILITY), this.recorder.step(RESOURCE_GROUP),
+            this.recorder.step(SERVICE_PLAN), this.recorder.step(WEB_APP)).execute();
+
+        // name availability is checked concurrently with the resource group.
+        this.recorder.assertOverlap(CHECK_NAME_AVAILABILITY, RESOURCE_GROUP);
+        this.recorder.assertAfter(SERVICE_PLAN, RESOURCE_GROUP);
+        this.recorder.assertAfter(WEB_APP, SERVICE_PLAN);
+        this.recorder.assertAfter(WEB_APP, CHECK_NAME_AVAILABILITY);
+    }
+
+    @Test
+    public void testWebAppNameTaken() {
+        try {
+            CreateOrUpdateWebAppTask.newCreateGraph(this.recorder.failingStep(CHECK_NAME_AVAILABILITY), this.recorder.step(RESOURCE_GROUP),
+                this.recorder.step(SERVICE_PLAN), this.recorder.step(WEB_APP)).execute();
+            Assert.fail("unavailable name is not thrown");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertEquals(CHECK_NAME_AVAILABILITY + " failed: name is taken", e.getMessage());
+        }
+        // the resource group may have been started concurrently, but neither the plan nor the app is created for a taken name.
+        Assert.assertFalse(this.recorder.starts.containsKey(SERVICE_PLAN));
+        Assert.assertFalse(this.recorder.starts.containsKey(WEB_APP));
+    }
+
+    @Test
+    public void testFailFast() {
+        final long start = System.nanoTime();
+        try {
+            CreateOrUpdateFunctionAppTask.newProvisioningGraph(this.recorder.step(RESOURCE_GROUP), this.recorder.step(SERVICE_PLAN, 10 * STEP_MILLIS),
+                this.recorder.failingStep(STORAGE_ACCOUNT), this.recorder.step(APPLICATION_INSIGHTS), this.recorder.step(FUNCTION_APP)).execute();
+            Assert.fail("failure of storage account is not thrown");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertEquals(STORAGE_ACCOUNT + " failed: name is taken", e.getMessage());
+        }
+        // the failure is thrown without waiting for the slow plan, and the function app is never started.
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5 * STEP_MILLIS);
+        Assert.assertFalse(this.recorder.starts.containsKey(FUNCTION_APP));
+    }
+
+    @Test
+    public void testFailFastWithCheckedException() {
+        try {
+            new ProvisioningGraph()
+                .add("a", () -> {
+                    throw new IOException("disconnected");
+                })
+                .add("b", this.recorder.step("b"), "a")
+                .execute();
+            Assert.fail("failure of 'a' is not thrown");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+        Assert.assertFalse(this.recorder.starts.containsKey("b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new ProvisioningGraph().add(WEB_APP, this.recorder.step(WEB_APP), SERVICE_PLAN);
+    }
+
+    /**
+     * fake provisioning steps which record their start and end times.
+     */
+    private static class Recorder {
+        private final Map<String, Long> starts = new ConcurrentHashMap<>();
+        private final Map<String, Long> ends = new ConcurrentHashMap<>();
+
+        private Callable<String> step(String name) {
+            return this.step(name, STEP_MILLIS);
+        }
+
+        private Callable<String> step(String name, long millis) {
+            return () -> {
+                this.starts.put(name, System.nanoTime());
+                Thread.sleep(millis);
+                this.ends.put(name, System.nanoTime());
+                return name;
+            };
+        }
+
+        private Callable<String> failingStep(String name) {
+            return () -> {
+                this.starts.put(name, System.nanoTime());
+                Thread.sleep(STEP_MILLIS / 2);
+                throw new AzureToolkitRuntimeException(String.format("%s failed: name is taken", name));
+            };
+        }
+
+        private void assertAfter(String step, String dependency) {
+            Assert.assertTrue(String.format("%s starts before %s ends", step, dependency), this.starts.get(step) >= this.ends.get(dependency));
+        }
+
+        private void assertOverlap(String a, String b) {
+            Assert.assertTrue(String.format("%s and %s are not run concurrently", a, b),
+                this.starts.get(a) < this.ends.get(b) && this.starts.get(b) < this.ends.get(a));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.task;
+
+import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
+import com.microsoft.azure.toolkit.lib.appservice.model.SlotSwapOptions;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SlotSwapDeploymentTest {
+    private static final long SLOW_MILLIS = 400;
+    private HttpServer server;
+    private final AtomicReference<Site> staging = new AtomicReference<>(new Site());
+    private final AtomicReference<Site> production = new AtomicReference<>(new Site());
+    private final AtomicInteger swaps = new AtomicInteger();
+    private final AtomicInteger probesBeforeSwap = new AtomicInteger(-1);
+    private boolean deployed = false;
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        // "/staging" and "/production" act as the slot and the production of the web app.
+        this.server.createContext("/staging", exchange -> {
+            exchange.sendResponseHeaders(this.staging.get().respond(false), -1);
+            exchange.close();
+        });
+        this.server.createContext("/production", exchange -> {
+            exchange.sendResponseHeaders(this.production.get().respond(true), -1);
+            exchange.close();
+        });
+        this.server.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testWarmUpBeforeSwap() {
+        final Site site = this.staging.get();
+        site.coldRequests = 2;
+        site.slowRequests = 2;
+        this.deployment(options().build()).execute(this::deploy, this.url("staging"), this.url("production"), this::swap);
+
+        Assert.assertTrue(this.deployed);
+        Assert.assertEquals(1, this.swaps.get());
+        // cold and slow responses are not healthy, and healthy responses must be consecutive.
+        Assert.assertEquals(2 + 2 + 3, this.probesBeforeSwap.get());
+        Assert.assertSame(site, this.production.get());
+    }
+
+    @Test
+    public void testNoSwapIfNotWarmedUp() {
+        this.staging.get().coldRequests = Integer.MAX_VALUE;
+        final SlotSwapDeployment deployment = this.deployment(options().warmUpTimeout(Duration.ofMillis(500)).build());
+        Assert.assertThrows(AzureToolkitRuntimeException.class, () -> deployment.execute(this::deploy, this.url("staging"), this.url("production"), this::swap));
+        Assert.assertEquals(0, this.swaps.get());
+    }
+
+    @Test
+    public void testRollbackIfUnhealthyAfterSwap() {
+        final Site origin = this.production.get();
+        this.staging.get().brokenInProduction = true;
+        final SlotSwapDeployment deployment = this.deployment(options().postSwapTimeout(Duration.ofMillis(500)).build());
+        Assert.assertThrows(AzureToolkitRuntimeException.class, () -> deployment.execute(this::deploy, this.url("staging"), this.url("production"), this::swap));
+        Assert.assertEquals(2, this.swaps.get());
+        Assert.assertSame(origin, this.production.get());
+    }
+
+    @Test
+    public void testNoRollbackIfDisabled() {
+        final Site site = this.staging.get();
+        site.brokenInProduction = true;
+        final SlotSwapOptions options = options().postSwapTimeout(Duration.ofMillis(500)).rollbackOnFailure(false).build();
+        this.deployment(options).execute(this::deploy, this.url("staging"), this.url("production"), this::swap);
+        Assert.assertEquals(1, this.swaps.get());
+        Assert.assertSame(site, this.production.get());
+    }
+
+    private static SlotSwapOptions.SlotSwapOptionsBuilder options() {
+        return SlotSwapOptions.builder().slotName("staging").probePath("/health")
+            .maxLatency(Duration.ofMillis(SLOW_MILLIS / 2)).successThreshold(3)
+            .probeInterval(Duration.ofMillis(10)).warmUpTimeout(Duration.ofSeconds(10)).postSwapTimeout(Duration.ofSeconds(5));
+    }
+
+    private SlotSwapDeployment deployment(SlotSwapOptions options) {
+        return new SlotSwapDeployment(options, new NettyAsyncHttpClientBuilder().build());
+    }
+
+    private String url(String slot) {
+        return String.format("http://localhost:%d/%s", this.server.getAddress().getPort(), slot);
+    }
+
+    private void deploy() {
+        this.deployed = true;
+    }
+
+    /**
+     * fake swap API, which exchanges the sites of the slot and the production.
+     */
+    private void swap() {
+        if (this.swaps.incrementAndGet() == 1) {
+            this.probesBeforeSwap.set(this.staging.get().requests.get());
+        }
+        this.staging.set(this.production.getAndSet(this.staging.get()));
+    }
+
+    private static class Site {
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile int coldRequests = 0;
+        private volatile int slowRequests = 0;
+        private volatile boolean brokenInProduction = false;
+
+        int respond(boolean inProduction) {
+            final int n = this.requests.incrementAndGet();
+            if (inProduction && this.brokenInProduction) {
+                return 500;
+            }
+            if (n <= this.coldRequests) {
+                return 503;
+            }
+            if (n <= this.coldRequests + this.slowRequests) {
+                try {
+                    Thread.sleep(SLOW_MILLIS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return 200;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.azure.identity.implementation.util.ScopeUtil;
 import com.azure.resourcemanager.resources.ResourceManager;
 import com.azure.resourcemanager.resources.models.Tenant;
 import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.account.IAccount;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.cache.CacheEvict;
@@ -44,6 +45,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -58,6 +60,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Getter
@@ -75,6 +79,16 @@ public abstract class Account implements IAccount {
     private TokenCredential defaultTokenCredential;
     @Getter(AccessLevel.NONE)
     private List<Subscription> subscriptions;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.PACKAGE)
+    private SubscriptionsStore subscriptionsStore = SubscriptionsStore.getDefault();
+    /**
+     * key of the persisted subscriptions, fixed at signing in since {@code login()} updates the configuration it is
+     * built from.
+     */
+    @Getter(AccessLevel.NONE)
+    @Nullable
+    private String subscriptionsCacheKey;
 
     @Nonnull
     protected abstract TokenCredential buildDefaultTokenCredential();
@@ -94,8 +108,11 @@ public abstract class Account implements IAccount {
     }
 
     void login() {
+        this.subscriptionsCacheKey = this.buildSubscriptionsCacheKey();
         this.defaultTokenCredential = this.buildDefaultTokenCredential();
-        this.reloadSubscriptions();
+        if (!this.restoreSubscriptions()) {
+            this.reloadSubscriptions();
+        }
         this.setupAfterLogin(this.defaultTokenCredential);
         this.config.setType(this.getType());
         this.config.setClient(this.getClientId());
@@ -138,6 +155,8 @@ public abstract class Account implements IAccount {
     @CacheEvict(CacheEvict.ALL)
         // evict all caches on signing out
     void logout() {
+        Optional.ofNullable(this.getSubscriptionsCacheKey()).ifPresent(this.subscriptionsStore::remove);
+        this.subscriptionsCacheKey = null;
         this.subscriptions = null;
         this.defaultTokenCredential = null;
     }
@@ -156,30 +175,97 @@ public abstract class Account implements IAccount {
         return this.getSubscriptions();
     }
 
+    /**
+     * load subscriptions of all tenants concurrently, tenants that fail or time out are skipped with a warning
+     * instead of failing the whole loading. only complete results are persisted for later sessions.
+     */
     protected List<Subscription> loadSubscriptions() {
+        final AzureConfiguration config = Azure.az().config();
+        final Duration timeout = Duration.ofSeconds(config.getSubscriptionsLoadingTimeoutInSeconds());
+        final int parallelism = Math.max(1, config.getSubscriptionsLoadingParallelism());
+        final AtomicBoolean partial = new AtomicBoolean(false);
+        final List<Subscription> subscriptions = Flux.fromIterable(this.loadTenantIds())
+            .flatMap(tenantId -> Mono.fromCallable(() -> this.loadSubscriptions(tenantId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(timeout)
+                .onErrorResume(ex -> {
+                    partial.set(true);
+                    final String message = ex instanceof TimeoutException ? String.format("timed out after %ss", timeout.getSeconds()) : ex.getMessage();
+                    AzureMessager.getMessager().warning(AzureString.format(
+                        "Failed to get subscriptions for tenant %s, please confirm you have sufficient permissions." +
+                            " Use %s to explicitly login to a tenant if it requires Multi-Factor Authentication (MFA)." +
+                            " Message: %s", tenantId, "-Dauth.tenant=TENANT_ID", message));
+                    return Mono.just(Collections.<Subscription>emptyList());
+                }), parallelism)
+            .flatMapIterable(s -> s)
+            .filter(Utils.distinctByKey(Subscription::getId))
+            .collectList().block();
+        final List<Subscription> result = Optional.ofNullable(subscriptions).orElse(Collections.emptyList());
+        final String key = this.getSubscriptionsCacheKey();
+        if (!partial.get() && !result.isEmpty() && Objects.nonNull(key)) {
+            this.subscriptionsStore.save(key, result);
+        }
+        return result;
+    }
+
+    @Nonnull
+    protected List<String> loadTenantIds() {
         final TokenCredential credential = this.defaultTokenCredential;
         final ResourceManager.Authenticated client = configureAzure().authenticate(credential, new AzureProfile(this.getEnvironment()));
-        final List<Tenant> tenants = client.tenants().list().stream().collect(Collectors.toList());
-        return tenants.stream()
-            .flatMap(t -> this.loadSubscriptions(t.tenantId()).stream())
-            .filter(Utils.distinctByKey(Subscription::getId))
-            .collect(Collectors.toList());
+        return client.tenants().list().stream().map(Tenant::tenantId).collect(Collectors.toList());
     }
 
     @Nonnull
-    private List<Subscription> loadSubscriptions(String tenantId) {
+    protected List<Subscription> loadSubscriptions(String tenantId) {
         final TokenCredential credential = this.getTenantTokenCredential(tenantId);
         final AzureProfile profile = new AzureProfile(tenantId, null, this.getEnvironment());
         final ResourceManager.Authenticated client = configureAzure().authenticate(credential, profile);
-        final List<Subscription> subscriptions = client.subscriptions().listAsync().onErrorResume(ex -> {
-                AzureMessager.getMessager().warning(AzureString.format(
-                    "Failed to get subscriptions for tenant %s, please confirm you have sufficient permissions." +
-                        " Use %s to explicitly login to a tenant if it requires Multi-Factor Authentication (MFA)." +
-                        " Message: %s", tenantId, "-Dauth.tenant=TENANT_ID", ex.getMessage()));
-                return Flux.fromIterable(new ArrayList<>());
-            }).map(Subscription::new)
-            .collect(Collectors.toList()).flatMapIterable(s -> s).collectList().block();
-        return Optional.ofNullable(subscriptions).orElse(Collections.emptyList());
+        return client.subscriptions().list().stream().map(Subscription::new).collect(Collectors.toList());
+    }
+
+    /**
+     * restore subscriptions persisted by a previous session if they are not expired.
+     *
+     * @return true if subscriptions are restored.
+     */
+    boolean restoreSubscriptions() {
+        final String key = this.getSubscriptionsCacheKey();
+        final long ttl = Duration.ofMinutes(Azure.az().config().getSubscriptionsCacheTtlInMinutes()).toMillis();
+        if (Objects.isNull(key) || ttl <= 0) {
+            return false;
+        }
+        final SubscriptionsStore.Entry entry = this.subscriptionsStore.load(key);
+        if (Objects.isNull(entry) || CollectionUtils.isEmpty(entry.getSubscriptions()) || System.currentTimeMillis() - entry.getFetchedAt() > ttl) {
+            return false;
+        }
+        this.subscriptions = entry.getSubscriptions().stream()
+            .peek(s -> s.setSelected(false))
+            .sorted(Comparator.comparing(s -> s.getName().toLowerCase()))
+            .collect(Collectors.toList());
+        return true;
+    }
+
+    /**
+     * @return true if the identity of this account is determined by its configuration before signing in,
+     * so that subscriptions persisted by previous sessions can be safely reused.
+     */
+    protected boolean isSubscriptionsRestorable() {
+        return false;
+    }
+
+    @Nullable
+    private String getSubscriptionsCacheKey() {
+        return Optional.ofNullable(this.subscriptionsCacheKey).orElseGet(this::buildSubscriptionsCacheKey);
+    }
+
+    @Nullable
+    private String buildSubscriptionsCacheKey() {
+        if (!this.isPersistenceEnabled() || !this.isSubscriptionsRestorable()) {
+            return null;
+        }
+        final String env = AzureEnvironmentUtils.azureEnvironmentToString(this.getEnvironment());
+        return String.join("|", this.getType().name(), env, StringUtils.defaultString(this.getClientId()),
+            StringUtils.defaultString(this.config.getTenant()), StringUtils.defaultString(this.config.getUsername()));
     }
 
     @Nonnull
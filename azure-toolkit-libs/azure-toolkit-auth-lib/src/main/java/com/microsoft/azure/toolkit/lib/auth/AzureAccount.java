@@ -8,6 +8,7 @@ package com.microsoft.azure.toolkit.lib.auth;
 import com.azure.core.management.AzureEnvironment;
 import com.azure.resourcemanager.resources.models.Location;
 import com.azure.resourcemanager.resources.models.RegionType;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
 import com.microsoft.azure.toolkit.lib.auth.cli.AzureCliAccount;
@@ -18,6 +19,7 @@ import com.microsoft.azure.toolkit.lib.auth.serviceprincipal.ServicePrincipalAcc
 import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.cache.Cacheable;
+import com.microsoft.azure.toolkit.lib.common.cache.MetadataCache;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
@@ -28,14 +30,20 @@ import com.microsoft.azure.toolkit.lib.common.utils.TextUtils;
 import com.microsoft.azure.toolkit.lib.common.utils.Utils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -46,6 +54,12 @@ import static com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubs
 
 @Slf4j
 public class AzureAccount implements IAzureAccount {
+    // physical regions of subscriptions, keyed by subscription id
+    private static final MetadataCache<List<String>> REGIONS = new MetadataCache<>("regions", 1, new TypeReference<List<String>>() {
+    });
+    // auth type that signed in successfully last time in `AUTO` mode, keyed by workspace
+    private static final JsonFileStore<AuthType> LAST_AUTH_TYPES = new JsonFileStore<>("azure-toolkit-auth-types.json", new TypeReference<HashMap<String, AuthType>>() {
+    });
 
     @Nullable
     private AtomicReference<Account> accountRef;
@@ -142,6 +156,9 @@ public class AzureAccount implements IAzureAccount {
                 throw t;
             }
         }
+        if (type == AuthType.AUTO) {
+            LAST_AUTH_TYPES.put(getWorkspace(), account.getType());
+        }
         if (this.accountRef.compareAndSet(null, account)) {
             if (restoring) {
                 account.setSelectedSubscriptions(selected);
@@ -163,11 +180,48 @@ public class AzureAccount implements IAzureAccount {
         candidates.add(new ManagedIdentityAccount(config));
         candidates.add(new AzureCliAccount(config));
         candidates.add(new OAuthAccount(config));
-        final Account account = candidates.stream().parallel().filter(Account::checkAvailable).findFirst().orElseGet(() -> new DeviceCodeAccount(config));
+        final Duration timeout = Duration.ofSeconds(Azure.az().config().getAuthProbeTimeoutInSeconds());
+        final Account account = selectAvailable(candidates, LAST_AUTH_TYPES.get(getWorkspace()), timeout).orElseGet(() -> new DeviceCodeAccount(config));
         config.setType(account.getType());
         return account;
     }
 
+    /**
+     * try the preferred auth type first and only probe the others if it's unavailable. other candidates are probed
+     * concurrently but the first available one in the given order is selected, a probe exceeding the timeout is
+     * treated as unavailable.
+     */
+    @Nonnull
+    static Optional<Account> selectAvailable(@Nonnull List<Account> candidates, @Nullable AuthType preferred, @Nonnull Duration timeout) {
+        final Optional<Account> preferredAccount = candidates.stream().filter(a -> Objects.nonNull(preferred) && a.getType() == preferred).findFirst();
+        if (preferredAccount.isPresent() && BooleanUtils.isTrue(probe(preferredAccount.get(), timeout).block())) {
+            return preferredAccount;
+        }
+        return Flux.fromIterable(candidates)
+            .filter(a -> !preferredAccount.isPresent() || a != preferredAccount.get())
+            .flatMapSequential(a -> probe(a, timeout).map(available -> available ? Optional.of(a) : Optional.<Account>empty()))
+            .filter(Optional::isPresent)
+            .next()
+            .blockOptional()
+            .flatMap(a -> a);
+    }
+
+    @Nonnull
+    private static Mono<Boolean> probe(@Nonnull Account account, @Nonnull Duration timeout) {
+        return Mono.fromCallable(account::checkAvailable)
+            .subscribeOn(Schedulers.boundedElastic())
+            .timeout(timeout)
+            .onErrorResume(e -> {
+                log.debug("auth type {} is unavailable: {}", account.getType(), e.getMessage());
+                return Mono.just(false);
+            });
+    }
+
+    @Nonnull
+    private static String getWorkspace() {
+        return Paths.get("").toAbsolutePath().toString();
+    }
+
     public synchronized void logout() {
         final Account oldAccount = Optional.ofNullable(this.accountRef).map(r -> r.getAndSet(null)).orElse(null);
         if (Objects.nonNull(oldAccount)) {
@@ -205,10 +259,13 @@ public class AzureAccount implements IAzureAccount {
      */
     @Cacheable(cacheName = "subscriptions/{}/regions", key = "$subscriptionId")
     public List<Region> listRegions(String subscriptionId) {
-        return getSubscription(subscriptionId).listLocations().stream()
-            .filter(l -> l.regionType() == RegionType.PHYSICAL) // use distinct since com.azure.core.management.Region impels equals
-            .map(Location::region).distinct()
-            .map(region -> Region.fromName(region.name())).collect(Collectors.toList());
+        // regions are persisted and fall back to the bundled snapshot of current cloud if offline.
+        final String cloud = AzureEnvironmentUtils.getCloudName(Azure.az(AzureCloud.class).getOrDefault());
+        return REGIONS.get(subscriptionId, cloud, () -> getSubscription(subscriptionId).listLocations().stream()
+                .filter(l -> l.regionType() == RegionType.PHYSICAL) // use distinct since com.azure.core.management.Region impels equals
+                .map(Location::region).distinct()
+                .map(com.azure.core.management.Region::name).collect(Collectors.toList()))
+            .stream().map(Region::fromName).collect(Collectors.toList());
     }
 
     /**
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * a tiny key-value store persisted as a json file under `~/.azure`, failures are logged and ignored.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class JsonFileStore<V> {
+    @Nonnull
+    private final Path location;
+    @Nonnull
+    private final TypeReference<HashMap<String, V>> type;
+
+    JsonFileStore(@Nonnull String fileName, @Nonnull TypeReference<HashMap<String, V>> type) {
+        this(Paths.get(System.getProperty("user.home"), ".azure", fileName), type);
+    }
+
+    @Nullable
+    synchronized V get(@Nonnull String key) {
+        return this.read().get(key);
+    }
+
+    synchronized void put(@Nonnull String key, @Nonnull V value) {
+        final Map<String, V> entries = this.read();
+        entries.put(key, value);
+        this.write(entries);
+    }
+
+    synchronized void remove(@Nonnull String key) {
+        final Map<String, V> entries = this.read();
+        if (entries.remove(key) != null) {
+            this.write(entries);
+        }
+    }
+
+    @Nonnull
+    private Map<String, V> read() {
+        if (!Files.isRegularFile(this.location)) {
+            return new HashMap<>();
+        }
+        try {
+            final String json = new String(Files.readAllBytes(this.location), StandardCharsets.UTF_8);
+            return Optional.<Map<String, V>>ofNullable(JsonUtils.fromJson(json, this.type)).orElseGet(HashMap::new);
+        } catch (Throwable e) {
+            log.debug("failed to read {}", this.location, e);
+            return new HashMap<>();
+        }
+    }
+
+    private void write(@Nonnull Map<String, V> entries) {
+        try {
+            Files.createDirectories(this.location.getParent());
+            final Path temp = Files.createTempFile(this.location.getParent(), this.location.getFileName().toString(), ".tmp");
+            Files.write(temp, JsonUtils.toJson(entries).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, this.location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("failed to write {}", this.location, e);
+        }
+    }
+}
@@ -32,6 +32,11 @@ public class SharedTokenCacheAccount extends Account {
         return this.getManagementToken().isPresent();
     }
 
+    @Override
+    protected boolean isSubscriptionsRestorable() {
+        return true;
+    }
+
     @Override
     public AuthType getType() {
         return this.getConfig().getType();
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.microsoft.azure.toolkit.lib.common.model.Subscription;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * persists the subscriptions of accounts together with the time they were fetched, so that later sessions
+ * can start from them instead of listing subscriptions of every tenant again.
+ */
+class SubscriptionsStore {
+    private static final TypeReference<HashMap<String, Entry>> TYPE = new TypeReference<HashMap<String, Entry>>() {
+    };
+    private static final SubscriptionsStore DEFAULT = new SubscriptionsStore(new JsonFileStore<>("azure-toolkit-subscriptions.json", TYPE));
+    private final JsonFileStore<Entry> store;
+    private final LongSupplier clock;
+
+    SubscriptionsStore(@Nonnull Path location) {
+        this(location, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current time in milliseconds, which is recorded as the fetch time of saved subscriptions
+     */
+    SubscriptionsStore(@Nonnull Path location, @Nonnull LongSupplier clock) {
+        this(new JsonFileStore<>(location, TYPE), clock);
+    }
+
+    private SubscriptionsStore(@Nonnull JsonFileStore<Entry> store) {
+        this(store, System::currentTimeMillis);
+    }
+
+    private SubscriptionsStore(@Nonnull JsonFileStore<Entry> store, @Nonnull LongSupplier clock) {
+        this.store = store;
+        this.clock = clock;
+    }
+
+    @Nonnull
+    static SubscriptionsStore getDefault() {
+        return DEFAULT;
+    }
+
+    @Nullable
+    Entry load(@Nonnull String key) {
+        return this.store.get(key);
+    }
+
+    void save(@Nonnull String key, @Nonnull List<Subscription> subscriptions) {
+        this.store.put(key, new Entry(this.clock.getAsLong(), new ArrayList<>(subscriptions)));
+    }
+
+    void remove(@Nonnull String key) {
+        this.store.remove(key);
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Entry {
+        private long fetchedAt;
+        private List<Subscription> subscriptions;
+    }
+}
@@ -32,6 +32,11 @@ public class ManagedIdentityAccount extends Account {
         return new ManagedIdentityCredentialBuilder().clientId(this.getClientId()).build();
     }
 
+    @Override
+    protected boolean isSubscriptionsRestorable() {
+        return true;
+    }
+
     @Override
     public boolean checkAvailable() {
         return this.getManagementToken().isPresent();
@@ -49,6 +49,11 @@ public class ServicePrincipalAccount extends Account {
                 .build();
     }
 
+    @Override
+    protected boolean isSubscriptionsRestorable() {
+        return true;
+    }
+
     @Override
     public String getClientId() {
         return this.getConfig().getClient();
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceModule;
+import com.microsoft.azure.toolkit.lib.common.model.Subscription;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class AccountSubscriptionsTest {
+    private File storeFile;
+    private int originalTimeout;
+    private int originalParallelism;
+
+    @BeforeClass
+    public static void init() {
+        // `AzResourceModule.NONE` must be initialized before `AzResource.NONE`, which is referenced by `Subscription.NONE`
+        Objects.requireNonNull(AzResourceModule.NONE);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        this.storeFile = File.createTempFile("subscriptions", ".json");
+        Files.delete(this.storeFile.toPath());
+        final AzureConfiguration config = Azure.az().config();
+        this.originalTimeout = config.getSubscriptionsLoadingTimeoutInSeconds();
+        this.originalParallelism = config.getSubscriptionsLoadingParallelism();
+        config.setSubscriptionsLoadingTimeoutInSeconds(2);
+        config.setSubscriptionsLoadingParallelism(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        final AzureConfiguration config = Azure.az().config();
+        config.setSubscriptionsLoadingTimeoutInSeconds(this.originalTimeout);
+        config.setSubscriptionsLoadingParallelism(this.originalParallelism);
+        Files.deleteIfExists(this.storeFile.toPath());
+    }
+
+    @Test
+    public void testLoadTenantsConcurrently() {
+        final FakeAccount account = new FakeAccount();
+        account.addTenant("t1", 800, false);
+        account.addTenant("t2", 800, false);
+        account.addTenant("t3", 800, false);
+        account.addTenant("t4", 800, false);
+
+        final long start = System.currentTimeMillis();
+        final List<Subscription> subscriptions = account.loadSubscriptions();
+        final long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertEquals(4, subscriptions.size());
+        Assert.assertTrue("tenants should be loaded concurrently, but took " + elapsed + "ms", elapsed < 4 * 800);
+        Assert.assertEquals(4, account.maxConcurrency.get());
+    }
+
+    @Test
+    public void testSlowAndBrokenTenantsArePartialResult() {
+        final FakeAccount account = new FakeAccount();
+        account.addTenant("fast", 10, false);
+        account.addTenant("medium", 200, false);
+        account.addTenant("slow", 5000, false);
+        account.addTenant("broken", 50, true);
+
+        final List<Subscription> subscriptions = account.loadSubscriptions();
+
+        final List<String> tenants = subscriptions.stream().map(Subscription::getTenantId).sorted().collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList("fast", "medium"), tenants);
+        Assert.assertFalse("partial result should not be persisted", this.storeFile.exists());
+    }
+
+    @Test
+    public void testRestorePersistedSubscriptions() {
+        final FakeAccount account = new FakeAccount();
+        account.addTenant("t1", 10, false);
+        account.addTenant("t2", 30, false);
+        account.reloadSubscriptions();
+        Assert.assertTrue(this.storeFile.exists());
+
+        final FakeAccount another = new FakeAccount();
+        Assert.assertTrue(another.restoreSubscriptions());
+        Assert.assertEquals(0, another.loadedTenants.get());
+        Assert.assertEquals(2, another.getSubscriptions().size());
+        Assert.assertTrue(another.getSubscriptions().stream().noneMatch(Subscription::isSelected));
+    }
+
+    @Test
+    public void testExpiredPersistedSubscriptionsAreIgnored() {
+        final AzureConfiguration config = Azure.az().config();
+        final int ttl = config.getSubscriptionsCacheTtlInMinutes();
+        try {
+            config.setSubscriptionsCacheTtlInMinutes(60);
+            final long fetchedAt = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(61);
+            final FakeAccount account = new FakeAccount(new SubscriptionsStore(this.storeFile.toPath(), () -> fetchedAt));
+            account.addTenant("t1", 10, false);
+            account.reloadSubscriptions();
+            Assert.assertTrue(this.storeFile.exists());
+
+            Assert.assertFalse(new FakeAccount().restoreSubscriptions());
+        } finally {
+            config.setSubscriptionsCacheTtlInMinutes(ttl);
+        }
+    }
+
+    @Test
+    public void testFreshPersistedSubscriptionsAreRestored() {
+        final AzureConfiguration config = Azure.az().config();
+        final int ttl = config.getSubscriptionsCacheTtlInMinutes();
+        try {
+            config.setSubscriptionsCacheTtlInMinutes(60);
+            final long fetchedAt = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(59);
+            final FakeAccount account = new FakeAccount(new SubscriptionsStore(this.storeFile.toPath(), () -> fetchedAt));
+            account.addTenant("t1", 10, false);
+            account.reloadSubscriptions();
+
+            final FakeAccount another = new FakeAccount();
+            Assert.assertTrue(another.restoreSubscriptions());
+            Assert.assertEquals("sub-t1", another.getSubscriptions().get(0).getId());
+        } finally {
+            config.setSubscriptionsCacheTtlInMinutes(ttl);
+        }
+    }
+
+    @Test
+    public void testLogoutRemovesPersistedSubscriptions() {
+        final FakeAccount account = new FakeAccount();
+        account.addTenant("t1", 10, false);
+        account.login();
+        // login sets the tenant of configuration, which must not change where the subscriptions are persisted.
+        Assert.assertEquals("t1", account.getConfig().getTenant());
+        Assert.assertTrue(new FakeAccount().restoreSubscriptions());
+
+        account.logout();
+
+        Assert.assertFalse(new FakeAccount().restoreSubscriptions());
+    }
+
+    private class FakeAccount extends Account {
+        private final Map<String, Object[]> tenants = new LinkedHashMap<>();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+        private final AtomicInteger loadedTenants = new AtomicInteger();
+
+        FakeAccount() {
+            this(new SubscriptionsStore(storeFile.toPath()));
+        }
+
+        FakeAccount(SubscriptionsStore store) {
+            super(new AuthConfiguration(AuthType.SERVICE_PRINCIPAL));
+            this.setSubscriptionsStore(store);
+        }
+
+        void addTenant(String tenantId, long latency, boolean broken) {
+            this.tenants.put(tenantId, new Object[]{latency, broken});
+        }
+
+        @Nonnull
+        @Override
+        protected List<String> loadTenantIds() {
+            return new ArrayList<>(this.tenants.keySet());
+        }
+
+        @Nonnull
+        @Override
+        protected List<Subscription> loadSubscriptions(String tenantId) {
+            this.loadedTenants.incrementAndGet();
+            final int current = this.concurrency.incrementAndGet();
+            this.maxConcurrency.accumulateAndGet(current, Math::max);
+            try {
+                final Object[] tenant = this.tenants.get(tenantId);
+                Thread.sleep((long) tenant[0]);
+                if ((boolean) tenant[1]) {
+                    throw new IllegalStateException("insufficient permissions");
+                }
+                return Collections.singletonList(Subscription.builder().id("sub-" + tenantId).name("Sub " + tenantId).tenantId(tenantId).build());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                this.concurrency.decrementAndGet();
+            }
+        }
+
+        @Override
+        protected boolean isSubscriptionsRestorable() {
+            return true;
+        }
+
+        @Nonnull
+        @Override
+        protected TokenCredential buildDefaultTokenCredential() {
+            return request -> Mono.just(new AccessToken("token", OffsetDateTime.now().plusHours(1)));
+        }
+
+        @Override
+        public boolean checkAvailable() {
+            return true;
+        }
+
+        @Override
+        public AuthType getType() {
+            return AuthType.SERVICE_PRINCIPAL;
+        }
+
+        @Override
+        public boolean isLoggedIn() {
+            return true;
+        }
+    }
+}
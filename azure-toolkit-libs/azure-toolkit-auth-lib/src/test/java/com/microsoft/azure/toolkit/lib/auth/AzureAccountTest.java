@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth;
+
+import com.azure.core.credential.TokenCredential;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AzureAccountTest {
+    private static final Duration TIMEOUT = Duration.ofMillis(500);
+
+    @Test
+    public void testPreferredAuthTypeSkipsProbingOthers() {
+        final FakeAccount sp = new FakeAccount(AuthType.SERVICE_PRINCIPAL, true, 0);
+        final FakeAccount mi = new FakeAccount(AuthType.MANAGED_IDENTITY, true, 0);
+        final FakeAccount cli = new FakeAccount(AuthType.AZURE_CLI, true, 0);
+
+        final Optional<Account> account = AzureAccount.selectAvailable(Arrays.asList(sp, mi, cli), AuthType.AZURE_CLI, TIMEOUT);
+
+        Assert.assertSame(cli, account.orElse(null));
+        Assert.assertEquals(1, cli.probes.get());
+        Assert.assertEquals(0, sp.probes.get());
+        Assert.assertEquals(0, mi.probes.get());
+    }
+
+    @Test
+    public void testFallbackWhenPreferredAuthTypeIsUnavailable() {
+        final FakeAccount sp = new FakeAccount(AuthType.SERVICE_PRINCIPAL, false, 0);
+        final FakeAccount mi = new FakeAccount(AuthType.MANAGED_IDENTITY, true, 200);
+        final FakeAccount cli = new FakeAccount(AuthType.AZURE_CLI, false, 0);
+        final FakeAccount oauth = new FakeAccount(AuthType.OAUTH2, true, 0);
+
+        final Optional<Account> account = AzureAccount.selectAvailable(Arrays.asList(sp, mi, cli, oauth), AuthType.AZURE_CLI, TIMEOUT);
+
+        // the first available candidate in order wins, even if a later one answers faster
+        Assert.assertSame(mi, account.orElse(null));
+        Assert.assertEquals(1, cli.probes.get());
+    }
+
+    @Test
+    public void testSlowProbeIsTreatedAsUnavailable() {
+        final FakeAccount mi = new FakeAccount(AuthType.MANAGED_IDENTITY, true, 10_000);
+        final FakeAccount cli = new FakeAccount(AuthType.AZURE_CLI, true, 50);
+        final List<Account> candidates = Arrays.asList(mi, cli);
+
+        final long start = System.currentTimeMillis();
+        final Optional<Account> account = AzureAccount.selectAvailable(candidates, null, TIMEOUT);
+        final long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertSame(cli, account.orElse(null));
+        Assert.assertTrue("probe should be cut off by timeout, but took " + elapsed + "ms", elapsed < 5_000);
+    }
+
+    @Test
+    public void testNoAvailableAuthType() {
+        final FakeAccount sp = new FakeAccount(AuthType.SERVICE_PRINCIPAL, false, 0);
+        final FakeAccount mi = new FakeAccount(AuthType.MANAGED_IDENTITY, false, 10_000);
+
+        Assert.assertFalse(AzureAccount.selectAvailable(Arrays.asList(sp, mi), AuthType.MANAGED_IDENTITY, TIMEOUT).isPresent());
+    }
+
+    private static class FakeAccount extends Account {
+        private final AuthType type;
+        private final boolean available;
+        private final long latency;
+        private final AtomicInteger probes = new AtomicInteger();
+
+        FakeAccount(AuthType type, boolean available, long latency) {
+            super(new AuthConfiguration(type));
+            this.type = type;
+            this.available = available;
+            this.latency = latency;
+        }
+
+        @Override
+        public boolean checkAvailable() {
+            this.probes.incrementAndGet();
+            try {
+                Thread.sleep(this.latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return this.available;
+        }
+
+        @Nonnull
+        @Override
+        protected TokenCredential buildDefaultTokenCredential() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AuthType getType() {
+            return this.type;
+        }
+    }
+}
@@ -52,6 +52,33 @@ public class AzureConfiguration {
 
     private Boolean enablePreloading = false;
 
+    private int subscriptionsLoadingParallelism = 8; // max tenants loaded concurrently
+    private int subscriptionsLoadingTimeoutInSeconds = 30; // per tenant
+    private int subscriptionsCacheTtlInMinutes = 60; // <= 0 disables reusing persisted subscriptions
+    private int authProbeTimeoutInSeconds = 10; // max time to check availability of an auth type in `AUTO` mode
+    private int metadataCacheTtlInHours = 24; // regions, skus and so on are refreshed in background once expired
+    private int httpMaxConnections = 64; // size of the connection pool shared by all http clients
+    private int httpMaxIdleTimeInSeconds = 60; // pooled connections idle for longer are closed
+    private boolean http2Enabled = false; // negotiate HTTP/2 with servers that support it, and fall back to HTTP/1.1 otherwise
+    private int storageBulkOperationConcurrency = 16; // max concurrent requests of bulk blob/file operations, e.g. recursive delete
+    private int storageDownloadRangeSizeInMB = 8; // blobs/files are downloaded by ranges of this size concurrently
+    private int cosmosDocumentsPageSize = 100; // max documents loaded per page (continuation token) when listing Cosmos documents
+    private boolean cosmosRequestChargeReportEnabled = false; // report request units (RUs) consumed by each Cosmos document operation
+    private int cosmosBulkBatchSize = 100; // documents written in one request when importing documents to Cosmos
+    private int cosmosBulkConcurrency = 4; // max batches written concurrently when importing documents to Cosmos
+    private int messageBatchSendConcurrency = 4; // max message batches sent concurrently to Event Hubs/Service Bus
+    private int serviceBusPrefetchCount = 0; // messages prefetched by Service Bus processors, 0 disables prefetching
+    private int serviceBusMaxConcurrentCalls = 1; // max messages processed concurrently by a Service Bus processor
+    private String serviceBusReceiveMode = "PEEK_LOCK"; // PEEK_LOCK or RECEIVE_AND_DELETE
+    private int messageReceiveBufferSize = 1000; // max received Event Hubs/Service Bus messages buffered for display
+    private String messageReceiveOverflowPolicy = "BLOCK"; // BLOCK, DROP_NEWEST, DROP_OLDEST or SAMPLE when the receive buffer is full
+    private int messageReceiveSampleRate = 10; // one of every N received messages is displayed with the SAMPLE policy
+    private int messageMaxDisplaySize = 4096; // received messages are truncated to this many characters, <= 0 disables truncating
+    private int appServiceFileListingCacheTtlInSeconds = 10; // directory listings of app service files are reused within this time, <= 0 disables caching
+    private int logStreamingIdleTimeoutInSeconds = 60; // log streams without any output for longer are reconnected
+    private int logStreamingMaxRetries = 5; // max consecutive reconnects of a log stream before giving up
+    private int logStreamingBufferSize = 256; // max log lines buffered for display when following multiple log streams
+
     public void setProxyInfo(ProxyInfo proxy) {
         this.setProxySource(proxy.getSource());
         this.setHttpProxyHost(proxy.getHost());
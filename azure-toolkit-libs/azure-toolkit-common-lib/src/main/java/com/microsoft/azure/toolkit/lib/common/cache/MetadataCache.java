@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.toolkit.lib.Azure;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Persistent cache for slowly changing metadata, e.g. regions and skus, that is expensive to fetch.
+ * <ul>
+ *     <li>fresh entries are served from memory/disk without any remote call.</li>
+ *     <li>expired entries are still served, and refreshed in background.</li>
+ *     <li>if nothing is cached and loading fails (e.g. offline), the snapshot bundled in jar is served.</li>
+ * </ul>
+ * persisted file is versioned, files of other versions are ignored.
+ */
+@Slf4j
+public class MetadataCache<T> {
+    private static final ObjectMapper MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".azure", "azure-toolkit-metadata");
+    private static final String SNAPSHOT_DIRECTORY = "/metadata/";
+
+    @Nonnull
+    private final String name;
+    private final int version;
+    @Nonnull
+    private final TypeReference<T> type;
+    @Nonnull
+    private final Path location;
+    @Nullable
+    private final Duration ttl;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private Map<String, Entry> entries;
+    private Map<String, Entry> snapshot;
+
+    public MetadataCache(@Nonnull String name, int version, @Nonnull TypeReference<T> type) {
+        this(name, version, type, DEFAULT_DIRECTORY, null);
+    }
+
+    MetadataCache(@Nonnull String name, int version, @Nonnull TypeReference<T> type, @Nonnull Path directory, @Nullable Duration ttl) {
+        this.name = name;
+        this.version = version;
+        this.type = type;
+        this.location = directory.resolve(name + ".json");
+        this.ttl = ttl;
+    }
+
+    /**
+     * @param key         key of the entry
+     * @param snapshotKey key of the entry in bundled snapshot to fall back to if nothing is cached and {@code loader} fails
+     * @param loader      loads the metadata from remote
+     */
+    @Nonnull
+    public T get(@Nonnull String key, @Nullable String snapshotKey, @Nonnull Supplier<T> loader) {
+        final Entry cached = this.getEntries().get(key);
+        if (Objects.nonNull(cached)) {
+            if (this.isExpired(cached)) {
+                this.refreshInBackground(key, loader);
+            }
+            return this.convert(cached);
+        }
+        try {
+            final T value = loader.get();
+            this.put(key, value, System.currentTimeMillis());
+            return value;
+        } catch (RuntimeException e) {
+            final Entry fallback = Optional.ofNullable(snapshotKey).map(k -> this.getSnapshot().get(k)).orElse(null);
+            if (Objects.isNull(fallback)) {
+                throw e;
+            }
+            log.debug("failed to load metadata[{}/{}], fall back to bundled snapshot.", this.name, key, e);
+            return this.convert(fallback);
+        }
+    }
+
+    public synchronized void invalidate(@Nonnull String key) {
+        this.getEntries().remove(key);
+        this.persist(key);
+    }
+
+    /**
+     * put {@code value} loaded at {@code fetchedAt} into the cache, it's ignored if the cached one (maybe persisted by
+     * other processes) is fresher.
+     */
+    synchronized void put(@Nonnull String key, @Nonnull T value, long fetchedAt) {
+        final Entry entry = new Entry(fetchedAt, MAPPER.valueToTree(value));
+        final Entry current = this.getEntries().get(key);
+        if (Objects.isNull(current) || current.getFetchedAt() <= fetchedAt) {
+            this.getEntries().put(key, entry);
+            this.persist(null);
+        }
+    }
+
+    Mono<T> refresh(@Nonnull String key, @Nonnull Supplier<T> loader) {
+        return Mono.fromCallable(loader::get)
+            .doOnNext(value -> this.put(key, value, System.currentTimeMillis()))
+            .doOnError(e -> log.debug("failed to refresh metadata[{}/{}].", this.name, key, e));
+    }
+
+    private void refreshInBackground(@Nonnull String key, @Nonnull Supplier<T> loader) {
+        if (this.refreshing.add(key)) {
+            this.refresh(key, loader)
+                .doFinally(s -> this.refreshing.remove(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(v -> {
+                }, e -> {
+                });
+        }
+    }
+
+    private boolean isExpired(@Nonnull Entry entry) {
+        final Duration ttl = Optional.ofNullable(this.ttl).orElseGet(() -> Duration.ofHours(Azure.az().config().getMetadataCacheTtlInHours()));
+        return System.currentTimeMillis() - entry.getFetchedAt() > ttl.toMillis();
+    }
+
+    @Nonnull
+    private T convert(@Nonnull Entry entry) {
+        return MAPPER.convertValue(entry.getValue(), this.type);
+    }
+
+    @Nonnull
+    private synchronized Map<String, Entry> getEntries() {
+        if (Objects.isNull(this.entries)) {
+            this.entries = new ConcurrentHashMap<>(this.read());
+        }
+        return this.entries;
+    }
+
+    @Nonnull
+    private synchronized Map<String, Entry> getSnapshot() {
+        if (Objects.isNull(this.snapshot)) {
+            this.snapshot = new HashMap<>();
+            try (InputStream stream = MetadataCache.class.getResourceAsStream(SNAPSHOT_DIRECTORY + this.name + ".json")) {
+                Optional.ofNullable(stream).map(this::parse).ifPresent(this.snapshot::putAll);
+            } catch (IOException e) {
+                log.debug("failed to read snapshot of metadata[{}].", this.name, e);
+            }
+        }
+        return this.snapshot;
+    }
+
+    @Nonnull
+    private Map<String, Entry> read() {
+        if (!Files.isRegularFile(this.location)) {
+            return new HashMap<>();
+        }
+        try (InputStream stream = Files.newInputStream(this.location)) {
+            return this.parse(stream);
+        } catch (IOException e) {
+            log.debug("failed to read metadata[{}] from {}.", this.name, this.location, e);
+            return new HashMap<>();
+        }
+    }
+
+    @Nonnull
+    private Map<String, Entry> parse(@Nonnull InputStream stream) {
+        try {
+            final Document document = MAPPER.readValue(stream, Document.class);
+            if (document.getVersion() != this.version) {
+                return new HashMap<>();
+            }
+            return Optional.ofNullable(document.getEntries()).orElseGet(HashMap::new);
+        } catch (IOException e) {
+            log.debug("failed to parse metadata[{}].", this.name, e);
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * merge entries in memory with the persisted ones, which may be updated by other processes meanwhile, the fresher wins.
+     */
+    private void persist(@Nullable String invalidated) {
+        final Map<String, Entry> merged = this.read();
+        Optional.ofNullable(invalidated).ifPresent(merged::remove);
+        this.getEntries().forEach((k, e) -> merged.merge(k, e, (a, b) -> a.getFetchedAt() >= b.getFetchedAt() ? a : b));
+        this.getEntries().putAll(merged);
+        try {
+            Files.createDirectories(this.location.getParent());
+            final Path temp = Files.createTempFile(this.location.getParent(), this.name, ".tmp");
+            MAPPER.writeValue(temp.toFile(), new Document(this.version, merged));
+            Files.move(temp, this.location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("failed to persist metadata[{}] to {}.", this.name, this.location, e);
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Document {
+        private int version;
+        private Map<String, Entry> entries;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Entry {
+        private long fetchedAt;
+        private JsonNode value;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * coalesces concurrent calls of the same key: only the first caller (the leader) runs the body, others wait for
+ * and share its result (or exception). nothing is cached once the call completes.
+ */
+public class SingleFlight<K> {
+    private final ConcurrentMap<K, Flight> flights = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(@Nonnull K key, @Nonnull Supplier<V> body) {
+        final Flight mine = new Flight();
+        final Flight flight = this.flights.putIfAbsent(key, mine);
+        if (Objects.isNull(flight)) {
+            try {
+                final V value = body.get();
+                mine.result.complete(value);
+                return value;
+            } catch (final Throwable e) {
+                mine.result.completeExceptionally(e);
+                throw e;
+            } finally {
+                this.flights.remove(key, mine);
+            }
+        }
+        if (flight.leader == Thread.currentThread()) { // reentrant call from the leader itself, waiting would deadlock.
+            return body.get();
+        }
+        try {
+            return (V) flight.result.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Flight {
+        private final Thread leader = Thread.currentThread();
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+    }
+}
@@ -121,7 +121,9 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
     protected final R loadRemoteFromAzure() {
         log.debug("[{}:{}]:loadRemote()", this.module.getName(), this.getName());
         try {
-            return this.getModule().loadResourceFromAzure(this.getName(), this.getResourceGroupName());
+            // different instances (e.g. copies) of the same resource may be loading at the same time.
+            final String key = this.getId().toLowerCase() + "#getRemote";
+            return this.getModule().inflightReads.execute(key, () -> this.getModule().loadResourceFromAzure(this.getName(), this.getResourceGroupName()));
         } catch (final Exception e) {
             log.debug("[{}:{}]:loadRemote()=EXCEPTION", this.module.getName(), this.getName(), e);
             if (isNotFoundException(e)) {
@@ -17,6 +17,7 @@ import com.google.common.collect.Sets;
 import com.microsoft.azure.toolkit.lib.AzService;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.cache.SingleFlight;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
@@ -88,6 +89,11 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
     @Nonnull
     private final Debouncer fireEvents = new TailingDebouncer(this::fireChildrenChangedEvent, 300);
     private final Lock lock = new ReentrantLock();
+    /**
+     * coalesces concurrent identical reads (keyed by resource id and operation) of this module and its resources.
+     */
+    @Nonnull
+    final SingleFlight<String> inflightReads = new SingleFlight<>();
     private Iterator<? extends ContinuablePage<String, R>> pages;
 
     @Override
@@ -259,34 +265,44 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
             Azure.az(IAzureAccount.class).account();
         }
         if (!this.resources.containsKey(id)) {
-            R remote = null;
-            try {
-                log.debug("[{}]:get({}, {})->loadResourceFromAzure()", this.name, name, resourceGroup);
-                remote = loadResourceFromAzure(name, resourceGroup);
-            } catch (final Exception e) {
-                log.debug("[{}]:get({}, {})->loadResourceFromAzure()=EXCEPTION", this.name, name, resourceGroup, e);
-                final Throwable cause = e instanceof HttpResponseException ? e : ExceptionUtils.getRootCause(e);
-                if (cause instanceof HttpResponseException) {
-                    if (!isNotFoundException(e)) {
-                        log.debug("[{}]:get({}, {})->loadResourceFromAzure()=SC_NOT_FOUND", this.name, name, resourceGroup, e);
-                        throw e;
-                    }
-                }
-            }
-            if (Objects.isNull(remote)) {
-                log.debug("[{}]:get({}, {})->addResourceToLocal({}, null)", this.name, name, resourceGroup, name);
-                this.addResourceToLocal(id, null, true);
-            } else {
-                final T resource = newResource(remote);
-                resource.setRemote(remote);
-                log.debug("[{}]:get({}, {})->addResourceToLocal({}, resource)", this.name, name, resourceGroup, name);
-                this.addResourceToLocal(resource.getId(), resource, true);
-            }
+            this.inflightReads.execute(id + "#get", () -> {
+                this.loadResourceToLocal(id, name, resourceGroup);
+                return null;
+            });
         }
         log.debug("[{}]:get({}, {})->this.resources.get({})", this.name, id, resourceGroup, name);
         return this.resources.getOrDefault(id, Optional.empty()).orElse(null);
     }
 
+    private void loadResourceToLocal(@Nonnull String id, @Nonnull String name, @Nullable String resourceGroup) {
+        if (this.resources.containsKey(id)) { // loaded by the previous flight
+            return;
+        }
+        R remote = null;
+        try {
+            log.debug("[{}]:get({}, {})->loadResourceFromAzure()", this.name, name, resourceGroup);
+            remote = loadResourceFromAzure(name, resourceGroup);
+        } catch (final Exception e) {
+            log.debug("[{}]:get({}, {})->loadResourceFromAzure()=EXCEPTION", this.name, name, resourceGroup, e);
+            final Throwable cause = e instanceof HttpResponseException ? e : ExceptionUtils.getRootCause(e);
+            if (cause instanceof HttpResponseException) {
+                if (!isNotFoundException(e)) {
+                    log.debug("[{}]:get({}, {})->loadResourceFromAzure()=SC_NOT_FOUND", this.name, name, resourceGroup, e);
+                    throw e;
+                }
+            }
+        }
+        if (Objects.isNull(remote)) {
+            log.debug("[{}]:get({}, {})->addResourceToLocal({}, null)", this.name, name, resourceGroup, name);
+            this.addResourceToLocal(id, null, true);
+        } else {
+            final T resource = newResource(remote);
+            resource.setRemote(remote);
+            log.debug("[{}]:get({}, {})->addResourceToLocal({}, resource)", this.name, name, resourceGroup, name);
+            this.addResourceToLocal(resource.getId(), resource, true);
+        }
+    }
+
     @Nullable
     public T get(@Nonnull String resourceId) {
         final ResourceId id = ResourceId.fromString(resourceId);
@@ -21,19 +21,29 @@ import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.account.IAccount;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.proxy.ProxyManager;
 import io.netty.handler.ssl.ClientAuth;
 import io.netty.handler.ssl.JdkSslContext;
+import io.netty.resolver.AddressResolver;
 import io.netty.resolver.AddressResolverGroup;
 import io.netty.resolver.DefaultAddressResolverGroup;
+import io.netty.resolver.DefaultNameResolver;
+import io.netty.resolver.InetSocketAddressResolver;
 import io.netty.resolver.NoopAddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
 import org.apache.commons.lang3.StringUtils;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.resources.ConnectionProvider;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.lib.Azure.az;
@@ -113,6 +123,10 @@ public abstract class AbstractAzServiceSubscription<T extends AbstractAzResource
         };
     }
 
+    /**
+     * holds the http client shared by all (management and data plane) clients of Azure SDK, so that they share one
+     * connection pool and one proxy/ssl configuration.
+     */
     public static class HttpClientHolder {
         private static HttpClient defaultHttpClient = null;
 
@@ -121,29 +135,62 @@ public abstract class AbstractAzServiceSubscription<T extends AbstractAzResource
             if (defaultHttpClient != null) {
                 return defaultHttpClient;
             }
+            defaultHttpClient = createHttpClient(Azure.az().config());
+            return defaultHttpClient;
+        }
 
-            AddressResolverGroup resolverGroup;
-            ProxyOptions proxyOptions = null;
-            final AzureConfiguration config = Azure.az().config();
-            if (StringUtils.isNotBlank(config.getProxySource())) {
-                proxyOptions = new ProxyOptions(ProxyOptions.Type.HTTP, new InetSocketAddress(config.getHttpProxyHost(), config.getHttpProxyPort()));
-                if (StringUtils.isNoneBlank(config.getProxyUsername(), config.getProxyPassword())) {
-                    proxyOptions.setCredentials(config.getProxyUsername(), config.getProxyPassword());
-                }
-                resolverGroup = NoopAddressResolverGroup.INSTANCE;
-            } else {
-                resolverGroup = DefaultAddressResolverGroup.INSTANCE;
-            }
+        @Nonnull
+        static HttpClient createHttpClient(@Nonnull final AzureConfiguration config) {
+            return createHttpClient(config, ProxyManager.getInstance().getProxyOptions());
+        }
+
+        @Nonnull
+        static HttpClient createHttpClient(@Nonnull final AzureConfiguration config, @Nullable final ProxyOptions proxyOptions) {
+            // let the proxy resolve host names if proxy is configured, hosts bypassing the proxy are still resolved locally.
+            final AddressResolverGroup<?> resolverGroup = Objects.isNull(proxyOptions) ? DefaultAddressResolverGroup.INSTANCE :
+                StringUtils.isBlank(proxyOptions.getNonProxyHosts()) ? NoopAddressResolverGroup.INSTANCE : new NonProxyHostsResolverGroup(proxyOptions.getNonProxyHosts());
+            final Duration maxIdleTime = Duration.ofSeconds(config.getHttpMaxIdleTimeInSeconds());
+            final ConnectionProvider provider = ConnectionProvider.builder("azure-toolkit")
+                .maxConnections(config.getHttpMaxConnections())
+                .pendingAcquireMaxCount(-1) // queue requests instead of failing them if the pool is exhausted
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(maxIdleTime)
+                .build();
             reactor.netty.http.client.HttpClient nettyHttpClient =
-                reactor.netty.http.client.HttpClient.create()
-                        .resolver(resolverGroup);
+                reactor.netty.http.client.HttpClient.create(provider)
+                    .keepAlive(true)
+                    .resolver(resolverGroup);
+            if (config.isHttp2Enabled()) {
+                nettyHttpClient = nettyHttpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+            }
             if (Objects.nonNull(config.getSslContext())) {
                 nettyHttpClient = nettyHttpClient.secure(sslConfig -> sslConfig.sslContext(new JdkSslContext(config.getSslContext(), true, ClientAuth.NONE)));
             }
-            NettyAsyncHttpClientBuilder builder = new NettyAsyncHttpClientBuilder(nettyHttpClient);
+            final NettyAsyncHttpClientBuilder builder = new NettyAsyncHttpClientBuilder(nettyHttpClient);
             Optional.ofNullable(proxyOptions).map(builder::proxy);
-            defaultHttpClient = builder.build();
-            return defaultHttpClient;
+            return builder.build();
+        }
+
+        /**
+         * resolves only the hosts matching the non-proxy hosts (in the regex form of {@link ProxyOptions#getNonProxyHosts()}),
+         * since they are connected directly, names of the other hosts are left to the proxy.
+         */
+        static class NonProxyHostsResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+            private final Pattern nonProxyHosts;
+
+            NonProxyHostsResolverGroup(@Nonnull String nonProxyHosts) {
+                this.nonProxyHosts = Pattern.compile(nonProxyHosts, Pattern.CASE_INSENSITIVE);
+            }
+
+            @Override
+            protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+                return new InetSocketAddressResolver(executor, new DefaultNameResolver(executor)) {
+                    @Override
+                    protected boolean doIsResolved(InetSocketAddress address) {
+                        return super.doIsResolved(address) || !nonProxyHosts.matcher(address.getHostString()).matches();
+                    }
+                };
+            }
         }
     }
 
@@ -5,6 +5,7 @@
 
 package com.microsoft.azure.toolkit.lib.common.proxy;
 
+import com.azure.core.http.ProxyOptions;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
@@ -14,6 +15,7 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.Authenticator;
 import java.net.InetSocketAddress;
@@ -113,6 +115,25 @@ public class ProxyManager {
         }
     }
 
+    /**
+     * proxy options for http clients of Azure SDK, which don't respect the default {@link ProxySelector}.
+     *
+     * @return {@code null} if no proxy is configured
+     */
+    @Nullable
+    public ProxyOptions getProxyOptions() {
+        final AzureConfiguration config = Azure.az().config();
+        if (!this.isProxyEnabled()) {
+            return null;
+        }
+        final ProxyOptions options = new ProxyOptions(ProxyOptions.Type.HTTP, new InetSocketAddress(config.getHttpProxyHost(), config.getHttpProxyPort()));
+        if (StringUtils.isNoneBlank(config.getProxyUsername(), config.getProxyPassword())) {
+            options.setCredentials(config.getProxyUsername(), config.getProxyPassword());
+        }
+        Optional.ofNullable(config.getNonProxyHosts()).filter(StringUtils::isNotBlank).ifPresent(options::setNonProxyHosts);
+        return options;
+    }
+
     public void resetProxy() {
         ProxySelector.setDefault(this.defaultProxySelector);
     }
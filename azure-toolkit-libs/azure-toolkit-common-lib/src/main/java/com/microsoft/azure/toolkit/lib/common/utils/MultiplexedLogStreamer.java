@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * follows log streams of multiple sources (e.g. an app and its slots) concurrently on a small shared pool, and merges
+ * them into one stream of lines tagged with their sources. lines are filtered per source before they are merged, and at
+ * most {@code bufferSize} merged lines wait for display, the sources are slowed down (backpressure) if the display
+ * can't keep up.
+ */
+public class MultiplexedLogStreamer {
+    private static final Scheduler POOL = Schedulers.newBoundedElastic(4, Integer.MAX_VALUE, "azure-toolkit-log-streaming", 60, true);
+    private final Map<String, Flux<String>> sources = new LinkedHashMap<>();
+    private final int bufferSize;
+    @Nullable
+    private final LogFilter filter;
+
+    public MultiplexedLogStreamer(int bufferSize, @Nullable LogFilter filter) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.filter = filter;
+    }
+
+    @Nonnull
+    public static MultiplexedLogStreamer fromConfig(@Nullable LogFilter filter) {
+        return new MultiplexedLogStreamer(Azure.az().config().getLogStreamingBufferSize(), filter);
+    }
+
+    /**
+     * @param tag tag of lines of this source, e.g. name of the app.
+     */
+    @Nonnull
+    public MultiplexedLogStreamer addSource(@Nonnull String tag, @Nonnull Flux<String> lines) {
+        this.sources.put(tag, lines);
+        return this;
+    }
+
+    public int getSourceCount() {
+        return this.sources.size();
+    }
+
+    /**
+     * a failed source is reported and the others keep streaming.
+     */
+    @Nonnull
+    public Flux<TaggedLine> stream() {
+        if (this.sources.isEmpty()) {
+            return Flux.empty();
+        }
+        final List<Flux<TaggedLine>> streams = this.sources.entrySet().stream().map(source -> {
+            final String tag = source.getKey();
+            return Flux.defer(() -> {
+                final Predicate<String> accept = Objects.isNull(this.filter) ? line -> true : this.filter.newSession();
+                return source.getValue().subscribeOn(POOL).filter(accept).map(line -> new TaggedLine(tag, line));
+            }).onErrorResume(e -> {
+                AzureMessager.getMessager().warning(AzureString.format("Streaming log of %s is stopped: %s\n", tag, e.getMessage()));
+                return Flux.empty();
+            });
+        }).collect(Collectors.toList());
+        final int prefetch = Math.max(1, this.bufferSize / streams.size());
+        return Flux.merge(Flux.fromIterable(streams), streams.size(), prefetch).publishOn(POOL, this.bufferSize);
+    }
+
+    /**
+     * display lines as debug messages of {@code messager}, lines are tagged if there are multiple sources.
+     */
+    @Nonnull
+    public Disposable follow(@Nonnull IAzureMessager messager) {
+        final boolean tagged = this.sources.size() > 1;
+        return this.stream().subscribe(line -> messager.debug(tagged ? line.toString() : line.getLine()));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class TaggedLine {
+        @Nonnull
+        private final String tag;
+        @Nonnull
+        private final String line;
+
+        @Override
+        public String toString() {
+            return String.format("[%s] %s", this.tag, this.line);
+        }
+    }
+
+    public enum Level {
+        TRACE, DEBUG, INFO, WARN, ERROR;
+
+        @Nonnull
+        public static Level fromString(@Nullable String value) {
+            final String level = StringUtils.upperCase(StringUtils.trim(value));
+            if ("WARNING".equals(level)) {
+                return WARN;
+            } else if ("FATAL".equals(level) || "CRITICAL".equals(level)) {
+                return ERROR;
+            }
+            for (final Level l : values()) {
+                if (l.name().equals(level)) {
+                    return l;
+                }
+            }
+            return INFO;
+        }
+    }
+
+    /**
+     * filters lines by level and/or regex. the level of a line is detected from upper case level names (e.g.
+     * {@code WARN}, {@code ERROR}), and lines without level (e.g. stack traces) inherit the level of the previous line
+     * of the same source. lines before any line with level are kept.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class LogFilter {
+        private static final Pattern LEVEL = Pattern.compile("\\b(TRACE|DEBUG|INFO|WARN|WARNING|ERROR|FATAL|CRITICAL)\\b");
+        @Nullable
+        private final Level minLevel;
+        @Nullable
+        private final Pattern pattern;
+
+        @Nonnull
+        public static LogFilter of(@Nullable String minLevel, @Nullable String regex) {
+            return new LogFilter(StringUtils.isBlank(minLevel) ? null : Level.fromString(minLevel),
+                StringUtils.isBlank(regex) ? null : Pattern.compile(regex));
+        }
+
+        /**
+         * @return a stateful predicate for lines of one source.
+         */
+        @Nonnull
+        public Predicate<String> newSession() {
+            final Level[] current = new Level[1];
+            return line -> {
+                if (Objects.nonNull(this.minLevel)) {
+                    final Matcher matcher = LEVEL.matcher(line);
+                    if (matcher.find()) {
+                        current[0] = Level.fromString(matcher.group(1));
+                    }
+                    if (Objects.nonNull(current[0]) && current[0].compareTo(this.minLevel) < 0) {
+                        return false;
+                    }
+                }
+                return Objects.isNull(this.pattern) || this.pattern.matcher(line).find();
+            };
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * non-blocking client of log streaming endpoints (e.g. spring apps and container apps). lines are decoded from the
+ * response body as they are requested by subscribers (no thread is blocked and at most {@link #PREFETCH} lines are
+ * buffered). dropped/idle connections are reconnected with exponential backoff, and the lines re-sent by the server
+ * (the tail) right after reconnecting are de-duplicated by aligning them with the lines emitted before.
+ */
+@Slf4j
+public class StreamingLogClient {
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+    private static final int HISTORY_SIZE = 1000; // should be larger than the tail re-sent by the server
+    private static final int PREFETCH = 256;
+    private static final Duration ALIGNMENT_TIMEOUT = Duration.ofSeconds(2); // the tail is re-sent right after connecting
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String CONNECTED = new String("<connected>"); // marker compared by identity
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String ALIGNMENT_TIMED_OUT = new String("<alignment timed out>"); // marker compared by identity
+
+    @Nonnull
+    private final HttpClient httpClient;
+    @Nonnull
+    private final Duration idleTimeout;
+    private final int maxRetries;
+    @Nonnull
+    private final Duration minBackoff;
+
+    public StreamingLogClient(@Nonnull HttpClient httpClient, @Nonnull Duration idleTimeout, int maxRetries, @Nonnull Duration minBackoff) {
+        this.httpClient = httpClient;
+        this.idleTimeout = idleTimeout;
+        this.maxRetries = maxRetries;
+        this.minBackoff = minBackoff;
+    }
+
+    @Nonnull
+    public static StreamingLogClient fromConfig() {
+        final AzureConfiguration config = Azure.az().config();
+        return new StreamingLogClient(AbstractAzServiceSubscription.getDefaultHttpClient(), Duration.ofSeconds(config.getLogStreamingIdleTimeoutInSeconds()),
+            config.getLogStreamingMaxRetries(), MIN_BACKOFF);
+    }
+
+    /**
+     * @param endpoint      called on every (re)connecting.
+     * @param authorization called on every (re)connecting, so that expired tokens can be refreshed.
+     * @param follow        keep reconnecting when the server ends the stream.
+     */
+    @Nonnull
+    public Flux<String> stream(@Nonnull Supplier<String> endpoint, @Nonnull Supplier<String> authorization, boolean follow) {
+        return Flux.defer(() -> {
+            final OverlapFilter filter = new OverlapFilter(HISTORY_SIZE);
+            Flux<String> lines = Flux.defer(() -> this.connect(endpoint.get(), authorization.get()));
+            if (follow) {
+                lines = lines.concatWith(Flux.error(new StreamClosedException()));
+            }
+            return lines
+                .retryWhen(Retry.backoff(this.maxRetries, this.minBackoff).maxBackoff(MAX_BACKOFF)
+                    .transientErrors(true) // only consecutive failures (without connecting successfully) are counted
+                    .filter(StreamingLogClient::isRetriable)
+                    .doBeforeRetry(s -> log.debug("reconnecting log stream ({}) because of: {}", s.totalRetriesInARow() + 1, s.failure().getMessage()))
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .concatMapIterable(filter::accept, PREFETCH)
+                .onErrorResume(e -> e instanceof HttpResponseException && ((HttpResponseException) e).getResponse().getStatusCode() == 404, e -> {
+                    AzureMessager.getMessager().error("app/instance may be deactivated, please refresh and try again later.");
+                    return Flux.empty();
+                })
+                .onErrorMap(e -> !(e instanceof AzureToolkitRuntimeException), e -> new AzureToolkitRuntimeException("failed to stream logs.", e));
+        });
+    }
+
+    @Nonnull
+    private Flux<String> connect(@Nonnull String endpoint, @Nonnull String authorization) {
+        final HttpRequest request = new HttpRequest(HttpMethod.GET, endpoint).setHeader("Authorization", authorization);
+        return this.httpClient.send(request).flatMapMany(response -> {
+            if (response.getStatusCode() >= 400) {
+                response.close();
+                return Flux.error(new HttpResponseException(String.format("failed to connect to log stream, status code: %d", response.getStatusCode()), response));
+            }
+            final LineDecoder decoder = new LineDecoder(MAX_LINE_LENGTH);
+            final Flux<String> lines = response.getBody()
+                .timeout(this.idleTimeout)
+                .concatMapIterable(decoder::decode)
+                .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.flush()))); // the last line without line break
+            return Flux.just(CONNECTED).concatWith(lines.publish(shared -> shared.mergeWith(
+                Mono.delay(ALIGNMENT_TIMEOUT).thenReturn(ALIGNMENT_TIMED_OUT).takeUntilOther(shared.then().onErrorResume(e -> Mono.empty())))));
+        });
+    }
+
+    /**
+     * only dropped/idle/closed connections and transient http errors are retried, others (e.g. invalid endpoint) won't
+     * be fixed by reconnecting.
+     */
+    static boolean isRetriable(@Nonnull Throwable e) {
+        if (e instanceof HttpResponseException) {
+            final int status = ((HttpResponseException) e).getResponse().getStatusCode();
+            return status >= 500 || status == 401 || status == 408 || status == 429; // 401: token may be refreshed
+        }
+        return e instanceof StreamClosedException || e instanceof TimeoutException || e instanceof IOException || e.getCause() instanceof IOException;
+    }
+
+    /**
+     * the server ended the stream, which is reconnected if following.
+     */
+    private static class StreamClosedException extends RuntimeException {
+        private StreamClosedException() {
+            super("log stream is closed by server.", null, false, false);
+        }
+    }
+
+    /**
+     * decodes utf-8 lines from chunks, lines/characters split across chunks are handled. lines longer than
+     * {@code maxLineLength} are split.
+     */
+    static class LineDecoder {
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final int maxLineLength;
+        private final StringBuilder line = new StringBuilder();
+        private ByteBuffer leftover = ByteBuffer.allocate(0); // bytes of an incomplete character
+
+        LineDecoder(int maxLineLength) {
+            this.maxLineLength = maxLineLength;
+        }
+
+        @Nonnull
+        List<String> decode(@Nonnull ByteBuffer chunk) {
+            final ByteBuffer input;
+            if (this.leftover.hasRemaining()) {
+                input = ByteBuffer.allocate(this.leftover.remaining() + chunk.remaining()).put(this.leftover).put(chunk);
+                input.flip();
+            } else {
+                input = chunk;
+            }
+            final CharBuffer chars = CharBuffer.allocate(input.remaining());
+            this.decoder.decode(input, chars, false);
+            this.leftover = ByteBuffer.allocate(input.remaining()).put(input);
+            this.leftover.flip();
+            chars.flip();
+
+            final List<String> lines = new ArrayList<>();
+            while (chars.hasRemaining()) {
+                final char c = chars.get();
+                if (c == '\n') {
+                    lines.add(this.takeLine());
+                } else {
+                    this.line.append(c);
+                    if (this.line.length() >= this.maxLineLength) {
+                        lines.add(this.takeLine());
+                    }
+                }
+            }
+            return lines;
+        }
+
+        @Nonnull
+        List<String> flush() {
+            return this.line.length() > 0 ? Collections.singletonList(this.takeLine()) : Collections.emptyList();
+        }
+
+        @Nonnull
+        private String takeLine() {
+            final int length = this.line.length();
+            final String result = length > 0 && this.line.charAt(length - 1) == '\r' ? this.line.substring(0, length - 1) : this.line.toString();
+            this.line.setLength(0);
+            return result;
+        }
+    }
+
+    /**
+     * drops the lines re-sent after reconnecting. the lines received after reconnecting are held until they are
+     * aligned with the end of the recently emitted lines (then they are duplicates) or they can't be (then they are
+     * new), and the longest alignment wins. aligning lasts at most {@link #ALIGNMENT_TIMEOUT} after reconnecting, so
+     * that new lines happening to match the history are not held (or dropped) later on.
+     */
+    static class OverlapFilter {
+        private final int capacity;
+        private final String[] history;
+        private int start;
+        private int size;
+        private boolean aligning;
+        private final List<String> held = new ArrayList<>();
+        private final List<Integer> candidates = new ArrayList<>(); // positions in history where held lines may start
+        private int aligned; // held lines aligned with the end of history
+
+        OverlapFilter(int capacity) {
+            this.capacity = capacity;
+            this.history = new String[capacity];
+        }
+
+        @Nonnull
+        List<String> accept(@Nonnull String line) {
+            //noinspection StringEquality
+            if (line == CONNECTED) {
+                this.reconnected();
+                return Collections.emptyList();
+            }
+            //noinspection StringEquality
+            if (line == ALIGNMENT_TIMED_OUT) {
+                return this.alignmentTimedOut();
+            }
+            if (!this.aligning) {
+                this.remember(line);
+                return Collections.singletonList(line);
+            }
+            this.held.add(line);
+            final int offset = this.held.size() - 1;
+            if (offset == 0) {
+                for (int i = 0; i < this.size; i++) {
+                    if (this.get(i).equals(line)) {
+                        this.candidates.add(i);
+                    }
+                }
+            } else {
+                this.candidates.removeIf(i -> !this.get(i + offset).equals(line));
+            }
+            final int end = this.size;
+            if (this.candidates.removeIf(i -> i + this.held.size() == end)) { // some reach the end of history
+                this.aligned = this.held.size();
+            }
+            if (!this.candidates.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return this.release();
+        }
+
+        /**
+         * held lines that are not aligned with the end of history yet are new, since the re-sent tail comes first.
+         */
+        @Nonnull
+        List<String> alignmentTimedOut() {
+            return this.aligning ? this.release() : Collections.emptyList();
+        }
+
+        @Nonnull
+        private List<String> release() {
+            this.aligning = false;
+            this.candidates.clear();
+            final List<String> lines = new ArrayList<>(this.held.subList(this.aligned, this.held.size()));
+            this.held.clear();
+            lines.forEach(this::remember);
+            return lines;
+        }
+
+        void reconnected() {
+            this.aligning = this.size > 0;
+            this.held.clear(); // held lines are re-sent by the new connection if they are new
+            this.candidates.clear();
+            this.aligned = 0;
+        }
+
+        private String get(int index) {
+            return this.history[(this.start + index) % this.capacity];
+        }
+
+        private void remember(@Nonnull String line) {
+            if (this.size < this.capacity) {
+                this.history[(this.start + this.size++) % this.capacity] = line;
+            } else {
+                this.history[this.start] = line;
+                this.start = (this.start + 1) % this.capacity;
+            }
+        }
+    }
+}
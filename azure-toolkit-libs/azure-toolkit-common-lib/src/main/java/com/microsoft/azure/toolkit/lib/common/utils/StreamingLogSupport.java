@@ -6,17 +6,12 @@
 package com.microsoft.azure.toolkit.lib.common.utils;
 
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
-import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.http.client.utils.URIBuilder;
 import reactor.core.publisher.Flux;
 
 import javax.annotation.Nonnull;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URISyntaxException;
 import java.util.Collections;
@@ -33,36 +28,27 @@ public interface StreamingLogSupport {
     }
 
     default Flux<String> streamingLogs(boolean follow, @Nonnull Map<String, String> p) {
-        try {
-            final Map<String, String> params = new HashMap<>();
-            params.put("sinceSeconds", String.valueOf(300));
-            params.put("tailLines", String.valueOf(300));
-            params.put("limitBytes", String.valueOf(1024 * 1024));
-            params.putAll(p);
-            params.put("follow", String.valueOf(follow));
-
-            final HttpURLConnection connection = createLogStreamConnection(params);
-            connection.connect();
-            return Flux.create((fluxSink) -> {
-                try {
-                    final InputStream is = connection.getInputStream();
-                    final BufferedReader rd = new BufferedReader(new InputStreamReader(is));
-                    String line;
-                    while ((line = rd.readLine()) != null) {
-                        fluxSink.next(line);
-                    }
-                    rd.close();
-                } catch (final FileNotFoundException e) {
-                    AzureMessager.getMessager().error("app/instance may be deactivated, please refresh and try again later.");
-                } catch (final IOException e) {
-                    throw new AzureToolkitRuntimeException(e);
-                }
-            });
-        } catch (final Exception e) {
-            throw new AzureToolkitRuntimeException(e);
-        }
+        final Map<String, String> params = new HashMap<>();
+        params.put("sinceSeconds", String.valueOf(300));
+        params.put("tailLines", String.valueOf(300));
+        params.put("limitBytes", String.valueOf(1024 * 1024));
+        params.putAll(p);
+        params.put("follow", String.valueOf(follow));
+        return StreamingLogClient.fromConfig().stream(() -> {
+            try {
+                final URIBuilder uriBuilder = new URIBuilder(getLogStreamEndpoint());
+                params.forEach(uriBuilder::addParameter);
+                return uriBuilder.build().toString();
+            } catch (final URISyntaxException e) {
+                throw new AzureToolkitRuntimeException(e);
+            }
+        }, this::getLogStreamAuthorization, follow);
     }
 
+    /**
+     * @deprecated logs are streamed by {@link StreamingLogClient} now.
+     */
+    @Deprecated
     @Nonnull
     default HttpURLConnection createLogStreamConnection(Map<String, String> params) throws IOException, URISyntaxException {
         final URIBuilder uriBuilder = new URIBuilder(getLogStreamEndpoint());
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.resource.message;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * sends a stream of messages in size-limited batches. messages are packed into batches (one open batch per partition
+ * key) until they are full, and full batches are sent with bounded concurrency while the packing goes on.
+ *
+ * @param <B> type of batch, e.g. {@code EventDataBatch} and {@code ServiceBusMessageBatch}
+ */
+@Slf4j
+public class BatchSender<B> {
+    @Nonnull
+    private final String target;
+    @Nonnull
+    private final BatchClient<B> client;
+    private final int concurrency;
+
+    public BatchSender(@Nonnull String target, @Nonnull BatchClient<B> client) {
+        this(target, client, Azure.az().config().getMessageBatchSendConcurrency());
+    }
+
+    public BatchSender(@Nonnull String target, @Nonnull BatchClient<B> client, int concurrency) {
+        this.target = target;
+        this.client = client;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * @param partitionKey gets partition key of a message, messages of the same partition key are sent in the same
+     *                     batches, and they are routed to the same partition.
+     * @throws AzureToolkitRuntimeException if any batch fails to send, no more batches are sent after that.
+     */
+    @Nonnull
+    public Report send(@Nonnull Stream<String> messages, @Nullable Function<String, String> partitionKey) {
+        final IAzureMessager messager = AzureMessager.getMessager();
+        final long start = System.currentTimeMillis();
+        final Semaphore permits = new Semaphore(this.concurrency);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicLong sentMessages = new AtomicLong();
+        final AtomicLong sentBytes = new AtomicLong();
+        final Map<String, B> openBatches = new HashMap<>();
+        final Function<B, Boolean> submit = batch -> {
+            permits.acquireUninterruptibly();
+            if (!failures.isEmpty()) { // check after acquiring, a batch in flight may fail while waiting.
+                permits.release();
+                return false;
+            }
+            final int index = batches.incrementAndGet();
+            final int count = this.client.getCount(batch);
+            final long size = this.client.getSizeInBytes(batch);
+            Mono.fromRunnable(() -> {
+                final long batchStart = System.currentTimeMillis();
+                this.client.send(batch);
+                final long elapsed = Math.max(1, System.currentTimeMillis() - batchStart);
+                sentMessages.addAndGet(count);
+                sentBytes.addAndGet(size);
+                messager.info(AzureString.format("Batch #%s: %s message(s) (%s bytes) sent to %s in %s ms (%s msg/s).\n",
+                    index, count, size, this.target, elapsed, count * 1000 / elapsed));
+            }).subscribeOn(Schedulers.boundedElastic()).doFinally(s -> permits.release()).subscribe(null, e -> {
+                log.debug("failed to send batch #{} to {}", index, this.target, e);
+                failures.add(e);
+            });
+            return true;
+        };
+        try (Stream<String> ignored = messages) {
+            final Iterator<String> iterator = messages.iterator();
+            while (iterator.hasNext() && failures.isEmpty()) {
+                final String message = iterator.next();
+                final String key = Objects.isNull(partitionKey) ? null : partitionKey.apply(message);
+                B batch = openBatches.computeIfAbsent(key, this.client::createBatch);
+                boolean added = this.client.tryAdd(batch, message, key);
+                if (!added && this.client.getCount(batch) > 0) { // the open batch is full, send it and retry with a new one.
+                    submit.apply(batch);
+                    batch = this.client.createBatch(key);
+                    openBatches.put(key, batch);
+                    added = this.client.tryAdd(batch, message, key);
+                }
+                if (!added) { // the message body may be huge (and sensitive), only its size is reported.
+                    throw new AzureToolkitRuntimeException(String.format("message (%d bytes) is too large for an empty batch of %s (max %d bytes).",
+                        message.getBytes(StandardCharsets.UTF_8).length, this.target, this.client.getMaxSizeInBytes(batch)));
+                }
+            }
+            openBatches.values().stream().filter(b -> this.client.getCount(b) > 0).forEach(submit::apply);
+        } finally {
+            permits.acquireUninterruptibly(this.concurrency); // wait for the batches in flight.
+            permits.release(this.concurrency);
+        }
+        final Report report = new Report(sentMessages.get(), sentBytes.get(), batches.get(), Duration.ofMillis(System.currentTimeMillis() - start));
+        if (!failures.isEmpty()) {
+            throw new AzureToolkitRuntimeException(String.format("failed to send %d batch(es) to %s, %s.", failures.size(), this.target, report), failures.get(0));
+        }
+        messager.info(AzureString.format("%s\n", report));
+        return report;
+    }
+
+    public interface BatchClient<B> {
+        @Nonnull
+        B createBatch(@Nullable String partitionKey);
+
+        /**
+         * @return false if the batch doesn't have enough room for the message.
+         */
+        boolean tryAdd(@Nonnull B batch, @Nonnull String message, @Nullable String partitionKey);
+
+        int getCount(@Nonnull B batch);
+
+        long getSizeInBytes(@Nonnull B batch);
+
+        long getMaxSizeInBytes(@Nonnull B batch);
+
+        void send(@Nonnull B batch);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Report {
+        private final long messages;
+        private final long bytes;
+        private final int batches;
+        @Nonnull
+        private final Duration elapsed;
+
+        @Override
+        public String toString() {
+            final long millis = Math.max(1, this.elapsed.toMillis());
+            return String.format("%d message(s) (%d bytes) sent in %d batch(es) in %d ms (%d msg/s)", this.messages, this.bytes, this.batches, millis,
+                this.messages * 1000 / millis);
+        }
+    }
+}
@@ -9,10 +9,23 @@ package com.microsoft.azure.toolkit.lib.resource.message;
 
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 public interface ISenderReceiver extends AzResource {
     public void startReceivingMessage();
     public void stopReceivingMessage();
     public void sendMessage(String message);
+
+    /**
+     * send messages in size-limited batches, messages of the same partition key are routed to the same partition.
+     *
+     * @see BatchSender
+     */
+    public BatchSender.Report sendMessages(@Nonnull Stream<String> messages, @Nullable Function<String, String> partitionKey);
+
     public boolean isListening();
     public boolean isSendEnabled();
 }
@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.resource.message;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * bounded buffer between message receivers (e.g. event hub subscriptions and service bus processors) and the display
+ * (messager), so that a busy hub can't flood memory and output. received messages are truncated to
+ * {@code maxDisplaySize} and queued (at most {@code capacity} of them), and displayed one by one by a single drainer.
+ * when the buffer is full, the {@link OverflowPolicy} decides between blocking the receiver (backpressure) and
+ * dropping messages. reactive receivers should {@link #subscribe} to the buffer instead of blocking in {@code onNext},
+ * so that backpressure is applied by demand.
+ */
+@Slf4j
+public class ReceiveBuffer implements Closeable {
+    private static final long POLL_INTERVAL_MS = 100;
+    @Nonnull
+    private final String source;
+    private final int capacity;
+    @Nonnull
+    private final OverflowPolicy policy;
+    private final int sampleRate;
+    private final int maxDisplaySize;
+    @Nonnull
+    private final BiConsumer<String, String> display;
+    @Nullable
+    private final IAzureMessager messager;
+    private final BlockingQueue<Message> queue;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicBoolean dropWarned = new AtomicBoolean(false);
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong displayed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicInteger maxBuffered = new AtomicInteger();
+    private final Set<BufferSubscriber<?>> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<BufferSubscriber<?>> waiting = ConcurrentHashMap.newKeySet();
+    private final long start = System.currentTimeMillis();
+
+    public ReceiveBuffer(@Nonnull String source, int capacity, @Nonnull OverflowPolicy policy, int sampleRate, int maxDisplaySize,
+                         @Nonnull BiConsumer<String, String> display, @Nullable IAzureMessager messager) {
+        this.source = source;
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.maxDisplaySize = maxDisplaySize;
+        this.display = display;
+        this.messager = messager;
+        this.queue = new ArrayBlockingQueue<>(this.capacity);
+        Schedulers.boundedElastic().schedule(this::drain);
+    }
+
+    /**
+     * create a buffer (configured by {@link AzureConfiguration}) which displays message headers as info and bodies as
+     * debug messages of {@code messager}.
+     */
+    @Nonnull
+    public static ReceiveBuffer fromConfig(@Nonnull String source, @Nonnull IAzureMessager messager) {
+        final AzureConfiguration config = Azure.az().config();
+        return new ReceiveBuffer(source, config.getMessageReceiveBufferSize(), OverflowPolicy.fromString(config.getMessageReceiveOverflowPolicy()),
+            config.getMessageReceiveSampleRate(), config.getMessageMaxDisplaySize(), (header, body) -> {
+            messager.info(header);
+            messager.debug(AzureString.format("\"%s\"\n", body));
+        }, messager);
+    }
+
+    /**
+     * called by receivers, it blocks (if the policy is {@link OverflowPolicy#BLOCK}) until there is room in the buffer
+     * or the buffer is closed.
+     *
+     * @return false if the message is dropped.
+     */
+    public boolean offer(@Nonnull String header, @Nullable String body) {
+        final Message message = this.receive(header, body);
+        if (Objects.isNull(message)) {
+            return false;
+        }
+        boolean accepted = this.queue.offer(message);
+        try {
+            while (!accepted && !this.closed.get()) {
+                if (this.policy == OverflowPolicy.BLOCK) {
+                    accepted = this.queue.offer(message, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                } else if (this.policy == OverflowPolicy.DROP_OLDEST) {
+                    if (Objects.nonNull(this.queue.poll())) {
+                        this.onDropped();
+                    }
+                    accepted = this.queue.offer(message);
+                } else { // DROP_NEWEST and SAMPLE
+                    break;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (accepted && this.closed.get() && this.queue.remove(message)) { // closed while waiting
+            accepted = false;
+        }
+        if (!accepted) {
+            this.onDropped();
+            return false;
+        }
+        this.onBuffered();
+        return true;
+    }
+
+    /**
+     * subscribe to a reactive receiver (e.g. an event hub partition). with {@link OverflowPolicy#BLOCK}, one message is
+     * requested at a time and the next one is requested only after it's buffered, i.e. no thread of the receiver is
+     * blocked when the buffer is full. other policies request unbounded and drop messages as {@link #offer} does.
+     *
+     * @return the subscription, dispose it to stop receiving. it's disposed when the buffer is closed.
+     */
+    @Nonnull
+    public <T> Disposable subscribe(@Nonnull Flux<T> source, @Nonnull Function<T, String> header, @Nonnull Function<T, String> body,
+                                    @Nonnull Consumer<Throwable> onError) {
+        final BufferSubscriber<T> subscriber = new BufferSubscriber<>(header, body, onError);
+        this.subscribers.add(subscriber);
+        source.subscribe(subscriber);
+        if (this.closed.get()) {
+            subscriber.dispose();
+        }
+        return subscriber;
+    }
+
+    @Nonnull
+    public Metrics getMetrics() {
+        final long elapsed = Math.max(1, System.currentTimeMillis() - this.start);
+        return new Metrics(this.received.get(), this.displayed.get(), this.dropped.get(), this.queue.size(), this.maxBuffered.get(),
+            this.received.get() * 1000.0 / elapsed);
+    }
+
+    public boolean isClosed() {
+        return this.closed.get();
+    }
+
+    /**
+     * stop accepting messages, messages still in the buffer are discarded and subscriptions are cancelled.
+     */
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            this.dropped.addAndGet(this.queue.size());
+            this.queue.clear();
+            this.waiting.forEach(BufferSubscriber::resume); // drop the pending messages
+            this.subscribers.forEach(BufferSubscriber::dispose);
+            if (this.messager != null) {
+                this.messager.info(AzureString.format("%s\n", this.getMetrics()));
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!this.closed.get()) {
+                final Message message = this.queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                this.waiting.forEach(BufferSubscriber::resume); // there may be room for the pending messages now
+                if (Objects.nonNull(message)) {
+                    this.display.accept(message.header, message.body);
+                    this.displayed.incrementAndGet();
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final Throwable e) {
+            log.warn("failed to display messages received from {}", this.source, e);
+            this.close();
+        }
+    }
+
+    /**
+     * count the received message.
+     *
+     * @return null if the message is dropped, i.e. it's not sampled or the buffer is closed.
+     */
+    @Nullable
+    private Message receive(@Nonnull String header, @Nullable String body) {
+        final long index = this.received.incrementAndGet();
+        if (this.closed.get() || (this.policy == OverflowPolicy.SAMPLE && (index - 1) % this.sampleRate != 0)) {
+            this.dropped.incrementAndGet();
+            return null;
+        }
+        return new Message(header, this.truncate(body));
+    }
+
+    private void onBuffered() {
+        this.maxBuffered.accumulateAndGet(this.queue.size(), Math::max);
+    }
+
+    private void onDropped() {
+        this.dropped.incrementAndGet();
+        if (this.messager != null && this.dropWarned.compareAndSet(false, true)) {
+            this.messager.warning(AzureString.format("Messages are received from %s faster than they can be displayed, some of them are dropped.\n", this.source));
+        }
+    }
+
+    @Nullable
+    private String truncate(@Nullable String body) {
+        if (this.maxDisplaySize <= 0 || StringUtils.length(body) <= this.maxDisplaySize) {
+            return body;
+        }
+        return String.format("%s...(%d more characters)", body.substring(0, this.maxDisplaySize), body.length() - this.maxDisplaySize);
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * block receivers (or stop requesting from subscribed ones) until there is room, which slows down receiving (backpressure).
+         */
+        BLOCK,
+        /**
+         * drop the incoming message.
+         */
+        DROP_NEWEST,
+        /**
+         * drop the oldest buffered message, so that the latest messages are always displayed.
+         */
+        DROP_OLDEST,
+        /**
+         * only one of every {@code sampleRate} messages is buffered, and the incoming message is dropped if the buffer
+         * is still full.
+         */
+        SAMPLE;
+
+        @Nonnull
+        public static OverflowPolicy fromString(@Nullable String value) {
+            for (final OverflowPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(StringUtils.trim(value))) {
+                    return policy;
+                }
+            }
+            return BLOCK;
+        }
+    }
+
+    /**
+     * a message that doesn't fit in the full buffer is kept pending (without requesting more) until the drainer makes
+     * room for it or the buffer is closed.
+     */
+    private class BufferSubscriber<T> extends BaseSubscriber<T> {
+        @Nonnull
+        private final Function<T, String> header;
+        @Nonnull
+        private final Function<T, String> body;
+        @Nonnull
+        private final Consumer<Throwable> onError;
+        @Nullable
+        private Message pending;
+
+        private BufferSubscriber(@Nonnull Function<T, String> header, @Nonnull Function<T, String> body, @Nonnull Consumer<Throwable> onError) {
+            this.header = header;
+            this.body = body;
+            this.onError = onError;
+        }
+
+        @Override
+        protected void hookOnSubscribe(@Nonnull Subscription subscription) {
+            if (policy == OverflowPolicy.BLOCK) {
+                this.request(1);
+            } else {
+                this.requestUnbounded();
+            }
+        }
+
+        @Override
+        protected void hookOnNext(@Nonnull T value) {
+            if (policy != OverflowPolicy.BLOCK) {
+                offer(this.header.apply(value), this.body.apply(value));
+                return;
+            }
+            final Message message = receive(this.header.apply(value), this.body.apply(value));
+            if (Objects.isNull(message)) { // closed
+                this.cancel();
+                return;
+            }
+            synchronized (this) {
+                this.pending = message;
+            }
+            waiting.add(this);
+            this.resume();
+        }
+
+        @Override
+        protected void hookOnError(@Nonnull Throwable throwable) {
+            this.onError.accept(throwable);
+        }
+
+        @Override
+        protected synchronized void hookFinally(@Nonnull SignalType type) {
+            if (Objects.isNull(this.pending)) { // otherwise, keep waiting until the last message is buffered.
+                waiting.remove(this);
+                subscribers.remove(this);
+            }
+        }
+
+        /**
+         * buffer the pending message and request the next one, nothing happens if the buffer is still full. if the
+         * buffer is closed, the message is dropped and the subscription is cancelled instead.
+         */
+        private synchronized void resume() {
+            final Message message = this.pending;
+            if (Objects.isNull(message)) {
+                return;
+            }
+            if (closed.get()) {
+                onDropped();
+            } else if (queue.offer(message)) {
+                if (closed.get() && queue.remove(message)) { // closed meanwhile
+                    onDropped();
+                } else {
+                    onBuffered();
+                }
+            } else {
+                return;
+            }
+            this.pending = null;
+            waiting.remove(this);
+            if (closed.get() || this.isDisposed()) { // or the source has terminated
+                subscribers.remove(this);
+                this.cancel();
+            } else {
+                this.request(1);
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Message {
+        private final String header;
+        private final String body;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Metrics {
+        private final long received;
+        private final long displayed;
+        private final long dropped;
+        private final int buffered;
+        private final int maxBuffered;
+        private final double receiveRate; // messages per second
+
+        @Override
+        public String toString() {
+            return String.format("%d message(s) received (%.1f msg/s), %d displayed, %d dropped", this.received, this.receiveRate, this.displayed, this.dropped);
+        }
+    }
+}
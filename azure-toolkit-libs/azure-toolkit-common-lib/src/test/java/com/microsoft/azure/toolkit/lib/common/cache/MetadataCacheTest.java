@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class MetadataCacheTest {
+    private static final TypeReference<List<String>> TYPE = new TypeReference<List<String>>() {
+    };
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("metadata");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testFallbackToSnapshotWhenOffline() {
+        final MetadataCache<List<String>> cache = new MetadataCache<>("test-regions", 1, TYPE, this.directory, Duration.ofHours(1));
+        final Supplier<List<String>> offline = () -> {
+            throw new IllegalStateException("no network");
+        };
+
+        Assert.assertEquals(Arrays.asList("eastus", "westus"), cache.get("subscription", "AzureCloud", offline));
+        try {
+            cache.get("subscription", "AzureChinaCloud", offline);
+            Assert.fail("should fail if there is no snapshot for the key");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("no network", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testFreshEntryIsServedWithoutRemoteCall() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Supplier<List<String>> remote = () -> {
+            calls.incrementAndGet();
+            return Arrays.asList("eastus", "westus", "westus3");
+        };
+        final MetadataCache<List<String>> cache = new MetadataCache<>("test-regions", 1, TYPE, this.directory, Duration.ofHours(1));
+        Assert.assertEquals(3, cache.get("subscription", "AzureCloud", remote).size());
+        Assert.assertEquals(3, cache.get("subscription", "AzureCloud", remote).size());
+        Assert.assertEquals(1, calls.get());
+
+        // a new instance (e.g. another session) loads it from disk
+        final MetadataCache<List<String>> another = new MetadataCache<>("test-regions", 1, TYPE, this.directory, Duration.ofHours(1));
+        Assert.assertEquals(3, another.get("subscription", "AzureCloud", remote).size());
+        Assert.assertEquals(1, calls.get());
+
+        // persisted entries of other versions are ignored
+        final MetadataCache<List<String>> upgraded = new MetadataCache<>("test-regions", 2, TYPE, this.directory, Duration.ofHours(1));
+        upgraded.get("subscription", "AzureCloud", remote);
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testExpiredEntryIsRefreshedInBackground() throws InterruptedException {
+        final MetadataCache<List<String>> cache = new MetadataCache<>("test-regions", 1, TYPE, this.directory, Duration.ofMinutes(10));
+        final long stale = System.currentTimeMillis() - Duration.ofHours(1).toMillis();
+        cache.put("subscription", Arrays.asList("eastus"), stale);
+
+        final Supplier<List<String>> remote = () -> Arrays.asList("eastus", "westus", "westus3");
+        // stale entry is served immediately
+        Assert.assertEquals(Arrays.asList("eastus"), cache.get("subscription", "AzureCloud", remote));
+        List<String> refreshed = null;
+        for (int i = 0; i < 50; i++) {
+            refreshed = cache.get("subscription", "AzureCloud", remote);
+            if (refreshed.size() == 3) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(Arrays.asList("eastus", "westus", "westus3"), refreshed);
+
+        // the fresher remote result is merged into disk, and an older one never overrides it
+        final MetadataCache<List<String>> another = new MetadataCache<>("test-regions", 1, TYPE, this.directory, Duration.ofMinutes(10));
+        another.put("subscription", Arrays.asList("eastus"), stale);
+        Assert.assertEquals(3, another.get("subscription", "AzureCloud", remote).size());
+    }
+}
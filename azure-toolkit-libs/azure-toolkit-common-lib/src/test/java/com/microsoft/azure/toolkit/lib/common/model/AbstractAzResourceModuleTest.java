@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import com.microsoft.azure.toolkit.lib.resource.ResourceGroup;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class AbstractAzResourceModuleTest {
+    private static final int READERS = 64;
+    private static final String SUBSCRIPTION = "00000000-0000-0000-0000-000000000000";
+    private FakeModule module;
+
+    @BeforeClass
+    public static void init() {
+        // `AzResourceModule.NONE` must be initialized before `AzResource.NONE`
+        Objects.requireNonNull(AzResourceModule.NONE);
+        AzureTaskManager.register(new TestTaskManager());
+    }
+
+    @Before
+    public void setUp() {
+        this.module = new FakeModule();
+    }
+
+    @Test
+    public void testConcurrentGetIsCoalesced() throws Exception {
+        final List<FakeResource> results = readConcurrently(i -> this.module.get("foo", "rg"));
+
+        Assert.assertEquals(1, this.module.calls.get());
+        Assert.assertTrue(results.stream().allMatch(r -> r == results.get(0)));
+        Assert.assertEquals("remote of foo", results.get(0).getRemote());
+    }
+
+    @Test
+    public void testConcurrentGetRemoteOfDifferentInstancesIsCoalesced() throws Exception {
+        final List<FakeResource> resources = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            resources.add(this.module.newResource("foo", "rg"));
+        }
+        final List<String> remotes = readConcurrently(i -> resources.get(i).getRemote());
+
+        Assert.assertEquals(1, this.module.calls.get());
+        Assert.assertTrue(remotes.stream().allMatch("remote of foo"::equals));
+    }
+
+    @Test
+    public void testConcurrentExistsIsCoalesced() throws Exception {
+        final List<Boolean> existing = readConcurrently(i -> this.module.exists("foo", "rg"));
+        final List<Boolean> missing = readConcurrently(i -> this.module.exists("missing", "rg"));
+
+        Assert.assertTrue(existing.stream().allMatch(e -> e));
+        Assert.assertTrue(missing.stream().noneMatch(e -> e));
+        Assert.assertEquals(2, this.module.calls.get());
+    }
+
+    @Test
+    public void testDifferentResourcesAreNotCoalesced() throws Exception {
+        readConcurrently(i -> this.module.get("foo" + (i % 4), "rg"));
+
+        Assert.assertEquals(4, this.module.calls.get());
+    }
+
+    @Test
+    public void testFailureIsSharedButNotCached() throws Exception {
+        this.module.failing = true;
+        final List<FakeResource> resources = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            resources.add(this.module.newResource("foo", "rg"));
+        }
+        final List<String> errors = readConcurrently(i -> {
+            try {
+                resources.get(i).getRemote();
+                return null;
+            } catch (final AzureToolkitRuntimeException e) {
+                return e.getMessage();
+            }
+        });
+        Assert.assertTrue(errors.toString(), errors.stream().allMatch("service unavailable"::equals));
+        Assert.assertEquals(1, this.module.calls.get());
+
+        this.module.failing = false;
+        Assert.assertEquals("remote of foo", this.module.newResource("foo", "rg").getRemote());
+        Assert.assertEquals(2, this.module.calls.get());
+    }
+
+    private static <V> List<V> readConcurrently(Function<Integer, V> reader) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<V>> futures = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                final int index = i;
+                final Callable<V> task = () -> {
+                    start.await();
+                    return reader.apply(index);
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            final List<V> results = new ArrayList<>();
+            for (final Future<V> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class FakeModule extends AbstractAzResourceModule<FakeResource, AzResource.None, String> {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing = false;
+
+        FakeModule() {
+            super("fakes", AzResource.NONE);
+        }
+
+        @Nullable
+        @Override
+        protected String loadResourceFromAzure(@Nonnull String name, @Nullable String resourceGroup) {
+            this.calls.incrementAndGet();
+            try {
+                Thread.sleep(300);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (this.failing) {
+                throw new AzureToolkitRuntimeException("service unavailable");
+            }
+            return name.startsWith("missing") ? null : "remote of " + name;
+        }
+
+        @Nonnull
+        @Override
+        protected FakeResource newResource(@Nonnull String remote) {
+            return new FakeResource(remote.substring("remote of ".length()), this);
+        }
+
+        @Nonnull
+        @Override
+        protected FakeResource newResource(@Nonnull String name, @Nullable String resourceGroupName) {
+            return new FakeResource(name, this);
+        }
+
+        @Nonnull
+        @Override
+        public String toResourceId(@Nonnull String resourceName, @Nullable String resourceGroup) {
+            return String.format("/subscriptions/%s/resourceGroups/%s/providers/Microsoft.Fake/fakes/%s", SUBSCRIPTION, resourceGroup, resourceName);
+        }
+
+        @Override
+        protected boolean isAuthRequiredForResource(@Nonnull String resourceId) {
+            return false;
+        }
+    }
+
+    private static class FakeResource extends AbstractAzResource<FakeResource, AzResource.None, String> {
+        FakeResource(@Nonnull String name, @Nonnull FakeModule module) {
+            super(name, "rg", module);
+        }
+
+        @Nonnull
+        @Override
+        protected String loadStatus(@Nonnull String remote) {
+            return Status.RUNNING;
+        }
+
+        @Nonnull
+        @Override
+        public List<AbstractAzResourceModule<?, ?, ?>> getSubModules() {
+            return Collections.emptyList();
+        }
+
+        @Nullable
+        @Override
+        public ResourceGroup getResourceGroup() {
+            return null;
+        }
+
+        @Override
+        protected boolean isAuthRequired() {
+            return false;
+        }
+    }
+
+    private static class TestTaskManager extends AzureTaskManager {
+        @Override
+        protected void doRead(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+
+        @Override
+        protected void doWrite(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+
+        @Override
+        protected void doRunLater(Runnable runnable, AzureTask<?> task) {
+            this.doRunOnPooledThread(runnable, task);
+        }
+
+        @Override
+        protected void doRunOnPooledThread(Runnable runnable, AzureTask<?> task) {
+            Mono.fromRunnable(runnable).subscribeOn(Schedulers.boundedElastic()).subscribe();
+        }
+
+        @Override
+        protected void doRunAndWait(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+
+        @Override
+        protected void doRunInBackground(Runnable runnable, AzureTask<?> task) {
+            this.doRunOnPooledThread(runnable, task);
+        }
+
+        @Override
+        protected void doRunInModal(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+    }
+}
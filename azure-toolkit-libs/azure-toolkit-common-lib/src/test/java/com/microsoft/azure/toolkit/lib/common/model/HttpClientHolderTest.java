@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.ProxyOptions;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import com.sun.net.httpserver.HttpServer;
+import io.netty.resolver.AddressResolver;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class HttpClientHolderTest {
+    private HttpServer server;
+    private ExecutorService executor;
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/", exchange -> {
+            this.connections.add(exchange.getRemoteAddress());
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        this.executor = Executors.newFixedThreadPool(16);
+        this.server.setExecutor(this.executor);
+        this.server.start();
+        this.url = String.format("http://localhost:%d/", this.server.getAddress().getPort());
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testConnectionsAreReused() {
+        final HttpClient client = AbstractAzServiceSubscription.HttpClientHolder.createHttpClient(new AzureConfiguration());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(200, this.send(client).getStatusCode());
+        }
+        // a connection is released to the pool asynchronously, so the next request may acquire another idle one.
+        Assert.assertTrue("connections should be reused: " + this.connections, this.connections.size() <= 2);
+    }
+
+    @Test
+    public void testConnectionsAreBoundedByPoolSize() {
+        final AzureConfiguration config = new AzureConfiguration();
+        config.setHttpMaxConnections(2);
+        final HttpClient client = AbstractAzServiceSubscription.HttpClientHolder.createHttpClient(config);
+
+        final List<Integer> statuses = Flux.range(0, 12)
+            .flatMap(i -> client.send(new HttpRequest(HttpMethod.GET, this.url))
+                .flatMap(r -> r.getBodyAsString().map(body -> r.getStatusCode())), 12)
+            .collectList().block(Duration.ofSeconds(30));
+
+        Assert.assertNotNull(statuses);
+        Assert.assertEquals(12, statuses.stream().filter(s -> s == 200).count());
+        Assert.assertEquals(2, this.connections.size());
+    }
+
+    @Test
+    public void testNonProxyHostsAreConnectedDirectly() throws IOException {
+        // nothing listens on the proxy, so requests only succeed if they bypass it.
+        final int unusedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            unusedPort = socket.getLocalPort();
+        }
+        final ProxyOptions proxy = new ProxyOptions(ProxyOptions.Type.HTTP, new InetSocketAddress(InetAddress.getLoopbackAddress(), unusedPort))
+            .setNonProxyHosts("localhost|*.internal");
+        final HttpClient client = AbstractAzServiceSubscription.HttpClientHolder.createHttpClient(new AzureConfiguration(), proxy);
+
+        Assert.assertEquals(200, this.send(client).getStatusCode());
+        Assert.assertEquals(1, this.connections.size());
+    }
+
+    @Test
+    public void testOnlyNonProxyHostsAreResolvedLocally() {
+        final ProxyOptions proxy = new ProxyOptions(ProxyOptions.Type.HTTP, InetSocketAddress.createUnresolved("proxy", 8080))
+            .setNonProxyHosts("localhost|*.internal");
+        final AddressResolver<InetSocketAddress> resolver = new AbstractAzServiceSubscription.HttpClientHolder
+            .NonProxyHostsResolverGroup(proxy.getNonProxyHosts()).getResolver(ImmediateEventExecutor.INSTANCE);
+
+        Assert.assertTrue(resolver.isResolved(InetSocketAddress.createUnresolved("management.azure.com", 443)));
+        Assert.assertFalse(resolver.isResolved(InetSocketAddress.createUnresolved("localhost", 443)));
+        Assert.assertFalse(resolver.isResolved(InetSocketAddress.createUnresolved("vault.internal", 443)));
+    }
+
+    private HttpResponse send(HttpClient client) {
+        final HttpResponse response = client.send(new HttpRequest(HttpMethod.GET, this.url)).block();
+        Assert.assertNotNull(response);
+        // drain the body so that the connection is released back to the pool
+        response.getBodyAsString().block();
+        return response;
+    }
+}
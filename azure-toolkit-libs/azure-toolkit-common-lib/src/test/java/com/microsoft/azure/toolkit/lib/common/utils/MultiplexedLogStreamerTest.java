@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class MultiplexedLogStreamerTest {
+    private static final int LINES = 500;
+    private HttpServer server;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private StreamingLogClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        // "/app-N": LINES lines streamed in chunks, "/slow" waits for the test before sending its only line.
+        this.server.createContext("/", exchange -> {
+            final String source = exchange.getRequestURI().getPath().substring(1);
+            exchange.sendResponseHeaders(200, 0); // chunked
+            try (final OutputStream output = exchange.getResponseBody()) {
+                if (source.equals("slow")) {
+                    this.release.await(30, TimeUnit.SECONDS);
+                    output.write("2024-01-01 ERROR slow source\n".getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                for (int i = 0; i < LINES; i++) {
+                    output.write(line(source, i).getBytes(StandardCharsets.UTF_8));
+                    output.flush();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        this.server.start();
+        this.client = new StreamingLogClient(new NettyAsyncHttpClientBuilder().build(), Duration.ofSeconds(30), 0, Duration.ofMillis(10));
+    }
+
+    @After
+    public void tearDown() {
+        this.release.countDown();
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testMergeTaggedLines() {
+        final MultiplexedLogStreamer streamer = new MultiplexedLogStreamer(16, null);
+        IntStream.range(0, 5).forEach(i -> streamer.addSource("app-" + i, this.source("app-" + i)));
+        final List<MultiplexedLogStreamer.TaggedLine> lines = streamer.stream().collectList().block(Duration.ofSeconds(60));
+
+        Assert.assertNotNull(lines);
+        Assert.assertEquals(5 * LINES, lines.size());
+        for (int i = 0; i < 5; i++) {
+            final String tag = "app-" + i;
+            // order of lines of the same source is kept.
+            final List<String> expected = IntStream.range(0, LINES).mapToObj(n -> StringUtils.chomp(line(tag, n))).collect(Collectors.toList());
+            Assert.assertEquals(expected, lines.stream().filter(l -> l.getTag().equals(tag)).map(MultiplexedLogStreamer.TaggedLine::getLine).collect(Collectors.toList()));
+        }
+        Assert.assertEquals("[app-0] " + StringUtils.chomp(line("app-0", 0)), lines.stream().filter(l -> l.getTag().equals("app-0")).findFirst().get().toString());
+    }
+
+    @Test
+    public void testFollowSourcesConcurrently() {
+        final MultiplexedLogStreamer streamer = new MultiplexedLogStreamer(16, null)
+            .addSource("slow", this.source("slow"))
+            .addSource("app-0", this.source("app-0"));
+        // lines of "app-0" are received while "slow" is still waiting.
+        final List<MultiplexedLogStreamer.TaggedLine> lines = streamer.stream().take(LINES).collectList().block(Duration.ofSeconds(20));
+        Assert.assertNotNull(lines);
+        Assert.assertTrue(lines.stream().allMatch(l -> l.getTag().equals("app-0")));
+    }
+
+    @Test
+    public void testFilterByLevel() {
+        final MultiplexedLogStreamer streamer = new MultiplexedLogStreamer(16, MultiplexedLogStreamer.LogFilter.of("warn", null))
+            .addSource("app-0", this.source("app-0"))
+            .addSource("app-1", this.source("app-1"));
+        final List<String> lines = streamer.stream().map(MultiplexedLogStreamer.TaggedLine::getLine).collectList().block(Duration.ofSeconds(60));
+        Assert.assertNotNull(lines);
+        // WARN and ERROR lines, and the stack traces following ERROR lines.
+        Assert.assertEquals(2 * (LINES / 10 * 2 + LINES / 10), lines.size());
+        Assert.assertTrue(lines.stream().noneMatch(l -> l.contains("INFO") || l.contains("DEBUG")));
+        Assert.assertTrue(lines.contains("    at com.example.App.run(App.java:10)"));
+    }
+
+    @Test
+    public void testFilterByRegex() {
+        final MultiplexedLogStreamer streamer = new MultiplexedLogStreamer(16, MultiplexedLogStreamer.LogFilter.of(null, "request-4\\d\\b"))
+            .addSource("app-0", this.source("app-0"))
+            .addSource("app-1", this.source("app-1"));
+        final List<String> lines = streamer.stream().map(MultiplexedLogStreamer.TaggedLine::toString).collectList().block(Duration.ofSeconds(60));
+        Assert.assertNotNull(lines);
+        Assert.assertEquals(2 * 9, lines.size()); // request-40 ~ request-49 except the stack trace line (41)
+    }
+
+    @Test
+    public void testKeepStreamingIfSourceFails() {
+        final MultiplexedLogStreamer streamer = new MultiplexedLogStreamer(16, null)
+            .addSource("broken", Flux.error(new IllegalStateException("connection refused")))
+            .addSource("app-0", this.source("app-0"));
+        final List<MultiplexedLogStreamer.TaggedLine> lines = streamer.stream().collectList().block(Duration.ofSeconds(60));
+        Assert.assertNotNull(lines);
+        Assert.assertEquals(LINES, lines.size());
+    }
+
+    private Flux<String> source(String path) {
+        return this.client.stream(() -> "http://localhost:" + this.server.getAddress().getPort() + "/" + path, () -> "Bearer token", false);
+    }
+
+    /**
+     * every 10 lines: 1 ERROR followed by 1 stack trace line, 1 WARN, 2 DEBUG and 5 INFO.
+     */
+    private static String line(String source, int index) {
+        final List<String> levels = Arrays.asList("ERROR", null, "WARN", "DEBUG", "DEBUG", "INFO", "INFO", "INFO", "INFO", "INFO");
+        final String level = levels.get(index % 10);
+        if (level == null) {
+            return "    at com.example.App.run(App.java:10)\n";
+        }
+        return String.format("2024-01-01 12:00:00 %s [%s] handled request-%d\n", level, source, index);
+    }
+}
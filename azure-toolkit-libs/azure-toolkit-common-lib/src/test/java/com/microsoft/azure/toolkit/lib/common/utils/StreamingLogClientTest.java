@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class StreamingLogClientTest {
+    private static final int LINES = 100;
+    private ChunkedLogServer server;
+
+    @After
+    public void tearDown() throws IOException {
+        if (this.server != null) {
+            this.server.close();
+        }
+    }
+
+    @Test
+    public void testReconnectDroppedConnections() throws IOException {
+        // every connection re-sends the last 3 lines, sends 7 new lines and then drops in the middle of a line.
+        this.server = new ChunkedLogServer(3, 7, false);
+        final List<String> lines = this.stream(true).take(LINES).collectList().block(Duration.ofSeconds(60));
+        Assert.assertEquals(expected(LINES), lines);
+        Assert.assertTrue(this.server.connections.get() >= LINES / 7);
+    }
+
+    @Test
+    public void testReconnectIdleConnections() throws IOException {
+        // every connection re-sends the last 5 lines, sends 10 new lines and then hangs without closing.
+        this.server = new ChunkedLogServer(5, 10, true);
+        final List<String> lines = this.stream(true).take(30).collectList().block(Duration.ofSeconds(60));
+        Assert.assertEquals(expected(30), lines);
+        Assert.assertEquals(3, this.server.connections.get());
+    }
+
+    @Test
+    public void testRetryServerErrors() throws IOException {
+        this.server = new ChunkedLogServer(0, LINES, false);
+        this.server.failures.set(2); // 503 for the first 2 connections
+        final List<String> lines = this.stream(false).take(10).collectList().block(Duration.ofSeconds(60));
+        Assert.assertEquals(expected(10), lines);
+        Assert.assertEquals(3, this.server.connections.get());
+    }
+
+    @Test
+    public void testGiveUpAfterMaxRetries() throws IOException {
+        this.server = new ChunkedLogServer(0, LINES, false);
+        this.server.failures.set(Integer.MAX_VALUE);
+        try {
+            this.stream(true).blockLast(Duration.ofSeconds(60));
+            Assert.fail("stream doesn't fail");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertEquals(4, this.server.connections.get()); // 1 + 3 retries
+        }
+    }
+
+    @Test
+    public void testDropOverlapWithRepeatedLines() {
+        final StreamingLogClient.OverlapFilter filter = new StreamingLogClient.OverlapFilter(10);
+        final List<String> emitted = new ArrayList<>();
+        Arrays.asList("A", "B", "A").forEach(l -> emitted.addAll(filter.accept(l)));
+        // reconnected, [A] and [A, B, A] are both aligned with the end, the longest wins.
+        filter.reconnected();
+        Arrays.asList("A", "B", "A", "C", "A").forEach(l -> emitted.addAll(filter.accept(l)));
+        Assert.assertEquals(Arrays.asList("A", "B", "A", "C", "A"), emitted);
+        // reconnected, nothing is re-sent.
+        emitted.clear();
+        filter.reconnected();
+        Arrays.asList("D", "E").forEach(l -> emitted.addAll(filter.accept(l)));
+        Assert.assertEquals(Arrays.asList("D", "E"), emitted);
+    }
+
+    @Test
+    public void testReleaseHeldLinesWhenAlignmentTimedOut() {
+        final StreamingLogClient.OverlapFilter filter = new StreamingLogClient.OverlapFilter(10);
+        final List<String> emitted = new ArrayList<>();
+        Arrays.asList("A", "B", "C").forEach(l -> emitted.addAll(filter.accept(l)));
+        // reconnected, nothing is re-sent, and the new line [B] matches the history but not its end.
+        filter.reconnected();
+        emitted.addAll(filter.accept("B"));
+        Assert.assertEquals(Arrays.asList("A", "B", "C"), emitted);
+        emitted.addAll(filter.alignmentTimedOut());
+        Assert.assertEquals(Arrays.asList("A", "B", "C", "B"), emitted);
+        // aligning is over, repeated lines are not dropped any more.
+        Arrays.asList("B", "C").forEach(l -> emitted.addAll(filter.accept(l)));
+        Assert.assertEquals(Arrays.asList("A", "B", "C", "B", "B", "C"), emitted);
+        Assert.assertTrue(filter.alignmentTimedOut().isEmpty());
+    }
+
+    @Test
+    public void testRetryOnlyTransientErrors() {
+        Assert.assertTrue(StreamingLogClient.isRetriable(new IOException("connection reset")));
+        Assert.assertTrue(StreamingLogClient.isRetriable(new TimeoutException("idle")));
+        Assert.assertTrue(StreamingLogClient.isRetriable(new IllegalStateException(new IOException("connection reset"))));
+        Assert.assertFalse(StreamingLogClient.isRetriable(new IllegalArgumentException("invalid uri")));
+        Assert.assertFalse(StreamingLogClient.isRetriable(new AzureToolkitRuntimeException("failed to get endpoint")));
+        Assert.assertFalse(StreamingLogClient.isRetriable(new OutOfMemoryError()));
+    }
+
+    @Test
+    public void testInvalidEndpointIsNotRetried() {
+        final AtomicInteger calls = new AtomicInteger();
+        final StreamingLogClient client = new StreamingLogClient(new NettyAsyncHttpClientBuilder().build(), Duration.ofMillis(500), 3, Duration.ofMillis(10));
+        try {
+            client.stream(() -> {
+                calls.incrementAndGet();
+                throw new AzureToolkitRuntimeException("app is not found");
+            }, () -> "Bearer token", true).blockLast(Duration.ofSeconds(10));
+            Assert.fail("stream doesn't fail");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertEquals("app is not found", e.getMessage());
+            Assert.assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    public void testDecodeLinesSplitAcrossChunks() {
+        final StreamingLogClient.LineDecoder decoder = new StreamingLogClient.LineDecoder(8);
+        final byte[] bytes = "日志\r\nabc\n0123456789".getBytes(StandardCharsets.UTF_8);
+        final List<String> lines = new ArrayList<>();
+        for (final byte b : bytes) { // one byte per chunk
+            lines.addAll(decoder.decode(ByteBuffer.wrap(new byte[]{b})));
+        }
+        lines.addAll(decoder.flush());
+        Assert.assertEquals(Arrays.asList("日志", "abc", "01234567", "89"), lines);
+    }
+
+    private reactor.core.publisher.Flux<String> stream(boolean follow) {
+        final StreamingLogClient client = new StreamingLogClient(new NettyAsyncHttpClientBuilder().build(), Duration.ofMillis(500), 3, Duration.ofMillis(10));
+        return client.stream(() -> "http://localhost:" + this.server.socket.getLocalPort() + "/logstream", () -> "Bearer token", follow);
+    }
+
+    private static List<String> expected(int count) {
+        return IntStream.range(0, count).mapToObj(ChunkedLogServer::line).collect(Collectors.toList());
+    }
+
+    /**
+     * minimal http server streaming a growing log with chunked transfer encoding.
+     */
+    private static class ChunkedLogServer implements AutoCloseable {
+        private final ServerSocket socket;
+        private final int tail;
+        private final int batch;
+        private final boolean hang;
+        private final AtomicInteger sent = new AtomicInteger(); // lines sent completely
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final List<Socket> clients = Collections.synchronizedList(new ArrayList<>());
+
+        private ChunkedLogServer(int tail, int batch, boolean hang) throws IOException {
+            this.socket = new ServerSocket(0);
+            this.tail = tail;
+            this.batch = batch;
+            this.hang = hang;
+            final Thread thread = new Thread(this::serve);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private static String line(int index) {
+            return "日志 line-" + index;
+        }
+
+        private void serve() {
+            while (!this.socket.isClosed()) {
+                try (final Socket client = this.socket.accept()) {
+                    this.clients.add(client);
+                    this.connections.incrementAndGet();
+                    final BufferedReader reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.ISO_8859_1));
+                    //noinspection StatementWithEmptyBody
+                    for (String header = reader.readLine(); header != null && !header.isEmpty(); header = reader.readLine()) {
+                    }
+                    final OutputStream output = client.getOutputStream();
+                    if (this.failures.getAndDecrement() > 0) {
+                        output.write("HTTP/1.1 503 Service Unavailable\r\nContent-Length: 0\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                        output.flush();
+                        continue;
+                    }
+                    output.write("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nTransfer-Encoding: chunked\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                    final int from = Math.max(0, this.sent.get() - this.tail);
+                    final int to = this.sent.get() + this.batch;
+                    for (int i = from; i < to; i++) {
+                        final byte[] bytes = (line(i) + "\n").getBytes(StandardCharsets.UTF_8);
+                        // split in the middle of a multi-byte character
+                        writeChunk(output, Arrays.copyOfRange(bytes, 0, 4));
+                        writeChunk(output, Arrays.copyOfRange(bytes, 4, bytes.length));
+                        this.sent.accumulateAndGet(i + 1, Math::max);
+                    }
+                    if (this.hang) {
+                        client.setSoTimeout(5000);
+                        //noinspection ResultOfMethodCallIgnored
+                        reader.read(); // until the client gives up
+                    } else {
+                        writeChunk(output, line(to).substring(0, 4).getBytes(StandardCharsets.UTF_8)); // then drop
+                    }
+                } catch (final IOException ignored) {
+                    // connection closed
+                }
+            }
+        }
+
+        private static void writeChunk(OutputStream output, byte[] bytes) throws IOException {
+            output.write((Integer.toHexString(bytes.length) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            output.write(bytes);
+            output.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            output.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.socket.close();
+            for (final Socket client : this.clients) {
+                client.close();
+            }
+        }
+    }
+}
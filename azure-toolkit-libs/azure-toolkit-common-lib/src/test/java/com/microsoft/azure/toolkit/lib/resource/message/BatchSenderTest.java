@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.resource.message;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class BatchSenderTest {
+    private static final int MESSAGES = 1000;
+
+    @Test
+    public void testSendInBatches() {
+        final FakeClient client = new FakeClient(100);
+        final BatchSender.Report report = new BatchSender<>("hub", client, 3).send(messages(), null);
+
+        Assert.assertEquals(MESSAGES, report.getMessages());
+        Assert.assertEquals(MESSAGES, client.sent.stream().mapToInt(b -> b.messages.size()).sum());
+        Assert.assertEquals(report.getBatches(), client.sent.size());
+        // every message is sent exactly once.
+        Assert.assertEquals(MESSAGES, client.sent.stream().flatMap(b -> b.messages.stream()).distinct().count());
+        // batches are packed: "message-xxx" is 11 bytes, so 9 messages per batch.
+        Assert.assertEquals((MESSAGES + 8) / 9, client.sent.size());
+        Assert.assertTrue(client.maxConcurrency.get() <= 3);
+    }
+
+    @Test
+    public void testGroupByPartitionKey() {
+        final FakeClient client = new FakeClient(100);
+        final BatchSender.Report report = new BatchSender<>("hub", client, 2).send(messages(), m -> String.valueOf(m.hashCode() % 4));
+
+        Assert.assertEquals(MESSAGES, report.getMessages());
+        for (final Batch batch : client.sent) {
+            Assert.assertTrue(batch.messages.stream().allMatch(m -> Objects.equals(batch.partitionKey, String.valueOf(m.hashCode() % 4))));
+        }
+        Assert.assertEquals(4, client.sent.stream().map(b -> b.partitionKey).distinct().count());
+    }
+
+    @Test
+    public void testMessageTooLarge() {
+        final BatchSender<Batch> sender = new BatchSender<>("hub", new FakeClient(100), 2);
+        final AzureToolkitRuntimeException e = Assert.assertThrows(AzureToolkitRuntimeException.class,
+            () -> sender.send(Stream.of("small", StringUtils.repeat('x', 101)), null));
+        // the message body is not included.
+        Assert.assertEquals("message (101 bytes) is too large for an empty batch of hub (max 100 bytes).", e.getMessage());
+    }
+
+    @Test
+    public void testFirstMessageTooLarge() {
+        final FakeClient client = new FakeClient(100);
+        final BatchSender<Batch> sender = new BatchSender<>("hub", client, 2);
+        Assert.assertThrows(AzureToolkitRuntimeException.class, () -> sender.send(Stream.of(StringUtils.repeat('x', 101)), null));
+        // the empty batch is never submitted.
+        Assert.assertEquals(0, client.sends.get());
+    }
+
+    @Test
+    public void testStopOnFailure() {
+        final FakeClient client = new FakeClient(100);
+        client.failing.set(3);
+        try {
+            new BatchSender<>("hub", client, 1).send(messages(), null);
+            Assert.fail("failure of any batch should fail the send");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertTrue(client.sent.size() < 3);
+        }
+    }
+
+    private static Stream<String> messages() {
+        return IntStream.range(0, MESSAGES).mapToObj(i -> String.format("message-%03d", i));
+    }
+
+    private static class Batch {
+        private final String partitionKey;
+        private final List<String> messages = new ArrayList<>();
+        private int size;
+
+        private Batch(@Nullable String partitionKey) {
+            this.partitionKey = partitionKey;
+        }
+    }
+
+    private static class FakeClient implements BatchSender.BatchClient<Batch> {
+        private final int maxSize;
+        private final ConcurrentLinkedQueue<Batch> sent = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+        private final AtomicInteger failing = new AtomicInteger(-1);
+        private final AtomicInteger sends = new AtomicInteger();
+
+        private FakeClient(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Nonnull
+        @Override
+        public Batch createBatch(@Nullable String partitionKey) {
+            return new Batch(partitionKey);
+        }
+
+        @Override
+        public boolean tryAdd(@Nonnull Batch batch, @Nonnull String message, @Nullable String partitionKey) {
+            Assert.assertEquals(batch.partitionKey, partitionKey);
+            if (batch.size + message.length() > this.maxSize) {
+                return false;
+            }
+            batch.size += message.length();
+            batch.messages.add(message);
+            return true;
+        }
+
+        @Override
+        public int getCount(@Nonnull Batch batch) {
+            return batch.messages.size();
+        }
+
+        @Override
+        public long getSizeInBytes(@Nonnull Batch batch) {
+            return batch.size;
+        }
+
+        @Override
+        public long getMaxSizeInBytes(@Nonnull Batch batch) {
+            return this.maxSize;
+        }
+
+        @Override
+        public void send(@Nonnull Batch batch) {
+            this.maxConcurrency.accumulateAndGet(this.concurrency.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2);
+                if (this.sends.incrementAndGet() == this.failing.get()) {
+                    throw new IllegalStateException("service busy");
+                }
+                this.sent.add(batch);
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                this.concurrency.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.resource.message;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+public class ReceiveBufferTest {
+    private static final int EVENTS = 1_000_000;
+    private static final int CAPACITY = 100;
+
+    @Test
+    public void testBackpressure() {
+        final AtomicLong displayed = new AtomicLong();
+        final ReceiveBuffer buffer = new ReceiveBuffer("hub", CAPACITY, ReceiveBuffer.OverflowPolicy.BLOCK, 1, 64, (h, b) -> displayed.incrementAndGet(), null);
+        final long emitted = fakeHub(buffer);
+
+        waitUntil(() -> displayed.get() == EVENTS);
+        final ReceiveBuffer.Metrics metrics = buffer.getMetrics();
+        buffer.close();
+        // the hub is slowed down to the display speed, nothing is dropped and at most CAPACITY events are in memory.
+        Assert.assertEquals(EVENTS, emitted);
+        Assert.assertEquals(EVENTS, metrics.getReceived());
+        Assert.assertEquals(0, metrics.getDropped());
+        Assert.assertTrue(metrics.getMaxBuffered() <= CAPACITY);
+        Assert.assertTrue(metrics.getReceiveRate() > 0);
+    }
+
+    @Test
+    public void testSubscribeWithDemand() {
+        final AtomicLong displayed = new AtomicLong();
+        final AtomicLong maxRequested = new AtomicLong();
+        final ReceiveBuffer buffer = new ReceiveBuffer("hub", CAPACITY, ReceiveBuffer.OverflowPolicy.BLOCK, 1, 64, (h, b) -> displayed.incrementAndGet(), null);
+        final Flux<String> hub = Flux.range(0, EVENTS).map(ReceiveBufferTest::event)
+            .doOnRequest(n -> maxRequested.accumulateAndGet(n, Math::max));
+        buffer.subscribe(hub, e -> "Message received: ", e -> e, e -> Assert.fail(e.getMessage()));
+
+        waitUntil(() -> displayed.get() == EVENTS);
+        final ReceiveBuffer.Metrics metrics = buffer.getMetrics();
+        buffer.close();
+        // the hub is only asked for the next event after the previous one is buffered.
+        Assert.assertEquals(1, maxRequested.get());
+        Assert.assertEquals(EVENTS, metrics.getReceived());
+        Assert.assertEquals(0, metrics.getDropped());
+        Assert.assertTrue(metrics.getMaxBuffered() <= CAPACITY);
+    }
+
+    @Test
+    public void testCancelSubscriptionOnClose() {
+        final ReceiveBuffer buffer = new ReceiveBuffer("hub", 1, ReceiveBuffer.OverflowPolicy.BLOCK, 1, 64, (h, b) -> sleep(60_000), null);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicLong requestedAfterClose = new AtomicLong();
+        buffer.subscribe(Flux.range(0, 10).map(ReceiveBufferTest::event)
+            .doOnRequest(n -> requestedAfterClose.addAndGet(closed.get() ? n : 0))
+            .doOnCancel(() -> cancelled.set(true)), e -> "header", e -> e, e -> {
+        });
+        // "event-0" is taken by the (stuck) display, "event-1" is buffered and "event-2" is pending.
+        waitUntil(() -> buffer.getMetrics().getReceived() == 3);
+        sleep(200);
+        Assert.assertEquals(3, buffer.getMetrics().getReceived());
+
+        closed.set(true);
+        buffer.close();
+        waitUntil(cancelled::get);
+        sleep(200);
+        // the buffered and the pending events are dropped, and nothing is requested any more.
+        Assert.assertEquals(0, requestedAfterClose.get());
+        Assert.assertEquals(3, buffer.getMetrics().getReceived());
+        Assert.assertEquals(2, buffer.getMetrics().getDropped());
+    }
+
+    @Test
+    public void testCancelUnboundedSubscriptionOnClose() {
+        final ReceiveBuffer buffer = new ReceiveBuffer("hub", CAPACITY, ReceiveBuffer.OverflowPolicy.DROP_NEWEST, 1, 64, (h, b) -> {
+        }, null);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        buffer.subscribe(Flux.<String>never().doOnCancel(() -> cancelled.set(true)), e -> "header", e -> e, e -> {
+        });
+        buffer.close();
+        Assert.assertTrue(cancelled.get());
+    }
+
+    @Test
+    public void testDropOldest() {
+        final List<String> displayed = new CopyOnWriteArrayList<>();
+        final ReceiveBuffer buffer = new ReceiveBuffer("hub", CAPACITY, ReceiveBuffer.OverflowPolicy.DROP_OLDEST, 1, 64, (h, b) -> {
+            sleep(1); // slow display
+            displayed.add(b);
+        }, null);
+        fakeHub(buffer);
+
+        waitUntil(() -> buffer.getMetrics().getDisplayed() + buffer.getMetrics().getDropped() == EVENTS);
+        final ReceiveBuffer.Metrics metrics = buffer.getMetrics();
+        buffer.close();
+        Assert.assertEquals(EVENTS, metrics.getReceived());
+        Assert.assertEquals(EVENTS, metrics.getDisplayed() + metrics.getDropped());
+        Assert.assertTrue(metrics.getDropped() > 0);
+        Assert.assertTrue(metrics.getMaxBuffered() <= CAPACITY);
+        // the latest event is always kept.
+        Assert.assertEquals(event(EVENTS - 1), displayed.get(displayed.size() - 1));
+    }
+
+    @Test
+    public void testSample() {
+        final List<String> displayed = new CopyOnWriteArrayList<>();
+        final ReceiveBuffer buffer = new ReceiveBuffer("hub", EVENTS / 100, ReceiveBuffer.OverflowPolicy.SAMPLE, 1000, 64, (h, b) -> displayed.add(b), null);
+        fakeHub(buffer);
+
+        waitUntil(() -> displayed.size() == EVENTS / 1000);
+        final ReceiveBuffer.Metrics metrics = buffer.getMetrics();
+        buffer.close();
+        Assert.assertEquals(EVENTS - EVENTS / 1000, metrics.getDropped());
+        Assert.assertEquals(event(0), displayed.get(0));
+        Assert.assertEquals(event(1000), displayed.get(1));
+    }
+
+    @Test
+    public void testTruncateLargeMessage() {
+        final List<String> displayed = new CopyOnWriteArrayList<>();
+        final ReceiveBuffer buffer = new ReceiveBuffer("hub", CAPACITY, ReceiveBuffer.OverflowPolicy.BLOCK, 1, 10, (h, b) -> displayed.add(b), null);
+        buffer.offer("header", StringUtils.repeat('x', 1024 * 1024));
+        buffer.offer("header", "short");
+
+        waitUntil(() -> displayed.size() == 2);
+        buffer.close();
+        Assert.assertEquals("xxxxxxxxxx...(1048566 more characters)", displayed.get(0));
+        Assert.assertEquals("short", displayed.get(1));
+    }
+
+    @Test
+    public void testReleaseBlockedReceiverOnClose() {
+        final ReceiveBuffer buffer = new ReceiveBuffer("hub", 1, ReceiveBuffer.OverflowPolicy.BLOCK, 1, 64, (h, b) -> sleep(60_000), null);
+        buffer.offer("header", "1"); // taken by the (stuck) display
+        waitUntil(() -> buffer.getMetrics().getBuffered() == 0);
+        buffer.offer("header", "2"); // buffered
+        Schedulers.boundedElastic().schedule(() -> {
+            sleep(200);
+            buffer.close();
+        });
+        Assert.assertFalse(buffer.offer("header", "3"));
+        Assert.assertEquals(0, buffer.getMetrics().getBuffered());
+    }
+
+    /**
+     * a fake hub pushing events to the buffer from a reactive subscription like the event hub consumer does.
+     */
+    private static long fakeHub(ReceiveBuffer buffer) {
+        final Long count = Flux.range(0, EVENTS)
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(i -> buffer.offer("Message received: ", event(i)))
+            .count()
+            .block(Duration.ofMinutes(2));
+        return count == null ? 0 : count;
+    }
+
+    private static String event(int index) {
+        return "event-" + index;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + 60_000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("timed out", System.currentTimeMillis() < deadline);
+            sleep(10);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -15,6 +15,7 @@ import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.Account;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
 import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
 import lombok.SneakyThrows;
 
@@ -47,6 +48,7 @@ public class RepositoryModule extends AbstractAzResourceModule<Repository, Conta
             final Account account = Azure.az(AzureAccount.class).account();
             this.client = new ContainerRegistryClientBuilder()
                 .endpoint(endpoint)
+                .httpClient(AbstractAzServiceSubscription.getDefaultHttpClient())
                 .audience(getAudience())
                 .credential(account.getTokenCredential(this.getSubscriptionId()))
                 .buildClient();
@@ -8,7 +8,23 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
 
 import javax.annotation.Nonnull;
+import java.nio.file.Path;
 
 public interface ICosmosDocumentContainer<T extends ICosmosDocument> extends AzResource {
     T importDocument(@Nonnull final ObjectNode node);
+
+    /**
+     * export all documents to a NDJSON file (one document per line).
+     *
+     * @return number of documents exported.
+     */
+    long exportDocuments(@Nonnull final Path file);
+
+    /**
+     * import documents from a NDJSON file (one document per line) in bulk, existing documents are replaced.
+     * an interrupted import resumes from where it stopped if it's run again.
+     *
+     * @return number of documents imported.
+     */
+    long importDocuments(@Nonnull final Path file);
 }
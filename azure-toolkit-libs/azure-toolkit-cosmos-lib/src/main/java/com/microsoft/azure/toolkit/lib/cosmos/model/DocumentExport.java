@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.cosmos.model;
+
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * exports documents (in JSON) to a NDJSON file (one document per line) in a streaming way. documents are written to
+ * `{file}.part` first, which is moved to {@code file} only if all documents are exported.
+ */
+public class DocumentExport {
+    private DocumentExport() {
+    }
+
+    /**
+     * @param documents documents in single line JSON, which are consumed lazily.
+     * @return number of documents exported.
+     */
+    public static long export(@Nonnull Iterator<String> documents, @Nonnull Path file, @Nonnull String source) {
+        final Path dest = file.toAbsolutePath();
+        final Path part = dest.resolveSibling(dest.getFileName() + ".part");
+        long count = 0;
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(part, StandardCharsets.UTF_8)) {
+                while (documents.hasNext()) {
+                    writer.write(documents.next());
+                    writer.newLine();
+                    count++;
+                }
+            }
+            Files.move(part, dest, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to export documents of %s to \"%s\"", source, dest), e);
+        }
+        AzureMessager.getMessager().info(AzureString.format("%s document(s) of %s exported to \"%s\".", count, source, dest.toString()));
+        return count;
+    }
+}
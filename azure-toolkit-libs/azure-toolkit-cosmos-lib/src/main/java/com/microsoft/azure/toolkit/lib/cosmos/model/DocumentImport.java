@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.cosmos.model;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * imports documents from a NDJSON file (one document per line) in batches with bounded concurrency. documents
+ * throttled by the service (e.g. 429) are retried with backoff. the number of lines imported is recorded in the
+ * checkpoint file `{file}.checkpoint`, so that an interrupted import resumes from where it stopped. batches after the
+ * checkpoint may have been (partially) imported already, so {@link BatchWriter} should be idempotent.
+ */
+@Slf4j
+public class DocumentImport {
+    private static final int MAX_RETRIES = 10;
+    private static final long INITIAL_BACKOFF_IN_MILLIS = 100;
+    private static final long MAX_BACKOFF_IN_MILLIS = 10_000;
+
+    @Nonnull
+    private final Path file;
+    @Nonnull
+    private final BatchWriter writer;
+    private final int batchSize;
+    private final int concurrency;
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    public DocumentImport(@Nonnull Path file, @Nonnull BatchWriter writer) {
+        this(file, writer, Azure.az().config().getCosmosBulkBatchSize(), Azure.az().config().getCosmosBulkConcurrency());
+    }
+
+    public DocumentImport(@Nonnull Path file, @Nonnull BatchWriter writer, int batchSize, int concurrency) {
+        this.file = file.toAbsolutePath();
+        this.writer = writer;
+        this.batchSize = Math.max(1, batchSize);
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * @return number of documents imported by this execution, excluding the ones skipped by checkpoint.
+     */
+    public long execute() {
+        final Path checkpointFile = this.file.resolveSibling(this.file.getFileName() + ".checkpoint");
+        final Checkpoint checkpoint = new Checkpoint(checkpointFile, loadCheckpoint(checkpointFile));
+        if (checkpoint.committed > 0) {
+            log.debug("import {}: resume from line {}.", this.file, checkpoint.committed);
+        }
+        try (Stream<String> lines = Files.lines(this.file, StandardCharsets.UTF_8)) {
+            Flux.fromStream(lines.skip(checkpoint.committed))
+                .buffer(this.batchSize)
+                .index()
+                .flatMap(batch -> Mono.fromRunnable(() -> this.writeWithRetry(batch.getT2()))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .then(Mono.fromRunnable(() -> checkpoint.complete(batch.getT1(), batch.getT2().size()))), this.concurrency, 1)
+                .blockLast();
+            Files.deleteIfExists(checkpointFile);
+        } catch (final IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to import documents from \"%s\"", this.file), e);
+        } catch (final RuntimeException e) {
+            final String message = String.format("failed to import documents from \"%s\" (%d imported), run it again to resume from line %d.",
+                this.file, this.imported.get(), checkpoint.committed + 1);
+            throw new AzureToolkitRuntimeException(message, e);
+        }
+        AzureMessager.getMessager().info(AzureString.format("%s document(s) imported from \"%s\" (%s retries on throttling).",
+            this.imported.get(), this.file.getFileName().toString(), this.retries.get()));
+        return this.imported.get();
+    }
+
+    public long getImported() {
+        return this.imported.get();
+    }
+
+    private void writeWithRetry(@Nonnull List<String> lines) {
+        List<String> pending = lines.stream().filter(StringUtils::isNotBlank).collect(Collectors.toList());
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            final BatchResult result = this.writer.write(pending);
+            this.imported.addAndGet(pending.size() - result.getThrottled().size());
+            if (result.getThrottled().isEmpty()) {
+                return;
+            }
+            if (attempt >= MAX_RETRIES) {
+                throw new AzureToolkitRuntimeException(String.format("%d document(s) are still throttled after %d retries.", result.getThrottled().size(), MAX_RETRIES));
+            }
+            final long backoff = Math.min(MAX_BACKOFF_IN_MILLIS, INITIAL_BACKOFF_IN_MILLIS << attempt);
+            final long delay = Objects.isNull(result.getRetryAfter()) ? backoff : Math.max(backoff, result.getRetryAfter().toMillis());
+            log.debug("import {}: {} document(s) throttled, retry in {}ms.", this.file, result.getThrottled().size(), delay);
+            this.retries.incrementAndGet();
+            try {
+                Thread.sleep(delay);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AzureToolkitRuntimeException("import is interrupted.", e);
+            }
+            pending = result.getThrottled();
+        }
+    }
+
+    /**
+     * id for documents without one, derived from the content (SHA-256 of the trimmed line), so that a retried or
+     * resumed batch replaces the documents written by the previous attempt instead of duplicating them.
+     */
+    @Nonnull
+    public static byte[] contentId(@Nonnull String document) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(document.trim().getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new AzureToolkitRuntimeException(e);
+        }
+    }
+
+    private static long loadCheckpoint(@Nonnull Path checkpointFile) {
+        try {
+            if (Files.isRegularFile(checkpointFile)) {
+                final String content = new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim();
+                return StringUtils.isNumeric(content) ? Long.parseLong(content) : 0;
+            }
+        } catch (final IOException e) {
+            log.debug("failed to read checkpoint {}", checkpointFile, e);
+        }
+        return 0;
+    }
+
+    /**
+     * batches are completed out of order, the checkpoint only advances over the completed batches in a row.
+     */
+    private static class Checkpoint {
+        private final Path file;
+        private long committed;
+        private long next = 0;
+        private final Map<Long, Integer> completed = new HashMap<>();
+
+        Checkpoint(@Nonnull Path file, long committed) {
+            this.file = file;
+            this.committed = committed;
+        }
+
+        synchronized void complete(long batch, int lines) {
+            this.completed.put(batch, lines);
+            final long origin = this.committed;
+            while (this.completed.containsKey(this.next)) {
+                this.committed += this.completed.remove(this.next++);
+            }
+            if (this.committed > origin) {
+                try {
+                    Files.write(this.file, String.valueOf(this.committed).getBytes(StandardCharsets.UTF_8));
+                } catch (final IOException e) {
+                    log.debug("failed to write checkpoint {}", this.file, e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface BatchWriter {
+        /**
+         * write the documents (in JSON) in batch.
+         *
+         * @return the documents throttled by the service to be retried later.
+         */
+        @Nonnull
+        BatchResult write(@Nonnull List<String> documents);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class BatchResult {
+        private static final BatchResult DONE = new BatchResult(Collections.emptyList(), null);
+        @Nonnull
+        private final List<String> throttled;
+        /**
+         * delay suggested by the service before retrying the throttled documents.
+         */
+        @Nullable
+        private final Duration retryAfter;
+
+        @Nonnull
+        public static BatchResult done() {
+            return DONE;
+        }
+    }
+}
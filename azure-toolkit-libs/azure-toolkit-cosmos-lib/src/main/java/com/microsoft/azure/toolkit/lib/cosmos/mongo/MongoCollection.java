@@ -7,21 +7,41 @@ package com.microsoft.azure.toolkit.lib.cosmos.mongo;
 
 import com.azure.resourcemanager.cosmos.fluent.models.MongoDBCollectionGetResultsInner;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.cosmos.ICosmosCollection;
 import com.microsoft.azure.toolkit.lib.cosmos.ICosmosDocumentContainer;
+import com.microsoft.azure.toolkit.lib.cosmos.model.DocumentExport;
+import com.microsoft.azure.toolkit.lib.cosmos.model.DocumentImport;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
 import lombok.Getter;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
 import org.bson.types.ObjectId;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -30,6 +50,8 @@ import static com.microsoft.azure.toolkit.lib.cosmos.mongo.MongoDocumentModule.M
 
 public class MongoCollection extends AbstractAzResource<MongoCollection, MongoDatabase, MongoDBCollectionGetResultsInner>
         implements Deletable, ICosmosCollection, ICosmosDocumentContainer<MongoDocument> {
+    private static final int ERROR_DUPLICATE_KEY = 11000;
+    private static final int ERROR_TOO_MANY_REQUESTS = 16500;
 
     @Getter
     private com.mongodb.client.MongoCollection<Document> collection;
@@ -79,6 +101,82 @@ public class MongoCollection extends AbstractAzResource<MongoCollection, MongoDa
         return result;
     }
 
+    @Override
+    @AzureOperation(name = "azure/cosmos.export_mongo_documents.collection", params = {"this.getName()"})
+    public long exportDocuments(@Nonnull final Path file) {
+        final com.mongodb.client.MongoCollection<Document> client = Objects.requireNonNull(this.getClient(),
+            String.format("Mongo collection (%s) is not accessible.", this.getName()));
+        // extended JSON keeps BSON types (e.g. ObjectId, Date), so that documents are the same after import.
+        final JsonWriterSettings settings = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+        try (MongoCursor<Document> cursor = client.find().batchSize(Azure.az().config().getCosmosDocumentsPageSize()).iterator()) {
+            final Iterator<String> documents = new Iterator<String>() {
+                @Override
+                public boolean hasNext() {
+                    return cursor.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    return cursor.next().toJson(settings);
+                }
+            };
+            return DocumentExport.export(documents, file, String.format("Mongo collection %s", this.getName()));
+        }
+    }
+
+    @Override
+    @AzureOperation(name = "azure/cosmos.import_mongo_documents.collection", params = {"this.getName()"})
+    public long importDocuments(@Nonnull final Path file) {
+        final com.mongodb.client.MongoCollection<Document> client = Objects.requireNonNull(this.getClient(),
+            String.format("Mongo collection (%s) is not accessible.", this.getName()));
+        final long imported = new DocumentImport(file, documents -> insertDocuments(client, documents)).execute();
+        this.documentModule.refresh();
+        return imported;
+    }
+
+    /**
+     * replace (upsert) documents by `_id` with unordered `bulkWrite`, so that documents imported by a previous
+     * interrupted import are replaced. the ones throttled (`TooManyRequests` of Cosmos) or conflicting with a
+     * concurrent upsert of the same `_id` are returned to be retried.
+     */
+    @Nonnull
+    static DocumentImport.BatchResult insertDocuments(@Nonnull com.mongodb.client.MongoCollection<Document> client, @Nonnull List<String> documents) {
+        final List<Document> parsed = new ArrayList<>();
+        final List<ReplaceOneModel<Document>> models = new ArrayList<>();
+        for (final String document : documents) {
+            final Document doc;
+            try {
+                doc = Document.parse(document);
+            } catch (final RuntimeException e) {
+                throw new AzureToolkitRuntimeException(String.format("invalid document: %s", StringUtils.abbreviate(document, 100)), e);
+            }
+            if (doc.get(MONGO_ID_KEY) == null) {
+                doc.put(MONGO_ID_KEY, new ObjectId(Arrays.copyOf(DocumentImport.contentId(document), 12)));
+            }
+            parsed.add(doc);
+            models.add(new ReplaceOneModel<>(Filters.eq(MONGO_ID_KEY, doc.get(MONGO_ID_KEY)), doc, new ReplaceOptions().upsert(true)));
+        }
+        try {
+            client.bulkWrite(models, new BulkWriteOptions().ordered(false));
+            return DocumentImport.BatchResult.done();
+        } catch (final MongoBulkWriteException e) {
+            final List<String> throttled = new ArrayList<>();
+            for (final BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() == ERROR_TOO_MANY_REQUESTS || error.getCode() == ERROR_DUPLICATE_KEY) {
+                    throttled.add(parsed.get(error.getIndex()).toJson(JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build()));
+                } else {
+                    throw new AzureToolkitRuntimeException(String.format("failed to import document %s: %s", parsed.get(error.getIndex()).get(MONGO_ID_KEY), error.getMessage()), e);
+                }
+            }
+            return throttled.isEmpty() ? DocumentImport.BatchResult.done() : new DocumentImport.BatchResult(throttled, null);
+        } catch (final MongoException e) {
+            if (e.getCode() == ERROR_TOO_MANY_REQUESTS) {
+                return new DocumentImport.BatchResult(documents, null);
+            }
+            throw e;
+        }
+    }
+
     @Nullable
     public String getSharedKey() {
         return Optional.ofNullable(getRemote())
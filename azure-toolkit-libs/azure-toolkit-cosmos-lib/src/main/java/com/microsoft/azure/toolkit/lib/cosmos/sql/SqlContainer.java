@@ -6,21 +6,43 @@ package com.microsoft.azure.toolkit.lib.cosmos.sql;
 
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosBulkItemResponse;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
 import com.azure.cosmos.models.CosmosContainerResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.models.PartitionKey;
 import com.azure.resourcemanager.cosmos.fluent.models.SqlContainerGetResultsInner;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.cosmos.ICosmosCollection;
 import com.microsoft.azure.toolkit.lib.cosmos.ICosmosDocumentContainer;
+import com.microsoft.azure.toolkit.lib.cosmos.model.DocumentExport;
+import com.microsoft.azure.toolkit.lib.cosmos.model.DocumentImport;
 import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -30,6 +52,7 @@ import static com.microsoft.azure.toolkit.lib.cosmos.sql.SqlDocumentModule.ID;
 
 public class SqlContainer extends AbstractAzResource<SqlContainer, SqlDatabase, SqlContainerGetResultsInner>
         implements Deletable, ICosmosCollection, ICosmosDocumentContainer<SqlDocument> {
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
     private CosmosContainer container;
     private CosmosContainerResponse containerResponse;
     @Getter
@@ -75,6 +98,111 @@ public class SqlContainer extends AbstractAzResource<SqlContainer, SqlDatabase,
         return result;
     }
 
+    @Override
+    @AzureOperation(name = "azure/cosmos.export_sql_documents.container", params = {"this.getName()"})
+    public long exportDocuments(@Nonnull final Path file) {
+        final CosmosContainer client = Objects.requireNonNull(this.getClient(), String.format("Cosmos container (%s) is not accessible.", this.getName()));
+        final Iterator<FeedResponse<ObjectNode>> pages = client.queryItems("select * from c", new CosmosQueryRequestOptions(), ObjectNode.class)
+            .iterableByPage(Azure.az().config().getCosmosDocumentsPageSize()).iterator();
+        final Iterator<String> documents = new Iterator<String>() {
+            private Iterator<ObjectNode> page = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!this.page.hasNext() && pages.hasNext()) {
+                    final FeedResponse<ObjectNode> response = pages.next();
+                    documentModule.reportRequestCharge(String.format("export documents of Cosmos container %s", getName()), response.getRequestCharge());
+                    this.page = response.getResults().iterator();
+                }
+                return this.page.hasNext();
+            }
+
+            @Override
+            public String next() {
+                final ObjectNode node = this.page.next();
+                node.remove(Arrays.asList(SqlDocument.HIDE_FIELDS));
+                return node.toString();
+            }
+        };
+        return DocumentExport.export(documents, file, String.format("Cosmos container %s", this.getName()));
+    }
+
+    @Override
+    @AzureOperation(name = "azure/cosmos.import_sql_documents.container", params = {"this.getName()"})
+    public long importDocuments(@Nonnull final Path file) {
+        final CosmosContainer client = Objects.requireNonNull(this.getClient(), String.format("Cosmos container (%s) is not accessible.", this.getName()));
+        final long imported = new DocumentImport(file, documents -> this.upsertDocuments(client, documents)).execute();
+        this.documentModule.refresh();
+        return imported;
+    }
+
+    /**
+     * upsert documents with the bulk executor of SDK, so that existing documents are replaced when resuming an import.
+     */
+    @Nonnull
+    private DocumentImport.BatchResult upsertDocuments(@Nonnull CosmosContainer client, @Nonnull List<String> documents) {
+        final String partitionKeyPath = getPartitionKey();
+        final List<CosmosItemOperation> operations = new ArrayList<>();
+        for (final String document : documents) {
+            operations.add(toUpsertOperation(document, partitionKeyPath));
+        }
+        final List<String> throttled = new ArrayList<>();
+        Duration retryAfter = null;
+        double charge = 0;
+        for (final CosmosBulkOperationResponse<Object> result : client.<Object>executeBulkOperations(operations)) {
+            final CosmosBulkItemResponse response = result.getResponse();
+            final String document = result.getOperation().getContext();
+            if (Objects.nonNull(response) && response.isSuccessStatusCode()) {
+                charge += response.getRequestCharge();
+            } else if (Objects.nonNull(response) && response.getStatusCode() == 429) {
+                throttled.add(document);
+                retryAfter = Objects.isNull(retryAfter) || response.getRetryAfterDuration().compareTo(retryAfter) > 0 ? response.getRetryAfterDuration() : retryAfter;
+            } else {
+                final String status = Optional.ofNullable(response).map(r -> String.valueOf(r.getStatusCode())).orElse("unknown");
+                throw new AzureToolkitRuntimeException(String.format("failed to import document %s (status: %s).", result.getOperation().getId(), status), result.getException());
+            }
+        }
+        this.documentModule.reportRequestCharge(String.format("import %d document(s) to Cosmos container %s", documents.size() - throttled.size(), getName()), charge);
+        return throttled.isEmpty() ? DocumentImport.BatchResult.done() : new DocumentImport.BatchResult(throttled, retryAfter);
+    }
+
+    /**
+     * documents without an id are given one derived from their content, so that retrying or resuming a batch
+     * replaces them rather than creating duplicates.
+     */
+    @Nonnull
+    static CosmosItemOperation toUpsertOperation(@Nonnull String document, @Nullable String partitionKeyPath) {
+        final ObjectNode node;
+        try {
+            node = (ObjectNode) JSON_MAPPER.readTree(document);
+        } catch (final JsonProcessingException | ClassCastException e) {
+            throw new AzureToolkitRuntimeException(String.format("invalid document: %s", StringUtils.abbreviate(document, 100)), e);
+        }
+        if (node.get(ID) == null) {
+            node.put(ID, UUID.nameUUIDFromBytes(DocumentImport.contentId(document)).toString());
+        }
+        return CosmosBulkOperations.getUpsertItemOperation(node, getPartitionKeyValue(node, partitionKeyPath), document);
+    }
+
+    /**
+     * documents without the partition key property belong to the "none" partition, and documents whose partition key
+     * is JSON null belong to the null partition.
+     */
+    @Nonnull
+    static PartitionKey getPartitionKeyValue(@Nonnull ObjectNode node, @Nullable String partitionKeyPath) {
+        final JsonNode value = Optional.ofNullable(partitionKeyPath).map(node::at).orElse(MissingNode.getInstance());
+        if (value.isMissingNode()) {
+            return PartitionKey.NONE;
+        } else if (value.isNull()) {
+            return new PartitionKey(null);
+        } else if (value.isNumber()) {
+            return new PartitionKey(value.numberValue());
+        } else if (value.isBoolean()) {
+            return new PartitionKey(value.booleanValue());
+        }
+        return new PartitionKey(value.asText());
+    }
+
     public String getPartitionKey() {
         return Optional.ofNullable(this.containerResponse)
                 .map(CosmosContainerResponse::getProperties)
@@ -7,6 +7,7 @@ package com.microsoft.azure.toolkit.lib.cosmos.sql;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
@@ -55,6 +56,9 @@ public class SqlDocument extends AbstractAzResource<SqlDocument, SqlContainer, O
     @Override
     @Nullable
     public ObjectNode getDocument() {
+        if (Optional.ofNullable(getRemote()).filter(SqlDocumentModule::isPartialDocument).isPresent()) {
+            this.invalidateCache(); // listed documents are partial, load the full document by point read.
+        }
         return Optional.ofNullable(getRemote()).map(remote -> {
             final ObjectNode node = remote.deepCopy();
             for (final String field : HIDE_FIELDS) {
@@ -64,6 +68,15 @@ public class SqlDocument extends AbstractAzResource<SqlDocument, SqlContainer, O
         }).orElse(null);
     }
 
+    @Override
+    public String getDocumentDisplayName() {
+        // label fields are loaded by listing, no need to load the full document.
+        final ObjectNode remote = this.getRemote();
+        final String label = Optional.ofNullable(remote).flatMap(r -> Azure.az().config().getDocumentsLabelFields().stream()
+            .filter(r::has).findFirst().map(f -> r.get(f).asText())).orElse(null);
+        return Optional.ofNullable(label).orElseGet(() -> Optional.ofNullable(getDocumentId()).orElse("Unknown"));
+    }
+
     @Nonnull
     @Override
     public List<AbstractAzResourceModule<?, ?, ?>> getSubModules() {
@@ -6,6 +6,7 @@
 package com.microsoft.azure.toolkit.lib.cosmos.sql;
 
 import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosItemResponse;
 import com.azure.cosmos.models.CosmosPatchItemRequestOptions;
 import com.azure.cosmos.models.PartitionKey;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -76,24 +77,28 @@ public class SqlDocumentDraft extends SqlDocument implements
         final PartitionKey partitionKey = Objects.isNull(documentPartitionValue) ?
                 PartitionKey.NONE : new PartitionKey(documentPartitionValue);
         final String documentId = draftDocument.get(ID).asText();
-        final CosmosContainer client = ((SqlDocumentModule) getModule()).getClient();
-        Objects.requireNonNull(client).createItem(draftDocument).getItem();
-        return Objects.requireNonNull(client).readItem(documentId, partitionKey, ObjectNode.class).getItem();
+        final SqlDocumentModule module = (SqlDocumentModule) getModule();
+        final CosmosContainer client = module.getClient();
+        final CosmosItemResponse<ObjectNode> response = Objects.requireNonNull(client).createItem(draftDocument);
+        module.reportRequestCharge(String.format("create document %s", documentId), response.getRequestCharge());
+        return Objects.requireNonNull(module.readDocument(documentId, partitionKey));
     }
 
     @Nonnull
     @Override
     @AzureOperation(name = "azure/cosmos.update_sql_document.document", params = {"this.getName()"})
     public ObjectNode updateResourceInAzure(@Nonnull ObjectNode origin) {
-        final CosmosContainer client = ((SqlDocumentModule) getModule()).getClient();
+        final SqlDocumentModule module = (SqlDocumentModule) getModule();
+        final CosmosContainer client = module.getClient();
         final String documentPartitionKey = getDocumentPartitionKey();
         final PartitionKey partitionKey = Objects.isNull(getDocumentPartitionKey()) ? PartitionKey.NONE : new PartitionKey(documentPartitionKey);
         final ObjectNode node = draftDocument.deepCopy();
         for (String field : HIDE_FIELDS) {
-            node.set(field, origin.get(field));
+            Optional.ofNullable(origin.get(field)).ifPresent(value -> node.set(field, value)); // origin may be a partial document
         }
-        Objects.requireNonNull(client).replaceItem(node, getDocumentId(), partitionKey, new CosmosPatchItemRequestOptions()).getItem();
-        return Objects.requireNonNull(client).readItem(node.get(ID).asText(), partitionKey, ObjectNode.class).getItem();
+        final CosmosItemResponse<ObjectNode> response = Objects.requireNonNull(client).replaceItem(node, getDocumentId(), partitionKey, new CosmosPatchItemRequestOptions());
+        module.reportRequestCharge(String.format("update document %s", getDocumentId()), response.getRequestCharge());
+        return Objects.requireNonNull(module.readDocument(node.get(ID).asText(), partitionKey));
     }
 
     @Override
@@ -7,17 +7,26 @@ package com.microsoft.azure.toolkit.lib.cosmos.sql;
 
 import com.azure.core.util.paging.ContinuablePage;
 import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
 import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosItemResponse;
 import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
 import com.azure.cosmos.models.PartitionKey;
 import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
+import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -25,15 +34,22 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.stream.Collectors;
 
+@Slf4j
 public class SqlDocumentModule extends AbstractAzResourceModule<SqlDocument, SqlContainer, ObjectNode> {
 
     public static final String DELIMITER = "#";
     public static final String ID = "id";
     public static final String NONE = "$$$none$$$";
 
+    private final DoubleAdder totalRequestCharge = new DoubleAdder();
+
     public SqlDocumentModule(@Nonnull SqlContainer parent) {
         super("documents", parent);
     }
@@ -45,35 +61,101 @@ public class SqlDocumentModule extends AbstractAzResourceModule<SqlDocument, Sql
         if (client == null) {
             return Collections.emptyIterator();
         }
-        return client.queryItems("select * from c", new CosmosQueryRequestOptions(), ObjectNode.class)
-            .iterableByPage(getPageSize()).iterator();
+        return this.queryDocumentPages(client, null);
+    }
+
+    /**
+     * load a page of (at most {@code cosmosDocumentsPageSize}) documents starting from the {@code continuationToken}
+     * returned by the previous page, or from the beginning if it's null. only id, partition key and label fields of
+     * documents are loaded, the full document is loaded by point read when it's needed.
+     */
+    @Nonnull
+    public ContinuablePage<String, ObjectNode> loadDocumentPage(@Nullable String continuationToken) {
+        final CosmosContainer client = getClient();
+        if (client == null) {
+            return ItemPage.emptyPage();
+        }
+        final Iterator<ContinuablePage<String, ObjectNode>> pages = this.queryDocumentPages(client, continuationToken);
+        return pages.hasNext() ? pages.next() : ItemPage.emptyPage();
+    }
+
+    @Nonnull
+    private Iterator<ContinuablePage<String, ObjectNode>> queryDocumentPages(@Nonnull CosmosContainer client, @Nullable String continuationToken) {
+        final int pageSize = Azure.az().config().getCosmosDocumentsPageSize();
+        final Iterator<FeedResponse<ObjectNode>> pages = client.queryItems(getListingQuery(), new CosmosQueryRequestOptions(), ObjectNode.class)
+            .iterableByPage(continuationToken, pageSize > 0 ? pageSize : getPageSize()).iterator();
+        return new Iterator<ContinuablePage<String, ObjectNode>>() {
+            @Override
+            public boolean hasNext() {
+                return pages.hasNext();
+            }
+
+            @Override
+            public ContinuablePage<String, ObjectNode> next() {
+                final FeedResponse<ObjectNode> page = pages.next();
+                reportRequestCharge(String.format("list documents of Cosmos container %s", getParent().getName()), page.getRequestCharge());
+                return page;
+            }
+        };
+    }
+
+    /**
+     * project only the fields needed to identify and label documents, i.e. id, (top level field of) partition key and
+     * the configured label fields.
+     */
+    @Nonnull
+    String getListingQuery() {
+        final Set<String> fields = new LinkedHashSet<>();
+        fields.add(ID);
+        Optional.ofNullable(getParent().getPartitionKey())
+            .map(path -> StringUtils.substringBefore(StringUtils.removeStart(path, "/"), "/"))
+            .filter(StringUtils::isNotBlank).ifPresent(fields::add);
+        fields.addAll(Azure.az().config().getDocumentsLabelFields());
+        return fields.stream()
+            .map(f -> String.format("c[\"%s\"]", f.replace("\\", "\\\\").replace("\"", "\\\"")))
+            .collect(Collectors.joining(", ", "select ", " from c"));
     }
 
     @Nullable
     @Override
-    @SneakyThrows(UnsupportedEncodingException.class)
     protected ObjectNode loadResourceFromAzure(@Nonnull String name, @Nullable String resourceGroup) {
-        // workaround to fix the name by be encoded which will make split by DELIMITER failed
-        final String decodedName = URLDecoder.decode(name, "UTF-8");
-        final String[] split = decodedName.split(DELIMITER);
-        if (split.length > 2) {
-            return null;
-        }
-        final String id = split[0];
-        final String partitionKeyValue = split.length > 1 ? split[1] : StringUtils.EMPTY;
-        final PartitionKey partitionKey = StringUtils.equals(partitionKeyValue, NONE) ? PartitionKey.NONE : new PartitionKey(partitionKeyValue);
-        return Optional.ofNullable(getClient())
-            .map(client -> doLoadDocument(client, partitionKey, id))
+        return Optional.ofNullable(parseResourceName(name))
+            .map(p -> readDocument(p.getKey(), p.getValue()))
             .orElse(null);
     }
 
+    /**
+     * point read of the full document by id and partition key.
+     */
     @Nullable
-    private ObjectNode doLoadDocument(@Nonnull CosmosContainer container, @Nonnull PartitionKey partitionKey, @Nonnull String id) {
-        try {
-            return container.readItem(id, partitionKey, ObjectNode.class).getItem();
-        } catch (RuntimeException e2) {
+    public ObjectNode readDocument(@Nonnull String id, @Nonnull PartitionKey partitionKey) {
+        final CosmosContainer client = getClient();
+        if (client == null) {
             return null;
         }
+        try {
+            final CosmosItemResponse<ObjectNode> response = client.readItem(id, partitionKey, ObjectNode.class);
+            reportRequestCharge(String.format("read document %s", id), response.getRequestCharge());
+            return response.getItem();
+        } catch (final CosmosException e) {
+            if (e.getStatusCode() == 404) {
+                reportRequestCharge(String.format("read document %s", id), e.getRequestCharge());
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * point delete of the document by id and partition key, without reading it first.
+     */
+    public void deleteDocument(@Nonnull String id, @Nonnull PartitionKey partitionKey) {
+        final CosmosContainer client = getClient();
+        if (client == null) {
+            return;
+        }
+        final CosmosItemResponse<Object> response = client.deleteItem(id, partitionKey, new CosmosItemRequestOptions());
+        reportRequestCharge(String.format("delete document %s", id), response.getRequestCharge());
     }
 
     @Nullable
@@ -101,8 +183,7 @@ public class SqlDocumentModule extends AbstractAzResourceModule<SqlDocument, Sql
     @AzureOperation(name = "azure/cosmos.delete_sql_document.document", params = {"nameFromResourceId(resourceId)"})
     protected void deleteResourceFromAzure(@Nonnull String resourceId) {
         final ResourceId id = ResourceId.fromString(resourceId);
-        final ObjectNode node = loadResourceFromAzure(id.name(), id.resourceGroupName());
-        Optional.ofNullable(getClient()).ifPresent(client -> client.deleteItem(node, new CosmosItemRequestOptions()));
+        Optional.ofNullable(parseResourceName(id.name())).ifPresent(p -> deleteDocument(p.getKey(), p.getValue()));
     }
 
     @Nonnull
@@ -123,6 +204,45 @@ public class SqlDocumentModule extends AbstractAzResourceModule<SqlDocument, Sql
         return getParent().getClient();
     }
 
+    /**
+     * total request units consumed by document operations of this module.
+     */
+    public double getTotalRequestCharge() {
+        return this.totalRequestCharge.sum();
+    }
+
+    void reportRequestCharge(@Nonnull String operation, double charge) {
+        this.totalRequestCharge.add(charge);
+        log.debug("[{}]:{} consumed {} RU(s)", this.getName(), operation, charge);
+        if (Azure.az().config().isCosmosRequestChargeReportEnabled()) {
+            AzureMessager.getMessager().info(AzureString.format("%s consumed %s RU(s).", operation, String.format("%.2f", charge)));
+        }
+    }
+
+    /**
+     * @return (id, partition key) of the document, or null if the {@code name} is not valid.
+     */
+    @Nullable
+    @SneakyThrows(UnsupportedEncodingException.class)
+    private static Pair<String, PartitionKey> parseResourceName(@Nonnull String name) {
+        // workaround to fix the name by be encoded which will make split by DELIMITER failed
+        final String decodedName = URLDecoder.decode(name, "UTF-8");
+        final String[] split = decodedName.split(DELIMITER);
+        if (split.length > 2) {
+            return null;
+        }
+        final String partitionKeyValue = split.length > 1 ? split[1] : StringUtils.EMPTY;
+        final PartitionKey partitionKey = StringUtils.equals(partitionKeyValue, NONE) ? PartitionKey.NONE : new PartitionKey(partitionKeyValue);
+        return Pair.of(split[0], partitionKey);
+    }
+
+    /**
+     * documents loaded by listing contain only the projected fields but not the system properties.
+     */
+    public static boolean isPartialDocument(@Nonnull ObjectNode node) {
+        return !node.has("_rid");
+    }
+
     @Nonnull
     public static String getSqlDocumentResourceName(@Nonnull final String id, @Nullable final String partitionKey) {
         return String.format("%s#%s", id, Objects.isNull(partitionKey) ? NONE : partitionKey);
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.cosmos.model;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class DocumentImportTest {
+    private static final int DOCUMENTS = 95;
+    private Path directory;
+    private Path file;
+    private Path checkpoint;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("import");
+        this.file = this.directory.resolve("documents.ndjson");
+        this.checkpoint = this.directory.resolve("documents.ndjson.checkpoint");
+        final List<String> lines = IntStream.range(0, DOCUMENTS).mapToObj(i -> String.format("{\"id\":\"%d\"}", i)).collect(Collectors.toList());
+        lines.add(50, ""); // blank lines are ignored
+        Files.write(this.file, lines, StandardCharsets.UTF_8);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testImportInBatches() {
+        final FakeContainer container = new FakeContainer();
+        final long imported = new DocumentImport(this.file, container, 10, 4).execute();
+
+        Assert.assertEquals(DOCUMENTS, imported);
+        Assert.assertEquals(DOCUMENTS, container.documents.size());
+        Assert.assertEquals(10, container.batches.get());
+        Assert.assertTrue(container.maxConcurrency.get() <= 4);
+        Assert.assertFalse(Files.exists(this.checkpoint));
+    }
+
+    @Test
+    public void testRetryThrottledDocuments() {
+        final FakeContainer container = new FakeContainer();
+        container.throttling.set(3); // the first 3 writes are partially throttled
+        final long imported = new DocumentImport(this.file, container, 10, 1).execute();
+
+        Assert.assertEquals(DOCUMENTS, imported);
+        Assert.assertEquals(DOCUMENTS, container.documents.size());
+        Assert.assertEquals(13, container.batches.get());
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() throws IOException {
+        final FakeContainer failing = new FakeContainer();
+        failing.failing.add("{\"id\":\"42\"}");
+        try {
+            new DocumentImport(this.file, failing, 10, 1).execute();
+            Assert.fail("import should fail if any document fails");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertEquals("40", new String(Files.readAllBytes(this.checkpoint), StandardCharsets.UTF_8));
+        }
+
+        final FakeContainer container = new FakeContainer();
+        final long imported = new DocumentImport(this.file, container, 10, 1).execute();
+        Assert.assertEquals(DOCUMENTS - 40, imported);
+        Assert.assertFalse(container.documents.contains("{\"id\":\"39\"}"));
+        Assert.assertTrue(container.documents.contains("{\"id\":\"40\"}"));
+        Assert.assertFalse(Files.exists(this.checkpoint));
+    }
+
+    private static class FakeContainer implements DocumentImport.BatchWriter {
+        private final Set<String> documents = ConcurrentHashMap.newKeySet();
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger throttling = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+
+        @Nonnull
+        @Override
+        public DocumentImport.BatchResult write(@Nonnull List<String> batch) {
+            this.batches.incrementAndGet();
+            this.maxConcurrency.accumulateAndGet(this.concurrency.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+                if (batch.stream().anyMatch(this.failing::contains)) {
+                    throw new IllegalStateException("bad request");
+                }
+                final List<String> throttled = new ArrayList<>();
+                final boolean throttle = this.throttling.getAndDecrement() > 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    if (throttle && i % 2 == 0) {
+                        throttled.add(batch.get(i));
+                    } else {
+                        this.documents.add(batch.get(i));
+                    }
+                }
+                return new DocumentImport.BatchResult(throttled, Duration.ofMillis(10));
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                this.concurrency.decrementAndGet();
+            }
+        }
+    }
+}
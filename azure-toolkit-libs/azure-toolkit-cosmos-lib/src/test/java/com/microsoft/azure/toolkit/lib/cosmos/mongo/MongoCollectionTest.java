@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.cosmos.mongo;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.cosmos.model.DocumentImport;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class MongoCollectionTest {
+    private static final List<String> DOCUMENTS = Arrays.asList("{\"_id\": 1, \"a\": 1}", "{\"_id\": 2, \"a\": 2}", "{\"_id\": 3, \"a\": 3}");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReplaceDocumentsUnordered() {
+        final com.mongodb.client.MongoCollection<Document> client = Mockito.mock(com.mongodb.client.MongoCollection.class);
+
+        final DocumentImport.BatchResult result = MongoCollection.insertDocuments(client, DOCUMENTS);
+
+        Assert.assertTrue(result.getThrottled().isEmpty());
+        Mockito.verify(client).bulkWrite(ArgumentMatchers.argThat((List<? extends WriteModel<Document>> models) -> models.size() == 3 &&
+                models.stream().allMatch(m -> m instanceof ReplaceOneModel && Boolean.TRUE.equals(((ReplaceOneModel<Document>) m).getReplaceOptions().isUpsert()))),
+            ArgumentMatchers.argThat((BulkWriteOptions options) -> !options.isOrdered()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRetryThrottledDocuments() {
+        final com.mongodb.client.MongoCollection<Document> client = Mockito.mock(com.mongodb.client.MongoCollection.class);
+        Mockito.doThrow(error(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0), new BulkWriteError(16500, "too many requests", new BsonDocument(), 2)))
+            .when(client).bulkWrite(ArgumentMatchers.anyList(), ArgumentMatchers.any(BulkWriteOptions.class));
+
+        final DocumentImport.BatchResult result = MongoCollection.insertDocuments(client, DOCUMENTS);
+
+        // duplicate key only happens to concurrent upserts of the same `_id`, retrying it replaces the document.
+        Assert.assertEquals(2, result.getThrottled().size());
+        Assert.assertEquals(1, Document.parse(result.getThrottled().get(0)).get("_id"));
+        Assert.assertEquals(3, Document.parse(result.getThrottled().get(1)).get("_id"));
+    }
+
+    @Test(expected = AzureToolkitRuntimeException.class)
+    @SuppressWarnings("unchecked")
+    public void testFailOnOtherErrors() {
+        final com.mongodb.client.MongoCollection<Document> client = Mockito.mock(com.mongodb.client.MongoCollection.class);
+        Mockito.doThrow(error(new BulkWriteError(2, "bad value", new BsonDocument(), 1)))
+            .when(client).bulkWrite(ArgumentMatchers.anyList(), ArgumentMatchers.any(BulkWriteOptions.class));
+
+        MongoCollection.insertDocuments(client, DOCUMENTS);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRetryDocumentsWithoutIdKeepsId() {
+        final com.mongodb.client.MongoCollection<Document> client = Mockito.mock(com.mongodb.client.MongoCollection.class);
+        Mockito.doThrow(error(new BulkWriteError(16500, "too many requests", new BsonDocument(), 0)))
+            .when(client).bulkWrite(ArgumentMatchers.anyList(), ArgumentMatchers.any(BulkWriteOptions.class));
+        final List<String> documents = Arrays.asList("{\"a\": 1}", "{\"a\": 2}");
+
+        final DocumentImport.BatchResult first = MongoCollection.insertDocuments(client, documents);
+        final DocumentImport.BatchResult retry = MongoCollection.insertDocuments(client, documents);
+
+        final Object id = Document.parse(first.getThrottled().get(0)).get("_id");
+        Assert.assertNotNull(id);
+        Assert.assertEquals(id, Document.parse(retry.getThrottled().get(0)).get("_id"));
+        Assert.assertEquals(id, Document.parse(MongoCollection.insertDocuments(client, first.getThrottled()).getThrottled().get(0)).get("_id"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testResumeImportOfDocumentsWithoutId() throws IOException {
+        final Path directory = Files.createTempDirectory("import");
+        final Path file = directory.resolve("documents.ndjson");
+        Files.write(file, IntStream.range(0, 6).mapToObj(i -> String.format("{\"a\": %d}", i)).collect(Collectors.toList()), StandardCharsets.UTF_8);
+        final Map<Object, Document> stored = new HashMap<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final com.mongodb.client.MongoCollection<Document> client = Mockito.mock(com.mongodb.client.MongoCollection.class);
+        Mockito.doAnswer(invocation -> {
+            final List<ReplaceOneModel<Document>> models = invocation.getArgument(0);
+            models.forEach(m -> stored.put(m.getReplacement().get("_id"), m.getReplacement()));
+            if (calls.incrementAndGet() == 2) { // the second batch is written but the import is interrupted.
+                throw new MongoException(2, "connection reset");
+            }
+            return null;
+        }).when(client).bulkWrite(ArgumentMatchers.anyList(), ArgumentMatchers.any(BulkWriteOptions.class));
+
+        try {
+            new DocumentImport(file, documents -> MongoCollection.insertDocuments(client, documents), 2, 1).execute();
+            Assert.fail("import should fail on the second batch");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertEquals(4, stored.size());
+        }
+        new DocumentImport(file, documents -> MongoCollection.insertDocuments(client, documents), 2, 1).execute();
+
+        // the second batch is written again on resume, replacing the documents instead of duplicating them.
+        Assert.assertEquals(4, calls.get());
+        Assert.assertEquals(6, stored.size());
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    private static MongoBulkWriteException error(BulkWriteError... errors) {
+        return new MongoBulkWriteException(BulkWriteResult.unacknowledged(), Arrays.asList(errors), null, new ServerAddress());
+    }
+}
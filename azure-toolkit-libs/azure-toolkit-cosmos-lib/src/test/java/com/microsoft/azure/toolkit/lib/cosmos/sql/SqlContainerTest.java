@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.cosmos.sql;
+
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceModule;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class SqlContainerTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @BeforeClass
+    public static void init() {
+        // AzResource.NONE depends on AzResourceModule.NONE, initialize it first.
+        Assert.assertNotNull(AzResourceModule.NONE);
+    }
+
+    @Test
+    public void testPartitionKeyValue() throws IOException {
+        Assert.assertEquals(new PartitionKey("seattle"), partitionKey("{\"address\": {\"city\": \"seattle\"}}"));
+        Assert.assertEquals(new PartitionKey(98101), partitionKey("{\"address\": {\"city\": 98101}}"));
+        Assert.assertEquals(new PartitionKey(true), partitionKey("{\"address\": {\"city\": true}}"));
+    }
+
+    @Test
+    public void testMissingPartitionKeyValue() throws IOException {
+        Assert.assertEquals(PartitionKey.NONE, partitionKey("{\"address\": {}}"));
+        Assert.assertEquals(PartitionKey.NONE, SqlContainer.getPartitionKeyValue((ObjectNode) MAPPER.readTree("{}"), null));
+    }
+
+    @Test
+    public void testNullPartitionKeyValue() throws IOException {
+        final PartitionKey key = partitionKey("{\"address\": {\"city\": null}}");
+        Assert.assertEquals(new PartitionKey(null), key);
+        Assert.assertNotEquals(PartitionKey.NONE, key);
+        Assert.assertNotEquals(new PartitionKey("null"), key);
+    }
+
+    @Test
+    public void testRetryDocumentWithoutIdKeepsId() {
+        final String document = "{\"address\": {\"city\": \"seattle\"}}";
+        final String id = upsertId(document);
+
+        Assert.assertNotNull(id);
+        Assert.assertEquals(id, upsertId(document));
+        Assert.assertNotEquals(id, upsertId("{\"address\": {\"city\": \"redmond\"}}"));
+        Assert.assertEquals("1", upsertId("{\"id\": \"1\"}"));
+    }
+
+    private static String upsertId(String document) {
+        final CosmosItemOperation operation = SqlContainer.toUpsertOperation(document, "/address/city");
+        return operation.<ObjectNode>getItem().get("id").asText();
+    }
+
+    private static PartitionKey partitionKey(String document) throws IOException {
+        return SqlContainer.getPartitionKeyValue((ObjectNode) MAPPER.readTree(document), "/address/city");
+    }
+}
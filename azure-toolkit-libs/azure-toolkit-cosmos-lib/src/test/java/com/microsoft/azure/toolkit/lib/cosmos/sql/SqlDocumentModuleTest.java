@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.cosmos.sql;
+
+import com.azure.core.util.paging.ContinuablePage;
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.models.ModelBridgeInternal;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.util.CosmosPagedIterable;
+import com.azure.cosmos.util.UtilBridgeInternal;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceModule;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SqlDocumentModuleTest {
+    private static final int DOCUMENTS = 250;
+    private final List<String> queries = new ArrayList<>();
+    private final AtomicInteger queriedPages = new AtomicInteger();
+    private CosmosContainer client;
+    private SqlDocumentModule module;
+
+    @BeforeClass
+    public static void init() {
+        // AzResource.NONE depends on AzResourceModule.NONE, initialize it first.
+        Assert.assertNotNull(AzResourceModule.NONE);
+    }
+
+    @Before
+    public void setUp() {
+        Azure.az().config().setCosmosDocumentsPageSize(100);
+        this.client = Mockito.mock(CosmosContainer.class);
+        Mockito.when(this.client.queryItems(ArgumentMatchers.anyString(), ArgumentMatchers.any(CosmosQueryRequestOptions.class), ArgumentMatchers.eq(ObjectNode.class)))
+            .thenAnswer(invocation -> {
+                this.queries.add(invocation.getArgument(0));
+                return query();
+            });
+        final SqlContainer container = Mockito.mock(SqlContainer.class);
+        Mockito.when(container.getClient()).thenReturn(this.client);
+        Mockito.when(container.getPartitionKey()).thenReturn("/address/city");
+        Mockito.when(container.getName()).thenReturn("container");
+        this.module = new SqlDocumentModule(container);
+    }
+
+    @Test
+    public void testListByContinuationToken() {
+        final Iterator<? extends ContinuablePage<String, ObjectNode>> pages = this.module.loadResourcePagesFromAzure();
+        final List<String> ids = new ArrayList<>();
+        while (pages.hasNext()) {
+            pages.next().getElements().forEach(node -> ids.add(node.get("id").asText()));
+        }
+        Assert.assertEquals(DOCUMENTS, ids.size());
+        Assert.assertEquals("doc-249", ids.get(DOCUMENTS - 1));
+        Assert.assertEquals(3, this.queriedPages.get());
+        Assert.assertEquals(3.0, this.module.getTotalRequestCharge(), 0.001);
+    }
+
+    @Test
+    public void testResumeFromContinuationToken() {
+        final ContinuablePage<String, ObjectNode> first = this.module.loadDocumentPage(null);
+        final ContinuablePage<String, ObjectNode> second = this.module.loadDocumentPage(first.getContinuationToken());
+
+        Assert.assertEquals("doc-100", second.getElements().iterator().next().get("id").asText());
+        Assert.assertEquals("200", second.getContinuationToken());
+        Assert.assertEquals("100", first.getContinuationToken());
+    }
+
+    @Test
+    public void testListOnlyProjectedFields() {
+        this.module.loadDocumentPage(null);
+
+        final String query = this.queries.get(0);
+        Assert.assertTrue(query, query.startsWith("select c[\"id\"], c[\"address\"], "));
+        Assert.assertTrue(query, query.contains("c[\"name\"]"));
+        Assert.assertFalse(query, query.contains("*"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPointReadAndDelete() {
+        final ObjectNode document = document(7).put("_rid", "rid");
+        final CosmosItemResponse<ObjectNode> read = Mockito.mock(CosmosItemResponse.class);
+        Mockito.when(read.getItem()).thenReturn(document);
+        Mockito.when(read.getRequestCharge()).thenReturn(1.0);
+        Mockito.when(this.client.readItem("doc-7", new PartitionKey("city-7"), ObjectNode.class)).thenReturn(read);
+        final CosmosItemResponse<Object> delete = Mockito.mock(CosmosItemResponse.class);
+        Mockito.when(delete.getRequestCharge()).thenReturn(5.0);
+        Mockito.when(this.client.deleteItem(ArgumentMatchers.eq("doc-7"), ArgumentMatchers.eq(new PartitionKey("city-7")), ArgumentMatchers.any(CosmosItemRequestOptions.class)))
+            .thenReturn(delete);
+
+        Assert.assertSame(document, this.module.loadResourceFromAzure("doc-7#city-7", null));
+        this.module.deleteDocument("doc-7", new PartitionKey("city-7"));
+
+        Mockito.verify(this.client, Mockito.times(1)).readItem("doc-7", new PartitionKey("city-7"), ObjectNode.class);
+        Mockito.verify(this.client, Mockito.never()).queryItems(ArgumentMatchers.anyString(), ArgumentMatchers.any(CosmosQueryRequestOptions.class), ArgumentMatchers.eq(ObjectNode.class));
+        Assert.assertEquals(6.0, this.module.getTotalRequestCharge(), 0.001);
+        Assert.assertFalse(SqlDocumentModule.isPartialDocument(document));
+    }
+
+    @Test
+    public void testPointReadNotFound() {
+        Mockito.when(this.client.readItem("missing", PartitionKey.NONE, ObjectNode.class)).thenThrow(new CosmosException(404, "not found") {
+        });
+
+        Assert.assertNull(this.module.loadResourceFromAzure("missing#" + SqlDocumentModule.NONE, null));
+    }
+
+    private CosmosPagedIterable<ObjectNode> query() {
+        return UtilBridgeInternal.createCosmosPagedIterable(UtilBridgeInternal.createCosmosPagedFlux(options -> {
+            final int pageSize = Optional.ofNullable(options.getMaxItemCount()).orElse(DOCUMENTS);
+            final List<FeedResponse<ObjectNode>> pages = new ArrayList<>();
+            int start = Optional.ofNullable(options.getRequestContinuation()).map(Integer::parseInt).orElse(0);
+            do {
+                final int end = Math.min(DOCUMENTS, start + pageSize);
+                final List<ObjectNode> items = new ArrayList<>();
+                for (int i = start; i < end; i++) {
+                    items.add(document(i));
+                }
+                final Map<String, String> headers = new HashMap<>();
+                headers.put("x-ms-request-charge", "1.0");
+                if (end < DOCUMENTS) {
+                    headers.put("x-ms-continuation", String.valueOf(end));
+                }
+                pages.add(ModelBridgeInternal.createFeedResponse(items, headers));
+                start = end;
+            } while (start < DOCUMENTS);
+            return Flux.fromIterable(pages).doOnNext(p -> this.queriedPages.incrementAndGet());
+        }));
+    }
+
+    private static ObjectNode document(int i) {
+        final ObjectNode node = JsonNodeFactory.instance.objectNode().put("id", "doc-" + i);
+        node.putObject("address").put("city", "city-" + i);
+        return node;
+    }
+}
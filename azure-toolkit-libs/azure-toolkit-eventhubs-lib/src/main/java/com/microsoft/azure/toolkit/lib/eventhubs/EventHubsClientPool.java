@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.eventhubs;
+
+import com.azure.core.amqp.exception.AmqpErrorCondition;
+import com.azure.core.amqp.exception.AmqpException;
+import com.azure.messaging.eventhubs.EventHubClientBuilder;
+import com.azure.messaging.eventhubs.EventHubConsumerAsyncClient;
+import com.azure.messaging.eventhubs.EventHubProducerClient;
+import com.azure.messaging.eventhubs.models.EventPosition;
+import com.azure.messaging.eventhubs.models.PartitionEvent;
+import com.azure.resourcemanager.eventhubs.models.AccessRights;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * clients of an event hub shared by all sends and receives: one producer for sending, and one consumer with a
+ * subscription per partition for receiving. connection strings are cached per access right, and they are invalidated
+ * (together with the clients built from them) only on authorization failures, e.g. the rule is deleted or its keys
+ * are regenerated.
+ */
+@Slf4j
+public class EventHubsClientPool implements Closeable {
+    @Nonnull
+    private final Function<AccessRights, String> connectionStringLoader;
+    @Nonnull
+    private final ClientFactory factory;
+    private final Map<AccessRights, String> connectionStrings = new ConcurrentHashMap<>();
+    private final Map<String, Disposable> subscriptions = new LinkedHashMap<>();
+    @Nullable
+    private EventHubProducerClient producer;
+    @Nullable
+    private EventHubConsumerAsyncClient consumer;
+    @Nullable
+    private String consumerGroup;
+
+    public EventHubsClientPool(@Nonnull Function<AccessRights, String> connectionStringLoader) {
+        this(connectionStringLoader, new DefaultClientFactory());
+    }
+
+    EventHubsClientPool(@Nonnull Function<AccessRights, String> connectionStringLoader, @Nonnull ClientFactory factory) {
+        this.connectionStringLoader = connectionStringLoader;
+        this.factory = factory;
+    }
+
+    @Nonnull
+    public String getConnectionString(@Nonnull AccessRights rights) {
+        return this.connectionStrings.computeIfAbsent(rights, this.connectionStringLoader);
+    }
+
+    @Nonnull
+    public synchronized EventHubProducerClient getProducer() {
+        if (Objects.isNull(this.producer)) {
+            this.producer = this.factory.buildProducerClient(this.getConnectionString(AccessRights.SEND));
+        }
+        return this.producer;
+    }
+
+    /**
+     * subscribe to the partitions that are not subscribed yet with the shared consumer, which is re-created if the
+     * {@code consumerGroup} is changed.
+     */
+    public synchronized void subscribe(@Nonnull String consumerGroup, @Nonnull Collection<String> partitionIds, @Nonnull EventPosition position,
+                                       @Nonnull Consumer<PartitionEvent> onEvent, @Nonnull BiConsumer<String, Throwable> onError) {
+        this.subscribe(consumerGroup, partitionIds, position, (id, events) -> events.subscribe(onEvent, e -> onError.accept(id, e)));
+    }
+
+    /**
+     * same as above, but events of each partition are subscribed by {@code subscriber}, e.g. with bounded demand.
+     *
+     * @param subscriber subscribes to the events of the partition and returns the subscription
+     */
+    public synchronized void subscribe(@Nonnull String consumerGroup, @Nonnull Collection<String> partitionIds, @Nonnull EventPosition position,
+                                       @Nonnull BiFunction<String, Flux<PartitionEvent>, Disposable> subscriber) {
+        if (Objects.nonNull(this.consumer) && !StringUtils.equals(this.consumerGroup, consumerGroup)) {
+            this.unsubscribe();
+        }
+        if (Objects.isNull(this.consumer)) {
+            this.consumer = this.factory.buildConsumerClient(this.getConnectionString(AccessRights.LISTEN), consumerGroup);
+            this.consumerGroup = consumerGroup;
+        }
+        final EventHubConsumerAsyncClient client = this.consumer;
+        partitionIds.stream().filter(id -> !this.subscriptions.containsKey(id)).forEach(id ->
+            this.subscriptions.put(id, subscriber.apply(id, client.receiveFromPartition(id, position))));
+    }
+
+    public synchronized boolean isSubscribed() {
+        return !this.subscriptions.isEmpty();
+    }
+
+    /**
+     * dispose all subscriptions and close the consumer.
+     */
+    public synchronized void unsubscribe() {
+        this.subscriptions.values().forEach(Disposable::dispose);
+        this.subscriptions.clear();
+        if (Objects.nonNull(this.consumer)) {
+            this.consumer.close();
+            this.consumer = null;
+        }
+    }
+
+    /**
+     * drop the cached connection strings and close all clients if {@code error} is caused by authorization failure,
+     * so that they are re-created (with the latest authorization rule) next time.
+     *
+     * @return true if invalidated.
+     */
+    public synchronized boolean invalidateOnAuthFailure(@Nonnull Throwable error) {
+        if (!isAuthFailure(error)) {
+            return false;
+        }
+        log.debug("invalidate connection strings and clients on authorization failure", error);
+        this.connectionStrings.clear();
+        this.close();
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        this.unsubscribe();
+        if (Objects.nonNull(this.producer)) {
+            this.producer.close();
+            this.producer = null;
+        }
+    }
+
+    static boolean isAuthFailure(@Nonnull Throwable error) {
+        return ExceptionUtils.getThrowableList(error).stream()
+            .anyMatch(e -> e instanceof AmqpException && ((AmqpException) e).getErrorCondition() == AmqpErrorCondition.UNAUTHORIZED_ACCESS);
+    }
+
+    interface ClientFactory {
+        @Nonnull
+        EventHubProducerClient buildProducerClient(@Nonnull String connectionString);
+
+        @Nonnull
+        EventHubConsumerAsyncClient buildConsumerClient(@Nonnull String connectionString, @Nonnull String consumerGroup);
+    }
+
+    private static class DefaultClientFactory implements ClientFactory {
+        @Nonnull
+        @Override
+        public EventHubProducerClient buildProducerClient(@Nonnull String connectionString) {
+            return new EventHubClientBuilder().connectionString(connectionString).buildProducerClient();
+        }
+
+        @Nonnull
+        @Override
+        public EventHubConsumerAsyncClient buildConsumerClient(@Nonnull String connectionString, @Nonnull String consumerGroup) {
+            return new EventHubClientBuilder().connectionString(connectionString).consumerGroup(consumerGroup).buildAsyncConsumerClient();
+        }
+    }
+}
@@ -5,6 +5,7 @@
 package com.microsoft.azure.toolkit.lib.eventhubs;
 
 import com.azure.messaging.eventhubs.*;
+import com.azure.messaging.eventhubs.models.CreateBatchOptions;
 import com.azure.messaging.eventhubs.models.EventPosition;
 import com.azure.resourcemanager.eventhubs.EventHubsManager;
 import com.azure.resourcemanager.eventhubs.fluent.EventHubManagementClient;
@@ -23,25 +24,28 @@ import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
 import com.microsoft.azure.toolkit.lib.common.utils.Utils;
+import com.microsoft.azure.toolkit.lib.resource.message.BatchSender;
 import com.microsoft.azure.toolkit.lib.resource.message.ISenderReceiver;
+import com.microsoft.azure.toolkit.lib.resource.message.ReceiveBuffer;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
-import reactor.core.Disposable;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class EventHubsInstance extends AbstractAzResource<EventHubsInstance, EventHubsNamespace, EventHub> implements Deletable, ISenderReceiver {
     @Nullable
     @Getter
     private EntityStatus entityStatus;
-    @Nullable
-    private EventHubConsumerAsyncClient consumerAsyncClient;
-    private final List<Disposable> receivers = new ArrayList<>();
+    private final EventHubsClientPool clients = new EventHubsClientPool(rights -> this.getOrCreateConnectionString(Collections.singletonList(rights)));
     @Nullable
     private IAzureMessager messager;
+    @Nullable
+    private ReceiveBuffer receiveBuffer;
     protected EventHubsInstance(@Nonnull String name, @Nonnull EventHubsInstanceModule module) {
         super(name, module);
     }
@@ -54,6 +58,9 @@ public class EventHubsInstance extends AbstractAzResource<EventHubsInstance, Eve
     protected void updateAdditionalProperties(@Nullable EventHub newRemote, @Nullable EventHub oldRemote) {
         super.updateAdditionalProperties(newRemote, oldRemote);
         this.entityStatus = Optional.ofNullable(newRemote).map(EventHub::innerModel).map(EventhubInner::status).orElse(null);
+        if (Objects.isNull(newRemote)) {
+            this.clients.close();
+        }
     }
 
     @Nonnull
@@ -84,33 +91,30 @@ public class EventHubsInstance extends AbstractAzResource<EventHubsInstance, Eve
         messager = AzureMessager.getMessager();
         messager.info(AzureString.format("Start listening to event hub ({0}) for consumerGroup ({1})...\n", getName(), consumerGroupName));
         messager.info("You can change default consumer group in Azure Settings\n");
-        remoteOptional().ifPresent(remote -> remote.partitionIds().forEach(partitionId -> {
-            this.consumerAsyncClient = new EventHubClientBuilder()
-                    .connectionString(getOrCreateConnectionString(Collections.singletonList(AccessRights.LISTEN)))
-                    .consumerGroup(consumerGroupName)
-                    .buildAsyncConsumerClient();
-            messager.info(AzureString.format("Created receiver for partition ({0})\n", partitionId));
-            Optional.ofNullable(this.consumerAsyncClient).ifPresent(client ->
-                    receivers.add(client.receiveFromPartition(partitionId, EventPosition.latest())
-                            .subscribe(partitionEvent -> {
-                                messager.info(AzureString.format("Message Received from partition (%s): ", partitionId));
-                                messager.debug(AzureString.format("\"%s\"\n", partitionEvent.getData().getBodyAsString()));
-                            })));
-        }));
+        final List<String> partitionIds = remoteOptional().map(EventHub::partitionIds).map(ArrayList::new).orElse(new ArrayList<>());
+        if (Objects.isNull(this.receiveBuffer) || this.receiveBuffer.isClosed()) {
+            this.receiveBuffer = ReceiveBuffer.fromConfig(String.format("Event Hub (%s)", getName()), messager);
+        }
+        final ReceiveBuffer buffer = this.receiveBuffer;
+        // events are requested as the buffer drains (backpressure), or dropped if the buffer is full, depending on the overflow policy.
+        this.clients.subscribe(consumerGroupName, partitionIds, EventPosition.latest(), (partitionId, events) -> buffer.subscribe(events,
+            e -> String.format("Message Received from partition (%s): ", partitionId), e -> e.getData().getBodyAsString(), error -> {
+                messager.error(AzureString.format("Failed to receive messages from partition (%s) of Event Hub (%s): %s\n", partitionId, getName(), error));
+                this.clients.invalidateOnAuthFailure(error);
+            }));
+        partitionIds.forEach(partitionId -> messager.info(AzureString.format("Created receiver for partition ({0})\n", partitionId)));
     }
 
     @Override
     public synchronized void stopReceivingMessage() {
-        Optional.ofNullable(consumerAsyncClient).ifPresent(EventHubConsumerAsyncClient::close);
+        Optional.ofNullable(this.receiveBuffer).ifPresent(ReceiveBuffer::close); // release the receivers blocked by the buffer
+        this.clients.unsubscribe();
         Optional.ofNullable(messager).orElse(AzureMessager.getMessager()).info(AzureString.format("Stop listening to event hub ({0})\n", getName()));
-        this.consumerAsyncClient = null;
-        this.receivers.forEach(Disposable::dispose);
-        this.receivers.clear();
     }
 
     @Override
     public boolean isListening() {
-        return Objects.nonNull(this.consumerAsyncClient);
+        return this.clients.isSubscribed();
     }
 
     @Override
@@ -122,33 +126,88 @@ public class EventHubsInstance extends AbstractAzResource<EventHubsInstance, Eve
     public void sendMessage(String message) {
         final IAzureMessager messager = AzureMessager.getMessager();
         messager.info(AzureString.format("Sending message to Event Hub (%s)...\n", getName()));
-        try (final EventHubProducerClient producer = new EventHubClientBuilder()
-                .connectionString(getOrCreateConnectionString(Collections.singletonList(AccessRights.SEND)))
-                .buildProducerClient()) {
-            EventDataBatch eventDataBatch = producer.createBatch();
-            final EventData eventData =  new EventData(message);
+        try {
+            this.doSendMessage(message, messager);
+        } catch (final Exception e) {
+            if (!this.clients.invalidateOnAuthFailure(e)) {
+                messager.error(AzureString.format("Failed to send message to Event Hub (%s): %s", getName(), e));
+                return;
+            }
+            try { // retry once with the latest authorization rule.
+                this.doSendMessage(message, messager);
+            } catch (final Exception e2) {
+                messager.error(AzureString.format("Failed to send message to Event Hub (%s): %s", getName(), e2));
+            }
+        }
+    }
+
+    private void doSendMessage(String message, IAzureMessager messager) {
+        // the producer is shared and kept open, it's closed only when the event hub is deleted.
+        final EventHubProducerClient producer = this.clients.getProducer();
+        EventDataBatch eventDataBatch = producer.createBatch();
+        final EventData eventData = new EventData(message);
+        if (!eventDataBatch.tryAdd(eventData)) {
+            producer.send(eventDataBatch);
+            eventDataBatch = producer.createBatch();
             if (!eventDataBatch.tryAdd(eventData)) {
-                producer.send(eventDataBatch);
-                eventDataBatch = producer.createBatch();
-                if (!eventDataBatch.tryAdd(eventData)) {
-                    final String reason = "Event is too large for an empty batch. Max size: "
-                            + eventDataBatch.getMaxSizeInBytes();
-                    messager.error(AzureString.format("Failed to send message to Event Hub (%s): %s", getName(), reason));
-                }
+                final String reason = "Event is too large for an empty batch. Max size: "
+                        + eventDataBatch.getMaxSizeInBytes();
+                messager.error(AzureString.format("Failed to send message to Event Hub (%s): %s", getName(), reason));
             }
-            if (eventDataBatch.getCount() > 0) {
-                producer.send(eventDataBatch);
-                messager.info("Successfully sent message ");
-                messager.success(AzureString.format("\"%s\"", message));
-                messager.info(AzureString.format(" to Event Hub (%s)\n", getName()));
+        }
+        if (eventDataBatch.getCount() > 0) {
+            producer.send(eventDataBatch);
+            messager.info("Successfully sent message ");
+            messager.success(AzureString.format("\"%s\"", message));
+            messager.info(AzureString.format(" to Event Hub (%s)\n", getName()));
+        }
+    }
+
+    @Override
+    public BatchSender.Report sendMessages(@Nonnull Stream<String> messages, @Nullable Function<String, String> partitionKey) {
+        final EventHubProducerClient producer = this.clients.getProducer();
+        final BatchSender<EventDataBatch> sender = new BatchSender<>(String.format("Event Hub (%s)", getName()), new BatchSender.BatchClient<EventDataBatch>() {
+            @Nonnull
+            @Override
+            public EventDataBatch createBatch(@Nullable String key) {
+                return producer.createBatch(new CreateBatchOptions().setPartitionKey(key));
+            }
+
+            @Override
+            public boolean tryAdd(@Nonnull EventDataBatch batch, @Nonnull String message, @Nullable String key) {
+                return batch.tryAdd(new EventData(message));
+            }
+
+            @Override
+            public int getCount(@Nonnull EventDataBatch batch) {
+                return batch.getCount();
+            }
+
+            @Override
+            public long getSizeInBytes(@Nonnull EventDataBatch batch) {
+                return batch.getSizeInBytes();
+            }
+
+            @Override
+            public long getMaxSizeInBytes(@Nonnull EventDataBatch batch) {
+                return batch.getMaxSizeInBytes();
+            }
+
+            @Override
+            public void send(@Nonnull EventDataBatch batch) {
+                producer.send(batch);
             }
+        });
+        try {
+            return sender.send(messages, partitionKey);
         } catch (final Exception e) {
-            messager.error(AzureString.format("Failed to send message to Event Hub (%s): %s", getName(), e));
+            this.clients.invalidateOnAuthFailure(e);
+            throw e;
         }
     }
 
     public String getOrCreateListenConnectionString() {
-        return getOrCreateConnectionString(Collections.singletonList(AccessRights.LISTEN));
+        return this.clients.getConnectionString(AccessRights.LISTEN);
     }
 
     private String getOrCreateConnectionString(List<AccessRights> accessRights) {
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.eventhubs;
+
+import com.azure.core.amqp.exception.AmqpErrorCondition;
+import com.azure.core.amqp.exception.AmqpException;
+import com.azure.messaging.eventhubs.EventHubConsumerAsyncClient;
+import com.azure.messaging.eventhubs.EventHubProducerClient;
+import com.azure.messaging.eventhubs.models.EventPosition;
+import com.azure.resourcemanager.eventhubs.models.AccessRights;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EventHubsClientPoolTest {
+    private final AtomicInteger connectionStringLoads = new AtomicInteger();
+    private FakeClientFactory factory;
+    private EventHubsClientPool pool;
+
+    @Before
+    public void setUp() {
+        this.factory = new FakeClientFactory();
+        this.pool = new EventHubsClientPool(rights -> rights + "-" + this.connectionStringLoads.incrementAndGet(), this.factory);
+    }
+
+    @Test
+    public void testShareProducer() {
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(this.pool.getProducer(), this.pool.getProducer());
+        }
+        Assert.assertEquals(1, this.factory.producers.size());
+        Assert.assertEquals(1, this.connectionStringLoads.get());
+        Assert.assertEquals("Send-1", this.pool.getConnectionString(AccessRights.SEND));
+
+        this.pool.close();
+        Mockito.verify(this.factory.producers.get(0)).close();
+    }
+
+    @Test
+    public void testOneConsumerForAllPartitions() {
+        final List<String> partitions = Arrays.asList("0", "1", "2", "3");
+        this.pool.subscribe("$Default", partitions, EventPosition.latest(), e -> {
+        }, (p, e) -> {
+        });
+        this.pool.subscribe("$Default", partitions, EventPosition.latest(), e -> {
+        }, (p, e) -> {
+        });
+
+        Assert.assertEquals(1, this.factory.consumers.size());
+        Assert.assertEquals(4, this.factory.subscriptions.get()); // partitions are not subscribed twice
+        Assert.assertTrue(this.pool.isSubscribed());
+
+        this.pool.unsubscribe();
+        Assert.assertFalse(this.pool.isSubscribed());
+        Assert.assertEquals(4, this.factory.cancellations.get());
+        Mockito.verify(this.factory.consumers.get(0)).close();
+
+        // a new consumer is built after unsubscribing.
+        this.pool.subscribe("$Default", partitions, EventPosition.latest(), e -> {
+        }, (p, e) -> {
+        });
+        Assert.assertEquals(2, this.factory.consumers.size());
+        Assert.assertEquals(1, this.connectionStringLoads.get()); // connection string is reused
+    }
+
+    @Test
+    public void testRecreateConsumerIfGroupChanged() {
+        this.pool.subscribe("$Default", Collections.singletonList("0"), EventPosition.latest(), e -> {
+        }, (p, e) -> {
+        });
+        this.pool.subscribe("group", Collections.singletonList("0"), EventPosition.latest(), e -> {
+        }, (p, e) -> {
+        });
+
+        Assert.assertEquals(Arrays.asList("$Default", "group"), this.factory.consumerGroups);
+        Mockito.verify(this.factory.consumers.get(0)).close();
+        Assert.assertEquals(2, this.factory.subscriptions.get());
+    }
+
+    @Test
+    public void testInvalidateOnlyOnAuthFailure() {
+        final EventHubProducerClient producer = this.pool.getProducer();
+        Assert.assertFalse(this.pool.invalidateOnAuthFailure(new AmqpException(true, AmqpErrorCondition.SERVER_BUSY_ERROR, "busy", null)));
+        Assert.assertSame(producer, this.pool.getProducer());
+
+        final AmqpException unauthorized = new AmqpException(false, AmqpErrorCondition.UNAUTHORIZED_ACCESS, "unauthorized", null);
+        Assert.assertTrue(this.pool.invalidateOnAuthFailure(new IllegalStateException(unauthorized)));
+        Mockito.verify(producer).close();
+        Assert.assertNotSame(producer, this.pool.getProducer());
+        Assert.assertEquals("Send-2", this.pool.getConnectionString(AccessRights.SEND));
+    }
+
+    private static class FakeClientFactory implements EventHubsClientPool.ClientFactory {
+        private final List<EventHubProducerClient> producers = new ArrayList<>();
+        private final List<EventHubConsumerAsyncClient> consumers = new ArrayList<>();
+        private final List<String> consumerGroups = new ArrayList<>();
+        private final AtomicInteger subscriptions = new AtomicInteger();
+        private final AtomicInteger cancellations = new AtomicInteger();
+
+        @Nonnull
+        @Override
+        public EventHubProducerClient buildProducerClient(@Nonnull String connectionString) {
+            final EventHubProducerClient producer = Mockito.mock(EventHubProducerClient.class);
+            this.producers.add(producer);
+            return producer;
+        }
+
+        @Nonnull
+        @Override
+        public EventHubConsumerAsyncClient buildConsumerClient(@Nonnull String connectionString, @Nonnull String consumerGroup) {
+            final EventHubConsumerAsyncClient consumer = Mockito.mock(EventHubConsumerAsyncClient.class);
+            Mockito.when(consumer.receiveFromPartition(ArgumentMatchers.anyString(), ArgumentMatchers.any(EventPosition.class)))
+                .thenAnswer(invocation -> Flux.never()
+                    .doOnSubscribe(s -> this.subscriptions.incrementAndGet())
+                    .doOnCancel(this.cancellations::incrementAndGet));
+            this.consumers.add(consumer);
+            this.consumerGroups.add(consumerGroup);
+            return consumer;
+        }
+    }
+}
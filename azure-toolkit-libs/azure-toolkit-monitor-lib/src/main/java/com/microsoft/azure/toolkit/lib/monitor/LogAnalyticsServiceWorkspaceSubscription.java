@@ -26,7 +26,7 @@ public class LogAnalyticsServiceWorkspaceSubscription extends AbstractAzServiceS
         super(subscriptionId, service);
         this.subscriptionId = subscriptionId;
         this.logAnalyticsWorkspaceModule = new LogAnalyticsWorkspaceModule(this);
-        this.logsQueryClient = new LogsQueryClientBuilder().credential(Azure.az(AzureAccount.class).account().getTokenCredential(subscriptionId)).buildClient();
+        this.logsQueryClient = new LogsQueryClientBuilder().httpClient(getDefaultHttpClient()).credential(Azure.az(AzureAccount.class).account().getTokenCredential(subscriptionId)).buildClient();
     }
 
     public LogAnalyticsWorkspaceModule logAnalyticsWorkspaces() {
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ *  Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.servicebus.model;
+
+import com.azure.core.amqp.exception.AmqpErrorCondition;
+import com.azure.core.amqp.exception.AmqpException;
+import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusFailureReason;
+import com.azure.messaging.servicebus.ServiceBusProcessorClient;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.azure.messaging.servicebus.models.ServiceBusReceiveMode;
+import com.azure.resourcemanager.servicebus.models.AccessRights;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * long-lived clients of a Service Bus queue/topic: one sender shared by all sends, and one processor which is stopped
+ * (not closed) when listening is stopped, so that it can be restarted without re-creating it. connection strings are
+ * cached per access right, and they are invalidated (together with the clients built from them) only on
+ * authorization failures.
+ */
+@Slf4j
+public class ServiceBusClientPool implements Closeable {
+    @Nonnull
+    private final Function<AccessRights, String> connectionStringLoader;
+    @Nonnull
+    private final ClientFactory factory;
+    private final Map<AccessRights, String> connectionStrings = new ConcurrentHashMap<>();
+    @Nullable
+    private ServiceBusSenderClient sender;
+    @Nullable
+    private ServiceBusProcessorClient processor;
+    @Nullable
+    private ProcessorOptions processorOptions;
+
+    public ServiceBusClientPool(@Nonnull Function<AccessRights, String> connectionStringLoader, @Nonnull ClientFactory factory) {
+        this.connectionStringLoader = connectionStringLoader;
+        this.factory = factory;
+    }
+
+    @Nonnull
+    public String getConnectionString(@Nonnull AccessRights rights) {
+        return this.connectionStrings.computeIfAbsent(rights, this.connectionStringLoader);
+    }
+
+    @Nonnull
+    public synchronized ServiceBusSenderClient getSender() {
+        if (Objects.isNull(this.sender)) {
+            this.sender = this.factory.buildSenderClient(this.getConnectionString(AccessRights.SEND));
+        }
+        return this.sender;
+    }
+
+    /**
+     * start the shared processor, which is re-created only if the {@code options} are changed.
+     */
+    public synchronized void startProcessor(@Nonnull ProcessorOptions options) {
+        if (Objects.nonNull(this.processor) && !Objects.equals(this.processorOptions, options)) {
+            this.closeProcessor();
+        }
+        if (Objects.isNull(this.processor)) {
+            this.processor = this.factory.buildProcessorClient(this.getConnectionString(AccessRights.LISTEN), options);
+            this.processorOptions = options;
+        }
+        if (!this.processor.isRunning()) {
+            this.processor.start();
+        }
+    }
+
+    public synchronized boolean isProcessing() {
+        return Objects.nonNull(this.processor) && this.processor.isRunning();
+    }
+
+    /**
+     * stop receiving messages, the processor is kept for the next {@link #startProcessor(ProcessorOptions)}.
+     */
+    public synchronized void stopProcessor() {
+        if (Objects.nonNull(this.processor)) {
+            this.processor.stop();
+        }
+    }
+
+    /**
+     * drop the cached connection strings and close all clients if {@code error} is caused by authorization failure,
+     * so that they are re-created (with the latest authorization rule) next time.
+     *
+     * @return true if invalidated.
+     */
+    public synchronized boolean invalidateOnAuthFailure(@Nonnull Throwable error) {
+        if (!isAuthFailure(error)) {
+            return false;
+        }
+        log.debug("invalidate connection strings and clients on authorization failure", error);
+        this.connectionStrings.clear();
+        this.close();
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        this.closeProcessor();
+        if (Objects.nonNull(this.sender)) {
+            this.sender.close();
+            this.sender = null;
+        }
+    }
+
+    private void closeProcessor() {
+        if (Objects.nonNull(this.processor)) {
+            this.processor.close();
+            this.processor = null;
+            this.processorOptions = null;
+        }
+    }
+
+    static boolean isAuthFailure(@Nonnull Throwable error) {
+        return ExceptionUtils.getThrowableList(error).stream().anyMatch(e ->
+            (e instanceof ServiceBusException && ((ServiceBusException) e).getReason() == ServiceBusFailureReason.UNAUTHORIZED) ||
+                (e instanceof AmqpException && ((AmqpException) e).getErrorCondition() == AmqpErrorCondition.UNAUTHORIZED_ACCESS));
+    }
+
+    public interface ClientFactory {
+        @Nonnull
+        ServiceBusSenderClient buildSenderClient(@Nonnull String connectionString);
+
+        @Nonnull
+        ServiceBusProcessorClient buildProcessorClient(@Nonnull String connectionString, @Nonnull ProcessorOptions options);
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static class ProcessorOptions {
+        private final int prefetchCount;
+        private final int maxConcurrentCalls;
+        @Nonnull
+        private final ServiceBusReceiveMode receiveMode;
+
+        @Nonnull
+        public static ProcessorOptions fromConfig() {
+            final AzureConfiguration config = Azure.az().config();
+            final ServiceBusReceiveMode mode = StringUtils.equalsIgnoreCase(config.getServiceBusReceiveMode(), ServiceBusReceiveMode.RECEIVE_AND_DELETE.name()) ?
+                ServiceBusReceiveMode.RECEIVE_AND_DELETE : ServiceBusReceiveMode.PEEK_LOCK;
+            return new ProcessorOptions(Math.max(0, config.getServiceBusPrefetchCount()), Math.max(1, config.getServiceBusMaxConcurrentCalls()), mode);
+        }
+    }
+}
@@ -13,7 +13,9 @@ import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
+import com.microsoft.azure.toolkit.lib.resource.message.BatchSender;
 import com.microsoft.azure.toolkit.lib.resource.message.ISenderReceiver;
+import com.microsoft.azure.toolkit.lib.resource.message.ReceiveBuffer;
 import com.microsoft.azure.toolkit.lib.servicebus.ServiceBusNamespace;
 
 import javax.annotation.Nonnull;
@@ -22,21 +24,45 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public abstract class ServiceBusInstance<
         T extends ServiceBusInstance<T, P, F>, P, F>
         extends AbstractAzResource<T, ServiceBusNamespace, F> implements ISenderReceiver {
     @Nullable
     protected EntityStatus entityStatus;
-    @Nullable
-    protected ServiceBusProcessorClient processorClient;
+    protected final ServiceBusClientPool clients = new ServiceBusClientPool(rights -> this.getOrCreateConnectionString(Collections.singletonList(rights)),
+        new ServiceBusClientPool.ClientFactory() {
+            @Nonnull
+            @Override
+            public ServiceBusSenderClient buildSenderClient(@Nonnull String connectionString) {
+                return ServiceBusInstance.this.buildSenderClient(connectionString);
+            }
+
+            @Nonnull
+            @Override
+            public ServiceBusProcessorClient buildProcessorClient(@Nonnull String connectionString, @Nonnull ServiceBusClientPool.ProcessorOptions options) {
+                return ServiceBusInstance.this.buildProcessorClient(connectionString, options);
+            }
+        });
     @Nullable
     protected IAzureMessager messager;
+    @Nullable
+    private ReceiveBuffer receiveBuffer;
 
     protected ServiceBusInstance(@Nonnull String name, @Nonnull AbstractAzResourceModule<T, ServiceBusNamespace, F> module) {
         super(name, module);
     }
 
+    @Override
+    protected void updateAdditionalProperties(@Nullable F newRemote, @Nullable F oldRemote) {
+        super.updateAdditionalProperties(newRemote, oldRemote);
+        if (Objects.isNull(newRemote)) {
+            this.clients.close();
+        }
+    }
+
     @Nonnull
     @Override
     public List<AbstractAzResourceModule<?, ?, ?>> getSubModules() {
@@ -44,7 +70,7 @@ public abstract class ServiceBusInstance<
     }
 
     public String getOrCreateListenConnectionString() {
-        return getOrCreateConnectionString(Collections.singletonList(AccessRights.LISTEN));
+        return this.clients.getConnectionString(AccessRights.LISTEN);
     }
     protected abstract String getOrCreateConnectionString(List<AccessRights> accessRights);
 
@@ -58,9 +84,70 @@ public abstract class ServiceBusInstance<
     public abstract void sendMessage(String message);
     @Override
     public abstract void startReceivingMessage();
+    @Nonnull
+    protected abstract ServiceBusSenderClient buildSenderClient(@Nonnull String connectionString);
+    @Nonnull
+    protected abstract ServiceBusProcessorClient buildProcessorClient(@Nonnull String connectionString, @Nonnull ServiceBusClientPool.ProcessorOptions options);
+
+    /**
+     * run {@code send} with the shared sender, and retry once with the latest authorization rule on authorization failure.
+     */
+    protected <R> R doWithSender(@Nonnull Function<ServiceBusSenderClient, R> send) {
+        try {
+            return send.apply(this.clients.getSender());
+        } catch (final RuntimeException e) {
+            if (!this.clients.invalidateOnAuthFailure(e)) {
+                throw e;
+            }
+            return send.apply(this.clients.getSender());
+        }
+    }
+
+    @Override
+    public BatchSender.Report sendMessages(@Nonnull Stream<String> messages, @Nullable Function<String, String> partitionKey) {
+        final String target = String.format("%s (%s)", getResourceTypeName(), getName());
+        final ServiceBusSenderClient senderClient = this.clients.getSender();
+        try {
+            return new BatchSender<>(target, new BatchSender.BatchClient<ServiceBusMessageBatch>() {
+                @Nonnull
+                @Override
+                public ServiceBusMessageBatch createBatch(@Nullable String key) {
+                    return senderClient.createMessageBatch();
+                }
+
+                @Override
+                public boolean tryAdd(@Nonnull ServiceBusMessageBatch batch, @Nonnull String message, @Nullable String key) {
+                    return batch.tryAddMessage(new ServiceBusMessage(message).setPartitionKey(key));
+                }
+
+                @Override
+                public int getCount(@Nonnull ServiceBusMessageBatch batch) {
+                    return batch.getCount();
+                }
+
+                @Override
+                public long getSizeInBytes(@Nonnull ServiceBusMessageBatch batch) {
+                    return batch.getSizeInBytes();
+                }
+
+                @Override
+                public long getMaxSizeInBytes(@Nonnull ServiceBusMessageBatch batch) {
+                    return batch.getMaxSizeInBytes();
+                }
+
+                @Override
+                public void send(@Nonnull ServiceBusMessageBatch batch) {
+                    senderClient.sendMessages(batch);
+                }
+            }).send(messages, partitionKey);
+        } catch (final RuntimeException e) {
+            this.clients.invalidateOnAuthFailure(e);
+            throw e;
+        }
+    }
     @Override
     public boolean isListening() {
-        return Objects.nonNull(this.processorClient);
+        return this.clients.isProcessing();
     }
 
     @Override
@@ -70,20 +157,31 @@ public abstract class ServiceBusInstance<
 
     @Override
     public synchronized void stopReceivingMessage() {
-        Optional.ofNullable(processorClient).ifPresent(c -> {
-            c.close();
+        Optional.ofNullable(this.receiveBuffer).ifPresent(ReceiveBuffer::close);
+        if (this.clients.isProcessing()) {
+            this.clients.stopProcessor();
             Optional.ofNullable(messager).orElse(AzureMessager.getMessager())
                     .info(AzureString.format("Stop listening to {0} ({1})\n", getResourceTypeName(), getName()));
-        });
-        this.processorClient = null;
+        }
+    }
+    /**
+     * open the buffer for displaying received messages, it's closed when listening is stopped.
+     */
+    protected synchronized void openReceiveBuffer(@Nonnull IAzureMessager messager) {
+        if (Objects.isNull(this.receiveBuffer) || this.receiveBuffer.isClosed()) {
+            this.receiveBuffer = ReceiveBuffer.fromConfig(String.format("%s (%s)", getResourceTypeName(), getName()), messager);
+        }
     }
+
     protected void processMessage(ServiceBusReceivedMessageContext context) {
-        ServiceBusReceivedMessage message = context.getMessage();
-        Optional.ofNullable(messager).orElse(AzureMessager.getMessager())
-                .info(AzureString.format("Message received. Session: %s, Sequence #: %s. Contents: ",
-                        message.getMessageId(), message.getSequenceNumber()));
-        Optional.ofNullable(messager).orElse(AzureMessager.getMessager())
-                .debug(AzureString.format("\"%s\"\n",message.getBody()));
+        final ServiceBusReceivedMessage message = context.getMessage();
+        final ReceiveBuffer buffer = this.receiveBuffer;
+        if (Objects.isNull(buffer)) {
+            return;
+        }
+        // blocks the processor (backpressure) or drops the message if the buffer is full.
+        buffer.offer(String.format("Message received. Session: %s, Sequence #: %s. Contents: ", message.getMessageId(), message.getSequenceNumber()),
+                String.valueOf(message.getBody()));
     }
     protected void processError(ServiceBusErrorContext context) {
         final IAzureMessager messager = AzureMessager.getMessager();
@@ -110,6 +208,7 @@ public abstract class ServiceBusInstance<
                     reason, context.getException()));
         }
         stopReceivingMessage();
+        this.clients.invalidateOnAuthFailure(exception); // re-create clients with the latest authorization rule next time.
     }
 
 }
@@ -21,6 +21,7 @@ import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
 import com.microsoft.azure.toolkit.lib.servicebus.ServiceBusNamespace;
+import com.microsoft.azure.toolkit.lib.servicebus.model.ServiceBusClientPool;
 import com.microsoft.azure.toolkit.lib.servicebus.model.ServiceBusInstance;
 import org.apache.commons.lang3.StringUtils;
 
@@ -64,12 +65,11 @@ public class ServiceBusQueue extends ServiceBusInstance<ServiceBusQueue, Service
     public void sendMessage(String message) {
         final IAzureMessager messager = AzureMessager.getMessager();
         messager.info(AzureString.format("Sending message to Service Bus Queue (%s)...\n", getName()));
-        try (final ServiceBusSenderClient senderClient = new ServiceBusClientBuilder()
-                .connectionString(getOrCreateConnectionString(Collections.singletonList(AccessRights.SEND)))
-                .sender()
-                .queueName(getName())
-                .buildClient()) {
-            senderClient.sendMessage(new ServiceBusMessage(message));
+        try {
+            this.doWithSender(senderClient -> {
+                senderClient.sendMessage(new ServiceBusMessage(message));
+                return null;
+            });
             messager.info("Successfully sent message ");
             messager.success(AzureString.format("\"%s\"", message));
             messager.info(AzureString.format(" to Service Bus Queue (%s)\n", getName()));
@@ -78,20 +78,40 @@ public class ServiceBusQueue extends ServiceBusInstance<ServiceBusQueue, Service
         }
     }
 
+    @Nonnull
+    @Override
+    protected ServiceBusSenderClient buildSenderClient(@Nonnull String connectionString) {
+        return new ServiceBusClientBuilder()
+                .connectionString(connectionString)
+                .sender()
+                .queueName(getName())
+                .buildClient();
+    }
+
     @Override
     public synchronized void startReceivingMessage() {
         messager = AzureMessager.getMessager();
         messager.info(AzureString.format("Start listening to Service Bus Queue ({0})\n", getName()));
-        this.processorClient = new ServiceBusClientBuilder()
-                .connectionString(getOrCreateConnectionString(Collections.singletonList(AccessRights.LISTEN)))
+        this.openReceiveBuffer(messager);
+        this.clients.startProcessor(ServiceBusClientPool.ProcessorOptions.fromConfig());
+    }
+
+    @Nonnull
+    @Override
+    protected ServiceBusProcessorClient buildProcessorClient(@Nonnull String connectionString, @Nonnull ServiceBusClientPool.ProcessorOptions options) {
+        final ServiceBusClientBuilder.ServiceBusProcessorClientBuilder builder = new ServiceBusClientBuilder()
+                .connectionString(connectionString)
                 .processor()
                 .queueName(getName())
-                .receiveMode(ServiceBusReceiveMode.PEEK_LOCK)
+                .receiveMode(options.getReceiveMode())
+                .prefetchCount(options.getPrefetchCount())
+                .maxConcurrentCalls(options.getMaxConcurrentCalls())
                 .processMessage(this::processMessage)
-                .processError(this::processError)
-                .disableAutoComplete()  // Complete - causes the message to be deleted from the queue or topic.
-                .buildProcessorClient();
-        processorClient.start();
+                .processError(this::processError);
+        if (options.getReceiveMode() == ServiceBusReceiveMode.PEEK_LOCK) {
+            builder.disableAutoComplete();  // Complete - causes the message to be deleted from the queue or topic.
+        }
+        return builder.buildProcessorClient();
     }
 
     @Override
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.servicebus.model;
+
+import com.azure.core.amqp.exception.AmqpErrorCondition;
+import com.azure.core.amqp.exception.AmqpException;
+import com.azure.messaging.servicebus.ServiceBusErrorSource;
+import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusProcessorClient;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.azure.messaging.servicebus.models.ServiceBusReceiveMode;
+import com.azure.resourcemanager.servicebus.models.AccessRights;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceBusClientPoolTest {
+    private static final ServiceBusClientPool.ProcessorOptions PEEK_LOCK = new ServiceBusClientPool.ProcessorOptions(0, 1, ServiceBusReceiveMode.PEEK_LOCK);
+    private final AtomicInteger connectionStringLoads = new AtomicInteger();
+    private FakeClientFactory factory;
+    private ServiceBusClientPool pool;
+
+    @Before
+    public void setUp() {
+        this.factory = new FakeClientFactory();
+        this.pool = new ServiceBusClientPool(rights -> rights + "-" + this.connectionStringLoads.incrementAndGet(), this.factory);
+    }
+
+    @Test
+    public void testShareSender() {
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(this.pool.getSender(), this.pool.getSender());
+        }
+        Assert.assertEquals(1, this.factory.senders.size());
+        Assert.assertEquals(1, this.connectionStringLoads.get());
+        Assert.assertEquals(AccessRights.SEND + "-1", this.pool.getConnectionString(AccessRights.SEND));
+
+        this.pool.close();
+        Mockito.verify(this.factory.senders.get(0)).close();
+    }
+
+    @Test
+    public void testRestartProcessor() {
+        this.pool.startProcessor(PEEK_LOCK);
+        Assert.assertTrue(this.pool.isProcessing());
+        this.pool.stopProcessor();
+        Assert.assertFalse(this.pool.isProcessing());
+        this.pool.startProcessor(new ServiceBusClientPool.ProcessorOptions(0, 1, ServiceBusReceiveMode.PEEK_LOCK));
+        Assert.assertTrue(this.pool.isProcessing());
+
+        // the stopped processor is restarted rather than re-created.
+        Assert.assertEquals(1, this.factory.processors.size());
+        Mockito.verify(this.factory.processors.get(0), Mockito.times(2)).start();
+        Mockito.verify(this.factory.processors.get(0), Mockito.never()).close();
+        Assert.assertEquals(1, this.connectionStringLoads.get());
+    }
+
+    @Test
+    public void testRecreateProcessorIfOptionsChanged() {
+        this.pool.startProcessor(PEEK_LOCK);
+        final ServiceBusClientPool.ProcessorOptions options = new ServiceBusClientPool.ProcessorOptions(50, 8, ServiceBusReceiveMode.RECEIVE_AND_DELETE);
+        this.pool.startProcessor(options);
+
+        Assert.assertEquals(2, this.factory.processors.size());
+        Mockito.verify(this.factory.processors.get(0)).close();
+        Assert.assertEquals(options, this.factory.options.get(1));
+    }
+
+    @Test
+    public void testInvalidateOnlyOnAuthFailure() {
+        final ServiceBusSenderClient sender = this.pool.getSender();
+        Assert.assertFalse(this.pool.invalidateOnAuthFailure(new ServiceBusException(new IllegalStateException("busy"), ServiceBusErrorSource.SEND)));
+        Assert.assertSame(sender, this.pool.getSender());
+
+        final ServiceBusException unauthorized = new ServiceBusException(new AmqpException(false,
+            AmqpErrorCondition.UNAUTHORIZED_ACCESS, "unauthorized", null), ServiceBusErrorSource.SEND);
+        Assert.assertTrue(this.pool.invalidateOnAuthFailure(unauthorized));
+        Mockito.verify(sender).close();
+        Assert.assertNotSame(sender, this.pool.getSender());
+        Assert.assertEquals(AccessRights.SEND + "-2", this.pool.getConnectionString(AccessRights.SEND));
+    }
+
+    private static class FakeClientFactory implements ServiceBusClientPool.ClientFactory {
+        private final List<ServiceBusSenderClient> senders = new ArrayList<>();
+        private final List<ServiceBusProcessorClient> processors = new ArrayList<>();
+        private final List<ServiceBusClientPool.ProcessorOptions> options = new ArrayList<>();
+
+        @Nonnull
+        @Override
+        public ServiceBusSenderClient buildSenderClient(@Nonnull String connectionString) {
+            final ServiceBusSenderClient sender = Mockito.mock(ServiceBusSenderClient.class);
+            this.senders.add(sender);
+            return sender;
+        }
+
+        @Nonnull
+        @Override
+        public ServiceBusProcessorClient buildProcessorClient(@Nonnull String connectionString, @Nonnull ServiceBusClientPool.ProcessorOptions options) {
+            final ServiceBusProcessorClient processor = Mockito.mock(ServiceBusProcessorClient.class);
+            final AtomicBoolean running = new AtomicBoolean();
+            Mockito.doAnswer(i -> {
+                running.set(true);
+                return null;
+            }).when(processor).start();
+            Mockito.doAnswer(i -> {
+                running.set(false);
+                return null;
+            }).when(processor).stop();
+            Mockito.when(processor.isRunning()).thenAnswer(i -> running.get());
+            this.processors.add(processor);
+            this.options.add(options);
+            return processor;
+        }
+    }
+}
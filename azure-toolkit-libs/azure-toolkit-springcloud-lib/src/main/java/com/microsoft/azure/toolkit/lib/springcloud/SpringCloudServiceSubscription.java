@@ -9,17 +9,24 @@ import com.azure.core.management.Region;
 import com.azure.resourcemanager.appplatform.AppPlatformManager;
 import com.azure.resourcemanager.appplatform.models.NameAvailability;
 import com.azure.resourcemanager.appplatform.models.NameAvailabilityParameters;
-import com.azure.resourcemanager.appplatform.models.ResourceSku;
 import com.azure.resourcemanager.appplatform.models.RuntimeVersion;
 import com.azure.resourcemanager.appplatform.models.SupportedRuntimePlatform;
 import com.azure.resourcemanager.appplatform.models.SupportedRuntimeVersion;
 import com.azure.resourcemanager.resources.ResourceManager;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.auth.AzureCloud;
+import com.microsoft.azure.toolkit.lib.auth.AzureEnvironmentUtils;
+import com.microsoft.azure.toolkit.lib.common.cache.MetadataCache;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.utils.Utils;
 import com.microsoft.azure.toolkit.lib.springcloud.model.Sku;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
@@ -33,6 +40,8 @@ import java.util.stream.Stream;
 
 @Getter
 public class SpringCloudServiceSubscription extends AbstractAzServiceSubscription<SpringCloudServiceSubscription, AppPlatformManager> {
+    private static final MetadataCache<List<SkuLocations>> SKUS = new MetadataCache<>("springcloud-skus", 1, new TypeReference<List<SkuLocations>>() {
+    });
     @Nonnull
     private final String subscriptionId;
     @Nonnull
@@ -70,13 +79,12 @@ public class SpringCloudServiceSubscription extends AbstractAzServiceSubscriptio
 
     @Nonnull
     public List<Sku> listSupportedSkus(@Nullable Region region) {
-        Stream<ResourceSku> skus = Objects.requireNonNull(this.getRemote()).serviceClient().getSkus().list().stream();
+        Stream<SkuLocations> skus = this.listSkuLocations().stream();
         if (Objects.nonNull(region)) {
-            skus = skus.filter(s -> s.locations().contains(region.name()));
+            skus = skus.filter(s -> s.getLocations().contains(region.name()));
         }
         return skus
-            .filter(s -> s.resourceType().equalsIgnoreCase("Spring"))
-            .map(sku -> new Sku(sku.name(), sku.tier()))
+            .map(sku -> new Sku(sku.getName(), sku.getTier()))
             .distinct()
             .sorted(Comparator.comparing(Sku::getOrdinal))
             .collect(Collectors.toList());
@@ -84,16 +92,29 @@ public class SpringCloudServiceSubscription extends AbstractAzServiceSubscriptio
 
     @Nonnull
     public List<Region> listSupportedRegions(@Nullable Sku sku) {
-        Stream<ResourceSku> skus = Objects.requireNonNull(this.getRemote()).serviceClient().getSkus().list().stream();
+        Stream<SkuLocations> skus = this.listSkuLocations().stream();
         if (Objects.nonNull(sku)) {
-            skus = skus.filter(s -> StringUtils.equalsIgnoreCase(sku.getName(), s.name()) && StringUtils.equalsIgnoreCase(sku.getTier(), s.tier()));
+            skus = skus.filter(s -> StringUtils.equalsIgnoreCase(sku.getName(), s.getName()) && StringUtils.equalsIgnoreCase(sku.getTier(), s.getTier()));
         }
-        return skus.flatMap(s -> s.locations().stream().map(Region::fromName))
+        return skus.flatMap(s -> s.getLocations().stream().map(Region::fromName))
             .filter(Utils.distinctByKey(Region::name))
             .sorted(Comparator.comparing(Region::label))
             .collect(Collectors.toList());
     }
 
+    /**
+     * skus of `Spring` resource type and their locations, which are persisted by {@link MetadataCache} and fall back to
+     * the bundled snapshot of current cloud if offline.
+     */
+    @Nonnull
+    private List<SkuLocations> listSkuLocations() {
+        final String cloud = AzureEnvironmentUtils.getCloudName(Azure.az(AzureCloud.class).getOrDefault());
+        return SKUS.get(this.subscriptionId, cloud, () -> Objects.requireNonNull(this.getRemote()).serviceClient().getSkus().list().stream()
+            .filter(s -> s.resourceType().equalsIgnoreCase("Spring"))
+            .map(s -> new SkuLocations(s.name(), s.tier(), s.locations()))
+            .collect(Collectors.toList()));
+    }
+
     @Nonnull
     @AzureOperation(name = "azure/springcloud.check_name.name", params = "name")
     public NameAvailability checkNameAvailability(Region region, String name) {
@@ -106,5 +127,13 @@ public class SpringCloudServiceSubscription extends AbstractAzServiceSubscriptio
     public ResourceManager getResourceManager() {
         return Objects.requireNonNull(this.getRemote()).resourceManager();
     }
-}
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class SkuLocations {
+        private String name;
+        private String tier;
+        private List<String> locations;
+    }
+}
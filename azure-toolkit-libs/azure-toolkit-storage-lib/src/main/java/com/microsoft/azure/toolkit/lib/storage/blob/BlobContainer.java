@@ -8,6 +8,7 @@ package com.microsoft.azure.toolkit.lib.storage.blob;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.models.BlobContainerProperties;
 import com.azure.storage.blob.specialized.BlobClientBase;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractEmulatableAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
@@ -91,6 +92,21 @@ public class BlobContainer extends AbstractEmulatableAzResource<BlobContainer, S
         return Optional.ofNullable(this.getClient()).map(BlobContainerClient::getBlobContainerUrl).orElse("");
     }
 
+    /**
+     * mirror {@code localDirectory} to blobs under {@code prefix} of this container or the other way around, only the
+     * differences are transferred.
+     *
+     * @param deleteExtras delete files/blobs that exist only in the target
+     * @param dryRun       only report the differences without changing anything
+     */
+    @Nonnull
+    public BlobSync.Report sync(@Nonnull Path localDirectory, @Nonnull String prefix, @Nonnull BlobSync.Direction direction,
+                                boolean deleteExtras, boolean dryRun) {
+        final BlobContainerClient client = Optional.ofNullable(this.getClient())
+            .orElseThrow(() -> new AzureToolkitRuntimeException(String.format("Blob Container (%s) doesn't exist.", this.getName())));
+        return new BlobSync(client, localDirectory, prefix, direction, deleteExtras).execute(dryRun);
+    }
+
     @Override
     public void download(OutputStream output) {
     }
@@ -10,6 +10,7 @@ import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractEmulatableAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
@@ -40,7 +41,8 @@ public class BlobContainerModule extends AbstractEmulatableAzResourceModule<Blob
     synchronized BlobServiceClient getBlobServiceClient() {
         if (Objects.isNull(this.client) && this.parent.exists()) {
             final String connectionString = this.parent.getConnectionString();
-            this.client = new BlobServiceClientBuilder().connectionString(connectionString).buildClient();
+            this.client = new BlobServiceClientBuilder().httpClient(AbstractAzServiceSubscription.getDefaultHttpClient())
+                .connectionString(connectionString).buildClient();
         }
         return this.client;
     }
@@ -5,13 +5,18 @@
 
 package com.microsoft.azure.toolkit.lib.storage.blob;
 
+import com.azure.core.util.Context;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobItemProperties;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
 import com.azure.storage.blob.specialized.BlobClientBase;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractEmulatableAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
+import com.microsoft.azure.toolkit.lib.storage.model.RangedDownload;
 import lombok.Getter;
 import org.apache.commons.lang3.BooleanUtils;
 
@@ -88,7 +93,13 @@ public class BlobFile extends AbstractEmulatableAzResource<BlobFile, IBlobFile,
 
     @Override
     public void download(Path dest) {
-        Optional.ofNullable(this.getClient()).map(c -> c.getBlobClient(this.getPath())).ifPresent(client -> client.downloadToFile(dest.toAbsolutePath().toString()));
+        Optional.ofNullable(this.getClient()).map(c -> c.getBlobClient(this.getPath())).ifPresent(client -> {
+            final BlobProperties properties = client.getProperties();
+            // fail the ranges if the blob is changed during downloading.
+            final BlobRequestConditions conditions = new BlobRequestConditions().setIfMatch(properties.getETag());
+            new RangedDownload(dest, properties.getBlobSize(), properties.getETag(), properties.getContentMd5(), (offset, count, output) ->
+                client.downloadStreamWithResponse(output, new BlobRange(offset, count), null, conditions, false, null, Context.NONE)).execute();
+        });
     }
 
     @Override
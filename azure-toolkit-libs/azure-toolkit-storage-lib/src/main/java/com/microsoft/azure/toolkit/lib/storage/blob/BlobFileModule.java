@@ -5,7 +5,6 @@
 
 package com.microsoft.azure.toolkit.lib.storage.blob;
 
-import com.azure.core.http.rest.PagedIterable;
 import com.azure.core.util.paging.ContinuablePage;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.models.BlobItem;
@@ -22,7 +21,6 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 public class BlobFileModule extends AbstractEmulatableAzResourceModule<BlobFile, IBlobFile, BlobItem> {
 
@@ -49,10 +47,7 @@ public class BlobFileModule extends AbstractEmulatableAzResourceModule<BlobFile,
     @Nullable
     @Override
     protected BlobItem loadResourceFromAzure(@Nonnull String name, @Nullable String resourceGroup) {
-        final Stream<BlobItem> resources = Optional.ofNullable(this.getClient()).map(c -> c.listBlobsByHierarchy(this.parent.getPath())).map(PagedIterable::stream).orElse(Stream.empty());
-        return resources
-            .filter(r -> Objects.equals(Paths.get(r.getName()).getFileName().toString(), name))
-            .findAny().orElse(null);
+        return Optional.ofNullable(this.getClient()).map(c -> BlobFiles.load(c, this.parent.getPath(), name)).orElse(null);
     }
 
     @Override
@@ -61,29 +56,13 @@ public class BlobFileModule extends AbstractEmulatableAzResourceModule<BlobFile,
         final BlobFile file = this.get(resourceId);
         if (file != null) {
             if (BooleanUtils.isTrue(file.isDirectory())) {
-                deleteDirectory(Objects.requireNonNull(file.getRemote()));
+                Optional.ofNullable(this.getClient()).ifPresent(c -> BlobFiles.deleteDirectory(c, Objects.requireNonNull(file.getRemote()).getName()));
             } else {
                 Optional.ofNullable(this.getClient()).map(c -> c.getBlobClient(file.getPath())).ifPresent(BlobClientBase::delete);
             }
         }
     }
 
-    private void deleteDirectory(BlobItem current) {
-        final BlobContainerClient containerClient = this.getClient();
-        if (Objects.isNull(containerClient)) {
-            return;
-        }
-        final PagedIterable<BlobItem> files = containerClient.listBlobsByHierarchy(current.getName());
-        for (BlobItem file : files) {
-            if (BooleanUtils.isTrue(file.isPrefix())) {
-                deleteDirectory(file);
-            } else {
-                containerClient.getBlobClient(file.getName()).deleteIfExists();
-            }
-        }
-        containerClient.getBlobClient(current.getName()).deleteIfExists();
-    }
-
     @Nonnull
     @Override
     protected AzResource.Draft<BlobFile, BlobItem> newDraftForCreate(@Nonnull String name, @Nullable String rgName) {
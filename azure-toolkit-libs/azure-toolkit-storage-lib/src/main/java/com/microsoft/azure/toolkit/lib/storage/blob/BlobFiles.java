@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.blob;
+
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobItemProperties;
+import com.azure.storage.blob.models.BlobListDetails;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import com.microsoft.azure.toolkit.lib.storage.model.BulkOperation;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * operations on blobs and virtual directories of a container, which are used by {@link BlobFileModule}.
+ */
+final class BlobFiles {
+    private static final int DELETE_BATCH_SIZE = 256;
+
+    private BlobFiles() {
+    }
+
+    /**
+     * looks up a blob or a virtual directory named {@code name} directly under {@code parentPath} without listing its siblings.
+     */
+    @Nullable
+    static BlobItem load(@Nonnull BlobContainerClient client, @Nonnull String parentPath, @Nonnull String name) {
+        if (StringUtils.isBlank(name) || name.contains("/")) { // ambiguous name, fall back to filter all the children.
+            return loadFromChildren(client, parentPath, name);
+        }
+        final String path = StringUtils.isEmpty(parentPath) || parentPath.endsWith("/") ? parentPath + name : parentPath + "/" + name;
+        // a blob is preferred if it has the same name with a virtual directory, which is consistent with the listing.
+        final BlobItem file = loadFile(client, path);
+        if (Objects.nonNull(file)) {
+            return file;
+        }
+        final ListBlobsOptions options = new ListBlobsOptions().setPrefix(path + "/").setMaxResultsPerPage(1);
+        final PagedResponse<BlobItem> page = client.listBlobsByHierarchy("/", options, null).iterableByPage().iterator().next();
+        if (!page.getValue().isEmpty()) {
+            return new BlobItem().setName(path + "/").setIsPrefix(true);
+        }
+        // an empty page with continuation token doesn't mean there is no blob under the prefix.
+        return Objects.isNull(page.getContinuationToken()) ? null : loadFromChildren(client, parentPath, name);
+    }
+
+    @Nullable
+    private static BlobItem loadFile(@Nonnull BlobContainerClient client, @Nonnull String path) {
+        try {
+            final BlobProperties properties = client.getBlobClient(path).getProperties();
+            return new BlobItem().setName(path).setIsPrefix(false).setProperties(new BlobItemProperties()
+                .setContentLength(properties.getBlobSize())
+                .setContentType(properties.getContentType())
+                .setContentMd5(properties.getContentMd5())
+                .setETag(properties.getETag())
+                .setCreationTime(properties.getCreationTime())
+                .setLastModified(properties.getLastModified())
+                .setBlobType(properties.getBlobType())
+                .setAccessTier(properties.getAccessTier()));
+        } catch (final BlobStorageException e) {
+            if (e.getStatusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    @Nullable
+    private static BlobItem loadFromChildren(@Nonnull BlobContainerClient client, @Nonnull String parentPath, @Nonnull String name) {
+        return client.listBlobsByHierarchy(parentPath).stream()
+            .filter(r -> Objects.equals(Paths.get(r.getName()).getFileName().toString(), name))
+            .findAny().orElse(null);
+    }
+
+    /**
+     * enumerates blobs under the directory by flat prefix page by page, and deletes each page concurrently.
+     * directories of hierarchical namespace (marked by metadata `hdi_isfolder`) can only be deleted once empty,
+     * so they are deleted at last, deepest first.
+     */
+    static void deleteDirectory(@Nonnull BlobContainerClient client, @Nonnull String directory) {
+        final String prefix = StringUtils.appendIfMissing(directory, "/");
+        final ListBlobsOptions options = new ListBlobsOptions().setPrefix(prefix).setMaxResultsPerPage(DELETE_BATCH_SIZE)
+            .setDetails(new BlobListDetails().setRetrieveMetadata(true));
+        final BulkOperation<String> deleteBlobs = new BulkOperation<>(String.format("delete blobs under \"%s\"", prefix),
+            name -> client.getBlobClient(name).deleteIfExists());
+        final List<BlobItem> folders = new ArrayList<>();
+        for (final PagedResponse<BlobItem> page : client.listBlobs(options, null).iterableByPage()) {
+            final Map<Boolean, List<BlobItem>> items = page.getValue().stream().collect(Collectors.partitioningBy(BlobFiles::isFolder));
+            folders.addAll(items.get(true));
+            deleteBlobs.execute(items.get(false).stream().map(BlobItem::getName).collect(Collectors.toList()));
+        }
+        deleteBlobs.complete();
+        final BulkOperation<String> deleteFolders = new BulkOperation<>(String.format("delete directories under \"%s\"", prefix),
+            name -> client.getBlobClient(name).deleteIfExists());
+        folders.stream().map(BlobItem::getName).collect(Collectors.groupingBy(n -> StringUtils.countMatches(StringUtils.removeEnd(n, "/"), '/')))
+            .entrySet().stream().sorted(Map.Entry.<Integer, List<String>>comparingByKey().reversed())
+            .forEach(e -> deleteFolders.execute(e.getValue()));
+        deleteFolders.complete();
+        client.getBlobClient(directory).deleteIfExists();
+    }
+
+    private static boolean isFolder(@Nonnull BlobItem item) {
+        return Optional.ofNullable(item.getMetadata()).map(m -> m.get("hdi_isfolder")).map(Boolean::parseBoolean).orElse(false);
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.blob;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobListDetails;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.options.BlobUploadFromFileOptions;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import com.microsoft.azure.toolkit.lib.storage.model.BulkOperation;
+import com.microsoft.azure.toolkit.lib.storage.model.RangedDownload;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * mirrors a local directory to blobs under a prefix of a container ({@link Direction#UPLOAD}), or the other way around
+ * ({@link Direction#DOWNLOAD}). only the files that differ are transferred:
+ * <ul>
+ *     <li>files of different sizes are always transferred.</li>
+ *     <li>files of the same size are considered unchanged if the target is not older than the source.</li>
+ *     <li>otherwise, they are compared by MD5 if the blob has one.</li>
+ * </ul>
+ */
+@RequiredArgsConstructor
+public class BlobSync {
+    @Nonnull
+    private final BlobContainerClient client;
+    @Nonnull
+    private final Path localDirectory;
+    @Nonnull
+    private final String prefix;
+    @Nonnull
+    private final Direction direction;
+    /**
+     * delete files/blobs that exist only in the target.
+     */
+    private final boolean deleteExtras;
+
+    /**
+     * @param dryRun only compute and report the differences without changing anything.
+     */
+    @Nonnull
+    public Report execute(boolean dryRun) {
+        final String normalizedPrefix = StringUtils.isEmpty(this.prefix) ? "" : StringUtils.appendIfMissing(this.prefix, "/");
+        final Report report = plan(this.listLocalFiles(), this.listBlobs(normalizedPrefix), this.direction, this.deleteExtras);
+        final IAzureMessager messager = AzureMessager.getMessager();
+        if (dryRun) {
+            messager.info(AzureString.format("[Dry run] %s", report));
+            report.getTransfers().forEach(p -> messager.info(AzureString.format("[Dry run] %s \"%s\"", this.direction.name().toLowerCase(), p)));
+            report.getDeletions().forEach(p -> messager.info(AzureString.format("[Dry run] delete \"%s\"", p)));
+            return report;
+        }
+        final String target = this.direction == Direction.UPLOAD ? "container \"" + this.client.getBlobContainerName() + "\"" : "\"" + this.localDirectory + "\"";
+        final BulkOperation<String> transfer = new BulkOperation<>(String.format("%s files to %s", this.direction.name().toLowerCase(), target),
+            this.direction == Direction.UPLOAD ? p -> this.upload(p, normalizedPrefix + p) : p -> this.download(normalizedPrefix + p, p));
+        transfer.execute(report.getTransfers());
+        final BulkOperation<String> delete = new BulkOperation<>(String.format("delete extra files of %s", target),
+            this.direction == Direction.UPLOAD ? p -> this.client.getBlobClient(normalizedPrefix + p).deleteIfExists() : this::deleteLocal);
+        delete.execute(report.getDeletions());
+        messager.info(AzureString.format("%s", report));
+        transfer.complete();
+        delete.complete();
+        return report;
+    }
+
+    /**
+     * compare entries of the local directory and the container (keyed by path relative to the directory/prefix,
+     * separated by '/') and compute what to transfer and what to delete.
+     */
+    @Nonnull
+    static Report plan(@Nonnull Map<String, Entry> local, @Nonnull Map<String, Entry> remote, @Nonnull Direction direction, boolean deleteExtras) {
+        final Map<String, Entry> sources = direction == Direction.UPLOAD ? local : remote;
+        final Map<String, Entry> targets = direction == Direction.UPLOAD ? remote : local;
+        final List<String> transfers = new ArrayList<>();
+        int unchanged = 0;
+        for (final Map.Entry<String, Entry> e : new TreeMap<>(sources).entrySet()) {
+            final Entry source = e.getValue();
+            final Entry target = targets.get(e.getKey());
+            if (Objects.isNull(target) || isChanged(source, target)) {
+                transfers.add(e.getKey());
+            } else {
+                unchanged++;
+            }
+        }
+        final List<String> deletions = deleteExtras ? new ArrayList<>(new TreeSet<>(targets.keySet())) : new ArrayList<>();
+        deletions.removeAll(sources.keySet());
+        return new Report(direction, transfers, deletions, unchanged);
+    }
+
+    private static boolean isChanged(@Nonnull Entry source, @Nonnull Entry target) {
+        if (source.getSize() != target.getSize()) {
+            return true;
+        }
+        if (Objects.nonNull(source.getLastModified()) && Objects.nonNull(target.getLastModified()) && !target.getLastModified().isBefore(source.getLastModified())) {
+            return false;
+        }
+        final byte[] sourceMd5 = source.getMd5().get();
+        final byte[] targetMd5 = target.getMd5().get();
+        if (ArrayUtils.isEmpty(sourceMd5) || ArrayUtils.isEmpty(targetMd5)) {
+            return true;
+        }
+        return !Arrays.equals(sourceMd5, targetMd5);
+    }
+
+    @Nonnull
+    private Map<String, Entry> listLocalFiles() {
+        final Map<String, Entry> result = new TreeMap<>();
+        if (!Files.isDirectory(this.localDirectory)) {
+            return result;
+        }
+        try (Stream<Path> files = Files.walk(this.localDirectory)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                final String relative = this.localDirectory.relativize(file).toString().replace(File.separatorChar, '/');
+                try {
+                    result.put(relative, new Entry(Files.size(file), Files.getLastModifiedTime(file).toInstant(), () -> md5(file)));
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (final IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to list files in \"%s\"", this.localDirectory), e);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private Map<String, Entry> listBlobs(@Nonnull String normalizedPrefix) {
+        final ListBlobsOptions options = new ListBlobsOptions().setPrefix(normalizedPrefix).setDetails(new BlobListDetails().setRetrieveMetadata(true));
+        final Map<String, Entry> result = new TreeMap<>();
+        for (final BlobItem item : this.client.listBlobs(options, null)) {
+            final boolean isFolder = item.getName().endsWith("/") || Optional.ofNullable(item.getMetadata())
+                .map(m -> m.get("hdi_isfolder")).map(Boolean::parseBoolean).orElse(false);
+            if (!isFolder) {
+                final Instant lastModified = Optional.ofNullable(item.getProperties().getLastModified()).map(OffsetDateTime::toInstant).orElse(null);
+                final byte[] md5 = item.getProperties().getContentMd5();
+                result.put(item.getName().substring(normalizedPrefix.length()),
+                    new Entry(item.getProperties().getContentLength(), lastModified, () -> md5));
+            }
+        }
+        return result;
+    }
+
+    private void upload(@Nonnull String relativePath, @Nonnull String blobName) {
+        final Path file = this.resolveLocal(relativePath);
+        // set MD5 explicitly since it's not computed by service for blobs uploaded in blocks, next sync relies on it.
+        final BlobHttpHeaders headers = new BlobHttpHeaders().setContentMd5(md5(file));
+        this.client.getBlobClient(blobName).uploadFromFileWithResponse(new BlobUploadFromFileOptions(file.toString()).setHeaders(headers), null, Context.NONE);
+    }
+
+    private void download(@Nonnull String blobName, @Nonnull String relativePath) {
+        final Path file = this.resolveLocal(relativePath);
+        final BlobClient blob = this.client.getBlobClient(blobName);
+        final BlobProperties properties = blob.getProperties();
+        final BlobRequestConditions conditions = new BlobRequestConditions().setIfMatch(properties.getETag());
+        try {
+            Files.createDirectories(file.getParent());
+            new RangedDownload(file, properties.getBlobSize(), properties.getETag(), properties.getContentMd5(), (offset, count, output) ->
+                blob.downloadStreamWithResponse(output, new BlobRange(offset, count), null, conditions, false, null, Context.NONE)).execute();
+            // align modified time with the blob, so that the file is considered unchanged by next sync.
+            Files.setLastModifiedTime(file, FileTime.from(properties.getLastModified().toInstant()));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteLocal(@Nonnull String relativePath) {
+        try {
+            Files.deleteIfExists(this.resolveLocal(relativePath));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Nonnull
+    private Path resolveLocal(@Nonnull String relativePath) {
+        final Path resolved = this.localDirectory.resolve(relativePath).normalize();
+        if (!resolved.startsWith(this.localDirectory.normalize())) { // blob names like "../x" must not escape the directory
+            throw new AzureToolkitRuntimeException(String.format("\"%s\" is outside of \"%s\"", relativePath, this.localDirectory));
+        }
+        return resolved;
+    }
+
+    @Nonnull
+    private static byte[] md5(@Nonnull Path file) {
+        try {
+            return RangedDownload.md5(file);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public enum Direction {
+        UPLOAD, DOWNLOAD
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Entry {
+        private final long size;
+        @Nullable
+        private final Instant lastModified;
+        @Nonnull
+        private final Supplier<byte[]> md5;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Report {
+        @Nonnull
+        private final Direction direction;
+        @Nonnull
+        private final List<String> transfers;
+        /**
+         * extra files/blobs in the target, always empty unless {@code deleteExtras} is set.
+         */
+        @Nonnull
+        private final List<String> deletions;
+        private final int unchanged;
+
+        @Override
+        public String toString() {
+            return String.format("%d file(s) to %s, %d extra file(s) to delete, %d file(s) unchanged.",
+                this.transfers.size(), this.direction.name().toLowerCase(), this.deletions.size(), this.unchanged);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.model;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * runs an operation (e.g. delete) on many blobs/files with bounded concurrency, and collects failures instead of
+ * stopping at the first one. {@link #execute(Collection)} can be called many times (e.g. page by page), and the result
+ * is reported once by {@link #complete()}.
+ */
+@Slf4j
+public class BulkOperation<T> {
+    private static final int MAX_REPORTED_FAILURES = 5;
+    @Nonnull
+    private final String action;
+    @Nonnull
+    private final Consumer<T> operation;
+    private final int concurrency;
+    private final AtomicLong succeeded = new AtomicLong();
+    @Getter
+    private final Map<T, Throwable> failures = new ConcurrentHashMap<>();
+
+    public BulkOperation(@Nonnull String action, @Nonnull Consumer<T> operation) {
+        this(action, operation, Azure.az().config().getStorageBulkOperationConcurrency());
+    }
+
+    public BulkOperation(@Nonnull String action, @Nonnull Consumer<T> operation, int concurrency) {
+        this.action = action;
+        this.operation = operation;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * run the operation on all {@code items} and block until all of them are done.
+     */
+    public void execute(@Nonnull Collection<T> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Flux.fromIterable(items)
+            .flatMap(item -> Mono.fromRunnable(() -> this.operation.accept(item))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnSuccess(v -> this.succeeded.incrementAndGet())
+                .onErrorResume(e -> {
+                    log.debug("failed to {} {}", this.action, item, e);
+                    this.failures.put(item, e);
+                    return Mono.empty();
+                }), this.concurrency)
+            .blockLast();
+        log.debug("{}: {} done, {} failed so far.", this.action, this.succeeded.get(), this.failures.size());
+    }
+
+    /**
+     * reports the result of all the executions and throws if any item failed.
+     */
+    public void complete() {
+        AzureMessager.getMessager().info(AzureString.format("%s: %s done, %s failed.", this.action, this.succeeded.get(), this.failures.size()));
+        this.throwIfFailed();
+    }
+
+    public long getSucceeded() {
+        return this.succeeded.get();
+    }
+
+    /**
+     * @throws AzureToolkitRuntimeException with (some of) the failed items if any item failed.
+     */
+    public void throwIfFailed() {
+        if (this.failures.isEmpty()) {
+            return;
+        }
+        final String examples = this.failures.keySet().stream().limit(MAX_REPORTED_FAILURES).map(String::valueOf).collect(Collectors.joining(", "));
+        final String message = String.format("failed to %s %d of %d item(s), e.g. %s", this.action, this.failures.size(),
+            this.failures.size() + this.succeeded.get(), examples);
+        throw new AzureToolkitRuntimeException(message, this.failures.values().iterator().next());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.model;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * downloads a blob/file by ranges concurrently into a pre-allocated temp file `{dest}.part`. completed ranges are
+ * recorded in the sidecar file `{dest}.part.ranges`, so that an interrupted download resumes from where it stopped
+ * as long as the source is not changed (identified by {@code version}, e.g. ETag). content MD5 is verified at the end
+ * if it's provided.
+ */
+@Slf4j
+public class RangedDownload {
+    @Nonnull
+    private final Path dest;
+    private final long size;
+    @Nullable
+    private final String version;
+    @Nullable
+    private final byte[] md5;
+    @Nonnull
+    private final RangeReader reader;
+    private final long rangeSize;
+    private final int concurrency;
+
+    public RangedDownload(@Nonnull Path dest, long size, @Nullable String version, @Nullable byte[] md5, @Nonnull RangeReader reader) {
+        this(dest, size, version, md5, reader, Azure.az().config().getStorageDownloadRangeSizeInMB() * 1024L * 1024L,
+            Azure.az().config().getStorageBulkOperationConcurrency());
+    }
+
+    public RangedDownload(@Nonnull Path dest, long size, @Nullable String version, @Nullable byte[] md5, @Nonnull RangeReader reader,
+                          long rangeSize, int concurrency) {
+        this.dest = dest.toAbsolutePath();
+        this.size = size;
+        this.version = version;
+        this.md5 = md5;
+        this.reader = reader;
+        this.rangeSize = Math.max(1, rangeSize);
+        this.concurrency = concurrency;
+    }
+
+    public void execute() {
+        final Path part = this.dest.resolveSibling(this.dest.getFileName() + ".part");
+        final Path sidecar = this.dest.resolveSibling(this.dest.getFileName() + ".part.ranges");
+        try {
+            final Set<Long> completed = this.loadCompletedRanges(part, sidecar);
+            final List<Long> pending = LongStream.range(0, (this.size + this.rangeSize - 1) / this.rangeSize)
+                .filter(i -> !completed.contains(i)).boxed().collect(Collectors.toList());
+            log.debug("download {}: {} range(s) completed, {} range(s) pending.", this.dest, completed.size(), pending.size());
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE);
+                 OutputStream ranges = Files.newOutputStream(sidecar, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                final BulkOperation<Long> download = new BulkOperation<>(String.format("download \"%s\"", this.dest.getFileName()),
+                    index -> this.downloadRange(index, channel, ranges), this.concurrency);
+                download.execute(pending);
+                download.complete();
+            }
+            this.verify(part, sidecar);
+            Files.move(part, this.dest, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(sidecar);
+        } catch (final IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to download \"%s\"", this.dest), e);
+        }
+    }
+
+    private void downloadRange(long index, @Nonnull FileChannel channel, @Nonnull OutputStream ranges) {
+        final long offset = index * this.rangeSize;
+        final long count = Math.min(this.rangeSize, this.size - offset);
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) count);
+        this.reader.read(offset, count, buffer);
+        if (buffer.size() != count) {
+            throw new AzureToolkitRuntimeException(String.format("expected %d bytes at offset %d, but got %d", count, offset, buffer.size()));
+        }
+        try {
+            final ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            long position = offset;
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+            channel.force(false);
+            synchronized (ranges) { // record the range only after its content is persisted.
+                ranges.write((index + "\n").getBytes(StandardCharsets.UTF_8));
+                ranges.flush();
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * reuse the completed ranges only if the temp file and the sidecar belong to the same version of the source,
+     * otherwise, start over.
+     */
+    @Nonnull
+    private Set<Long> loadCompletedRanges(@Nonnull Path part, @Nonnull Path sidecar) throws IOException {
+        final String header = String.format("%d %s %d", this.size, StringUtils.defaultString(this.version), this.rangeSize);
+        if (Files.isRegularFile(part) && Files.isRegularFile(sidecar) && Files.size(part) == this.size) {
+            final List<String> lines = Files.readAllLines(sidecar, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && Objects.equals(lines.get(0), header) && StringUtils.isNotBlank(this.version)) {
+                return lines.stream().skip(1).filter(StringUtils::isNumeric).map(Long::parseLong).collect(Collectors.toCollection(HashSet::new));
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(part.toFile(), "rw")) {
+            file.setLength(0);
+            file.setLength(this.size);
+        }
+        Files.write(sidecar, Collections.singletonList(header), StandardCharsets.UTF_8);
+        return new HashSet<>();
+    }
+
+    private void verify(@Nonnull Path part, @Nonnull Path sidecar) throws IOException {
+        if (Objects.isNull(this.md5) || this.md5.length == 0) {
+            return;
+        }
+        final byte[] actual = md5(part);
+        if (!Arrays.equals(actual, this.md5)) {
+            // the content is corrupted or the source is changed, so start over next time.
+            Files.deleteIfExists(part);
+            Files.deleteIfExists(sidecar);
+            throw new AzureToolkitRuntimeException(String.format("MD5 of the downloaded \"%s\" doesn't match the source, please try again.", this.dest));
+        }
+    }
+
+    @Nonnull
+    public static byte[] md5(@Nonnull Path file) throws IOException {
+        try (InputStream input = new DigestInputStream(Files.newInputStream(file), MessageDigest.getInstance("MD5"))) {
+            final byte[] buffer = new byte[64 * 1024];
+            //noinspection StatementWithEmptyBody
+            while (input.read(buffer) != -1) {
+            }
+            return ((DigestInputStream) input).getMessageDigest().digest();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RangeReader {
+        /**
+         * write {@code count} bytes starting at {@code offset} of the source into {@code output}.
+         */
+        void read(long offset, long count, @Nonnull OutputStream output);
+    }
+}
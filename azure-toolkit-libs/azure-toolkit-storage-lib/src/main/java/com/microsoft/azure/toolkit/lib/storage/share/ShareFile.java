@@ -5,12 +5,17 @@
 
 package com.microsoft.azure.toolkit.lib.storage.share;
 
+import com.azure.core.util.Context;
 import com.azure.storage.file.share.ShareDirectoryClient;
+import com.azure.storage.file.share.ShareFileClient;
 import com.azure.storage.file.share.models.ShareFileItem;
 import com.azure.storage.file.share.models.ShareFileItemProperties;
+import com.azure.storage.file.share.models.ShareFileProperties;
+import com.azure.storage.file.share.models.ShareFileRange;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractEmulatableAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
+import com.microsoft.azure.toolkit.lib.storage.model.RangedDownload;
 import lombok.Getter;
 
 import javax.annotation.Nonnull;
@@ -89,7 +94,10 @@ public class ShareFile extends AbstractEmulatableAzResource<ShareFile, IShareFil
     public void download(Path dest) {
         final ShareDirectoryClient parentClient = (ShareDirectoryClient) this.getParent().getClient();
         if (!this.isDirectory() && Objects.nonNull(parentClient) && this.exists()) {
-            parentClient.getFileClient(this.getName()).downloadToFile(dest.toAbsolutePath().toString());
+            final ShareFileClient client = parentClient.getFileClient(this.getName());
+            final ShareFileProperties properties = client.getProperties();
+            new RangedDownload(dest, properties.getContentLength(), properties.getETag(), properties.getContentMd5(), (offset, count, output) ->
+                client.downloadWithResponse(output, new ShareFileRange(offset, offset + count - 1), false, null, Context.NONE)).execute();
         }
     }
 
@@ -59,25 +59,13 @@ public class ShareFileModule extends AbstractEmulatableAzResourceModule<ShareFil
         final ShareFile shareFile = this.get(resourceId);
         if (shareFile != null && shareFile.exists()) {
             if (shareFile.isDirectory()) {
-                deleteDirectory((ShareDirectoryClient) Objects.requireNonNull(shareFile.getClient()));
+                ShareFiles.deleteDirectory((ShareDirectoryClient) Objects.requireNonNull(shareFile.getClient()));
             } else {
                 Objects.requireNonNull(this.getClient()).deleteFileIfExists(shareFile.getName());
             }
         }
     }
 
-    private void deleteDirectory(ShareDirectoryClient client) {
-        final PagedIterable<ShareFileItem> files = client.listFilesAndDirectories();
-        for (ShareFileItem file : files) {
-            if (file.isDirectory()) {
-                deleteDirectory(client.getSubdirectoryClient(file.getName()));
-            } else {
-                client.getFileClient(file.getName()).delete();
-            }
-        }
-        client.deleteIfExists();
-    }
-
     @Nonnull
     @Override
     protected AzResource.Draft<ShareFile, ShareFileItem> newDraftForCreate(@Nonnull String name, @Nullable String rgName) {
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.share;
+
+import com.azure.storage.file.share.ShareDirectoryClient;
+import com.azure.storage.file.share.ShareFileClient;
+import com.azure.storage.file.share.models.ShareFileItem;
+import com.microsoft.azure.toolkit.lib.storage.model.BulkOperation;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * operations on files and directories of a file share, which are used by {@link ShareFileModule}.
+ */
+final class ShareFiles {
+    private ShareFiles() {
+    }
+
+    /**
+     * post-order delete by levels: lists the tree level by level, deletes all files concurrently, and then deletes
+     * the directories concurrently from the deepest level up, since a directory can only be deleted once empty.
+     */
+    static void deleteDirectory(@Nonnull ShareDirectoryClient client) {
+        final String path = client.getDirectoryPath();
+        final List<List<ShareDirectoryClient>> levels = new ArrayList<>();
+        final List<ShareFileClient> files = Collections.synchronizedList(new ArrayList<>());
+        List<ShareDirectoryClient> level = Collections.singletonList(client);
+        while (!level.isEmpty()) {
+            levels.add(level);
+            final List<ShareDirectoryClient> next = Collections.synchronizedList(new ArrayList<>());
+            final BulkOperation<ShareDirectoryClient> list = new BulkOperation<>(String.format("list directories under \"%s\"", path), dir -> {
+                for (final ShareFileItem item : dir.listFilesAndDirectories()) {
+                    if (item.isDirectory()) {
+                        next.add(dir.getSubdirectoryClient(item.getName()));
+                    } else {
+                        files.add(dir.getFileClient(item.getName()));
+                    }
+                }
+            });
+            list.execute(level);
+            list.throwIfFailed();
+            level = next;
+        }
+        final BulkOperation<ShareFileClient> deleteFiles = new BulkOperation<>(String.format("delete files under \"%s\"", path), ShareFileClient::delete);
+        deleteFiles.execute(files);
+        deleteFiles.complete();
+        final BulkOperation<ShareDirectoryClient> deleteDirectories = new BulkOperation<>(String.format("delete directories under \"%s\"", path),
+            ShareDirectoryClient::deleteIfExists);
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            deleteDirectories.execute(levels.get(i));
+        }
+        deleteDirectories.complete();
+    }
+}
@@ -10,6 +10,7 @@ import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
 import com.azure.storage.file.share.ShareClient;
 import com.azure.storage.file.share.ShareServiceClient;
 import com.azure.storage.file.share.ShareServiceClientBuilder;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractEmulatableAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
@@ -41,7 +42,8 @@ public class ShareModule extends AbstractEmulatableAzResourceModule<Share, Stora
     synchronized ShareServiceClient getFileShareServiceClient() {
         if (Objects.isNull(this.client) && this.parent.exists()) {
             final String connectionString = this.parent.getConnectionString();
-            this.client = new ShareServiceClientBuilder().connectionString(connectionString).buildClient();
+            this.client = new ShareServiceClientBuilder().httpClient(AbstractAzServiceSubscription.getDefaultHttpClient())
+                .connectionString(connectionString).buildClient();
         }
         return this.client;
     }
@@ -10,6 +10,7 @@ import com.azure.data.tables.TableClient;
 import com.azure.data.tables.TableServiceClient;
 import com.azure.data.tables.TableServiceClientBuilder;
 import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractEmulatableAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
@@ -41,7 +42,8 @@ public class TableModule extends AbstractEmulatableAzResourceModule<Table, Stora
     synchronized TableServiceClient getTableServiceClient() {
         if (Objects.isNull(this.client) && this.parent.exists()) {
             final String connectionString = this.parent.getConnectionString();
-            this.client = new TableServiceClientBuilder().connectionString(connectionString).buildClient();
+            this.client = new TableServiceClientBuilder().httpClient(AbstractAzServiceSubscription.getDefaultHttpClient())
+                .connectionString(connectionString).buildClient();
         }
         return this.client;
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.blob;
+
+import com.azure.storage.blob.models.BlobItem;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+public class BlobFilesTest {
+
+    @Test
+    public void testLoadBlob() {
+        final FakeBlobContainer container = new FakeBlobContainer("dir/a.txt", "dir/b.txt", "dir/sub/c.txt");
+        final BlobItem item = BlobFiles.load(container.client, "dir", "a.txt");
+
+        Assert.assertNotNull(item);
+        Assert.assertEquals("dir/a.txt", item.getName());
+        Assert.assertFalse(item.isPrefix());
+        Assert.assertEquals(9L, item.getProperties().getContentLength().longValue());
+        // looked up by properties, siblings are not listed.
+        Assert.assertEquals(0, container.listings.get());
+    }
+
+    @Test
+    public void testLoadVirtualDirectory() {
+        final FakeBlobContainer container = new FakeBlobContainer("dir/a.txt", "dir/sub/c.txt", "dir/sub/d.txt");
+        final BlobItem item = BlobFiles.load(container.client, "dir/", "sub");
+
+        Assert.assertNotNull(item);
+        Assert.assertEquals("dir/sub/", item.getName());
+        Assert.assertTrue(item.isPrefix());
+        Assert.assertEquals(1, container.listings.get());
+    }
+
+    @Test
+    public void testBlobIsPreferredOverVirtualDirectory() {
+        final FakeBlobContainer container = new FakeBlobContainer("a", "a/b.txt");
+        final BlobItem item = BlobFiles.load(container.client, "", "a");
+
+        Assert.assertNotNull(item);
+        Assert.assertEquals("a", item.getName());
+        Assert.assertFalse(item.isPrefix());
+    }
+
+    @Test
+    public void testLoadMissing() {
+        final FakeBlobContainer container = new FakeBlobContainer("dir/a.txt", "dir/sub/c.txt");
+        Assert.assertNull(BlobFiles.load(container.client, "dir", "missing"));
+        Assert.assertNull(BlobFiles.load(container.client, "", "missing"));
+    }
+
+    @Test
+    public void testNameIsPrefixOfSibling() {
+        // neither blob "ab.txt" nor directory "ab/" is "a"
+        final FakeBlobContainer container = new FakeBlobContainer("dir/ab/c.txt", "dir/ab.txt");
+        Assert.assertNull(BlobFiles.load(container.client, "dir", "a"));
+        Assert.assertNotNull(BlobFiles.load(container.client, "dir", "ab"));
+    }
+
+    @Test
+    public void testAmbiguousNameFallsBackToChildren() {
+        final FakeBlobContainer container = new FakeBlobContainer("dir/a.txt");
+        Assert.assertNull(BlobFiles.load(container.client, "dir", "x/a.txt"));
+        Assert.assertEquals(1, container.listings.get());
+    }
+
+    @Test
+    public void testDeleteDirectoryByPages() {
+        final FakeBlobContainer container = new FakeBlobContainer("dir.txt", "other/keep.txt");
+        for (int i = 0; i < 600; i++) {
+            container.blobs.put(String.format("dir/%d/file%03d.txt", i % 3, i), new HashMap<>());
+        }
+        BlobFiles.deleteDirectory(container.client, "dir");
+
+        Assert.assertEquals(2, container.blobs.size());
+        Assert.assertEquals(600, container.deleted.stream().filter(n -> n.startsWith("dir/")).count());
+        // 600 blobs are listed in pages of 256
+        Assert.assertEquals(3, container.pages.get());
+    }
+
+    @Test
+    public void testDeleteChildrenBeforeParents() {
+        final FakeBlobContainer container = new FakeBlobContainer("dir/a.txt", "dir/x/b.txt", "dir/x/y/c.txt")
+            .folder("dir").folder("dir/x").folder("dir/x/y").folder("dir/z");
+        BlobFiles.deleteDirectory(container.client, "dir");
+
+        Assert.assertTrue(container.blobs.isEmpty());
+        final List<String> deleted = container.deleted;
+        for (final String name : deleted) {
+            final int index = deleted.indexOf(name);
+            // every blob under a directory is deleted before the directory.
+            Assert.assertTrue(deleted.stream().filter(n -> n.startsWith(name + "/")).allMatch(n -> deleted.indexOf(n) < index));
+        }
+        Assert.assertEquals("dir", deleted.get(deleted.size() - 1));
+    }
+
+    @Test
+    public void testDeleteDirectoryPartially() {
+        final FakeBlobContainer container = new FakeBlobContainer("dir/a.txt", "dir/b.txt", "dir/x/c.txt", "dir/x/d.txt").folder("dir/x");
+        container.failToDelete = "dir/x/c.txt"::equals;
+
+        final AzureToolkitRuntimeException e = Assert.assertThrows(AzureToolkitRuntimeException.class,
+            () -> BlobFiles.deleteDirectory(container.client, "dir"));
+        Assert.assertTrue(e.getMessage().contains("dir/x/c.txt"));
+        // other blobs are still deleted, but not the directories.
+        Assert.assertEquals(Arrays.asList("dir/x", "dir/x/c.txt"), new ArrayList<>(container.blobs.keySet()));
+    }
+}
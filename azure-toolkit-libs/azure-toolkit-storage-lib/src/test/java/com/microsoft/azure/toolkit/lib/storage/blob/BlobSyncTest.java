@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.blob;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BlobSyncTest {
+    private static final Instant T0 = Instant.parse("2023-01-01T00:00:00Z");
+    private static final Instant T1 = T0.plusSeconds(60);
+
+    @Test
+    public void testUploadOnlyDifferences() {
+        final Map<String, BlobSync.Entry> local = new HashMap<>();
+        local.put("new.txt", entry(3, T1, "new"));
+        local.put("resized.txt", entry(5, T1, "12345"));
+        local.put("same.txt", entry(4, T0, "same"));
+        local.put("touched.txt", entry(4, T1, "same"));
+        local.put("edited.txt", entry(4, T1, "edit"));
+        final Map<String, BlobSync.Entry> remote = new HashMap<>();
+        remote.put("resized.txt", entry(4, T1, "1234"));
+        remote.put("same.txt", entry(4, T1, "same"));
+        remote.put("touched.txt", entry(4, T0, "same"));
+        remote.put("edited.txt", entry(4, T0, "orig"));
+        remote.put("extra.txt", entry(1, T0, "x"));
+
+        final BlobSync.Report report = BlobSync.plan(local, remote, BlobSync.Direction.UPLOAD, false);
+
+        Assert.assertEquals(Arrays.asList("edited.txt", "new.txt", "resized.txt"), report.getTransfers());
+        Assert.assertEquals(2, report.getUnchanged());
+        Assert.assertTrue(report.getDeletions().isEmpty());
+    }
+
+    @Test
+    public void testDeleteExtrasOfTarget() {
+        final Map<String, BlobSync.Entry> local = new HashMap<>();
+        local.put("a/kept.txt", entry(1, T1, "k"));
+        local.put("a/extra.txt", entry(1, T1, "e"));
+        final Map<String, BlobSync.Entry> remote = new HashMap<>();
+        remote.put("a/kept.txt", entry(1, T0, "k"));
+
+        final BlobSync.Report report = BlobSync.plan(local, remote, BlobSync.Direction.DOWNLOAD, true);
+
+        Assert.assertTrue(report.getTransfers().isEmpty());
+        Assert.assertEquals(Collections.singletonList("a/extra.txt"), report.getDeletions());
+        Assert.assertEquals(1, report.getUnchanged());
+    }
+
+    @Test
+    public void testMd5IsOnlyComputedWhenNeeded() {
+        final AtomicInteger hashed = new AtomicInteger();
+        final Map<String, BlobSync.Entry> local = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            local.put("file" + i, new BlobSync.Entry(4, T0, () -> {
+                hashed.incrementAndGet();
+                return "same".getBytes(StandardCharsets.UTF_8);
+            }));
+        }
+        final Map<String, BlobSync.Entry> remote = new HashMap<>();
+        local.keySet().forEach(k -> remote.put(k, entry(4, T1, "same")));
+
+        final BlobSync.Report report = BlobSync.plan(local, remote, BlobSync.Direction.UPLOAD, true);
+
+        Assert.assertEquals(10, report.getUnchanged());
+        Assert.assertEquals(0, hashed.get());
+    }
+
+    @Test
+    public void testTransferIfMd5IsMissing() {
+        final Map<String, BlobSync.Entry> local = Collections.singletonMap("a.txt", entry(4, T1, "same"));
+        final Map<String, BlobSync.Entry> remote = Collections.singletonMap("a.txt", new BlobSync.Entry(4, T0, () -> null));
+
+        final BlobSync.Report report = BlobSync.plan(local, remote, BlobSync.Direction.UPLOAD, false);
+
+        Assert.assertEquals(Collections.singletonList("a.txt"), report.getTransfers());
+    }
+
+    private static BlobSync.Entry entry(long size, Instant lastModified, String content) {
+        final byte[] md5 = content.getBytes(StandardCharsets.UTF_8); // stands for the digest
+        return new BlobSync.Entry(size, lastModified, () -> md5);
+    }
+}
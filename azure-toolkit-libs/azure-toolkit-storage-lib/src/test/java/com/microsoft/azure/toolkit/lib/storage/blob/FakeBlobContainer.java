@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.blob;
+
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.rest.PagedFlux;
+import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.http.rest.PagedResponseBase;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import org.apache.commons.lang3.StringUtils;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * in-memory container behind a mocked {@link BlobContainerClient}, supporting property lookups, hierarchical and flat
+ * listing by pages, and deletion of blobs. directories of hierarchical namespace can only be deleted once empty.
+ */
+class FakeBlobContainer {
+    final Map<String, Map<String, String>> blobs = new ConcurrentSkipListMap<>();
+    final List<String> deleted = new CopyOnWriteArrayList<>();
+    final AtomicInteger listings = new AtomicInteger();
+    final AtomicInteger pages = new AtomicInteger();
+    Predicate<String> failToDelete = name -> false;
+    final BlobContainerClient client = Mockito.mock(BlobContainerClient.class);
+
+    FakeBlobContainer(String... names) {
+        for (final String name : names) {
+            this.blobs.put(name, new HashMap<>());
+        }
+        Mockito.when(this.client.getBlobClient(ArgumentMatchers.anyString())).then(i -> this.blob(i.getArgument(0)));
+        Mockito.when(this.client.listBlobsByHierarchy(ArgumentMatchers.anyString())).then(i -> {
+            final String path = i.getArgument(0);
+            return this.listByHierarchy(StringUtils.isEmpty(path) ? path : StringUtils.appendIfMissing(path, "/"), 1000);
+        });
+        Mockito.when(this.client.listBlobsByHierarchy(ArgumentMatchers.eq("/"), ArgumentMatchers.any(ListBlobsOptions.class), ArgumentMatchers.any()))
+            .then(i -> {
+                final ListBlobsOptions options = i.getArgument(1);
+                return this.listByHierarchy(options.getPrefix(), Optional.ofNullable(options.getMaxResultsPerPage()).orElse(1000));
+            });
+        Mockito.when(this.client.listBlobs(ArgumentMatchers.any(ListBlobsOptions.class), ArgumentMatchers.any())).then(i -> {
+            final ListBlobsOptions options = i.getArgument(0);
+            this.listings.incrementAndGet();
+            final List<BlobItem> items = new ArrayList<>();
+            this.blobs.forEach((name, metadata) -> {
+                if (name.startsWith(options.getPrefix())) {
+                    items.add(new BlobItem().setName(name).setIsPrefix(false).setMetadata(metadata));
+                }
+            });
+            return this.paged(items, Optional.ofNullable(options.getMaxResultsPerPage()).orElse(5000));
+        });
+    }
+
+    /**
+     * adds a directory of hierarchical namespace.
+     */
+    FakeBlobContainer folder(String name) {
+        this.blobs.put(name, Collections.singletonMap("hdi_isfolder", "true"));
+        return this;
+    }
+
+    private PagedIterable<BlobItem> listByHierarchy(String prefix, int pageSize) {
+        this.listings.incrementAndGet();
+        final Set<String> prefixes = new LinkedHashSet<>();
+        final List<BlobItem> items = new ArrayList<>();
+        for (final String name : this.blobs.keySet()) {
+            if (!name.startsWith(prefix)) {
+                continue;
+            }
+            final int slash = name.indexOf('/', prefix.length());
+            if (slash < 0) {
+                items.add(new BlobItem().setName(name).setIsPrefix(false));
+            } else if (prefixes.add(name.substring(0, slash + 1))) {
+                items.add(new BlobItem().setName(name.substring(0, slash + 1)).setIsPrefix(true));
+            }
+        }
+        return this.paged(items, pageSize);
+    }
+
+    private PagedIterable<BlobItem> paged(List<BlobItem> items, int pageSize) {
+        return new PagedIterable<>(new PagedFlux<>(() -> this.page(items, pageSize, 0), token -> this.page(items, pageSize, Integer.parseInt(token))));
+    }
+
+    private Mono<PagedResponse<BlobItem>> page(List<BlobItem> items, int pageSize, int from) {
+        this.pages.incrementAndGet();
+        final int to = Math.min(items.size(), from + pageSize);
+        final String next = to < items.size() ? String.valueOf(to) : null;
+        return Mono.just(new PagedResponseBase<Void, BlobItem>(null, 200, null, new ArrayList<>(items.subList(from, to)), next, null));
+    }
+
+    private BlobClient blob(String name) {
+        final BlobClient blob = Mockito.mock(BlobClient.class);
+        Mockito.when(blob.getBlobName()).thenReturn(name);
+        Mockito.when(blob.getProperties()).then(i -> {
+            if (!this.blobs.containsKey(name)) {
+                throw notFound();
+            }
+            final BlobProperties properties = Mockito.mock(BlobProperties.class);
+            Mockito.when(properties.getBlobSize()).thenReturn((long) name.length());
+            return properties;
+        });
+        Mockito.when(blob.deleteIfExists()).then(i -> {
+            if (this.failToDelete.test(name)) {
+                throw new IllegalStateException("failed to delete " + name);
+            }
+            if (this.isFolder(name) && this.blobs.keySet().stream().anyMatch(n -> n.startsWith(name + "/"))) {
+                throw new IllegalStateException("directory is not empty: " + name);
+            }
+            this.deleted.add(name);
+            return this.blobs.remove(name) != null;
+        });
+        return blob;
+    }
+
+    private boolean isFolder(String name) {
+        return Boolean.parseBoolean(this.blobs.getOrDefault(name, Collections.emptyMap()).get("hdi_isfolder"));
+    }
+
+    private static BlobStorageException notFound() {
+        final HttpResponse response = Mockito.mock(HttpResponse.class);
+        Mockito.when(response.getStatusCode()).thenReturn(404);
+        return new BlobStorageException("not found", response, null);
+    }
+}
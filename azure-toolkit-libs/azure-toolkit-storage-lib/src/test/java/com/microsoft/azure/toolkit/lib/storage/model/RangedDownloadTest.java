@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.model;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class RangedDownloadTest {
+    private static final int RANGE_SIZE = 1024;
+    private Path directory;
+    private Path dest;
+    private byte[] content;
+    private byte[] md5;
+
+    @Before
+    public void setUp() throws IOException, NoSuchAlgorithmException {
+        this.directory = Files.createTempDirectory("download");
+        this.dest = this.directory.resolve("blob.bin");
+        this.content = new byte[RANGE_SIZE * 20 + 123];
+        new Random(0).nextBytes(this.content);
+        this.md5 = MessageDigest.getInstance("MD5").digest(this.content);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testDownloadByRanges() throws IOException {
+        final FakeSource source = new FakeSource();
+        new RangedDownload(this.dest, this.content.length, "v1", this.md5, source, RANGE_SIZE, 4).execute();
+
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(this.dest));
+        Assert.assertEquals(21, source.reads.get());
+        Assert.assertFalse(Files.exists(this.directory.resolve("blob.bin.part")));
+        Assert.assertFalse(Files.exists(this.directory.resolve("blob.bin.part.ranges")));
+    }
+
+    @Test
+    public void testResumeInterruptedDownload() throws IOException {
+        final FakeSource flaky = new FakeSource();
+        flaky.failing.add(3L * RANGE_SIZE);
+        flaky.failing.add(17L * RANGE_SIZE);
+        try {
+            new RangedDownload(this.dest, this.content.length, "v1", this.md5, flaky, RANGE_SIZE, 4).execute();
+            Assert.fail("download should fail if any range fails");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertFalse(Files.exists(this.dest));
+        }
+
+        // only the failed ranges are fetched again.
+        final FakeSource source = new FakeSource();
+        new RangedDownload(this.dest, this.content.length, "v1", this.md5, source, RANGE_SIZE, 4).execute();
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(this.dest));
+        Assert.assertEquals(2, source.reads.get());
+    }
+
+    @Test
+    public void testStartOverIfSourceChanged() throws IOException {
+        final FakeSource flaky = new FakeSource();
+        flaky.failing.add(0L);
+        try {
+            new RangedDownload(this.dest, this.content.length, "v1", this.md5, flaky, RANGE_SIZE, 4).execute();
+            Assert.fail("download should fail if any range fails");
+        } catch (final AzureToolkitRuntimeException ignored) {
+        }
+
+        final FakeSource source = new FakeSource();
+        new RangedDownload(this.dest, this.content.length, "v2", this.md5, source, RANGE_SIZE, 4).execute();
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(this.dest));
+        Assert.assertEquals(21, source.reads.get());
+    }
+
+    @Test
+    public void testCorruptedContentIsRejected() {
+        final FakeSource corrupted = new FakeSource();
+        corrupted.corrupted = true;
+        try {
+            new RangedDownload(this.dest, this.content.length, "v1", this.md5, corrupted, RANGE_SIZE, 4).execute();
+            Assert.fail("download should fail if MD5 doesn't match");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertFalse(Files.exists(this.dest));
+            Assert.assertFalse(Files.exists(this.directory.resolve("blob.bin.part.ranges")));
+        }
+    }
+
+    private class FakeSource implements RangedDownload.RangeReader {
+        private final AtomicInteger reads = new AtomicInteger();
+        private final Set<Long> failing = ConcurrentHashMap.newKeySet();
+        private volatile boolean corrupted = false;
+
+        @Override
+        public void read(long offset, long count, @Nonnull OutputStream output) {
+            this.reads.incrementAndGet();
+            try {
+                // simulate a broken connection in the middle of the range.
+                final int length = this.failing.contains(offset) ? (int) count / 2 : (int) count;
+                final byte[] bytes = new byte[length];
+                System.arraycopy(content, (int) offset, bytes, 0, length);
+                if (this.corrupted && offset == 0) {
+                    bytes[0] ^= 1;
+                }
+                output.write(bytes);
+                if (length < count) {
+                    throw new UncheckedIOException(new IOException("connection reset"));
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.share;
+
+import com.azure.core.http.rest.PagedFlux;
+import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.http.rest.PagedResponseBase;
+import com.azure.storage.file.share.ShareDirectoryClient;
+import com.azure.storage.file.share.ShareFileClient;
+import com.azure.storage.file.share.models.ShareFileItem;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * in-memory file share behind mocked {@link ShareDirectoryClient}s and {@link ShareFileClient}s, directories are
+ * listed by pages of {@link #PAGE_SIZE} and can only be deleted once empty.
+ */
+class FakeShare {
+    static final int PAGE_SIZE = 100;
+    // path -> is directory
+    final Map<String, Boolean> items = new ConcurrentSkipListMap<>();
+    final List<String> deleted = new CopyOnWriteArrayList<>();
+    final AtomicInteger pages = new AtomicInteger();
+    Predicate<String> failToDelete = path -> false;
+
+    FakeShare file(String path) {
+        this.items.put(path, false);
+        return this;
+    }
+
+    FakeShare directory(String path) {
+        this.items.put(path, true);
+        return this;
+    }
+
+    ShareDirectoryClient directoryClient(String path) {
+        final ShareDirectoryClient client = Mockito.mock(ShareDirectoryClient.class);
+        Mockito.when(client.getDirectoryPath()).thenReturn(path);
+        Mockito.when(client.getSubdirectoryClient(ArgumentMatchers.anyString())).then(i -> this.directoryClient(path + "/" + i.getArgument(0)));
+        Mockito.when(client.getFileClient(ArgumentMatchers.anyString())).then(i -> this.fileClient(path + "/" + i.getArgument(0)));
+        Mockito.when(client.listFilesAndDirectories()).then(i -> {
+            final List<ShareFileItem> children = new ArrayList<>();
+            this.items.forEach((p, directory) -> {
+                if (p.startsWith(path + "/") && p.indexOf('/', path.length() + 1) < 0) {
+                    children.add(new ShareFileItem(p.substring(path.length() + 1), directory, directory ? null : 1L));
+                }
+            });
+            return new PagedIterable<>(new PagedFlux<>(() -> this.page(children, 0), token -> this.page(children, Integer.parseInt(token))));
+        });
+        Mockito.when(client.deleteIfExists()).then(i -> {
+            if (this.items.keySet().stream().anyMatch(p -> p.startsWith(path + "/"))) {
+                throw new IllegalStateException("directory is not empty: " + path);
+            }
+            return this.delete(path);
+        });
+        return client;
+    }
+
+    private ShareFileClient fileClient(String path) {
+        final ShareFileClient client = Mockito.mock(ShareFileClient.class);
+        Mockito.doAnswer(i -> this.delete(path)).when(client).delete();
+        return client;
+    }
+
+    private boolean delete(String path) {
+        if (this.failToDelete.test(path)) {
+            throw new IllegalStateException("failed to delete " + path);
+        }
+        this.deleted.add(path);
+        return this.items.remove(path) != null;
+    }
+
+    private Mono<PagedResponse<ShareFileItem>> page(List<ShareFileItem> items, int from) {
+        this.pages.incrementAndGet();
+        final int to = Math.min(items.size(), from + PAGE_SIZE);
+        final String next = to < items.size() ? String.valueOf(to) : null;
+        return Mono.just(new PagedResponseBase<Void, ShareFileItem>(null, 200, null, new ArrayList<>(items.subList(from, to)), next, null));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.share;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ShareFilesTest {
+
+    @Test
+    public void testDeleteChildrenBeforeParents() {
+        final FakeShare share = new FakeShare().directory("dir").file("dir/a.txt").directory("dir/x").file("dir/x/b.txt")
+            .directory("dir/x/y").file("dir/x/y/c.txt").directory("dir/z").file("other.txt");
+        ShareFiles.deleteDirectory(share.directoryClient("dir"));
+
+        Assert.assertEquals(Collections.singletonList("other.txt"), new ArrayList<>(share.items.keySet()));
+        final List<String> deleted = share.deleted;
+        for (final String path : deleted) {
+            final int index = deleted.indexOf(path);
+            // every file and directory under a directory is deleted before the directory.
+            Assert.assertTrue(deleted.stream().filter(p -> p.startsWith(path + "/")).allMatch(p -> deleted.indexOf(p) < index));
+        }
+        Assert.assertEquals("dir", deleted.get(deleted.size() - 1));
+    }
+
+    @Test
+    public void testDeleteDirectoryByPages() {
+        final FakeShare share = new FakeShare().directory("dir").directory("dir/sub");
+        for (int i = 0; i < 300; i++) {
+            share.file(String.format("dir/sub/file%03d.txt", i));
+        }
+        ShareFiles.deleteDirectory(share.directoryClient("dir"));
+
+        Assert.assertTrue(share.items.isEmpty());
+        Assert.assertEquals(302, share.deleted.size());
+        // "dir" in 1 page, "dir/sub" in 3 pages
+        Assert.assertEquals(4, share.pages.get());
+    }
+
+    @Test
+    public void testDeleteDirectoryPartially() {
+        final FakeShare share = new FakeShare().directory("dir").file("dir/a.txt").directory("dir/x").file("dir/x/b.txt").file("dir/x/c.txt");
+        share.failToDelete = "dir/x/b.txt"::equals;
+
+        final AzureToolkitRuntimeException e = Assert.assertThrows(AzureToolkitRuntimeException.class,
+            () -> ShareFiles.deleteDirectory(share.directoryClient("dir")));
+        Assert.assertEquals("failed to delete dir/x/b.txt", e.getCause().getMessage());
+        // other files are still deleted, but not the directories.
+        Assert.assertEquals(Arrays.asList("dir", "dir/x", "dir/x/b.txt"), new ArrayList<>(share.items.keySet()));
+    }
+}